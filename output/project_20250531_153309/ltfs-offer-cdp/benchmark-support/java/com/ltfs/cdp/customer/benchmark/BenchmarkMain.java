@@ -0,0 +1,93 @@
+package com.ltfs.cdp.customer.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar} in both customer services. Accepts the usual JMH command line, and
+ * always adds the GC profiler (allocation rate per operation) and a JSON result file, so runs can be compared
+ * across releases.
+ *
+ * <p>A fork's heap cannot depend on a {@code @Param}, so unless {@code -jvmArgs} is given, the benchmarks run
+ * once per {@code liveBookSize} with a heap sized for that live book ({@link #heapGigabytes(int)}), and each
+ * size writes its own result file, e.g. {@code target/jmh-result-liveBookSize-10000.json}. To run with a fixed
+ * heap instead, e.g. on a small CI host: {@code java -jar target/benchmarks.jar -jvmArgs "-Xms2g -Xmx2g"
+ * -p liveBookSize=10000}.</p>
+ */
+public final class BenchmarkMain {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    /**
+     * The {@code liveBookSize} values of the benchmarks, run when the command line does not choose any.
+     */
+    private static final List<String> DEFAULT_LIVE_BOOK_SIZES = Arrays.asList("10000", "1000000", "10000000");
+
+    /**
+     * Estimated retained heap per live book customer: the customer, its identifiers and the identity indexes.
+     */
+    private static final double BYTES_PER_CUSTOMER = 1_200;
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.getJvmArgs().hasValue()) {
+            run(commandLine, null);
+            return;
+        }
+        Collection<String> liveBookSizes = commandLine.getParameter("liveBookSize").hasValue()
+                ? commandLine.getParameter("liveBookSize").get()
+                : DEFAULT_LIVE_BOOK_SIZES;
+        for (String liveBookSize : liveBookSizes) {
+            run(commandLine, liveBookSize);
+        }
+    }
+
+    /**
+     * Runs the selected benchmarks, restricted to one live book size with a matching heap if {@code liveBookSize}
+     * is given.
+     */
+    private static void run(CommandLineOptions commandLine, String liveBookSize) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine).addProfiler(GCProfiler.class);
+        String resultFile = commandLine.getResult().hasValue() ? commandLine.getResult().get() : DEFAULT_RESULT_FILE;
+        if (liveBookSize != null) {
+            int heap = heapGigabytes(Integer.parseInt(liveBookSize));
+            options.param("liveBookSize", liveBookSize)
+                    .jvmArgs("-Xms" + heap + "g", "-Xmx" + heap + "g")
+                    .result(withSuffix(resultFile, "-liveBookSize-" + liveBookSize));
+        } else if (!commandLine.getResult().hasValue()) {
+            options.result(resultFile);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * Heap for a fork over a live book of the given size: the live book plus 15% for the indexes' growth slack,
+     * rounded up, and one more gigabyte for the pre-generated batches and G1's headroom. 2 GB for 10k and 3 GB for
+     * 1M customers; 14 GB for 10M customers, whose live book alone retains about 12 GB.
+     */
+    static int heapGigabytes(int liveBookSize) {
+        double liveBookGigabytes = liveBookSize * BYTES_PER_CUSTOMER * 1.15 / (1L << 30);
+        return Math.max(1, (int) Math.ceil(liveBookGigabytes)) + 1;
+    }
+
+    private static String withSuffix(String file, String suffix) {
+        int extension = file.lastIndexOf('.');
+        return extension > file.lastIndexOf('/') ? file.substring(0, extension) + suffix + file.substring(extension) : file + suffix;
+    }
+}
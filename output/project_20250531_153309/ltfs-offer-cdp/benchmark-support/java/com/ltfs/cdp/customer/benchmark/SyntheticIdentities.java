@@ -0,0 +1,37 @@
+package com.ltfs.cdp.customer.benchmark;
+
+/**
+ * Identifier formats for synthetic customers. Each value is derived from a customer index, so it is
+ * unique per index and valid in format (PAN {@code AAAPA9999A}, 12-digit Aadhaar not starting with
+ * 0 or 1, 10-digit mobile starting with 6-9).
+ */
+final class SyntheticIdentities {
+
+    private SyntheticIdentities() {
+    }
+
+    static String pan(int index) {
+        char[] pan = new char[10];
+        int high = index / 10_000;
+        pan[0] = (char) ('A' + high / (26 * 26 * 26) % 26);
+        pan[1] = (char) ('A' + high / (26 * 26) % 26);
+        pan[2] = (char) ('A' + high / 26 % 26);
+        pan[3] = 'P'; // Individual
+        pan[4] = (char) ('A' + high % 26);
+        int low = index % 10_000;
+        pan[5] = (char) ('0' + low / 1000);
+        pan[6] = (char) ('0' + low / 100 % 10);
+        pan[7] = (char) ('0' + low / 10 % 10);
+        pan[8] = (char) ('0' + low % 10);
+        pan[9] = (char) ('A' + index % 26);
+        return new String(pan);
+    }
+
+    static String aadhaar(int index) {
+        return (2 + index % 8) + String.format("%011d", index);
+    }
+
+    static String mobile(int index) {
+        return (6 + index % 4) + String.format("%09d", index);
+    }
+}
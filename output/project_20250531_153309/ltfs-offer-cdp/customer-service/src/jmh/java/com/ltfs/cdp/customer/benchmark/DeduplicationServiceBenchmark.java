@@ -0,0 +1,174 @@
+package com.ltfs.cdp.customer.benchmark;
+
+import com.ltfs.cdp.customer.service.DeduplicationService;
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import com.ltfs.cdp.customer.service.DeduplicationService.ExecutionMode;
+import com.ltfs.cdp.customer.service.LiveBookBloomFilters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DeduplicationService#deduplicateCustomers(List)} (bulk live book matching behind
+ * the Bloom filters) over synthetic Customer 360s of 10k, 1M and 10M customers. The repository is
+ * in memory, so the numbers exclude database time and expose the cost of the service itself.
+ *
+ * <ul>
+ *     <li>{@link #batchThroughput} reports records per second for batches of {@value #BATCH_SIZE},
+ *         sequentially and partitioned.</li>
+ *     <li>{@link #singleRecordLatency} samples the time to deduplicate one record; JMH reports
+ *         p50/p90/p99/p99.9 of the distribution.</li>
+ * </ul>
+ *
+ * <p>Run through {@link BenchmarkMain} so the GC profiler reports allocation per record
+ * ({@code gc.alloc.rate.norm}) and each {@code liveBookSize} is forked with a heap sized for it: 2 GB for
+ * 10k, 3 GB for 1M and 14 GB for 10M customers, whose live book alone retains about 12 GB. Pass
+ * {@code -jvmArgs "-Xms<n>g -Xmx<n>g"} to use one fixed heap for every size instead.</p>
+ */
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseG1GC")
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class DeduplicationServiceBenchmark {
+
+    static final int BATCH_SIZE = 10_000;
+    private static final int BATCH_COUNT = 8;
+    private static final int SINGLE_RECORD_COUNT = 100_000;
+
+    /**
+     * The live book and its Bloom filters, shared by all benchmarks of one parameter combination.
+     */
+    @State(Scope.Benchmark)
+    public static class LiveBook {
+        @Param({"10000", "1000000", "10000000"})
+        int liveBookSize;
+
+        @Param({"0.01", "0.1", "0.3"})
+        double duplicateRate;
+
+        SyntheticCustomer360 customer360;
+        LiveBookBloomFilters bloomFilters;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            customer360 = new SyntheticCustomer360(liveBookSize, 42);
+            bloomFilters = new LiveBookBloomFilters(customer360, new NoOpTransactionManager(), new SimpleMeterRegistry(),
+                    true, liveBookSize, 0.01, Duration.ofHours(6), Duration.ofMinutes(1), Duration.ZERO,
+                    // No maintenance runs here, so keep the filters from going stale during the trial.
+                    Duration.ofDays(1));
+            bloomFilters.rebuild();
+        }
+    }
+
+    /**
+     * Pre-generated batches, deduplicated round robin.
+     */
+    @State(Scope.Benchmark)
+    public static class Batches {
+        @Param({"SEQUENTIAL", "PARALLEL"})
+        ExecutionMode executionMode;
+
+        DeduplicationService service;
+        List<List<Customer>> batches;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(LiveBook liveBook) throws ReflectiveOperationException {
+            service = service(liveBook, executionMode);
+            batches = new ArrayList<>(BATCH_COUNT);
+            for (int i = 0; i < BATCH_COUNT; i++) {
+                batches.add(liveBook.customer360.batch(BATCH_SIZE, liveBook.duplicateRate,
+                        liveBook.liveBookSize + i * BATCH_SIZE, 1000 + i));
+            }
+        }
+    }
+
+    /**
+     * Pre-generated single records, deduplicated one at a time.
+     */
+    @State(Scope.Thread)
+    public static class SingleRecords {
+        DeduplicationService service;
+        List<Customer> records;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(LiveBook liveBook) throws ReflectiveOperationException {
+            service = service(liveBook, ExecutionMode.SEQUENTIAL);
+            records = liveBook.customer360.batch(SINGLE_RECORD_COUNT, liveBook.duplicateRate,
+                    liveBook.liveBookSize + BATCH_COUNT * BATCH_SIZE, 7);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Customer> batchThroughput(Batches state) {
+        List<Customer> batch = state.batches.get(state.next++ % BATCH_COUNT);
+        return state.service.deduplicateCustomers(batch);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Customer> singleRecordLatency(SingleRecords state) {
+        Customer record = state.records.get(state.next++ % SINGLE_RECORD_COUNT);
+        return state.service.deduplicateCustomers(Collections.singletonList(record));
+    }
+
+    /**
+     * Creates a service outside Spring; the execution settings are {@code @Value} fields, so they are set reflectively.
+     */
+    private static DeduplicationService service(LiveBook liveBook, ExecutionMode executionMode) throws ReflectiveOperationException {
+        DeduplicationService service = new DeduplicationService(liveBook.customer360, liveBook.bloomFilters);
+        setField(service, "executionMode", executionMode);
+        setField(service, "minParallelBatchSize", 0);
+        return service;
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * The synthetic Customer 360 is in memory, so the read-only passes over it need no real transaction.
+     */
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
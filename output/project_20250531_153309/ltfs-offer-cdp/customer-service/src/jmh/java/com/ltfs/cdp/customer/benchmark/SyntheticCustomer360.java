@@ -0,0 +1,182 @@
+package com.ltfs.cdp.customer.benchmark;
+
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import com.ltfs.cdp.customer.service.DeduplicationService.CustomerRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic synthetic Customer 360 for the deduplication benchmarks, indexed in memory the way
+ * the database indexes the identity columns, so that repository calls cost a hash lookup rather
+ * than a network round trip and the benchmark isolates the deduplication logic.
+ *
+ * <p>Customer {@code i} gets a PAN, Aadhaar and mobile number derived from {@code i}, so identifiers
+ * are unique across the live book and across fresh batch records (which use indexes past the live
+ * book). Names and dates of birth are drawn from fixed pools. The live book never changes once
+ * generated, so nothing is ever updated after a Bloom filter watermark.</p>
+ */
+final class SyntheticCustomer360 implements CustomerRepository {
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh", "Ayaan", "Krishna", "Ishaan",
+            "Rahul", "Amit", "Suresh", "Ramesh", "Mohammed", "Imran", "Rajesh", "Sanjay", "Vijay", "Anil",
+            "Aadhya", "Ananya", "Diya", "Saanvi", "Pari", "Lakshmi", "Priya", "Kavya", "Meera", "Sunita"};
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Verma", "Gupta", "Singh", "Kumar", "Patel", "Shah", "Mehta", "Iyer", "Nair",
+            "Reddy", "Rao", "Naidu", "Pillai", "Menon", "Das", "Bose", "Joshi", "Khan", "Yadav"};
+    private static final int DOB_RANGE_DAYS = 45 * 365;
+    private static final LocalDate EARLIEST_DOB = LocalDate.of(1955, 1, 1);
+
+    private final List<Customer> customers;
+    private final Map<String, Customer> byPan;
+    private final Map<String, Customer> byMobile;
+    private final Map<String, Customer> byAadhaar;
+    private final Map<String, Map<String, List<Customer>>> byDateOfBirthAndLastName = new HashMap<>();
+
+    /**
+     * Generates a live book of {@code size} customers.
+     */
+    SyntheticCustomer360(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Customer> generated = new ArrayList<>(size);
+        byPan = new HashMap<>((int) (size / 0.75f) + 1);
+        byMobile = new HashMap<>((int) (size / 0.75f) + 1);
+        byAadhaar = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) {
+            Customer customer = customer("L" + i, i, random);
+            generated.add(customer);
+            byPan.put(customer.getPanNumber(), customer);
+            byMobile.put(customer.getMobileNumber(), customer);
+            byAadhaar.put(customer.getAadhaarNumber(), customer);
+            byDateOfBirthAndLastName.computeIfAbsent(customer.getDateOfBirth(), dob -> new HashMap<>())
+                    .computeIfAbsent(customer.getLastName(), lastName -> new ArrayList<>()).add(customer);
+        }
+        this.customers = Collections.unmodifiableList(generated);
+    }
+
+    /**
+     * Generates an incoming batch. A fraction {@code duplicateRate} of its records are duplicates:
+     * half of them re-use the identity of a live book customer, half the identity of an earlier record
+     * of the same batch. All others are fresh identities.
+     *
+     * @param batchSize       Number of records.
+     * @param duplicateRate   Fraction of duplicate records, between 0 and 1.
+     * @param firstFreshIndex Identity index of the first fresh record; must be past the live book.
+     */
+    List<Customer> batch(int batchSize, double duplicateRate, int firstFreshIndex, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Customer> batch = new ArrayList<>(batchSize);
+        int freshIndex = firstFreshIndex;
+        for (int i = 0; i < batchSize; i++) {
+            Customer record;
+            if (random.nextDouble() < duplicateRate && (!customers.isEmpty() || !batch.isEmpty())) {
+                boolean ofLiveBook = batch.isEmpty() || (!customers.isEmpty() && random.nextBoolean());
+                Customer original = ofLiveBook
+                        ? customers.get(random.nextInt(customers.size()))
+                        : batch.get(random.nextInt(batch.size()));
+                record = new Customer("B" + seed + "-" + i, original.getMobileNumber(), original.getPanNumber(),
+                        original.getAadhaarNumber(), null, original.getFirstName(), original.getLastName(), original.getDateOfBirth());
+            } else {
+                record = customer("B" + seed + "-" + i, freshIndex++, random);
+            }
+            batch.add(record);
+        }
+        return batch;
+    }
+
+    private static Customer customer(String id, int index, SplittableRandom random) {
+        return new Customer(id, SyntheticIdentities.mobile(index), SyntheticIdentities.pan(index), SyntheticIdentities.aadhaar(index),
+                null, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                EARLIEST_DOB.plusDays(random.nextInt(DOB_RANGE_DAYS)).toString());
+    }
+
+    @Override
+    public Optional<Customer> findByPanNumber(String panNumber) {
+        return Optional.ofNullable(byPan.get(panNumber));
+    }
+
+    @Override
+    public Optional<Customer> findByMobileNumber(String mobileNumber) {
+        return Optional.ofNullable(byMobile.get(mobileNumber));
+    }
+
+    @Override
+    public Optional<Customer> findByAadhaarNumber(String aadhaarNumber) {
+        return Optional.ofNullable(byAadhaar.get(aadhaarNumber));
+    }
+
+    @Override
+    public List<Customer> findByFirstNameAndLastNameAndDateOfBirth(String firstName, String lastName, String dateOfBirth) {
+        List<Customer> matches = new ArrayList<>();
+        for (Customer customer : byDateOfBirthAndLastName.getOrDefault(dateOfBirth, Collections.emptyMap())
+                .getOrDefault(lastName, Collections.emptyList())) {
+            if (firstName.equals(customer.getFirstName())) {
+                matches.add(customer);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public List<Customer> findByPanNumberIn(Collection<String> panNumbers) {
+        return lookUp(byPan, panNumbers);
+    }
+
+    @Override
+    public List<Customer> findByMobileNumberIn(Collection<String> mobileNumbers) {
+        return lookUp(byMobile, mobileNumbers);
+    }
+
+    @Override
+    public List<Customer> findByAadhaarNumberIn(Collection<String> aadhaarNumbers) {
+        return lookUp(byAadhaar, aadhaarNumbers);
+    }
+
+    @Override
+    public List<Customer> findByLastNameInAndDateOfBirthIn(Collection<String> lastNames, Collection<String> datesOfBirth) {
+        List<Customer> matches = new ArrayList<>();
+        for (String dateOfBirth : datesOfBirth) {
+            for (Map.Entry<String, List<Customer>> byLastName
+                    : byDateOfBirthAndLastName.getOrDefault(dateOfBirth, Collections.emptyMap()).entrySet()) {
+                if (lastNames.contains(byLastName.getKey())) {
+                    matches.addAll(byLastName.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public Stream<Customer> streamAll() {
+        return customers.stream();
+    }
+
+    @Override
+    public Stream<Customer> streamByUpdatedAtAfter(LocalDateTime updatedAt) {
+        return Stream.empty();
+    }
+
+
+
+
+    private static List<Customer> lookUp(Map<String, Customer> index, Collection<String> keys) {
+        List<Customer> matches = new ArrayList<>();
+        for (String key : keys) {
+            Customer customer = index.get(key);
+            if (customer != null) {
+                matches.add(customer);
+            }
+        }
+        return matches;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ltfs.cdp.customer.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import com.ltfs.cdp.customer.dto.CustomerDTO;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,8 +10,10 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
@@ -29,17 +32,26 @@ import java.util.Map;
  * - Group ID for consumer groups.
  * - Key and value deserializers (String for key, JSON for value).
  * - Error handling for robust message processing.
+ * - Batch consumption of the validated customer topic for {@code ValidatedCustomerBatchListener}:
+ *   up to {@code max-poll-records} records per poll, offsets committed per batch, and a record-level
+ *   factory for the retry topics its failed records are forwarded to.
  */
 @Configuration
 @EnableKafka // Enables detection of @KafkaListener annotations throughout the application
 public class KafkaConsumerConfig {
 
+    public static final String VALIDATED_CUSTOMER_BATCH_CONTAINER_FACTORY = "validatedCustomerBatchContainerFactory";
+    public static final String VALIDATED_CUSTOMER_RETRY_CONTAINER_FACTORY = "validatedCustomerRetryContainerFactory";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${app.kafka.validated-customer-batch.max-poll-records:500}")
+    private int validatedCustomerMaxPollRecords;
+
     /**
      * Configures the Kafka ConsumerFactory.
      * This factory is responsible for creating Kafka Consumer instances.
@@ -99,4 +111,58 @@ public class KafkaConsumerConfig {
 
         return factory;
     }
+
+    /**
+     * Creates the batch listener container factory used by {@code ValidatedCustomerBatchListener}.
+     * Each poll returns up to {@code app.kafka.validated-customer-batch.max-poll-records} records,
+     * delivered to the listener as one list; their offsets are committed together once it returns.
+     *
+     * The listener forwards records it cannot ingest to the retry topic itself, so it fails only if
+     * that forwarding fails (Kafka unreachable). The batch is then redelivered every 5 seconds until
+     * it succeeds rather than being given up, which would lose its records.
+     *
+     * @return A factory of batch listener containers for the validated customer topic.
+     */
+    @Bean(name = VALIDATED_CUSTOMER_BATCH_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, CustomerDTO> validatedCustomerBatchContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CustomerDTO> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(validatedCustomerConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(5000L, FixedBackOff.UNLIMITED_ATTEMPTS)));
+        return factory;
+    }
+
+    /**
+     * Creates the record listener container factory for the retry topics of the validated customer
+     * topic. Error handling is configured by Spring Kafka's retry topic support, which forwards a
+     * failed record to the next retry topic instead of blocking its partition.
+     *
+     * @return A factory of record listener containers for the retry topics.
+     */
+    @Bean(name = VALIDATED_CUSTOMER_RETRY_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, CustomerDTO> validatedCustomerRetryContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CustomerDTO> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(validatedCustomerConsumerFactory());
+        return factory;
+    }
+
+    /**
+     * Consumer factory for validated customer records: JSON values bound to {@link CustomerDTO}
+     * regardless of type headers, and offsets committed by the container. A value that cannot be
+     * deserialized is delivered as null (with the error in the record headers) instead of failing the poll.
+     */
+    private ConsumerFactory<String, CustomerDTO> validatedCustomerConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, validatedCustomerMaxPollRecords);
+
+        JsonDeserializer<CustomerDTO> valueDeserializer = new JsonDeserializer<>(CustomerDTO.class, false);
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+    }
 }
\ No newline at end of file
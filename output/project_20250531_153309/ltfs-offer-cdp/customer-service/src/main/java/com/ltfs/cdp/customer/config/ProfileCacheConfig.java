@@ -0,0 +1,56 @@
+package com.ltfs.cdp.customer.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ProfileCacheConfig
+ *
+ * Configures the consumption of the profile cache invalidation topic. Unlike the other listeners,
+ * which share the {@code customer-service-group} so each record is handled once, every replica must
+ * see every invalidation. Key configurations include:
+ * - A consumer group per instance, named after the service and a random suffix. The group has no
+ *   use after the instance stops; Kafka drops its committed offsets after the offsets retention.
+ * - Starting at the latest offset: invalidations older than the instance concern profiles its
+ *   empty cache does not hold.
+ * - String deserialization; only the record key (the CDP customer ID) is used.
+ */
+@Configuration
+public class ProfileCacheConfig {
+
+    public static final String INVALIDATION_CONTAINER_FACTORY = "profileCacheInvalidationContainerFactory";
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    /**
+     * Creates the listener container factory used by {@code ProfileCacheInvalidationListener}.
+     *
+     * @return A factory of containers that consume with this instance's own consumer group.
+     */
+    @Bean(name = INVALIDATION_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> profileCacheInvalidationContainerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-profile-cache-" + UUID.randomUUID());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        return factory;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ltfs.cdp.customer.config;
+
+import com.ltfs.cdp.customer.service.DeduplicationLogWriter;
+import com.ltfs.cdp.customer.service.DeduplicationService;
+import com.ltfs.cdp.customer.stream.DeduplicationDecision;
+import com.ltfs.cdp.customer.stream.StreamingDeduplicationTopology;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StreamingDeduplicationConfig
+ *
+ * Enables the streaming deduplication mode: instead of deduplicating materialized batches, the
+ * validated customer topic is deduplicated continuously by the Kafka Streams topology in
+ * {@link StreamingDeduplicationTopology}, and one decision per record is written to the decisions topic.
+ *
+ * Active only when {@code app.deduplication.streaming.enabled=true}. Key configurations include:
+ * - The application id, which names the consumer group, the repartition topic and the changelog
+ *   topic of the identity store.
+ * - The processing guarantee; with {@code exactly_once_v2} a decision, the store update and the
+ *   consumed offset are committed atomically.
+ * - Standby replicas, which keep warm copies of the identity store on other instances for fast failover.
+ *
+ * The batch listener ({@code app.kafka.validated-customer-batch.enabled}) consumes the same validated
+ * customer topic, so every record would be ingested twice; startup fails if both are enabled.
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "app.deduplication.streaming.enabled", havingValue = "true")
+public class StreamingDeduplicationConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${app.deduplication.streaming.application-id:customer-service-dedupe}")
+    private String applicationId;
+
+    @Value("${app.deduplication.streaming.processing-guarantee:exactly_once_v2}")
+    private String processingGuarantee;
+
+    @Value("${app.deduplication.streaming.standby-replicas:1}")
+    private int standbyReplicas;
+
+    @Value("${app.deduplication.streaming.state-dir:data/kafka-streams}")
+    private String stateDir;
+
+    @Value("${app.kafka.validated-customer-batch.enabled:false}")
+    private boolean validatedCustomerBatchEnabled;
+
+    /**
+     * Refuses to start alongside the batch listener of the validated customer topic.
+     *
+     * @throws IllegalStateException If the batch listener is enabled too.
+     */
+    @PostConstruct
+    void requireExclusiveConsumption() {
+        if (validatedCustomerBatchEnabled) {
+            throw new IllegalStateException("app.deduplication.streaming.enabled and app.kafka.validated-customer-batch.enabled "
+                    + "both consume the validated customer topic; enable only one of them.");
+        }
+    }
+
+    /**
+     * Configures the Kafka Streams instance behind {@link EnableKafkaStreams}.
+     *
+     * @return The streams configuration.
+     */
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, List.of(bootstrapServers.split(",")));
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, processingGuarantee);
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, standbyReplicas);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        return new KafkaStreamsConfiguration(props);
+    }
+
+    /**
+     * Builds the deduplication topology. Live book lookups go through {@link DeduplicationService}
+     * (and its Bloom filters); every decision is also audited through {@link DeduplicationLogWriter}.
+     *
+     * @param streamsBuilder The builder provided by {@link EnableKafkaStreams}.
+     * @return The stream of decisions.
+     */
+    @Bean
+    public KStream<String, DeduplicationDecision> streamingDeduplication(
+            StreamsBuilder streamsBuilder,
+            DeduplicationService deduplicationService,
+            DeduplicationLogWriter deduplicationLogWriter,
+            @Value("${app.kafka.topics.validated-customer-topic}") String validatedCustomerTopic,
+            @Value("${app.kafka.topics.deduplication-decision-topic}") String decisionTopic,
+            @Value("${app.deduplication.streaming.state-retention:30d}") Duration stateRetention) {
+        return StreamingDeduplicationTopology.build(streamsBuilder, validatedCustomerTopic, decisionTopic,
+                deduplicationService::findLiveBookMatch,
+                log -> deduplicationLogWriter.recordAll(List.of(log)),
+                stateRetention);
+    }
+}
@@ -1,10 +1,16 @@
 package com.ltfs.cdp.customer.controller;
 
+import com.ltfs.cdp.customer.dto.CustomerAttributeMigrationResult;
+import com.ltfs.cdp.customer.dto.CustomerBulkIngestionResult;
+import com.ltfs.cdp.customer.dto.CustomerDTO;
+import com.ltfs.cdp.customer.exception.CustomerNotFoundException;
 import com.ltfs.cdp.customer.exception.ResourceNotFoundException;
 import com.ltfs.cdp.customer.model.CustomerProfileDTO;
 import com.ltfs.cdp.customer.model.DeduplicationStatusDTO;
 import com.ltfs.cdp.customer.model.DeduplicationStatusUpdateDTO;
 import com.ltfs.cdp.customer.model.CustomerSegmentationRequestDTO;
+import com.ltfs.cdp.customer.service.CustomerAttributeBulkLoader;
+import com.ltfs.cdp.customer.service.CustomerAttributeMigrator;
 import com.ltfs.cdp.customer.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for managing customer-related operations in the LTFS Offer CDP system.
@@ -27,7 +34,12 @@ import java.util.List;
 @RequestMapping("/api/v1/customers")
 public class CustomerController {
 
+    // Upper bound of the profiles returned by one attribute search, each loaded by ID in one query.
+    private static final int MAX_ATTRIBUTE_SEARCH_LIMIT = 1000;
+
     private final CustomerService customerService;
+    private final CustomerAttributeBulkLoader attributeBulkLoader;
+    private final CustomerAttributeMigrator attributeMigrator;
 
     /**
      * Constructs a CustomerController with the necessary CustomerService dependency.
@@ -35,10 +47,16 @@ public class CustomerController {
      * ensuring the CustomerService implementation is provided by the Spring context.
      *
      * @param customerService The service layer for customer-related operations.
+     * @param attributeBulkLoader The loader of customer attribute documents.
+     * @param attributeMigrator The migration of customer attributes to attribute documents.
      */
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService,
+                              CustomerAttributeBulkLoader attributeBulkLoader,
+                              CustomerAttributeMigrator attributeMigrator) {
         this.customerService = customerService;
+        this.attributeBulkLoader = attributeBulkLoader;
+        this.attributeMigrator = attributeMigrator;
     }
 
     /**
@@ -67,6 +85,56 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Retrieves the dynamic attributes of a customer profile, from the attribute documents when
+     * app.customer.attributes.storage-mode is JSONB.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @return A {@link ResponseEntity} containing the typed attribute values by name (HTTP 200 OK),
+     *         or a 404 Not Found status if the customer does not exist.
+     *         Returns 500 Internal Server Error for unexpected issues.
+     */
+    @GetMapping("/{customerId}/attributes")
+    public ResponseEntity<Map<String, Object>> getCustomerAttributes(@PathVariable String customerId) {
+        try {
+            return ResponseEntity.ok(customerService.getCustomerAttributes(customerId));
+        } catch (CustomerNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (Exception e) {
+            // logger.error("An unexpected error occurred while fetching attributes for ID: {}", customerId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Finds the customer profiles with the given attribute value. The value is the JSON request body,
+     * so it keeps its type: {@code "Salaried"}, {@code 5} and {@code true} match string, number and
+     * boolean attributes respectively. In JSONB mode the filter uses the GIN index of a hot attribute.
+     *
+     * @param attributeName The attribute name, e.g. "Occupation".
+     * @param limit The maximum number of profiles to return, at most 1000.
+     * @param value The attribute value to match.
+     * @return A {@link ResponseEntity} containing the matching profiles (HTTP 200 OK).
+     *         Returns 400 Bad Request if the attribute name cannot be filtered on or the limit is out of range,
+     *         or 500 Internal Server Error on unexpected issues.
+     */
+    @PostMapping("/attributes/search")
+    public ResponseEntity<List<CustomerDTO>> searchCustomersByAttribute(@RequestParam String attributeName,
+                                                                        @RequestParam(defaultValue = "100") int limit,
+                                                                        @RequestBody Object value) {
+        if (limit < 1 || limit > MAX_ATTRIBUTE_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(customerService.findCustomersByAttribute(attributeName, value, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            // logger.error("An unexpected error occurred during attribute search on {}.", attributeName, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Retrieves the deduplication status for a specific customer.
      * This is crucial for understanding if a customer has been deduped against the 'live book' (Customer 360)
@@ -141,6 +209,64 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Ingests a large list of customer data records in one call, e.g. a full Offermart extract.
+     * Records are validated, deduplicated against the live book and each other, and written in
+     * batched chunks; invalid records are reported in the result rather than failing the request.
+     *
+     * @param customers The customer data records to ingest.
+     * @return A {@link ResponseEntity} containing the {@link CustomerBulkIngestionResult} (HTTP 200 OK).
+     *         Returns 500 Internal Server Error on unexpected issues, in which case nothing was written.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<CustomerBulkIngestionResult> ingestCustomersInBulk(@RequestBody List<CustomerDTO> customers) {
+        try {
+            return ResponseEntity.ok(customerService.processCustomerDataInBulk(customers));
+        } catch (Exception e) {
+            // logger.error("An unexpected error occurred during bulk customer ingestion.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Loads the dynamic attributes of many customers into their attribute documents. The values of
+     * each customer are merged into its document: attributes of the same name are replaced.
+     *
+     * @param attributesByCustomer The attribute values by name, by customer ID.
+     * @param sourceSystem The system the values come from (e.g. "Offermart").
+     * @return A {@link ResponseEntity} containing the number of customers written (HTTP 200 OK).
+     *         Returns 409 Conflict if attributes are not stored as documents yet,
+     *         or 500 Internal Server Error on unexpected issues.
+     */
+    @PostMapping("/attributes/bulk")
+    public ResponseEntity<Integer> loadCustomerAttributesInBulk(@RequestBody Map<Long, Map<String, Object>> attributesByCustomer,
+                                                                @RequestParam String sourceSystem) {
+        try {
+            return ResponseEntity.ok(attributeBulkLoader.load(attributesByCustomer, sourceSystem));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            // logger.error("An unexpected error occurred during bulk attribute loading.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Runs the migration of customer attributes from the row-per-attribute table to attribute
+     * documents. The request returns when the migration has finished or stopped on an error; a
+     * stopped migration is resumed by passing the {@code lastCustomerId} of its result.
+     *
+     * @param afterCustomerId The customer ID to resume after; 0 to start from the beginning.
+     * @param overwrite Whether customers that already have a document are merged instead of skipped.
+     * @return A {@link ResponseEntity} containing the {@link CustomerAttributeMigrationResult} (HTTP 200 OK).
+     */
+    @PostMapping("/attributes/migration")
+    public ResponseEntity<CustomerAttributeMigrationResult> migrateCustomerAttributes(
+            @RequestParam(defaultValue = "0") Long afterCustomerId,
+            @RequestParam(defaultValue = "false") boolean overwrite) {
+        return ResponseEntity.ok(attributeMigrator.migrate(afterCustomerId, overwrite));
+    }
+
     // Note on Error Handling:
     // For production-grade applications, it is highly recommended to implement a global exception handler
     // using Spring's @ControllerAdvice and @ExceptionHandler annotations. This provides a centralized
@@ -0,0 +1,43 @@
+package com.ltfs.cdp.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) summarizing one run of the migration of customer attributes from the
+ * row-per-attribute table to attribute documents.
+ *
+ * <p>A run that stopped early (e.g. on a database error) is resumed by starting the next run after
+ * {@code lastCustomerId}.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerAttributeMigrationResult {
+
+    /**
+     * The number of customers whose attributes were copied.
+     */
+    private long customers;
+
+    /**
+     * The number of attribute rows read.
+     */
+    private long attributeRows;
+
+    /**
+     * The highest customer ID copied; the starting point of a resumed run.
+     */
+    private Long lastCustomerId;
+
+    /**
+     * Whether the run reached the end of the attribute table.
+     */
+    private boolean completed;
+
+    /**
+     * How long the run took, in milliseconds.
+     */
+    private long durationMillis;
+}
@@ -0,0 +1,69 @@
+package com.ltfs.cdp.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing one bulk ingestion of customer data: how many records
+ * created a new profile, how many were merged into an existing one, and which were rejected.
+ * Every received record is counted exactly once: {@code received = created + updated + merged +
+ * rejected.size()}.
+ *
+ * <p>Rejected records do not abort the ingestion; they are reported by their position in the
+ * submitted list so the caller can correct and resubmit them.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBulkIngestionResult {
+
+    /**
+     * The number of records submitted.
+     */
+    private int received;
+
+    /**
+     * The number of new customer profiles created.
+     */
+    private int created;
+
+    /**
+     * The number of records merged into a customer profile that existed before their chunk of the
+     * ingestion, i.e. one already in the live book or written by an earlier chunk.
+     */
+    private int updated;
+
+    /**
+     * The number of records merged into a customer profile created for an earlier record of the
+     * same chunk; such a profile is created, not updated, by the ingestion.
+     */
+    private int merged;
+
+    /**
+     * The records that failed validation.
+     */
+    private List<RejectedRecord> rejected = new ArrayList<>();
+
+    /**
+     * A record that was not ingested.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRecord {
+
+        /**
+         * The zero-based position of the record in the submitted list.
+         */
+        private int index;
+
+        /**
+         * Why the record was rejected.
+         */
+        private String reason;
+    }
+}
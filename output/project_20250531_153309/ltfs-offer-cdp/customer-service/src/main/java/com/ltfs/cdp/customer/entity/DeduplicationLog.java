@@ -0,0 +1,106 @@
+package com.ltfs.cdp.customer.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit record of a single deduplication decision: which incoming record was checked,
+ * what it was matched with (if anything) and the outcome.
+ *
+ * <p>Records are written asynchronously and in batches by
+ * {@link com.ltfs.cdp.customer.service.DeduplicationLogWriter}, and may be written more than once
+ * when a batch is replayed from the local spool. {@code eventId} identifies the decision so that
+ * replays are idempotent.</p>
+ *
+ * <p>The table and its unique constraint on {@code event_id} are created by
+ * {@code scripts/sql/migrations/deduplication_log.sql}, to be run before deploying.</p>
+ */
+@Entity
+@Table(name = "deduplication_log", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_deduplication_log_event_id", columnNames = {"event_id"})
+})
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode methods
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields as arguments
+@Builder // Lombok: Provides a builder pattern for object creation
+public class DeduplicationLog {
+
+    /**
+     * Kind of record a decision was made for.
+     */
+    public enum RecordType {
+        CUSTOMER, TOP_UP_OFFER
+    }
+
+    /**
+     * Outcome of a deduplication decision.
+     */
+    public enum Outcome {
+        /** Not a duplicate; kept as a new profile or offer. */
+        UNIQUE,
+        /** Matched an existing Customer 360 (live book) profile. */
+        LIVE_BOOK_MATCH,
+        /** Duplicate of an earlier record of the same batch; removed. */
+        BATCH_DUPLICATE
+    }
+
+    /**
+     * Surrogate primary key, auto-generated by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * Unique identifier of the decision. Assigned by the writer if not set; a replayed record
+     * keeps its identifier and is ignored if it was already written.
+     */
+    @Column(name = "event_id", nullable = false, updatable = false, columnDefinition = "UUID")
+    private UUID eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_type", nullable = false, length = 20)
+    private RecordType recordType;
+
+    /**
+     * Identifier of the incoming customer or offer.
+     */
+    @Column(name = "input_record_id", length = 100)
+    private String inputRecordId;
+
+    /**
+     * Identifier of the live book profile or earlier offer it was matched with, if known.
+     */
+    @Column(name = "matched_record_id", length = 100)
+    private String matchedRecordId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "outcome", nullable = false, length = 20)
+    private Outcome outcome;
+
+    /**
+     * When the decision was made (not when it was written).
+     */
+    @Column(name = "decided_at", nullable = false, updatable = false)
+    private LocalDateTime decidedAt;
+
+    /**
+     * Creates the audit record of a decision made now.
+     */
+    public static DeduplicationLog of(RecordType recordType, String inputRecordId, String matchedRecordId, Outcome outcome) {
+        DeduplicationLog log = new DeduplicationLog();
+        log.setRecordType(recordType);
+        log.setInputRecordId(inputRecordId);
+        log.setMatchedRecordId(matchedRecordId);
+        log.setOutcome(outcome);
+        log.setDecidedAt(LocalDateTime.now());
+        return log;
+    }
+}
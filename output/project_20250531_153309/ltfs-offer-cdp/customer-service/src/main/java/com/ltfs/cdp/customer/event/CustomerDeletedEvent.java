@@ -0,0 +1,51 @@
+package com.ltfs.cdp.customer.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Represents an event that is triggered after a customer profile has been deleted from the CDP system.
+ *
+ * Consumers that keep copies of profiles, such as the customer profile cache, use it to drop
+ * the deleted profile.
+ */
+public class CustomerDeletedEvent extends ApplicationEvent {
+
+    /**
+     * The CDP customer ID of the deleted profile.
+     */
+    private final String customerId;
+
+    /**
+     * The system or component that requested the deletion, e.g. "Internal".
+     */
+    private final String initiatedBy;
+
+    /**
+     * Constructs a new {@code CustomerDeletedEvent}.
+     *
+     * @param source The object on which the event initially occurred, typically the customer service.
+     * @param customerId The CDP customer ID of the deleted profile.
+     * @param initiatedBy The system or component that requested the deletion.
+     */
+    public CustomerDeletedEvent(Object source, String customerId, String initiatedBy) {
+        super(source);
+        this.customerId = customerId;
+        this.initiatedBy = initiatedBy;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getInitiatedBy() {
+        return initiatedBy;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerDeletedEvent{" +
+               "customerId='" + customerId + '\'' +
+               ", initiatedBy='" + initiatedBy + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.ltfs.cdp.customer.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Represents an event that is triggered after a chunk of customer profiles has been written by the
+ * bulk ingestion path of the CDP system.
+ *
+ * One event is published per written chunk instead of one created or updated event per customer,
+ * so listeners can react to thousands of profiles (e.g. forward them to Customer 360) with a single
+ * batched operation.
+ *
+ * The event carries the CDP customer IDs of the profiles that were created and of the existing
+ * profiles that were updated with the incoming data.
+ */
+public class CustomerProfilesUpsertedEvent extends ApplicationEvent {
+
+    /**
+     * The system the customer data was ingested from, e.g. "Offermart".
+     */
+    private final String sourceSystem;
+
+    /**
+     * CDP customer IDs of the newly created profiles, in ingestion order.
+     */
+    private final List<String> createdCustomerIds;
+
+    /**
+     * CDP customer IDs of the existing profiles that were updated, in ingestion order.
+     */
+    private final List<String> updatedCustomerIds;
+
+    /**
+     * Constructs a new {@code CustomerProfilesUpsertedEvent}.
+     *
+     * @param source The object on which the event initially occurred, typically the customer service.
+     * @param sourceSystem The system the customer data was ingested from.
+     * @param createdCustomerIds CDP customer IDs of the created profiles.
+     * @param updatedCustomerIds CDP customer IDs of the updated profiles.
+     */
+    public CustomerProfilesUpsertedEvent(Object source, String sourceSystem,
+                                         List<String> createdCustomerIds, List<String> updatedCustomerIds) {
+        super(source);
+        this.sourceSystem = sourceSystem;
+        this.createdCustomerIds = List.copyOf(createdCustomerIds);
+        this.updatedCustomerIds = List.copyOf(updatedCustomerIds);
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public List<String> getCreatedCustomerIds() {
+        return createdCustomerIds;
+    }
+
+    public List<String> getUpdatedCustomerIds() {
+        return updatedCustomerIds;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerProfilesUpsertedEvent{" +
+               "sourceSystem='" + sourceSystem + '\'' +
+               ", created=" + createdCustomerIds.size() +
+               ", updated=" + updatedCustomerIds.size() +
+               '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.ltfs.cdp.customer.listener;
+
+import com.ltfs.cdp.customer.config.ProfileCacheConfig;
+import com.ltfs.cdp.customer.service.CustomerProfileCache;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * ProfileCacheInvalidationListener keeps the {@link CustomerProfileCache} of this replica consistent
+ * with profile changes made by any replica.
+ *
+ * Every replica publishes the CDP customer ID of each profile it changes to the profile cache
+ * invalidation topic (keyed by that ID). This listener consumes the topic with a consumer group of
+ * its own (see {@link ProfileCacheConfig}), so every replica receives every invalidation, including
+ * its own, which is harmless.
+ */
+@Component
+public class ProfileCacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileCacheInvalidationListener.class);
+
+    private final CustomerProfileCache customerProfileCache;
+
+    public ProfileCacheInvalidationListener(CustomerProfileCache customerProfileCache) {
+        this.customerProfileCache = customerProfileCache;
+    }
+
+    /**
+     * Drops the cached profile of the customer the record is keyed by.
+     *
+     * @param record The invalidation record; only its key is used.
+     */
+    @KafkaListener(topics = "${app.kafka.topics.profile-cache-invalidation-topic}",
+            containerFactory = ProfileCacheConfig.INVALIDATION_CONTAINER_FACTORY)
+    public void onInvalidation(ConsumerRecord<String, String> record) {
+        if (record.key() == null) {
+            log.warn("Ignoring profile cache invalidation without a customer ID at offset {}.", record.offset());
+            return;
+        }
+        log.debug("Invalidating cached profile of customer {}.", record.key());
+        customerProfileCache.onRemoteInvalidation(record.key());
+    }
+}
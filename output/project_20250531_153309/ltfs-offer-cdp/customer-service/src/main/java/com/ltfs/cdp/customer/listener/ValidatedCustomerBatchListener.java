@@ -0,0 +1,303 @@
+package com.ltfs.cdp.customer.listener;
+
+import com.ltfs.cdp.customer.config.KafkaConsumerConfig;
+import com.ltfs.cdp.customer.dto.CustomerBulkIngestionResult;
+import com.ltfs.cdp.customer.dto.CustomerDTO;
+import com.ltfs.cdp.customer.repository.ValidatedCustomerRetryHoldRepository;
+import com.ltfs.cdp.customer.service.CustomerService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * ValidatedCustomerBatchListener ingests the validated customer topic in batches, the Kafka
+ * counterpart of {@link ValidationEventListener}.
+ *
+ * Each poll delivers up to {@code app.kafka.validated-customer-batch.max-poll-records} records
+ * (see {@link KafkaConsumerConfig}). They are grouped by record key (the customer key the producer
+ * partitions by), and each group is ingested with one call of
+ * {@link CustomerService#processCustomerDataInBulk(List)}, i.e. in one transaction, its records in
+ * offset order. The offsets of the whole batch are committed once the listener returns.
+ *
+ * A failing group does not hold up the partition: its records are forwarded to the
+ * {@code validated-customer-retry-topic} and the batch goes on. Records on that topic are retried
+ * one by one with Spring Kafka's non-blocking retry topics ({@link RetryableTopic}), each attempt
+ * after a growing delay, and end up on the dead letter topic ({@code <retry topic>-dlt}) when all
+ * attempts failed. Records that cannot be deserialized or fail validation are not retried; they go
+ * to the dead letter topic directly.
+ *
+ * Ordering: records of a key are applied in offset order. A record forwarded for retry holds its
+ * key in {@link ValidatedCustomerRetryHoldRepository}, shared by all replicas, until it is resolved:
+ * applied, rejected or dead-lettered. While the key is held, later records of it are forwarded
+ * behind it instead of being ingested from the main topic, and on the retry topics a record is not
+ * ingested while an earlier record of its key is held; the attempt fails and the record moves on to
+ * the next retry topic. A record still held back after its last attempt is dead-lettered after the
+ * earlier one, so the dead letter topic keeps the records of a key in order for replay. Records are
+ * identified by the partition and offset they had on the main topic, carried along the retry path
+ * in the {@value #SOURCE_PARTITION_HEADER} and {@value #SOURCE_OFFSET_HEADER} headers. Records
+ * without a key are unrelated to each other and never held. If the holds cannot be read or written
+ * (database unreachable), the listener fails and the batch is delivered again.
+ *
+ * Delivery is at least once: if failed records cannot be forwarded (Kafka unreachable), the listener
+ * fails and the whole batch is delivered again, including groups already written; re-ingesting a
+ * record merges it into the profile it created.
+ *
+ * Active only when {@code app.kafka.validated-customer-batch.enabled=true}. The streaming deduplication
+ * mode consumes the same topic, so the two cannot be enabled together (see StreamingDeduplicationConfig).
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.validated-customer-batch.enabled", havingValue = "true")
+public class ValidatedCustomerBatchListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidatedCustomerBatchListener.class);
+
+    /**
+     * Appended to the retry topic to name the dead letter topic.
+     */
+    public static final String DLT_SUFFIX = "-dlt";
+
+    /**
+     * Header carrying the partition a forwarded record had on the validated customer topic.
+     */
+    public static final String SOURCE_PARTITION_HEADER = "cdp-source-partition";
+
+    /**
+     * Header carrying the offset a forwarded record had on the validated customer topic.
+     */
+    public static final String SOURCE_OFFSET_HEADER = "cdp-source-offset";
+
+    private final Function<List<CustomerDTO>, CustomerBulkIngestionResult> ingester;
+    private final BiConsumer<ConsumerRecord<?, ?>, Exception> retryPublisher;
+    private final BiConsumer<ConsumerRecord<?, ?>, Exception> deadLetterPublisher;
+    private final ValidatedCustomerRetryHoldRepository retryHolds;
+
+    @Autowired
+    public ValidatedCustomerBatchListener(CustomerService customerService,
+                                          KafkaTemplate<String, Object> kafkaTemplate,
+                                          ValidatedCustomerRetryHoldRepository retryHolds,
+                                          @Value("${app.kafka.topics.validated-customer-retry-topic}") String retryTopic) {
+        this(customerService::processCustomerDataInBulk,
+                forwardingTo(kafkaTemplate, retryTopic),
+                forwardingTo(kafkaTemplate, retryTopic + DLT_SUFFIX),
+                retryHolds);
+    }
+
+    /**
+     * Creates a listener that ingests groups with {@code ingester} and hands the records it cannot
+     * ingest to {@code retryPublisher} (transient failures) or {@code deadLetterPublisher} (invalid
+     * records). Both publishers must add the source headers to records from the main topic.
+     */
+    ValidatedCustomerBatchListener(Function<List<CustomerDTO>, CustomerBulkIngestionResult> ingester,
+                                   BiConsumer<ConsumerRecord<?, ?>, Exception> retryPublisher,
+                                   BiConsumer<ConsumerRecord<?, ?>, Exception> deadLetterPublisher,
+                                   ValidatedCustomerRetryHoldRepository retryHolds) {
+        this.ingester = ingester;
+        this.retryPublisher = retryPublisher;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.retryHolds = retryHolds;
+    }
+
+    /**
+     * Ingests one poll of the validated customer topic, a transaction per customer key.
+     *
+     * @param records The records of the poll, in offset order per partition.
+     */
+    @KafkaListener(id = "validated-customer-batch",
+            topics = "${app.kafka.topics.validated-customer-topic}",
+            containerFactory = KafkaConsumerConfig.VALIDATED_CUSTOMER_BATCH_CONTAINER_FACTORY)
+    public void onValidatedCustomers(List<ConsumerRecord<String, CustomerDTO>> records) {
+        long startedAt = System.currentTimeMillis();
+        Map<Object, List<ConsumerRecord<String, CustomerDTO>>> groups = groupByKey(records);
+        List<String> keys = new ArrayList<>(groups.size());
+        groups.keySet().forEach(key -> {
+            if (key instanceof String) {
+                keys.add((String) key);
+            }
+        });
+        Set<String> heldKeys = retryHolds.findHeldKeys(keys);
+        int retried = 0;
+        int heldBack = 0;
+        int deadLettered = 0;
+        for (List<ConsumerRecord<String, CustomerDTO>> group : groups.values()) {
+            List<ConsumerRecord<String, CustomerDTO>> ingestible = new ArrayList<>(group.size());
+            for (ConsumerRecord<String, CustomerDTO> record : group) {
+                if (record.value() == null) {
+                    // Failed deserialization; the original bytes travel in the record headers.
+                    deadLetterPublisher.accept(record, new IllegalArgumentException("Record value could not be deserialized."));
+                    deadLettered++;
+                } else {
+                    ingestible.add(record);
+                }
+            }
+            if (ingestible.isEmpty()) {
+                continue;
+            }
+            if (heldKeys.contains(ingestible.get(0).key())) {
+                log.debug("Key {} has records on the retry path, forwarding {} later record(s) behind them.",
+                        ingestible.get(0).key(), ingestible.size());
+                forwardForRetry(ingestible, new IllegalStateException("An earlier record of the key is being retried."));
+                heldBack += ingestible.size();
+                continue;
+            }
+
+            List<CustomerDTO> customers = new ArrayList<>(ingestible.size());
+            ingestible.forEach(record -> customers.add(record.value()));
+            CustomerBulkIngestionResult result;
+            try {
+                result = ingester.apply(customers);
+            } catch (RuntimeException e) {
+                log.warn("Ingestion of {} validated customer record(s) with key {} failed, forwarding them for retry: {}",
+                        ingestible.size(), ingestible.get(0).key(), e.getMessage());
+                forwardForRetry(ingestible, e);
+                retried += ingestible.size();
+                continue;
+            }
+            for (CustomerBulkIngestionResult.RejectedRecord rejected : result.getRejected()) {
+                deadLetterPublisher.accept(ingestible.get(rejected.getIndex()), new IllegalArgumentException(rejected.getReason()));
+                deadLettered++;
+            }
+        }
+        log.info("Ingested a batch of {} validated customer records in {} key groups in {} ms: {} forwarded for retry, "
+                        + "{} forwarded behind earlier retried records, {} dead-lettered.",
+                records.size(), groups.size(), System.currentTimeMillis() - startedAt, retried, heldBack, deadLettered);
+    }
+
+    /**
+     * Holds the keys of the records, then forwards them to the retry topic. Holding first means a
+     * later record of the key can never overtake a forwarded one; if forwarding fails, the batch is
+     * delivered again and holding the records again has no effect.
+     */
+    private void forwardForRetry(List<ConsumerRecord<String, CustomerDTO>> records, Exception cause) {
+        for (ConsumerRecord<String, CustomerDTO> record : records) {
+            if (record.key() != null) {
+                retryHolds.hold(record.key(), record.partition(), record.offset());
+            }
+        }
+        records.forEach(record -> retryPublisher.accept(record, cause));
+    }
+
+    /**
+     * Retries one record forwarded by {@link #onValidatedCustomers(List)}, unless an earlier record of
+     * its key is still held. An exception sends the record on to the next retry topic, or to the dead
+     * letter topic after the last attempt; otherwise the record is resolved and released.
+     *
+     * @param record The record, as forwarded from the validated customer topic.
+     */
+    @RetryableTopic(attempts = "${app.kafka.validated-customer-batch.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${app.kafka.validated-customer-batch.retry.delay:1000}",
+                    multiplierExpression = "${app.kafka.validated-customer-batch.retry.multiplier:5.0}"),
+            dltTopicSuffix = DLT_SUFFIX,
+            kafkaTemplate = "kafkaTemplate")
+    @KafkaListener(id = "validated-customer-retry",
+            topics = "${app.kafka.topics.validated-customer-retry-topic}",
+            containerFactory = KafkaConsumerConfig.VALIDATED_CUSTOMER_RETRY_CONTAINER_FACTORY)
+    public void onRetriedCustomer(ConsumerRecord<String, CustomerDTO> record) {
+        Integer sourcePartition = intHeader(record, SOURCE_PARTITION_HEADER);
+        Long sourceOffset = longHeader(record, SOURCE_OFFSET_HEADER);
+        boolean tracked = record.key() != null && sourcePartition != null && sourceOffset != null;
+        if (tracked && retryHolds.isHeldBehindEarlierRecord(record.key(), sourcePartition, sourceOffset)) {
+            throw new IllegalStateException("An earlier record of key " + record.key() + " is still being retried.");
+        }
+        CustomerBulkIngestionResult result = ingester.apply(List.of(record.value()));
+        if (!result.getRejected().isEmpty()) {
+            // Rejected by validation; a further attempt would be rejected again.
+            deadLetterPublisher.accept(record, new IllegalArgumentException(result.getRejected().get(0).getReason()));
+        }
+        if (tracked) {
+            retryHolds.release(record.key(), sourcePartition, sourceOffset);
+        }
+    }
+
+    /**
+     * Logs a dead-lettered record, which stays on the dead letter topic for inspection and replay,
+     * and releases it so that later records of its key are applied again.
+     */
+    @DltHandler
+    public void onDeadLetter(ConsumerRecord<String, CustomerDTO> record) {
+        log.error("Validated customer record with key {} was dead-lettered (topic {}, partition {}, offset {}).",
+                record.key(), record.topic(), record.partition(), record.offset());
+        Integer sourcePartition = intHeader(record, SOURCE_PARTITION_HEADER);
+        Long sourceOffset = longHeader(record, SOURCE_OFFSET_HEADER);
+        if (record.key() != null && sourcePartition != null && sourceOffset != null) {
+            retryHolds.release(record.key(), sourcePartition, sourceOffset);
+        }
+    }
+
+    /**
+     * Groups records by key, in the order each key first occurs; records keep their order within a
+     * group. Records without a key are not related to any other and form a group each.
+     */
+    static <V> Map<Object, List<ConsumerRecord<String, V>>> groupByKey(List<ConsumerRecord<String, V>> records) {
+        Map<Object, List<ConsumerRecord<String, V>>> groups = new LinkedHashMap<>();
+        for (ConsumerRecord<String, V> record : records) {
+            Object groupKey = record.key() != null ? record.key() : record;
+            groups.computeIfAbsent(groupKey, key -> new ArrayList<>(1)).add(record);
+        }
+        return groups;
+    }
+
+    /**
+     * Returns the source headers to add to a forwarded record: its partition and offset on the main
+     * topic, or none if it already carries them (it was forwarded before).
+     */
+    static Headers sourceHeaders(ConsumerRecord<?, ?> record) {
+        Headers headers = new RecordHeaders();
+        if (record.headers().lastHeader(SOURCE_OFFSET_HEADER) == null) {
+            headers.add(SOURCE_PARTITION_HEADER, String.valueOf(record.partition()).getBytes(StandardCharsets.UTF_8));
+            headers.add(SOURCE_OFFSET_HEADER, String.valueOf(record.offset()).getBytes(StandardCharsets.UTF_8));
+        }
+        return headers;
+    }
+
+    private static Integer intHeader(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? Integer.valueOf(new String(header.value(), StandardCharsets.UTF_8)) : null;
+    }
+
+    private static Long longHeader(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? Long.valueOf(new String(header.value(), StandardCharsets.UTF_8)) : null;
+    }
+
+    /**
+     * Creates a recoverer publishing records to {@code topic} with their original key, so the
+     * partitioner keeps the records of a key together, the exception in the record headers and the
+     * source headers. Values that failed deserialization are published as the original bytes.
+     */
+    private static DeadLetterPublishingRecoverer forwardingTo(KafkaTemplate<String, Object> kafkaTemplate, String topic) {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, new KafkaTemplate<>(kafkaTemplate.getProducerFactory(),
+                Map.<String, Object>of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)));
+        templates.put(Object.class, kafkaTemplate);
+        DeadLetterPublishingRecoverer recoverer =
+                new DeadLetterPublishingRecoverer(templates, (record, exception) -> new TopicPartition(topic, -1));
+        recoverer.setHeadersFunction((record, exception) -> sourceHeaders(record));
+        return recoverer;
+    }
+}
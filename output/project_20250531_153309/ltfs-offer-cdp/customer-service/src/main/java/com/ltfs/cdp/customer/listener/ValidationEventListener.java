@@ -22,6 +22,10 @@ import org.springframework.transaction.annotation.Transactional;
  *
  * This listener acts as a bridge between the initial data validation stage
  * and the core customer profile management functionalities.
+ *
+ * It handles one event per transaction. Validated records arriving on the validated customer
+ * topic can instead be ingested in batches, a transaction per customer key, by
+ * {@link ValidatedCustomerBatchListener}.
  */
 @Component
 public class ValidationEventListener {
@@ -21,6 +21,10 @@ import java.time.LocalDateTime;
  * allowing for extensibility without altering the main Customer entity schema.
  * It supports storing key-value pairs where the value can be of different data types,
  * managed by the 'dataType' field.
+ *
+ * With app.customer.attributes.storage-mode=JSONB, attributes are read from one
+ * {@link CustomerAttributeDocument} per customer instead; this table is then only the source of
+ * the migration.
  */
 @Entity
 @Table(name = "customer_attribute")
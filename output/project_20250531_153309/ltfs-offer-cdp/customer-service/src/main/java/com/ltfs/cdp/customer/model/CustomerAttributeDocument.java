@@ -0,0 +1,138 @@
+package com.ltfs.cdp.customer.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Entity storing all dynamic attributes of a customer as one JSONB document, the alternative to
+ * the row-per-attribute {@link CustomerAttribute} table.
+ *
+ * <p>A profile's attributes are read as a single row by primary key, without joins. Values are
+ * stored with their JSON type (string, number or boolean, from the EAV 'dataType'), so filters
+ * compare typed values. The lineage of each attribute is kept in a separate document, so the
+ * attribute document holds nothing but the values the filters match on.</p>
+ *
+ * <p>The table is created by {@code scripts/sql/migrations/customer_attribute_document.sql}, to be
+ * run before deploying. GIN indexes on the frequently filtered ("hot") attributes are created by
+ * {@code CustomerAttributeIndexManager}.
+ */
+@Entity
+@Table(name = "customer_attribute_document")
+@Data // Generates getters, setters, toString, equals, and hashCode methods
+@NoArgsConstructor // Generates a no-argument constructor
+@AllArgsConstructor // Generates a constructor with all fields as arguments
+public class CustomerAttributeDocument {
+
+    /**
+     * Attribute names that can be filtered on. They are embedded in SQL as literals, so that the
+     * expression of an attribute index and the filters on it are textually identical.
+     */
+    private static final Pattern FILTERABLE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,100}");
+
+    /**
+     * The ID of the {@link Customer} the attributes belong to; one document per customer.
+     */
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    /**
+     * The attribute values by attribute name (e.g. "Occupation" to "Salaried", "IncomeRange" to 5).
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "attributes", nullable = false, columnDefinition = "jsonb")
+    private Map<String, Object> attributes = new LinkedHashMap<>();
+
+    /**
+     * The data type, source system and last update time of each attribute, by attribute name.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "metadata", nullable = false, columnDefinition = "jsonb")
+    private Map<String, AttributeMetadata> metadata = new LinkedHashMap<>();
+
+    /**
+     * Optimistic lock: the whole document is rewritten on every change, so concurrent writers
+     * must not overwrite each other's attributes.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Timestamp of the last change of any attribute of the customer.
+     */
+    @Column(name = "last_updated_date", nullable = false)
+    private LocalDateTime lastUpdatedDate;
+
+    /**
+     * Sets an attribute, replacing any previous value and lineage of the same name.
+     *
+     * @param name The attribute name.
+     * @param value The typed value (String, Long, BigDecimal or Boolean).
+     * @param attributeMetadata The lineage of the value.
+     */
+    public void putAttribute(String name, Object value, AttributeMetadata attributeMetadata) {
+        attributes.put(name, value);
+        metadata.put(name, attributeMetadata);
+    }
+
+    /**
+     * Checks that an attribute name can be embedded in a filter or index expression.
+     *
+     * @param name The attribute name.
+     * @return The name.
+     * @throws IllegalArgumentException If the name contains other characters than letters, digits,
+     *                                  '_' and '-', or is longer than 100 characters.
+     */
+    public static String requireFilterableName(String name) {
+        if (name == null || !FILTERABLE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Attribute name cannot be filtered on: " + name);
+        }
+        return name;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onChange() {
+        this.lastUpdatedDate = LocalDateTime.now();
+    }
+
+    /**
+     * Lineage of one attribute value, as kept per row in the {@link CustomerAttribute} table.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AttributeMetadata {
+
+        /**
+         * The original data type (e.g. "STRING", "INTEGER", "BOOLEAN", "DATE", "DECIMAL").
+         */
+        private String dataType;
+
+        /**
+         * The source system of the value (e.g. "Offermart", "Customer360", "E-aggregator").
+         */
+        private String sourceSystem;
+
+        /**
+         * When the value was last set.
+         */
+        private LocalDateTime lastUpdatedDate;
+    }
+}
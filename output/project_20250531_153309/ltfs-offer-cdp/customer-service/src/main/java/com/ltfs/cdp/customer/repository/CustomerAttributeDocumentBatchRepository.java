@@ -0,0 +1,42 @@
+package com.ltfs.cdp.customer.repository;
+
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes and filters of {@link CustomerAttributeDocument}s that JPA cannot express efficiently.
+ */
+public interface CustomerAttributeDocumentBatchRepository {
+
+    /**
+     * Upserts the documents in one JDBC batch and one transaction. The attributes of a document are
+     * merged into the customer's existing document: attributes present in both are replaced, others
+     * are kept.
+     *
+     * @param documents Documents to write; each must have a {@code customerId}.
+     */
+    void mergeAll(Collection<CustomerAttributeDocument> documents);
+
+    /**
+     * Inserts the documents of customers that have none yet, in one JDBC batch and one transaction.
+     * Existing documents are left untouched, so a batch can safely be inserted again.
+     *
+     * @param documents Documents to insert; each must have a {@code customerId}.
+     */
+    void insertAllIfAbsent(Collection<CustomerAttributeDocument> documents);
+
+    /**
+     * Finds the IDs of the customers whose attribute {@code attributeName} contains
+     * {@code value}: equals it for scalar values, or holds all of its elements for arrays. Uses the
+     * GIN index of the attribute if it is one of the indexed (hot) attributes.
+     *
+     * @param attributeName The attribute name; letters, digits, '_' and '-' only.
+     * @param value The typed value (String, Number, Boolean, or a List of these).
+     * @param limit The maximum number of IDs to return.
+     * @return The customer IDs in ascending order.
+     * @throws IllegalArgumentException If the attribute name contains other characters.
+     */
+    List<Long> findCustomerIdsByAttribute(String attributeName, Object value, int limit);
+}
@@ -0,0 +1,88 @@
+package com.ltfs.cdp.customer.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link CustomerAttributeDocumentBatchRepository}.
+ *
+ * <p>Merges are done by PostgreSQL ({@code jsonb || jsonb}) in an {@code INSERT ... ON CONFLICT},
+ * so a batch is one round trip however many customers already have a document, and no document is
+ * read into the persistence context. Attribute filters use the JSONB containment operator on
+ * {@code attributes -> 'name'}, the expression the attribute GIN indexes are built on.</p>
+ */
+public class CustomerAttributeDocumentBatchRepositoryImpl implements CustomerAttributeDocumentBatchRepository {
+
+    private static final String MERGE_SQL = "INSERT INTO customer_attribute_document "
+            + "(customer_id, attributes, metadata, version, last_updated_date) "
+            + "VALUES (?, CAST(? AS jsonb), CAST(? AS jsonb), 0, ?) "
+            + "ON CONFLICT (customer_id) DO UPDATE SET "
+            + "attributes = customer_attribute_document.attributes || EXCLUDED.attributes, "
+            + "metadata = customer_attribute_document.metadata || EXCLUDED.metadata, "
+            + "version = customer_attribute_document.version + 1, "
+            + "last_updated_date = EXCLUDED.last_updated_date";
+
+    private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO customer_attribute_document "
+            + "(customer_id, attributes, metadata, version, last_updated_date) "
+            + "VALUES (?, CAST(? AS jsonb), CAST(? AS jsonb), 0, ?) "
+            + "ON CONFLICT (customer_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CustomerAttributeDocumentBatchRepositoryImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional
+    public void mergeAll(Collection<CustomerAttributeDocument> documents) {
+        write(MERGE_SQL, documents);
+    }
+
+    @Override
+    @Transactional
+    public void insertAllIfAbsent(Collection<CustomerAttributeDocument> documents) {
+        write(INSERT_IF_ABSENT_SQL, documents);
+    }
+
+    @Override
+    public List<Long> findCustomerIdsByAttribute(String attributeName, Object value, int limit) {
+        String sql = "SELECT customer_id FROM customer_attribute_document "
+                + "WHERE (attributes -> '" + CustomerAttributeDocument.requireFilterableName(attributeName) + "') "
+                + "@> CAST(? AS jsonb) ORDER BY customer_id LIMIT ?";
+        return jdbcTemplate.queryForList(sql, Long.class, toJson(value), limit);
+    }
+
+    private void write(String sql, Collection<CustomerAttributeDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        // Serialized up front, so a document that cannot be written fails the batch before it is sent.
+        List<Object[]> rows = new ArrayList<>(documents.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (CustomerAttributeDocument document : documents) {
+            rows.add(new Object[]{document.getCustomerId(), toJson(document.getAttributes()),
+                    toJson(document.getMetadata()), now});
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Attribute value cannot be stored as JSON: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ltfs.cdp.customer.repository;
+
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link CustomerAttributeDocument}s, with JDBC batch writes and
+ * indexed attribute filters from {@link CustomerAttributeDocumentBatchRepository}.
+ */
+@Repository
+public interface CustomerAttributeDocumentRepository extends JpaRepository<CustomerAttributeDocument, Long>,
+        CustomerAttributeDocumentBatchRepository {
+
+    /**
+     * Finds the attribute documents of a set of customers in one query.
+     *
+     * @param customerIds The IDs of the customers.
+     * @return The documents of the customers that have one.
+     */
+    List<CustomerAttributeDocument> findByCustomerIdIn(Collection<Long> customerIds);
+}
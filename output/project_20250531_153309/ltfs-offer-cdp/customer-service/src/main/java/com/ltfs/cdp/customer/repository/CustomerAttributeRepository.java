@@ -0,0 +1,63 @@
+package com.ltfs.cdp.customer.repository;
+
+import com.ltfs.cdp.customer.model.CustomerAttribute;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the row-per-attribute {@link CustomerAttribute} table.
+ * Used while attributes are stored in that table, and by the migration to attribute documents.
+ */
+@Repository
+public interface CustomerAttributeRepository extends JpaRepository<CustomerAttribute, Long> {
+
+    /**
+     * Finds all attribute rows of a customer.
+     *
+     * @param customerId The ID of the customer.
+     * @return The attribute rows of the customer.
+     */
+    @Query("SELECT a FROM CustomerAttribute a WHERE a.customer.id = :customerId")
+    List<CustomerAttribute> findByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Finds all attribute rows of a set of customers in one query.
+     *
+     * @param customerIds The IDs of the customers.
+     * @return The attribute rows of these customers, ordered by customer.
+     */
+    @Query("SELECT a FROM CustomerAttribute a WHERE a.customer.id IN :customerIds ORDER BY a.customer.id")
+    List<CustomerAttribute> findByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    /**
+     * Finds the IDs of the customers with the given attribute value.
+     *
+     * @param attributeName The attribute name.
+     * @param attributeValue The attribute value, as stored.
+     * @param pageable The maximum number of IDs to return.
+     * @return The customer IDs in ascending order.
+     */
+    @Query("SELECT DISTINCT a.customer.id FROM CustomerAttribute a "
+            + "WHERE a.attributeName = :attributeName AND a.attributeValue = :attributeValue ORDER BY a.customer.id")
+    List<Long> findCustomerIdsByAttribute(@Param("attributeName") String attributeName,
+                                          @Param("attributeValue") String attributeValue,
+                                          Pageable pageable);
+
+    /**
+     * Returns the next customer IDs with attribute rows, in ascending order, for walking the table
+     * in chunks of customers.
+     *
+     * @param afterCustomerId The last customer ID of the previous chunk; 0 for the first chunk.
+     * @param pageable The chunk size.
+     * @return The customer IDs greater than {@code afterCustomerId}.
+     */
+    @Query("SELECT DISTINCT a.customer.id FROM CustomerAttribute a WHERE a.customer.id > :afterCustomerId "
+            + "ORDER BY a.customer.id")
+    List<Long> findCustomerIdsAfter(@Param("afterCustomerId") Long afterCustomerId, Pageable pageable);
+}
@@ -4,6 +4,10 @@ import com.ltfs.cdp.customer.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * JPA Repository for the Customer entity.
  * This interface extends JpaRepository, providing standard CRUD operations
@@ -14,8 +18,25 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    Optional<Customer> findByCustomerId(String customerId);
+
+    /**
+     * Finds the customers with the given CDP customer IDs, in one query.
+     * Callers should keep {@code customerIds} to a bounded size (e.g. chunks of 1000).
+     */
+    List<Customer> findByCustomerIdIn(Collection<String> customerIds);
+
+    /**
+     * Finds the customers with any of the given PAN numbers; as do the finders below for the
+     * other identifiers. Used to resolve the live book matches of a whole bulk chunk at once.
+     */
+    List<Customer> findByPanNumberIn(Collection<String> panNumbers);
+
+    List<Customer> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    List<Customer> findByAadhaarNumberIn(Collection<String> aadhaarNumbers);
+
     // Custom query methods can be added here if needed, for example:
-    // Optional<Customer> findByCustomerId(String customerId);
     // List<Customer> findByMobileNumber(String mobileNumber);
     // List<Customer> findByPanNumber(String panNumber);
 }
\ No newline at end of file
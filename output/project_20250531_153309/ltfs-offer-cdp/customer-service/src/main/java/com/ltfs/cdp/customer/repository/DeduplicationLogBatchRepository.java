@@ -0,0 +1,20 @@
+package com.ltfs.cdp.customer.repository;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+
+import java.util.List;
+
+/**
+ * Batch insert fragment of {@link DeduplicationLogRepository}, implemented with plain JDBC by
+ * {@link DeduplicationLogBatchRepositoryImpl}.
+ */
+public interface DeduplicationLogBatchRepository {
+
+    /**
+     * Inserts the records in one JDBC batch and one transaction. Records whose {@code eventId} was
+     * already written are skipped, so a batch can safely be inserted again.
+     *
+     * @param logs Records to insert; each must have an {@code eventId}.
+     */
+    void insertBatch(List<DeduplicationLog> logs);
+}
@@ -0,0 +1,50 @@
+package com.ltfs.cdp.customer.repository;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link DeduplicationLogBatchRepository}.
+ *
+ * <p>Bypasses JPA on purpose: the entities are never read back, so persisting them through the
+ * persistence context would only add dirty checking and, with {@code IDENTITY} ids, one round trip
+ * per row. With {@code reWriteBatchedInserts=true} on the PostgreSQL JDBC URL the driver sends each
+ * batch as multi-row inserts.</p>
+ */
+public class DeduplicationLogBatchRepositoryImpl implements DeduplicationLogBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO deduplication_log "
+            + "(event_id, record_type, input_record_id, matched_record_id, outcome, decided_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (event_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeduplicationLogBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void insertBatch(List<DeduplicationLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setObject(1, log.getEventId());
+            ps.setString(2, log.getRecordType().name());
+            ps.setString(3, log.getInputRecordId());
+            ps.setString(4, log.getMatchedRecordId());
+            ps.setString(5, log.getOutcome().name());
+            if (log.getDecidedAt() != null) {
+                ps.setTimestamp(6, Timestamp.valueOf(log.getDecidedAt()));
+            } else {
+                ps.setNull(6, Types.TIMESTAMP);
+            }
+        });
+    }
+}
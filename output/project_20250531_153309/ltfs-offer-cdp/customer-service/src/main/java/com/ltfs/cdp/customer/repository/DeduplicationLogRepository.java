@@ -14,12 +14,15 @@ import org.springframework.stereotype.Repository;
  * the deduplication outcome, and timestamps. This is crucial for auditing,
  * debugging, and understanding the effectiveness of the deduplication process.</p>
  *
+ * <p>Deduplication decisions are not saved one by one: {@link com.ltfs.cdp.customer.service.DeduplicationLogWriter}
+ * queues them and writes them in JDBC batches through {@link DeduplicationLogBatchRepository#insertBatch(java.util.List)}.</p>
+ *
  * @author Code Generation Agent
  * @version 1.0
  * @since 2025-05-31
  */
 @Repository
-public interface DeduplicationLogRepository extends JpaRepository<DeduplicationLog, Long> {
+public interface DeduplicationLogRepository extends JpaRepository<DeduplicationLog, Long>, DeduplicationLogBatchRepository {
 
     // No custom methods are explicitly required based on the prompt,
     // as JpaRepository provides common operations like save, findById, findAll, etc.
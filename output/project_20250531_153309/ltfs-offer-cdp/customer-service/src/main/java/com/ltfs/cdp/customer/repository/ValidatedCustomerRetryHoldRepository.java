@@ -0,0 +1,51 @@
+package com.ltfs.cdp.customer.repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Records of the validated customer topic that are on the retry path and not yet resolved (applied,
+ * rejected or dead-lettered), by record key. Implemented with plain JDBC by
+ * {@link ValidatedCustomerRetryHoldRepositoryImpl}, so that every replica sees the same holds.
+ *
+ * <p>A record is identified by the partition and offset it had on the validated customer topic;
+ * the records of a key share a partition, so their offsets give their order.</p>
+ */
+public interface ValidatedCustomerRetryHoldRepository {
+
+    /**
+     * Returns the keys that have at least one record on the retry path.
+     *
+     * @param recordKeys The keys to check.
+     * @return The held keys among {@code recordKeys}.
+     */
+    Set<String> findHeldKeys(Collection<String> recordKeys);
+
+    /**
+     * Holds a record's key until the record is released. Holding a record again has no effect.
+     *
+     * @param recordKey The record key.
+     * @param partition The partition of the record on the validated customer topic.
+     * @param offset The offset of the record on the validated customer topic.
+     */
+    void hold(String recordKey, int partition, long offset);
+
+    /**
+     * Checks whether an earlier record of the same key is still on the retry path.
+     *
+     * @param recordKey The record key.
+     * @param partition The partition of the record on the validated customer topic.
+     * @param offset The offset of the record on the validated customer topic.
+     * @return {@code true} if a record of the key with a lower offset is held.
+     */
+    boolean isHeldBehindEarlierRecord(String recordKey, int partition, long offset);
+
+    /**
+     * Releases a record once it is resolved. Releasing a record that is not held has no effect.
+     *
+     * @param recordKey The record key.
+     * @param partition The partition of the record on the validated customer topic.
+     * @param offset The offset of the record on the validated customer topic.
+     */
+    void release(String recordKey, int partition, long offset);
+}
@@ -0,0 +1,71 @@
+package com.ltfs.cdp.customer.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC implementation of {@link ValidatedCustomerRetryHoldRepository} over the
+ * {@code validated_customer_retry_hold} table, created by
+ * {@code scripts/sql/migrations/validated_customer_retry_hold.sql}. The table has no JPA entity:
+ * holds are written and checked by key only, each statement in its own auto-committed transaction.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.kafka.validated-customer-batch.enabled", havingValue = "true")
+public class ValidatedCustomerRetryHoldRepositoryImpl implements ValidatedCustomerRetryHoldRepository {
+
+    // Keys per query, well below the database's bind parameter limit.
+    private static final int KEY_CHUNK_SIZE = 1000;
+
+    private static final String HOLD_SQL = "INSERT INTO validated_customer_retry_hold "
+            + "(record_key, source_partition, source_offset, held_at) VALUES (?, ?, ?, now()) "
+            + "ON CONFLICT (record_key, source_partition, source_offset) DO NOTHING";
+    private static final String HELD_BEHIND_SQL = "SELECT EXISTS (SELECT 1 FROM validated_customer_retry_hold "
+            + "WHERE record_key = ? AND source_partition = ? AND source_offset < ?)";
+    private static final String RELEASE_SQL = "DELETE FROM validated_customer_retry_hold "
+            + "WHERE record_key = ? AND source_partition = ? AND source_offset = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ValidatedCustomerRetryHoldRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Set<String> findHeldKeys(Collection<String> recordKeys) {
+        if (recordKeys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<String> keys = new ArrayList<>(recordKeys);
+        Set<String> held = new HashSet<>();
+        for (int from = 0; from < keys.size(); from += KEY_CHUNK_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + KEY_CHUNK_SIZE, keys.size()));
+            String sql = "SELECT DISTINCT record_key FROM validated_customer_retry_hold WHERE record_key IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            held.addAll(jdbcTemplate.queryForList(sql, String.class, chunk.toArray()));
+        }
+        return held;
+    }
+
+    @Override
+    public void hold(String recordKey, int partition, long offset) {
+        jdbcTemplate.update(HOLD_SQL, recordKey, partition, offset);
+    }
+
+    @Override
+    public boolean isHeldBehindEarlierRecord(String recordKey, int partition, long offset) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HELD_BEHIND_SQL, Boolean.class, recordKey, partition, offset));
+    }
+
+    @Override
+    public void release(String recordKey, int partition, long offset) {
+        jdbcTemplate.update(RELEASE_SQL, recordKey, partition, offset);
+    }
+}
@@ -0,0 +1,353 @@
+package com.ltfs.cdp.customer.service;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Precompiled accessors for the declared fields of a class, for updating attributes by name without
+ * per-call reflection.
+ *
+ * <p>Built once per class by {@link #of(Class)}. For each declared instance field, the getter and
+ * setter are compiled into {@link Function} and {@link BiConsumer} instances with
+ * {@link LambdaMetafactory} when the class has public accessor methods for it (as generated by
+ * Lombok's {@code @Data}), and otherwise bound to the field itself through {@link MethodHandle}s.
+ * The conversion of incoming values to the field type is also chosen once per field.</p>
+ *
+ * @param <T> The class whose attributes are accessed.
+ */
+public final class AttributeAccessors<T> {
+
+    private final Class<T> type;
+    private final Map<String, Attribute> attributes;
+
+    private AttributeAccessors(Class<T> type, Map<String, Attribute> attributes) {
+        this.type = type;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Builds the accessors of the declared instance fields of {@code type}.
+     *
+     * @throws IllegalStateException If an accessor cannot be generated.
+     */
+    public static <T> AttributeAccessors<T> of(Class<T> type) {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access the fields of " + type.getName(), e);
+        }
+        Map<String, Attribute> attributes = new HashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                attributes.put(field.getName(), attribute(lookup, type, field));
+            }
+        }
+        return new AttributeAccessors<>(type, Collections.unmodifiableMap(attributes));
+    }
+
+    /**
+     * Returns the accessor of an attribute, or {@code null} if {@code name} is not a declared field.
+     */
+    public Attribute attribute(String name) {
+        return attributes.get(name);
+    }
+
+    public Set<String> names() {
+        return attributes.keySet();
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Accessor of one attribute.
+     */
+    public static final class Attribute {
+        private final String name;
+        private final Class<?> valueType;
+        private final boolean primitive;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        private final Function<Object, Object> converter;
+
+        private Attribute(String name, Class<?> valueType, boolean primitive, Function<Object, Object> getter,
+                          BiConsumer<Object, Object> setter, Function<Object, Object> converter) {
+            this.name = name;
+            this.valueType = valueType;
+            this.primitive = primitive;
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Object get(Object target) {
+            return getter.apply(target);
+        }
+
+        /**
+         * Converts {@code value} to the attribute type, e.g. a {@code String} to a {@code LocalDate}
+         * or an {@code Integer} to a {@code Long}.
+         *
+         * @throws IllegalArgumentException If the value cannot be converted, or is {@code null} for a primitive field.
+         */
+        public Object convert(Object value) {
+            if (value == null) {
+                if (primitive) {
+                    throw new IllegalArgumentException("Attribute '" + name + "' cannot be null.");
+                }
+                return null;
+            }
+            if (valueType.isInstance(value)) {
+                return value;
+            }
+            try {
+                return converter.apply(value);
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for attribute '" + name + "': cannot convert "
+                        + value.getClass().getSimpleName() + " '" + value + "' to " + valueType.getSimpleName() + ".", e);
+            }
+        }
+
+        /**
+         * Sets an already converted value.
+         */
+        public void set(Object target, Object convertedValue) {
+            setter.accept(target, convertedValue);
+        }
+    }
+
+    private static Attribute attribute(MethodHandles.Lookup lookup, Class<?> type, Field field) {
+        Class<?> fieldType = field.getType();
+        Class<?> valueType = wrap(fieldType);
+        Function<Object, Object> getter;
+        BiConsumer<Object, Object> setter;
+        try {
+            Method getterMethod = accessor(type, (fieldType == boolean.class ? "is" : "get") + capitalize(field.getName()));
+            Method setterMethod = accessor(type, "set" + capitalize(field.getName()), fieldType);
+            if (getterMethod != null && getterMethod.getReturnType() == fieldType
+                    && setterMethod != null && setterMethod.getReturnType() == void.class) {
+                getter = compileGetter(lookup, type, getterMethod, valueType);
+                setter = compileSetter(lookup, type, setterMethod, valueType);
+            } else {
+                getter = fieldGetter(lookup.unreflectGetter(field));
+                setter = fieldSetter(lookup.unreflectSetter(field));
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot generate an accessor for " + type.getName() + "." + field.getName(), e);
+        }
+        return new Attribute(field.getName(), valueType, fieldType.isPrimitive(), getter, setter, converter(valueType));
+    }
+
+    private static Method accessor(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getMethod(name, parameterTypes);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileGetter(MethodHandles.Lookup lookup, Class<?> type, Method method,
+                                                          Class<?> valueType) throws Throwable {
+        MethodHandle implementation = lookup.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class), implementation,
+                MethodType.methodType(valueType, type));
+        return (Function<Object, Object>) site.getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compileSetter(MethodHandles.Lookup lookup, Class<?> type, Method method,
+                                                            Class<?> valueType) throws Throwable {
+        MethodHandle implementation = lookup.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class), implementation,
+                MethodType.methodType(void.class, type, valueType));
+        return (BiConsumer<Object, Object>) site.getTarget().invoke();
+    }
+
+    private static Function<Object, Object> fieldGetter(MethodHandle handle) {
+        MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> fieldSetter(MethodHandle handle) {
+        MethodHandle setter = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (target, value) -> {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+
+    /**
+     * Chooses the conversion of values that are not already of {@code valueType}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Object> converter(Class<?> valueType) {
+        if (valueType == String.class) {
+            return value -> {
+                if (value instanceof Enum) {
+                    return ((Enum<?>) value).name();
+                }
+                if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof UUID) {
+                    return value.toString();
+                }
+                throw new IllegalArgumentException("unsupported source type");
+            };
+        }
+        if (valueType == Long.class) {
+            return value -> integral(value, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        if (valueType == Integer.class) {
+            return value -> (int) integral(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        if (valueType == Short.class) {
+            return value -> (short) integral(value, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        if (valueType == Byte.class) {
+            return value -> (byte) integral(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        if (valueType == Double.class) {
+            return value -> value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(text(value));
+        }
+        if (valueType == Float.class) {
+            return value -> value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(text(value));
+        }
+        if (valueType == BigDecimal.class) {
+            return value -> new BigDecimal(value instanceof Number ? value.toString() : text(value));
+        }
+        if (valueType == BigInteger.class) {
+            return value -> new BigDecimal(value instanceof Number ? value.toString() : text(value)).toBigIntegerExact();
+        }
+        if (valueType == Boolean.class) {
+            return value -> {
+                String text = text(value);
+                if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                    return Boolean.valueOf(text);
+                }
+                throw new IllegalArgumentException("not a boolean");
+            };
+        }
+        if (valueType == Character.class) {
+            return value -> {
+                String text = text(value);
+                if (text.length() != 1) {
+                    throw new IllegalArgumentException("not a single character");
+                }
+                return text.charAt(0);
+            };
+        }
+        if (valueType.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) valueType;
+            return value -> {
+                String text = text(value);
+                for (Object constant : enumType.getEnumConstants()) {
+                    if (((Enum<?>) constant).name().equalsIgnoreCase(text)) {
+                        return constant;
+                    }
+                }
+                throw new IllegalArgumentException("not a constant of " + enumType.getSimpleName());
+            };
+        }
+        if (valueType == LocalDate.class) {
+            return value -> LocalDate.parse(text(value));
+        }
+        if (valueType == LocalDateTime.class) {
+            return value -> LocalDateTime.parse(text(value));
+        }
+        if (valueType == LocalTime.class) {
+            return value -> LocalTime.parse(text(value));
+        }
+        if (valueType == Instant.class) {
+            return value -> Instant.parse(text(value));
+        }
+        if (valueType == OffsetDateTime.class) {
+            return value -> OffsetDateTime.parse(text(value));
+        }
+        if (valueType == UUID.class) {
+            return value -> UUID.fromString(text(value));
+        }
+        return value -> {
+            throw new IllegalArgumentException("unsupported target type");
+        };
+    }
+
+    private static long integral(Object value, long min, long max) {
+        long result;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            result = ((Number) value).longValue();
+        } else {
+            // Rejects fractions and out-of-range values instead of silently truncating them.
+            result = new BigDecimal(value instanceof Number ? value.toString() : text(value)).longValueExact();
+        }
+        if (result < min || result > max) {
+            throw new ArithmeticException("out of range");
+        }
+        return result;
+    }
+
+    private static String text(Object value) {
+        if (value instanceof String) {
+            return ((String) value).trim();
+        }
+        throw new IllegalArgumentException("unsupported source type");
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
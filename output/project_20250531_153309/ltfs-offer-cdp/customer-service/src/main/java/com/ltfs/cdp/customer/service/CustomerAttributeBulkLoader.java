@@ -0,0 +1,71 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import com.ltfs.cdp.customer.repository.CustomerAttributeDocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads attribute values of many customers into their {@link CustomerAttributeDocument}s, e.g. a
+ * daily attribute extract of a source system.
+ *
+ * <p>The values of each customer are merged into the customer's document: attributes of the same
+ * name are replaced, others are kept. Customers are written in JDBC batches of {@code batch-size},
+ * each in its own transaction, without loading the documents.</p>
+ */
+@Service
+public class CustomerAttributeBulkLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAttributeBulkLoader.class);
+
+    private final CustomerAttributeDocumentRepository documentRepository;
+    private final CustomerAttributeStore attributeStore;
+    private final int batchSize;
+
+    public CustomerAttributeBulkLoader(CustomerAttributeDocumentRepository documentRepository,
+                                       CustomerAttributeStore attributeStore,
+                                       @Value("${app.customer.attributes.bulk.batch-size:500}") int batchSize) {
+        this.documentRepository = documentRepository;
+        this.attributeStore = attributeStore;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Merges attribute values into the documents of their customers.
+     *
+     * @param attributesByCustomer The attribute values by name (String, Number or Boolean), by customer ID.
+     * @param sourceSystem The system the values come from (e.g. "Offermart").
+     * @return The number of customers written.
+     * @throws IllegalStateException If attributes are still read from the EAV table, where loaded
+     *                               values would not be visible; migrate and switch the storage mode first.
+     */
+    public int load(Map<Long, Map<String, Object>> attributesByCustomer, String sourceSystem) {
+        if (attributeStore.getStorageMode() != CustomerAttributeStore.StorageMode.JSONB) {
+            throw new IllegalStateException("Bulk attribute loading requires the JSONB attribute storage mode.");
+        }
+        long startTime = System.currentTimeMillis();
+        LocalDateTime loadedAt = LocalDateTime.now();
+        List<CustomerAttributeDocument> batch = new ArrayList<>(Math.min(batchSize, attributesByCustomer.size()));
+        int written = 0;
+        for (Map.Entry<Long, Map<String, Object>> entry : attributesByCustomer.entrySet()) {
+            batch.add(CustomerAttributeDocuments.fromValues(entry.getKey(), entry.getValue(), sourceSystem, loadedAt));
+            if (batch.size() == batchSize) {
+                documentRepository.mergeAll(batch);
+                written += batch.size();
+                batch.clear();
+            }
+        }
+        documentRepository.mergeAll(batch);
+        written += batch.size();
+        logger.info("Loaded attributes of {} customers from {} in {} ms.", written, sourceSystem,
+                System.currentTimeMillis() - startTime);
+        return written;
+    }
+}
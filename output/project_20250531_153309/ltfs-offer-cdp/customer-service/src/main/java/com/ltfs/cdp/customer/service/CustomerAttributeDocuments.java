@@ -0,0 +1,124 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.model.CustomerAttribute;
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument.AttributeMetadata;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Conversions between the row-per-attribute {@link CustomerAttribute} table and
+ * {@link CustomerAttributeDocument}s.
+ */
+final class CustomerAttributeDocuments {
+
+    private CustomerAttributeDocuments() {
+    }
+
+    /**
+     * Folds attribute rows into one document per customer. When a customer has several rows with
+     * the same attribute name, the most recently updated one wins.
+     *
+     * @param rows Attribute rows of any number of customers.
+     * @return The documents by customer ID, in the order the customers first appear.
+     */
+    static Map<Long, CustomerAttributeDocument> fromRows(Collection<CustomerAttribute> rows) {
+        Map<Long, CustomerAttributeDocument> documents = new LinkedHashMap<>();
+        for (CustomerAttribute row : rows) {
+            // Reads the foreign key without initializing the lazy customer.
+            Long customerId = row.getCustomer().getId();
+            CustomerAttributeDocument document = documents.computeIfAbsent(customerId, id -> {
+                CustomerAttributeDocument created = new CustomerAttributeDocument();
+                created.setCustomerId(id);
+                return created;
+            });
+            AttributeMetadata current = document.getMetadata().get(row.getAttributeName());
+            if (current != null && isAfter(current.getLastUpdatedDate(), row.getLastUpdatedDate())) {
+                continue;
+            }
+            document.putAttribute(row.getAttributeName(), toTypedValue(row.getAttributeValue(), row.getDataType()),
+                    new AttributeMetadata(row.getDataType(), row.getSourceSystem(), row.getLastUpdatedDate()));
+        }
+        return documents;
+    }
+
+    /**
+     * Builds the document of a customer from attribute values supplied by one source system.
+     */
+    static CustomerAttributeDocument fromValues(Long customerId, Map<String, Object> values, String sourceSystem,
+                                                LocalDateTime updatedAt) {
+        CustomerAttributeDocument document = new CustomerAttributeDocument();
+        document.setCustomerId(customerId);
+        values.forEach((name, value) ->
+                document.putAttribute(name, value, new AttributeMetadata(dataTypeOf(value), sourceSystem, updatedAt)));
+        return document;
+    }
+
+    /**
+     * Converts an EAV attribute value to its JSON type according to its data type. Values that do
+     * not parse as their declared type are kept as strings, so migrating never loses data.
+     *
+     * @return A Long, BigDecimal, Boolean or String; null for a null value.
+     */
+    static Object toTypedValue(String value, String dataType) {
+        if (value == null || dataType == null) {
+            return value;
+        }
+        String trimmed = value.trim();
+        try {
+            switch (dataType.toUpperCase(Locale.ROOT)) {
+                case "INTEGER":
+                case "LONG":
+                    return Long.valueOf(trimmed);
+                case "DECIMAL":
+                case "DOUBLE":
+                    return new BigDecimal(trimmed);
+                case "BOOLEAN":
+                    if ("true".equalsIgnoreCase(trimmed) || "false".equalsIgnoreCase(trimmed)) {
+                        return Boolean.valueOf(trimmed);
+                    }
+                    return value;
+                default:
+                    // STRING, DATE (ISO-8601 strings sort and compare correctly) and unknown types.
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    /**
+     * The EAV data type of a typed value.
+     */
+    static String dataTypeOf(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return "INTEGER";
+        }
+        if (value instanceof Number) {
+            return "DECIMAL";
+        }
+        if (value instanceof Boolean) {
+            return "BOOLEAN";
+        }
+        return "STRING";
+    }
+
+    /**
+     * Copies the attribute values of documents, by customer ID.
+     */
+    static Map<Long, Map<String, Object>> valuesOf(Collection<CustomerAttributeDocument> documents) {
+        Map<Long, Map<String, Object>> values = new HashMap<>();
+        documents.forEach(document -> values.put(document.getCustomerId(), new LinkedHashMap<>(document.getAttributes())));
+        return values;
+    }
+
+    private static boolean isAfter(LocalDateTime first, LocalDateTime second) {
+        return first != null && (second == null || first.isAfter(second));
+    }
+}
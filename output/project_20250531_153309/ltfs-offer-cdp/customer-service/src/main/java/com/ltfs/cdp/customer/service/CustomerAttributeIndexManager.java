@@ -0,0 +1,80 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates a GIN index on each frequently filtered ("hot") attribute of the attribute documents,
+ * listed in {@code app.customer.attributes.indexed-keys}.
+ *
+ * <p>Each index covers the expression {@code attributes -> 'name'} with the {@code jsonb_path_ops}
+ * operator class, the smallest GIN index supporting the containment ({@code @>}) filters of
+ * {@code CustomerAttributeDocumentBatchRepository}. Indexing only the hot attributes keeps the
+ * indexes small and cheap to maintain on writes; other attributes are still filtered, by a scan.</p>
+ *
+ * <p>Indexes are created {@code CONCURRENTLY} once the application is ready, so neither startup nor
+ * writes are blocked, and only if missing, so adding a key to the list is enough to index it.</p>
+ */
+@Component
+public class CustomerAttributeIndexManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAttributeIndexManager.class);
+    private static final String INDEX_PREFIX = "idx_cad_attr_";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> indexedKeys;
+
+    public CustomerAttributeIndexManager(JdbcTemplate jdbcTemplate,
+                                         @Value("${app.customer.attributes.indexed-keys:}") List<String> indexedKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexedKeys = indexedKeys;
+    }
+
+    /**
+     * Creates the missing indexes of the hot attributes. A failure is logged and does not prevent
+     * startup; filters on that attribute then scan the documents.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        for (String key : indexedKeys) {
+            if (key.isBlank()) {
+                continue;
+            }
+            try {
+                String sql = indexDefinition(key.trim());
+                long startTime = System.currentTimeMillis();
+                // CREATE INDEX CONCURRENTLY cannot run in a transaction; JdbcTemplate auto-commits here.
+                jdbcTemplate.execute(sql);
+                logger.info("Ensured GIN index on customer attribute '{}' in {} ms.", key.trim(),
+                        System.currentTimeMillis() - startTime);
+            } catch (RuntimeException e) {
+                logger.error("Could not create the GIN index on customer attribute '{}'; filters on it will scan.", key, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the DDL of the index of an attribute.
+     *
+     * @throws IllegalArgumentException If the attribute name cannot be embedded in an index expression.
+     */
+    static String indexDefinition(String attributeName) {
+        String name = CustomerAttributeDocument.requireFilterableName(attributeName);
+        String indexName = INDEX_PREFIX + name.toLowerCase(Locale.ROOT).replace('-', '_');
+        // PostgreSQL truncates identifiers to 63 bytes; keep names of long attributes distinct.
+        if (indexName.length() > 63) {
+            indexName = indexName.substring(0, 54) + "_" + Integer.toHexString(name.hashCode());
+        }
+        return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName
+                + " ON customer_attribute_document USING gin ((attributes -> '" + name + "') jsonb_path_ops)";
+    }
+}
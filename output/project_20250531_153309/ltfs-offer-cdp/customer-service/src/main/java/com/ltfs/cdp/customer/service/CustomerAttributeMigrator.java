@@ -0,0 +1,92 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.dto.CustomerAttributeMigrationResult;
+import com.ltfs.cdp.customer.model.CustomerAttribute;
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import com.ltfs.cdp.customer.repository.CustomerAttributeDocumentRepository;
+import com.ltfs.cdp.customer.repository.CustomerAttributeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Copies customer attributes from the row-per-attribute {@code customer_attribute} table into
+ * {@link CustomerAttributeDocument}s.
+ *
+ * <p>The table is walked in ascending customer ID order, {@code chunk-size} customers at a time:
+ * one query for the next customer IDs, one for their attribute rows, and one JDBC batch writing
+ * their documents in its own transaction. Memory use is bounded by the chunk, and a failed run is
+ * resumed after the last customer it copied.</p>
+ *
+ * <p>By default only customers without a document are copied, so a re-run never overwrites
+ * attributes written to the documents since. With {@code overwrite}, the copied attributes replace
+ * attributes of the same name in existing documents, e.g. to pick up changes made to the table
+ * while the migration ran.</p>
+ */
+@Service
+public class CustomerAttributeMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAttributeMigrator.class);
+
+    private final CustomerAttributeRepository attributeRepository;
+    private final CustomerAttributeDocumentRepository documentRepository;
+    private final int chunkSize;
+
+    public CustomerAttributeMigrator(CustomerAttributeRepository attributeRepository,
+                                     CustomerAttributeDocumentRepository documentRepository,
+                                     @Value("${app.customer.attributes.migration.chunk-size:1000}") int chunkSize) {
+        this.attributeRepository = attributeRepository;
+        this.documentRepository = documentRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Copies the attributes of all customers with an ID greater than {@code afterCustomerId}.
+     *
+     * @param afterCustomerId The customer ID to resume after; null or 0 to start from the beginning.
+     * @param overwrite Whether existing documents are merged with the copied attributes instead of skipped.
+     * @return The summary of the run; not completed if a chunk failed.
+     */
+    public CustomerAttributeMigrationResult migrate(Long afterCustomerId, boolean overwrite) {
+        long startTime = System.currentTimeMillis();
+        Long lastCustomerId = afterCustomerId != null ? afterCustomerId : 0L;
+        long customers = 0;
+        long attributeRows = 0;
+        logger.info("Migrating customer attributes to documents after customer ID {} (chunk size {}, overwrite {}).",
+                lastCustomerId, chunkSize, overwrite);
+
+        while (true) {
+            List<Long> customerIds = attributeRepository.findCustomerIdsAfter(lastCustomerId, PageRequest.of(0, chunkSize));
+            if (customerIds.isEmpty()) {
+                break;
+            }
+            try {
+                List<CustomerAttribute> rows = attributeRepository.findByCustomerIdIn(customerIds);
+                Collection<CustomerAttributeDocument> documents = CustomerAttributeDocuments.fromRows(rows).values();
+                if (overwrite) {
+                    documentRepository.mergeAll(documents);
+                } else {
+                    documentRepository.insertAllIfAbsent(documents);
+                }
+                attributeRows += rows.size();
+            } catch (RuntimeException e) {
+                logger.error("Customer attribute migration failed in the chunk after customer ID {}; resume after it.",
+                        lastCustomerId, e);
+                return new CustomerAttributeMigrationResult(customers, attributeRows, lastCustomerId, false,
+                        System.currentTimeMillis() - startTime);
+            }
+            customers += customerIds.size();
+            lastCustomerId = customerIds.get(customerIds.size() - 1);
+            logger.debug("Migrated attributes of {} customers, up to customer ID {}.", customers, lastCustomerId);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Migrated {} attribute rows of {} customers to documents in {} ms.", attributeRows, customers, duration);
+        return new CustomerAttributeMigrationResult(customers, attributeRows, lastCustomerId, true, duration);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import com.ltfs.cdp.customer.repository.CustomerAttributeDocumentRepository;
+import com.ltfs.cdp.customer.repository.CustomerAttributeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the dynamic attributes of customers from the configured storage:
+ * <ul>
+ *     <li>{@link StorageMode#EAV}: the row-per-attribute {@code customer_attribute} table, one row
+ *         per attribute of a customer;</li>
+ *     <li>{@link StorageMode#JSONB}: the {@code customer_attribute_document} table, a single row
+ *         per customer, filtered through the GIN indexes of the hot attributes.</li>
+ * </ul>
+ * Both return the values with their type (Long, BigDecimal, Boolean or String). Switch to JSONB
+ * once {@link CustomerAttributeMigrator} has copied the attribute table.
+ */
+@Service
+public class CustomerAttributeStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAttributeStore.class);
+
+    /**
+     * Where customer attributes are read from.
+     */
+    public enum StorageMode {
+        EAV, JSONB
+    }
+
+    private final CustomerAttributeRepository attributeRepository;
+    private final CustomerAttributeDocumentRepository documentRepository;
+    private final StorageMode storageMode;
+
+    public CustomerAttributeStore(CustomerAttributeRepository attributeRepository,
+                                  CustomerAttributeDocumentRepository documentRepository,
+                                  @Value("${app.customer.attributes.storage-mode:EAV}") StorageMode storageMode) {
+        this.attributeRepository = attributeRepository;
+        this.documentRepository = documentRepository;
+        this.storageMode = storageMode;
+        logger.info("Customer attributes are read from the {} store.", storageMode);
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Returns the attributes of a customer.
+     *
+     * @param customerId The ID of the customer.
+     * @return The attribute values by name; empty if the customer has none.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAttributes(Long customerId) {
+        if (storageMode == StorageMode.JSONB) {
+            return documentRepository.findById(customerId)
+                    .<Map<String, Object>>map(document -> new LinkedHashMap<>(document.getAttributes()))
+                    .orElse(Collections.emptyMap());
+        }
+        CustomerAttributeDocument document = CustomerAttributeDocuments
+                .fromRows(attributeRepository.findByCustomerId(customerId)).get(customerId);
+        return document != null ? document.getAttributes() : Collections.emptyMap();
+    }
+
+    /**
+     * Returns the attributes of several customers with one query.
+     *
+     * @param customerIds The IDs of the customers.
+     * @return The attribute values by name, by customer ID; customers without attributes are absent.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Map<String, Object>> getAttributes(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Collection<CustomerAttributeDocument> documents = storageMode == StorageMode.JSONB
+                ? documentRepository.findByCustomerIdIn(customerIds)
+                : CustomerAttributeDocuments.fromRows(attributeRepository.findByCustomerIdIn(customerIds)).values();
+        return CustomerAttributeDocuments.valuesOf(documents);
+    }
+
+    /**
+     * Finds the customers with the given attribute value.
+     *
+     * @param attributeName The attribute name.
+     * @param value The typed value, e.g. "Salaried" or 5.
+     * @param limit The maximum number of customer IDs to return.
+     * @return The customer IDs in ascending order.
+     * @throws IllegalArgumentException In JSONB mode, if the attribute name contains other characters
+     *                                  than letters, digits, '_' and '-'.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findCustomerIdsByAttribute(String attributeName, Object value, int limit) {
+        if (storageMode == StorageMode.JSONB) {
+            return documentRepository.findCustomerIdsByAttribute(attributeName, value, limit);
+        }
+        // The table stores the string form; BigDecimal values must match it exactly (e.g. "5.50").
+        String stored = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : String.valueOf(value);
+        return attributeRepository.findCustomerIdsByAttribute(attributeName, stored, PageRequest.of(0, limit));
+    }
+}
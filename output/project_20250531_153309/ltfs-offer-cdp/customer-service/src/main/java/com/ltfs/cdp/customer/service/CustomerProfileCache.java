@@ -0,0 +1,162 @@
+package com.ltfs.cdp.customer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ltfs.cdp.customer.event.CustomerDeletedEvent;
+import com.ltfs.cdp.customer.event.CustomerProfileUpdatedEvent;
+import com.ltfs.cdp.customer.event.CustomerProfilesUpsertedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process ("near") cache of customer profiles, keyed by CDP customer ID.
+ *
+ * <p>Entries are evicted when the cache exceeds {@code maximum-size} (least recently and frequently
+ * used first) and expire {@code time-to-live} after they were loaded. They are invalidated
+ * precisely when a profile changes:</p>
+ * <ul>
+ *     <li>locally, by the {@link CustomerProfileUpdatedEvent}, {@link CustomerProfilesUpsertedEvent}
+ *         and {@link CustomerDeletedEvent} of this instance, once their transaction has committed, so
+ *         a concurrent read cannot cache the state from before the commit again;</li>
+ *     <li>on every other replica, by the customer ID this instance then publishes to the
+ *         {@code profile-cache-invalidation-topic}, which every replica consumes with its own
+ *         consumer group ({@code ProfileCacheInvalidationListener}).</li>
+ * </ul>
+ * <p>A replica that misses an invalidation (e.g. while Kafka is unreachable) serves the old profile
+ * until the entry expires, so the time to live bounds the staleness. Loads for the same ID are
+ * coalesced, and an invalidation arriving during a load removes its result.</p>
+ *
+ * <p>Each cache holds one value type (the profile DTO); values are shared between callers and must
+ * not be modified.</p>
+ *
+ * <p>Metrics (tagged {@code cache=customer-profiles}): {@code cache.gets} by {@code result} (hit or
+ * miss), {@code cache.evictions}, {@code cache.size} and {@code cache.puts}, plus
+ * {@code cdp.customer.profile.cache.invalidations} by {@code origin} (local or remote).</p>
+ */
+@Component
+public class CustomerProfileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerProfileCache.class);
+    static final String CACHE_NAME = "customer-profiles";
+
+    private final boolean enabled;
+    private final Cache<String, Object> cache;
+    private final Consumer<String> invalidationPublisher;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    @Autowired
+    public CustomerProfileCache(MeterRegistry meterRegistry,
+                                KafkaTemplate<String, Object> kafkaTemplate,
+                                @Value("${app.customer.profile-cache.enabled:true}") boolean enabled,
+                                @Value("${app.customer.profile-cache.maximum-size:100000}") long maximumSize,
+                                @Value("${app.customer.profile-cache.time-to-live:10m}") Duration timeToLive,
+                                @Value("${app.kafka.topics.profile-cache-invalidation-topic}") String invalidationTopic) {
+        this(meterRegistry, customerId -> kafkaTemplate.send(invalidationTopic, customerId, customerId),
+                enabled, maximumSize, timeToLive, Ticker.systemTicker());
+    }
+
+    /**
+     * Creates a cache that announces invalidations to {@code invalidationPublisher} and reads time
+     * from {@code ticker}.
+     */
+    CustomerProfileCache(MeterRegistry meterRegistry, Consumer<String> invalidationPublisher, boolean enabled,
+                         long maximumSize, Duration timeToLive, Ticker ticker) {
+        this.enabled = enabled;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.localInvalidations = meterRegistry.counter("cdp.customer.profile.cache.invalidations", "origin", "local");
+        this.remoteInvalidations = meterRegistry.counter("cdp.customer.profile.cache.invalidations", "origin", "remote");
+        logger.info("Customer profile cache {} (maximum size {}, time to live {}).",
+                enabled ? "enabled" : "disabled", maximumSize, timeToLive);
+    }
+
+    /**
+     * Returns the cached profile of a customer, loading and caching it on a miss. Exceptions of the
+     * loader (e.g. customer not found) are propagated and nothing is cached.
+     *
+     * @param customerId The CDP customer ID.
+     * @param loader     Loads the profile from the database.
+     * @return The profile.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String customerId, Function<String, T> loader) {
+        if (!enabled) {
+            return loader.apply(customerId);
+        }
+        return (T) cache.get(customerId, loader);
+    }
+
+    /**
+     * Invalidates the entry of a customer whose profile a replica (possibly this one) changed,
+     * without announcing it again.
+     */
+    public void onRemoteInvalidation(String customerId) {
+        cache.invalidate(customerId);
+        remoteInvalidations.increment();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileUpdated(CustomerProfileUpdatedEvent event) {
+        invalidate(event.getCustomerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfilesUpserted(CustomerProfilesUpsertedEvent event) {
+        // Created profiles cannot be cached yet: misses are not cached.
+        invalidate(event.getUpdatedCustomerIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileDeleted(CustomerDeletedEvent event) {
+        invalidate(event.getCustomerId());
+    }
+
+    private void invalidate(Collection<String> customerIds) {
+        customerIds.forEach(this::invalidate);
+    }
+
+    /**
+     * Invalidates a changed profile here and announces the change to the other replicas.
+     */
+    private void invalidate(String customerId) {
+        cache.invalidate(customerId);
+        localInvalidations.increment();
+        try {
+            invalidationPublisher.accept(customerId);
+        } catch (RuntimeException e) {
+            // The other replicas catch up when their entry expires.
+            logger.warn("Could not publish the profile cache invalidation of customer {}: {}", customerId, e.getMessage());
+        }
+    }
+}
@@ -2,11 +2,19 @@ package com.ltfs.cdp.customer.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +23,9 @@ import org.slf4j.LoggerFactory;
  * Service class responsible for managing customer attributes and applying segmentation logic.
  * It interacts with the CustomerRepository to fetch and update customer data,
  * and applies predefined or dynamically loaded segmentation rules to assign customers to segments.
+ *
+ * The active rules are compiled once per rule-set version into a {@link SegmentationDecisionTable},
+ * which segments a customer in O(log rules). {@link #reloadSegmentationRules()} compiles a new version.
  */
 @Service
 public class CustomerSegmentationService {
@@ -22,15 +33,41 @@ public class CustomerSegmentationService {
     private static final Logger log = LoggerFactory.getLogger(CustomerSegmentationService.class);
 
     private final CustomerRepository customerRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final int batchSize;
+
+    private volatile SegmentationDecisionTable decisionTable;
 
     /**
      * Constructs a new CustomerSegmentationService with the given CustomerRepository.
      *
      * @param customerRepository The repository for accessing customer data.
+     * @param transactionManager The transaction manager each chunk of {@link #applySegmentationInBatches(Stream)}
+     *                           is saved with.
+     * @param batchSize The number of customers per chunk of {@link #applySegmentationInBatches(Stream)}.
      */
     @Autowired
-    public CustomerSegmentationService(CustomerRepository customerRepository) {
+    public CustomerSegmentationService(CustomerRepository customerRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.customer.segmentation.batch-size:1000}") int batchSize) {
         this.customerRepository = customerRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.decisionTable = compile(1);
+    }
+
+    /**
+     * Loads the active segmentation rules again and compiles them into a new decision table
+     * version. Customers segmented concurrently use either the old or the new table, never a mix.
+     *
+     * @return The new decision table.
+     */
+    public SegmentationDecisionTable reloadSegmentationRules() {
+        synchronized (this) {
+            decisionTable = compile(decisionTable.getVersion() + 1);
+            return decisionTable;
+        }
     }
 
     /**
@@ -54,6 +91,71 @@ public class CustomerSegmentationService {
                 });
     }
 
+    /**
+     * Segments a large number of customers and saves those whose segment changed.
+     * The customers are read from the stream in chunks of {@code batch-size}, as many chunks at a time as
+     * the common fork-join pool has threads, so at most that many chunks are in memory however large the
+     * source is. The chunks read are segmented in parallel against one decision table version. The changed
+     * customers of each chunk are then saved with one {@code saveAll} in a new transaction, even if the
+     * caller has one open (e.g. the read-only transaction of a streaming query): a failure only rolls back
+     * the chunk being written, earlier chunks stay committed, and no transaction or persistence context
+     * spans millions of rows.
+     *
+     * @param customers The customers to segment, e.g. a streaming repository query; their segment attribute is
+     *                  updated in place. The stream is consumed but not closed.
+     * @return The number of customers whose segment changed and were saved.
+     */
+    public int applySegmentationInBatches(Stream<Customer> customers) {
+        long startTime = System.currentTimeMillis();
+        SegmentationDecisionTable table = decisionTable;
+        int chunksPerRead = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        Iterator<Customer> source = customers.iterator();
+
+        int segmented = 0;
+        int chunks = 0;
+        int saved = 0;
+        while (source.hasNext()) {
+            List<List<Customer>> read = new ArrayList<>(chunksPerRead);
+            while (read.size() < chunksPerRead && source.hasNext()) {
+                List<Customer> chunk = new ArrayList<>(batchSize);
+                while (chunk.size() < batchSize && source.hasNext()) {
+                    chunk.add(source.next());
+                }
+                read.add(chunk);
+                segmented += chunk.size();
+            }
+            chunks += read.size();
+
+            List<List<Customer>> changedByChunk = read.parallelStream()
+                    .map(chunk -> segmentChunk(table, chunk))
+                    .collect(Collectors.toList());
+            for (List<Customer> changed : changedByChunk) {
+                if (!changed.isEmpty()) {
+                    chunkTransaction.executeWithoutResult(status -> customerRepository.saveAll(changed));
+                    saved += changed.size();
+                }
+            }
+        }
+        log.info("Segmented {} customers in {} chunks with rule set version {} in {} ms; {} changed segment.",
+                segmented, chunks, table.getVersion(), System.currentTimeMillis() - startTime, saved);
+        return saved;
+    }
+
+    /**
+     * Segments one chunk and returns the customers whose segment changed.
+     */
+    private static List<Customer> segmentChunk(SegmentationDecisionTable table, List<Customer> chunk) {
+        List<Customer> changed = new ArrayList<>();
+        for (Customer customer : chunk) {
+            CustomerSegment segment = table.segment(customer.getAge(), customer.getIncome());
+            if (segment != customer.getSegment()) {
+                customer.setSegment(segment);
+                changed.add(customer);
+            }
+        }
+        return changed;
+    }
+
     /**
      * Applies segmentation logic to a list of customers.
      * This method is designed for batch processing, allowing efficient segmentation of multiple customers,
@@ -75,27 +177,20 @@ public class CustomerSegmentationService {
 
     /**
      * Internal method to encapsulate the core business logic for customer segmentation.
-     * It iterates through a set of active segmentation rules and assigns the first matching segment
-     * to the customer. Rules are applied in a predefined order (e.g., by priority).
+     * It assigns the segment of the first matching active segmentation rule to the customer,
+     * looked up in the compiled decision table. Rules are applied in a predefined order (e.g., by priority).
      *
      * @param customer The Customer object whose segment needs to be determined.
      * @return The Customer object with its segment attribute updated.
      */
     private Customer applySegmentationLogic(Customer customer) {
-        // In a production system, segmentation rules would typically be loaded from a database,
-        // a configuration service, or a dedicated rule engine (e.g., Drools).
-        // For this example, rules are mocked.
-        List<SegmentationRule> activeRules = getActiveSegmentationRules();
+        SegmentationRule rule = decisionTable.match(customer.getAge(), customer.getIncome());
 
         CustomerSegment assignedSegment = CustomerSegment.MASS_MARKET; // Default segment if no rules match
-
-        for (SegmentationRule rule : activeRules) {
-            if (evaluateRule(customer, rule)) {
-                assignedSegment = rule.getTargetSegment();
-                log.debug("Customer {} (ID: {}) matched rule '{}' for segment: {}",
-                          customer.getName(), customer.getCustomerId(), rule.getRuleName(), assignedSegment);
-                break; // Apply the first matching rule (assuming rules are ordered by priority)
-            }
+        if (rule != null) {
+            assignedSegment = rule.getTargetSegment();
+            log.debug("Customer {} (ID: {}) matched rule '{}' for segment: {}",
+                      customer.getName(), customer.getCustomerId(), rule.getRuleName(), assignedSegment);
         }
 
         customer.setSegment(assignedSegment);
@@ -105,41 +200,15 @@ public class CustomerSegmentationService {
     }
 
     /**
-     * Evaluates a single segmentation rule against a customer's attributes.
-     * This method contains the logic to interpret various rule conditions (e.g., age, income).
-     * Additional conditions (e.g., product holdings, credit score, location) can be added here.
-     *
-     * @param customer The customer object to evaluate against the rule.
-     * @param rule The segmentation rule to apply.
-     * @return true if the customer satisfies all conditions of the rule, false otherwise.
+     * Compiles the active segmentation rules into a decision table.
+     * Conditions beyond age and income (e.g., product holdings, credit score, location) need
+     * an additional axis in {@link SegmentationDecisionTable}.
      */
-    private boolean evaluateRule(Customer customer, SegmentationRule rule) {
-        // Start with true, and set to false if any condition is not met
-        boolean matches = true;
-
-        // Evaluate age criteria
-        if (rule.getMinAge() != null && customer.getAge() < rule.getMinAge()) {
-            matches = false;
-        }
-        if (matches && rule.getMaxAge() != null && customer.getAge() > rule.getMaxAge()) {
-            matches = false;
-        }
-
-        // Evaluate income criteria
-        if (matches && rule.getMinIncome() != null && customer.getIncome() < rule.getMinIncome()) {
-            matches = false;
-        }
-        if (matches && rule.getMaxIncome() != null && customer.getIncome() > rule.getMaxIncome()) {
-            matches = false;
-        }
-
-        // Add more complex rule evaluations here as per business requirements.
-        // Example: Check product holdings
-        // if (matches && rule.getRequiredProduct() != null && !customer.getProductHoldings().contains(rule.getRequiredProduct())) {
-        //     matches = false;
-        // }
-
-        return matches;
+    private SegmentationDecisionTable compile(long version) {
+        List<SegmentationRule> activeRules = getActiveSegmentationRules();
+        SegmentationDecisionTable table = SegmentationDecisionTable.compile(version, activeRules, CustomerSegment.MASS_MARKET);
+        log.info("Compiled {} segmentation rules into decision table {}.", activeRules.size(), table);
+        return table;
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.ltfs.cdp.customer.service;
 
+import com.ltfs.cdp.customer.dto.CustomerBulkIngestionResult;
 import com.ltfs.cdp.customer.dto.CustomerDTO;
 import com.ltfs.cdp.customer.entity.Customer;
 import com.ltfs.cdp.customer.exception.CustomerNotFoundException;
@@ -7,17 +8,31 @@ import com.ltfs.cdp.customer.exception.ValidationException;
 import com.ltfs.cdp.customer.mapper.CustomerMapper;
 import com.ltfs.cdp.customer.repository.CustomerRepository;
 import com.ltfs.cdp.customer.event.CustomerCreatedEvent;
+import com.ltfs.cdp.customer.event.CustomerDeletedEvent;
 import com.ltfs.cdp.customer.event.CustomerProfileUpdatedEvent;
+import com.ltfs.cdp.customer.event.CustomerProfilesUpsertedEvent;
 import com.ltfs.cdp.customer.service.DeduplicationService.DeduplicationResult;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -31,11 +46,31 @@ public class CustomerService {
 
     private static final Logger log = LoggerFactory.getLogger(CustomerService.class);
 
+    // Accessors of the Customer entity's fields, generated once instead of reflecting on every update.
+    private static final AttributeAccessors<Customer> CUSTOMER_ATTRIBUTES = AttributeAccessors.of(Customer.class);
+    // IDs per query when loading customers for a bulk update, well below the database's bind parameter limit.
+    private static final int BULK_LOOKUP_CHUNK_SIZE = 1000;
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
     private final DeduplicationService deduplicationService;
     private final ValidationService validationService;
     private final ApplicationEventPublisher eventPublisher;
+    private final LiveBookBloomFilters liveBookBloomFilters;
+    private final CustomerProfileCache customerProfileCache;
+    private final CustomerAttributeStore attributeStore;
+
+    /**
+     * The persistence context, flushed and cleared after every bulk chunk.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Number of records processed, written and announced together by {@link #processCustomerDataInBulk(List)}.
+     */
+    @Value("${app.customer.bulk.batch-size:500}")
+    private int bulkBatchSize = 500;
 
     /**
      * Constructor for CustomerService, injecting required dependencies.
@@ -47,17 +82,29 @@ public class CustomerService {
      * @param validationService The service responsible for validating incoming customer data.
      * @param eventPublisher The Spring ApplicationEventPublisher for publishing domain events
      *                       (e.g., CustomerCreatedEvent, CustomerProfileUpdatedEvent).
+     * @param liveBookBloomFilters The live book Bloom filters, kept up to date with every saved customer
+     *                             so that deduplication never skips a lookup for a key that exists.
+     * @param customerProfileCache The near cache profile reads are served from; invalidated by the
+     *                             update and delete events this service publishes.
+     * @param attributeStore The dynamic attributes of the profiles, read from the attribute table or,
+     *                       in JSONB mode, the attribute documents.
      */
     public CustomerService(CustomerRepository customerRepository,
                            CustomerMapper customerMapper,
                            DeduplicationService deduplicationService,
                            ValidationService validationService,
-                           ApplicationEventPublisher eventPublisher) {
+                           ApplicationEventPublisher eventPublisher,
+                           LiveBookBloomFilters liveBookBloomFilters,
+                           CustomerProfileCache customerProfileCache,
+                           CustomerAttributeStore attributeStore) {
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
         this.deduplicationService = deduplicationService;
         this.validationService = validationService;
         this.eventPublisher = eventPublisher;
+        this.liveBookBloomFilters = liveBookBloomFilters;
+        this.customerProfileCache = customerProfileCache;
+        this.attributeStore = attributeStore;
     }
 
     /**
@@ -114,6 +161,7 @@ public class CustomerService {
             // The mapper handles merging relevant fields.
             customerMapper.updateEntityFromDto(customerDTO, existingCustomer);
             processedCustomer = customerRepository.save(existingCustomer); // Persist changes
+            liveBookBloomFilters.recordCustomer(customerDTO.getPanNumber(), customerDTO.getMobileNumber(), customerDTO.getAadhaarNumber());
 
             // Publish an event indicating a customer profile update.
             // This allows other microservices or event consumers to react to the change.
@@ -133,6 +181,7 @@ public class CustomerService {
             newCustomer.setCustomerId(newCdpCustomerId);
 
             processedCustomer = customerRepository.save(newCustomer); // Persist the new customer
+            liveBookBloomFilters.recordCustomer(customerDTO.getPanNumber(), customerDTO.getMobileNumber(), customerDTO.getAadhaarNumber());
 
             // Publish an event indicating a new customer creation.
             eventPublisher.publishEvent(new CustomerCreatedEvent(this,
@@ -144,18 +193,206 @@ public class CustomerService {
         return customerMapper.toDto(processedCustomer);
     }
 
+    /**
+     * Processes a large list of incoming customer data records, with the same validation and the same
+     * outcome per record as {@link #processCustomerData(CustomerDTO)}, but in bulk:
+     * <ul>
+     *     <li>Records are processed in chunks of {@code app.customer.bulk.batch-size}. For each chunk,
+     *         the live book profiles sharing a PAN, mobile or Aadhaar number with any of its records are
+     *         loaded with one {@code IN (...)} query per key type; keys the {@link LiveBookBloomFilters}
+     *         rule out are left out.</li>
+     *     <li>Records are matched in memory, in the priority order PAN, mobile, Aadhaar. A record
+     *         matching a profile created or updated earlier in the same chunk is merged into that
+     *         profile; earlier chunks are already flushed, so they are found by the live book query.</li>
+     *     <li>New and updated profiles are written with {@code saveAll} and flushed once per chunk, so
+     *         Hibernate sends them as JDBC batches (ids come from a pooled sequence, see
+     *         {@code Customer#id}). The persistence context is then cleared to keep memory flat.</li>
+     *     <li>One {@link CustomerProfilesUpsertedEvent} is published per chunk instead of an event per record.</li>
+     * </ul>
+     * Records that fail validation are reported in the result and skipped; the others are written in
+     * a single transaction.
+     *
+     * @param customerDTOs The incoming customer data records.
+     * @return Counts of the records that created, updated or were merged into a profile, and the rejected records.
+     */
+    @Transactional
+    public CustomerBulkIngestionResult processCustomerDataInBulk(List<CustomerDTO> customerDTOs) {
+        log.info("Initiating bulk customer data processing for {} records in chunks of {}.", customerDTOs.size(), bulkBatchSize);
+        long startedAt = System.currentTimeMillis();
+        CustomerBulkIngestionResult result = new CustomerBulkIngestionResult();
+        result.setReceived(customerDTOs.size());
+
+        for (int from = 0; from < customerDTOs.size(); from += bulkBatchSize) {
+            int to = Math.min(from + bulkBatchSize, customerDTOs.size());
+            processChunk(customerDTOs.subList(from, to), from, result);
+        }
+
+        log.info("Bulk customer data processing finished in {} ms: {} created, {} updated, {} merged into created profiles, {} rejected.",
+                System.currentTimeMillis() - startedAt, result.getCreated(), result.getUpdated(), result.getMerged(),
+                result.getRejected().size());
+        return result;
+    }
+
+    private void processChunk(List<CustomerDTO> chunk, int offset, CustomerBulkIngestionResult result) {
+        // 1. Validate; invalid records are reported instead of failing the whole ingestion.
+        List<CustomerDTO> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CustomerDTO customerDTO = chunk.get(i);
+            try {
+                validationService.validate(customerDTO);
+                valid.add(customerDTO);
+            } catch (ValidationException e) {
+                log.debug("Validation failed for bulk record {}: {}", offset + i, e.getMessage());
+                result.getRejected().add(new CustomerBulkIngestionResult.RejectedRecord(offset + i, e.getMessage()));
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // 2. Load the live book profiles sharing any identifier with the chunk.
+        Map<String, Customer> byPan = new HashMap<>();
+        Map<String, Customer> byMobile = new HashMap<>();
+        Map<String, Customer> byAadhaar = new HashMap<>();
+        for (Customer existing : findLiveBookCandidates(valid)) {
+            indexCustomer(existing, byPan, byMobile, byAadhaar);
+        }
+
+        // 3. Match and merge in memory.
+        // Tracked by identity: merging changes the fields entity equality is based on.
+        List<Customer> touched = new ArrayList<>();
+        Set<Customer> touchedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Customer> createdSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        int updated = 0;
+        int merged = 0;
+        for (CustomerDTO customerDTO : valid) {
+            Customer match = firstMatch(customerDTO, byPan, byMobile, byAadhaar);
+            Customer processedCustomer;
+            if (match != null) {
+                customerMapper.updateEntityFromDto(customerDTO, match);
+                processedCustomer = match;
+                // Only a profile that existed before the chunk is updated; one created in it just absorbs the record.
+                if (createdSet.contains(match)) {
+                    merged++;
+                } else {
+                    updated++;
+                }
+            } else {
+                processedCustomer = customerMapper.toEntity(customerDTO);
+                processedCustomer.setCustomerId("CDP-" + UUID.randomUUID());
+                createdSet.add(processedCustomer);
+            }
+            if (touchedSet.add(processedCustomer)) {
+                touched.add(processedCustomer);
+            }
+            // Re-index, as the merged record may have added identifiers later records must match on.
+            indexCustomer(processedCustomer, byPan, byMobile, byAadhaar);
+        }
+
+        // 4. Write the chunk as JDBC batches and detach it.
+        customerRepository.saveAll(touched);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> createdIds = new ArrayList<>();
+        List<String> updatedIds = new ArrayList<>();
+        for (Customer customer : touched) {
+            (createdSet.contains(customer) ? createdIds : updatedIds).add(customer.getCustomerId());
+        }
+        for (CustomerDTO customerDTO : valid) {
+            liveBookBloomFilters.recordCustomer(customerDTO.getPanNumber(), customerDTO.getMobileNumber(), customerDTO.getAadhaarNumber());
+        }
+        result.setCreated(result.getCreated() + createdIds.size());
+        result.setUpdated(result.getUpdated() + updated);
+        result.setMerged(result.getMerged() + merged);
+
+        // 5. One event for the whole chunk.
+        eventPublisher.publishEvent(new CustomerProfilesUpsertedEvent(this, "Offermart", createdIds, updatedIds));
+        log.debug("Bulk chunk at offset {} written: {} profiles created, {} updated.", offset, createdIds.size(), updatedIds.size());
+    }
+
+    /**
+     * Loads the live book profiles with any PAN, mobile or Aadhaar number of the given records, one
+     * query per key type, skipping keys the Bloom filters rule out.
+     */
+    private List<Customer> findLiveBookCandidates(List<CustomerDTO> customerDTOs) {
+        Set<String> pans = new HashSet<>();
+        Set<String> mobiles = new HashSet<>();
+        Set<String> aadhaars = new HashSet<>();
+        for (CustomerDTO customerDTO : customerDTOs) {
+            addIfPresent(pans, customerDTO.getPanNumber());
+            addIfPresent(mobiles, customerDTO.getMobileNumber());
+            addIfPresent(aadhaars, customerDTO.getAadhaarNumber());
+        }
+        pans = liveBookBloomFilters.possiblyPresent(LiveBookBloomFilters.KeyType.PAN, pans);
+        mobiles = liveBookBloomFilters.possiblyPresent(LiveBookBloomFilters.KeyType.MOBILE, mobiles);
+        aadhaars = liveBookBloomFilters.possiblyPresent(LiveBookBloomFilters.KeyType.AADHAAR, aadhaars);
+        List<Customer> candidates = new ArrayList<>();
+        if (!pans.isEmpty()) {
+            candidates.addAll(customerRepository.findByPanNumberIn(pans));
+        }
+        if (!mobiles.isEmpty()) {
+            candidates.addAll(customerRepository.findByMobileNumberIn(mobiles));
+        }
+        if (!aadhaars.isEmpty()) {
+            candidates.addAll(customerRepository.findByAadhaarNumberIn(aadhaars));
+        }
+        return candidates;
+    }
+
+    private static void addIfPresent(Set<String> keys, String value) {
+        if (hasText(value)) {
+            keys.add(value);
+        }
+    }
+
+    private static void indexCustomer(Customer customer, Map<String, Customer> byPan,
+                                      Map<String, Customer> byMobile, Map<String, Customer> byAadhaar) {
+        if (hasText(customer.getPanNumber())) {
+            byPan.putIfAbsent(customer.getPanNumber(), customer);
+        }
+        if (hasText(customer.getMobileNumber())) {
+            byMobile.putIfAbsent(customer.getMobileNumber(), customer);
+        }
+        if (hasText(customer.getAadhaarNumber())) {
+            byAadhaar.putIfAbsent(customer.getAadhaarNumber(), customer);
+        }
+    }
+
+    private static Customer firstMatch(CustomerDTO customerDTO, Map<String, Customer> byPan,
+                                       Map<String, Customer> byMobile, Map<String, Customer> byAadhaar) {
+        Customer match = hasText(customerDTO.getPanNumber()) ? byPan.get(customerDTO.getPanNumber()) : null;
+        if (match == null && hasText(customerDTO.getMobileNumber())) {
+            match = byMobile.get(customerDTO.getMobileNumber());
+        }
+        if (match == null && hasText(customerDTO.getAadhaarNumber())) {
+            match = byAadhaar.get(customerDTO.getAadhaarNumber());
+        }
+        return match;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
     /**
      * Retrieves a single customer profile by its unique CDP customer ID.
      * This method provides a single profile view of the customer.
+     * Profiles are served from the {@link CustomerProfileCache} when present there.
      *
      * @param customerId The unique identifier of the customer in CDP (e.g., "CDP-UUID").
      * @return The CustomerDTO representing the found customer profile.
      * @throws CustomerNotFoundException If no customer is found with the given ID,
      *                                   indicating the requested profile does not exist.
      */
-    @Transactional(readOnly = true) // Read-only transaction for performance optimization
+    // No transaction, and so no pooled connection, for cache hits; a load runs in the repository's read-only transaction.
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public CustomerDTO getCustomerProfile(String customerId) {
         log.debug("Attempting to retrieve customer profile for ID: {}", customerId);
+        return customerProfileCache.get(customerId, this::loadCustomerProfile);
+    }
+
+    private CustomerDTO loadCustomerProfile(String customerId) {
         Customer customer = customerRepository.findByCustomerId(customerId)
                 .orElseThrow(() -> {
                     log.warn("Customer not found for ID: {}", customerId);
@@ -165,10 +402,61 @@ public class CustomerService {
         return customerMapper.toDto(customer);
     }
 
+    /**
+     * Retrieves the dynamic attributes of a customer profile from the configured
+     * {@link CustomerAttributeStore}: with storage-mode JSONB a single attribute document row,
+     * otherwise the customer's rows of the attribute table.
+     *
+     * @param customerId The unique identifier of the customer in CDP.
+     * @return The typed attribute values by name; empty if the customer has none.
+     * @throws CustomerNotFoundException If no customer is found with the given ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCustomerAttributes(String customerId) {
+        Customer customer = customerRepository.findByCustomerId(customerId)
+                .orElseThrow(() -> {
+                    log.warn("Customer not found for ID: {} while reading attributes.", customerId);
+                    return new CustomerNotFoundException("Customer with ID " + customerId + " not found.");
+                });
+        return attributeStore.getAttributes(customer.getId());
+    }
+
+    /**
+     * Finds the customer profiles with the given attribute value. With storage-mode JSONB the filter
+     * runs on the attribute documents, through the GIN index of the attribute if it is a hot one.
+     *
+     * @param attributeName The attribute name, e.g. "Occupation".
+     * @param value The typed value, e.g. "Salaried" or 5.
+     * @param limit The maximum number of profiles to return.
+     * @return The matching profiles, ordered by their database ID.
+     * @throws IllegalArgumentException In JSONB mode, if the attribute name cannot be filtered on.
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> findCustomersByAttribute(String attributeName, Object value, int limit) {
+        List<Long> ids = attributeStore.findCustomerIdsByAttribute(attributeName, value, limit);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Customer> customersById = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(ids)) {
+            customersById.put(customer.getId(), customer);
+        }
+        List<CustomerDTO> profiles = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Customer customer = customersById.get(id);
+            // Deleted since the attribute filter ran.
+            if (customer != null) {
+                profiles.add(customerMapper.toDto(customer));
+            }
+        }
+        return profiles;
+    }
+
     /**
      * Updates specific attributes of an existing customer profile.
      * This method allows for partial updates based on a map of attribute names and their new values.
-     * It uses reflection to dynamically set fields, providing flexibility for attribute updates.
+     * Attributes are set through the precompiled {@link AttributeAccessors} of the Customer entity, and
+     * values are converted to the attribute type where unambiguous (e.g. an ISO date string to a date).
      *
      * @param customerId The unique identifier of the customer to update.
      * @param attributes A map where keys are attribute names (expected to match Customer entity field names)
@@ -176,65 +464,153 @@ public class CustomerService {
      * @return The CustomerDTO representing the updated customer profile.
      * @throws CustomerNotFoundException If no customer is found with the given ID.
      * @throws IllegalArgumentException If an attribute name in the map does not correspond to a valid field
-     *                                  in the Customer entity.
-     * @throws RuntimeException If there's an unexpected error during attribute update (e.g., reflection issues).
+     *                                  in the Customer entity, or a value cannot be converted to its type.
      */
     @Transactional
     public CustomerDTO updateCustomerAttributes(String customerId, Map<String, Object> attributes) {
         log.info("Attempting to update attributes for customer ID: {}. Attributes: {}", customerId, attributes.keySet());
 
+        // Validate names and values before touching the database.
+        List<AttributeUpdate> updates = resolveAttributeUpdates(customerId, attributes);
+
         Customer existingCustomer = customerRepository.findByCustomerId(customerId)
                 .orElseThrow(() -> {
                     log.warn("Customer not found for ID: {} during attribute update.", customerId);
                     return new CustomerNotFoundException("Customer with ID " + customerId + " not found.");
                 });
 
-        boolean attributesChanged = false;
-        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-            String attributeName = entry.getKey();
-            Object newValue = entry.getValue();
+        if (applyAttributeUpdates(existingCustomer, customerId, updates)) {
+            Customer updatedCustomer = customerRepository.save(existingCustomer); // Persist changes
+            log.info("Customer profile with ID {} attributes updated successfully.", updatedCustomer.getCustomerId());
+            return publishAttributesUpdated(updatedCustomer, attributes.keySet());
+        } else {
+            log.info("No attributes changed for customer ID: {}. Skipping database save.", customerId);
+            return customerMapper.toDto(existingCustomer); // Return current state if no changes were applied
+        }
+    }
 
-            try {
-                // Use reflection to set the field value dynamically.
-                // This allows for generic attribute updates without specific setter methods for each field.
-                Field field = Customer.class.getDeclaredField(attributeName);
-                field.setAccessible(true); // Allow access to private fields
+    /**
+     * Updates attributes of many customer profiles in one transaction: customers are loaded in
+     * chunks of IDs per query and the changed ones saved together, so Hibernate
+     * can batch the updates (see {@code hibernate.jdbc.batch_size}). Either all updates are applied or,
+     * if any customer is missing or any attribute is invalid, none.
+     *
+     * @param attributesByCustomerId The attributes to update per customer ID, as for
+     *                               {@link #updateCustomerAttributes(String, Map)}.
+     * @return The updated customer profiles, in the iteration order of {@code attributesByCustomerId}.
+     * @throws CustomerNotFoundException If no customer is found for one of the IDs.
+     * @throws IllegalArgumentException If an attribute name or value is invalid.
+     */
+    @Transactional
+    public List<CustomerDTO> updateCustomerAttributesInBulk(Map<String, Map<String, Object>> attributesByCustomerId) {
+        log.info("Attempting to update attributes for {} customers in bulk.", attributesByCustomerId.size());
 
-                Object oldValue = field.get(existingCustomer);
+        Map<String, List<AttributeUpdate>> updatesByCustomerId = new LinkedHashMap<>();
+        attributesByCustomerId.forEach((customerId, attributes) ->
+                updatesByCustomerId.put(customerId, resolveAttributeUpdates(customerId, attributes)));
 
-                // Only update if the new value is different from the old value to avoid unnecessary database writes.
-                if (newValue != null && !newValue.equals(oldValue)) {
-                    field.set(existingCustomer, newValue);
-                    attributesChanged = true;
-                    log.debug("Updated attribute '{}' for customer {}: Old='{}', New='{}'",
-                            attributeName, customerId, oldValue, newValue);
-                } else if (newValue == null && oldValue != null) {
-                    // Handle case where new value is null and old value is not, effectively clearing the attribute.
-                    field.set(existingCustomer, null);
-                    attributesChanged = true;
-                    log.debug("Cleared attribute '{}' for customer {}: Old='{}', New='null'",
-                            attributeName, customerId, oldValue);
-                }
+        Map<String, Customer> customersById = new HashMap<>();
+        List<String> customerIds = new ArrayList<>(updatesByCustomerId.keySet());
+        for (int from = 0; from < customerIds.size(); from += BULK_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = customerIds.subList(from, Math.min(from + BULK_LOOKUP_CHUNK_SIZE, customerIds.size()));
+            for (Customer customer : customerRepository.findByCustomerIdIn(chunk)) {
+                customersById.put(customer.getCustomerId(), customer);
+            }
+        }
+
+        List<Customer> changedCustomers = new ArrayList<>();
+        for (Map.Entry<String, List<AttributeUpdate>> entry : updatesByCustomerId.entrySet()) {
+            String customerId = entry.getKey();
+            Customer customer = customersById.get(customerId);
+            if (customer == null) {
+                log.warn("Customer not found for ID: {} during bulk attribute update.", customerId);
+                throw new CustomerNotFoundException("Customer with ID " + customerId + " not found.");
+            }
+            if (applyAttributeUpdates(customer, customerId, entry.getValue())) {
+                changedCustomers.add(customer);
+            }
+        }
 
-            } catch (NoSuchFieldException e) {
+        Map<String, CustomerDTO> updatedById = new HashMap<>();
+        for (Customer updatedCustomer : customerRepository.saveAll(changedCustomers)) {
+            updatedById.put(updatedCustomer.getCustomerId(), publishAttributesUpdated(updatedCustomer,
+                    attributesByCustomerId.get(updatedCustomer.getCustomerId()).keySet()));
+        }
+        log.info("Bulk attribute update finished: {} of {} customers changed.", changedCustomers.size(), customerIds.size());
+
+        List<CustomerDTO> result = new ArrayList<>(customerIds.size());
+        for (String customerId : customerIds) {
+            CustomerDTO updated = updatedById.get(customerId);
+            result.add(updated != null ? updated : customerMapper.toDto(customersById.get(customerId)));
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the accessor of every attribute and converts its value to the attribute type.
+     *
+     * @throws IllegalArgumentException If an attribute does not exist or a value cannot be converted.
+     */
+    private List<AttributeUpdate> resolveAttributeUpdates(String customerId, Map<String, Object> attributes) {
+        List<AttributeUpdate> updates = new ArrayList<>(attributes.size());
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            String attributeName = entry.getKey();
+            AttributeAccessors.Attribute attribute = CUSTOMER_ATTRIBUTES.attribute(attributeName);
+            if (attribute == null) {
                 log.error("Attempted to update non-existent attribute '{}' for customer ID: {}. Please check attribute name.", attributeName, customerId);
-                throw new IllegalArgumentException("Invalid attribute name: " + attributeName + ". Attribute does not exist in Customer entity.", e);
-            } catch (IllegalAccessException e) {
-                log.error("Failed to access attribute '{}' for customer ID: {}. Check field accessibility.", attributeName, customerId, e);
-                throw new RuntimeException("Error updating customer attribute: " + attributeName + ". Access denied.", e);
+                throw new IllegalArgumentException("Invalid attribute name: " + attributeName + ". Attribute does not exist in Customer entity.");
             }
+            updates.add(new AttributeUpdate(attribute, attribute.convert(entry.getValue())));
         }
+        return updates;
+    }
 
-        if (attributesChanged) {
-            Customer updatedCustomer = customerRepository.save(existingCustomer); // Persist changes
-            // Publish an event indicating that specific attributes of a customer profile have been updated.
-            eventPublisher.publishEvent(new CustomerProfileUpdatedEvent(this,
-                    updatedCustomer.getCustomerId(), "Internal", "Specific attributes updated: " + attributes.keySet()));
-            log.info("Customer profile with ID {} attributes updated successfully.", updatedCustomer.getCustomerId());
-            return customerMapper.toDto(updatedCustomer);
-        } else {
-            log.info("No attributes changed for customer ID: {}. Skipping database save.", customerId);
-            return customerMapper.toDto(existingCustomer); // Return current state if no changes were applied
+    /**
+     * Applies the updates whose value differs from the current one, to avoid unnecessary database writes.
+     *
+     * @return {@code true} if any attribute changed.
+     */
+    private boolean applyAttributeUpdates(Customer customer, String customerId, List<AttributeUpdate> updates) {
+        boolean attributesChanged = false;
+        for (AttributeUpdate update : updates) {
+            Object oldValue = update.attribute.get(customer);
+            if (!Objects.equals(oldValue, update.value)) {
+                // A null value clears the attribute.
+                update.attribute.set(customer, update.value);
+                attributesChanged = true;
+                if (log.isDebugEnabled()) {
+                    log.debug("Updated attribute '{}' for customer {}: Old='{}', New='{}'",
+                            update.attribute.getName(), customerId, oldValue, update.value);
+                }
+            }
+        }
+        return attributesChanged;
+    }
+
+    /**
+     * Publishes the update of a saved customer and records its identifiers, which may be among the
+     * updated attributes, in the live book Bloom filters.
+     */
+    private CustomerDTO publishAttributesUpdated(Customer updatedCustomer, Set<String> attributeNames) {
+        // Publish an event indicating that specific attributes of a customer profile have been updated.
+        eventPublisher.publishEvent(new CustomerProfileUpdatedEvent(this,
+                updatedCustomer.getCustomerId(), "Internal", "Specific attributes updated: " + attributeNames));
+        CustomerDTO updatedCustomerDTO = customerMapper.toDto(updatedCustomer);
+        liveBookBloomFilters.recordCustomer(updatedCustomerDTO.getPanNumber(), updatedCustomerDTO.getMobileNumber(),
+                updatedCustomerDTO.getAadhaarNumber());
+        return updatedCustomerDTO;
+    }
+
+    /**
+     * An attribute and its converted new value.
+     */
+    private static final class AttributeUpdate {
+        private final AttributeAccessors.Attribute attribute;
+        private final Object value;
+
+        private AttributeUpdate(AttributeAccessors.Attribute attribute, Object value) {
+            this.attribute = attribute;
+            this.value = value;
         }
     }
 
@@ -258,8 +634,8 @@ public class CustomerService {
                 });
 
         customerRepository.delete(customer); // Perform the deletion
-        // Optionally, publish a CustomerDeletedEvent to notify other services
-        // eventPublisher.publishEvent(new CustomerDeletedEvent(this, customerId, "Internal"));
+        // Publish a CustomerDeletedEvent to notify other components, e.g. to drop the cached profile.
+        eventPublisher.publishEvent(new CustomerDeletedEvent(this, customerId, "Internal"));
         log.info("Customer profile with ID {} deleted successfully.", customerId);
     }
 }
\ No newline at end of file
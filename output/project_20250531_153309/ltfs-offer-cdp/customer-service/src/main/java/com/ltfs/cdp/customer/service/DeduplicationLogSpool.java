@@ -0,0 +1,160 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Local disk spool of deduplication audit records that could not be written to the database yet.
+ *
+ * <p>Each spilled batch becomes one file, written under a temporary name, forced to disk and then
+ * renamed, so a file either holds a complete batch or does not exist. Files are named so that
+ * lexical order is spill order. One record per line, tab separated, with {@code \N} for null.</p>
+ */
+class DeduplicationLogSpool {
+
+    private static final String PREFIX = "dedupe-audit-";
+    private static final String SUFFIX = ".spool";
+    private static final String NULL = "\\N";
+
+    private final Path directory;
+    private final AtomicLong sequence = new AtomicLong();
+
+    DeduplicationLogSpool(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Writes a batch to a new spool file.
+     */
+    synchronized void spill(List<DeduplicationLog> logs) throws IOException {
+        Files.createDirectories(directory);
+        String name = String.format("%s%013d-%09d", PREFIX, System.currentTimeMillis(), sequence.incrementAndGet());
+        Path temporary = directory.resolve(name + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+            for (DeduplicationLog log : logs) {
+                writer.write(format(log));
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(name + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the spool files, oldest first.
+     */
+    List<Path> files() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    List<DeduplicationLog> read(Path file) throws IOException {
+        List<DeduplicationLog> logs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    logs.add(parse(line));
+                }
+            }
+        }
+        return logs;
+    }
+
+    void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    static String format(DeduplicationLog log) {
+        return String.join("\t",
+                escape(log.getEventId() == null ? null : log.getEventId().toString()),
+                escape(log.getRecordType() == null ? null : log.getRecordType().name()),
+                escape(log.getInputRecordId()),
+                escape(log.getMatchedRecordId()),
+                escape(log.getOutcome() == null ? null : log.getOutcome().name()),
+                escape(log.getDecidedAt() == null ? null : log.getDecidedAt().toString()));
+    }
+
+    static DeduplicationLog parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Malformed spool line with " + fields.length + " fields");
+        }
+        DeduplicationLog log = new DeduplicationLog();
+        String eventId = unescape(fields[0]);
+        log.setEventId(eventId == null ? null : UUID.fromString(eventId));
+        String recordType = unescape(fields[1]);
+        log.setRecordType(recordType == null ? null : DeduplicationLog.RecordType.valueOf(recordType));
+        log.setInputRecordId(unescape(fields[2]));
+        log.setMatchedRecordId(unescape(fields[3]));
+        String outcome = unescape(fields[4]);
+        log.setOutcome(outcome == null ? null : DeduplicationLog.Outcome.valueOf(outcome));
+        String decidedAt = unescape(fields[5]);
+        log.setDecidedAt(decidedAt == null ? null : LocalDateTime.parse(decidedAt));
+        return log;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': escaped.append("\\\\"); break;
+                case '\t': escaped.append("\\t"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String unescape(String value) {
+        if (NULL.equals(value)) {
+            return null;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                unescaped.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+}
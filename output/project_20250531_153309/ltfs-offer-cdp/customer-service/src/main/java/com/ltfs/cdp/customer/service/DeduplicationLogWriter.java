@@ -0,0 +1,328 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+import com.ltfs.cdp.customer.repository.DeduplicationLogBatchRepository;
+import com.ltfs.cdp.customer.repository.DeduplicationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous, bounded, batching writer of deduplication audit records ({@link DeduplicationLog}).
+ *
+ * <p>Deduplication only queues its decisions; a single background thread writes them with
+ * {@link DeduplicationLogBatchRepository#insertBatch(List)} once {@code flush-size} records are
+ * queued or {@code flush-interval} has passed, each batch in its own short transaction. Decisions
+ * made inside a transaction are queued when it commits, so a rolled back batch leaves no audit trail.</p>
+ *
+ * <p>Records are never dropped for lack of capacity or a slow database:</p>
+ * <ul>
+ *     <li>a batch the database rejects is spilled to the local spool directory and retried every
+ *         {@code retry-interval} until it is written;</li>
+ *     <li>when the queue is full, the caller spills its records to the spool itself, which slows it
+ *         down to disk speed instead of growing the heap;</li>
+ *     <li>on shutdown the queue is drained, and whatever cannot be written is spilled; a record queued
+ *         while the writer stops is spilled by its caller.</li>
+ * </ul>
+ * <p>Spooled batches are replayed oldest first, also after a restart. Every record carries a unique
+ * {@code eventId} and inserts skip ids already written, so a replay interrupted half way can simply
+ * be repeated. Only a crash of the JVM loses records, namely those still queued in memory.</p>
+ *
+ * <p>Metrics:</p>
+ * <ul>
+ *     <li>{@code cdp.dedupe.audit.written} - records written to the database, replays included.</li>
+ *     <li>{@code cdp.dedupe.audit.spilled} - records spilled to the local spool.</li>
+ *     <li>{@code cdp.dedupe.audit.lost} - records that could be neither written nor spilled.</li>
+ *     <li>{@code cdp.dedupe.audit.queue.size} - records waiting in memory.</li>
+ *     <li>{@code cdp.dedupe.audit.spool.files} - spooled batches waiting for replay.</li>
+ * </ul>
+ */
+@Component
+public class DeduplicationLogWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicationLogWriter.class);
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+
+    private final DeduplicationLogBatchRepository repository;
+    private final DeduplicationLogSpool spool;
+    private final boolean enabled;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final long retryIntervalNanos;
+    private final BlockingQueue<DeduplicationLog> queue;
+
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter lost;
+
+    private final AtomicInteger spoolFiles = new AtomicInteger();
+
+    private volatile boolean running;
+    // Set whenever a batch is spilled; the spool is replayed once the retry delay has passed.
+    private volatile boolean replayPending = true;
+    private Thread worker;
+    private long nextReplayNanos;
+
+    /**
+     * Constructs the writer. Nothing is written until it is started.
+     *
+     * @param deduplicationLogRepository The repository the records are written to.
+     * @param meterRegistry              The registry the writer metrics are published to.
+     * @param enabled                    Whether decisions are audited at all.
+     * @param queueCapacity              Records held in memory before callers spill to disk.
+     * @param flushSize                  Records per JDBC batch.
+     * @param flushInterval              Longest time a record waits in memory for its batch to fill.
+     * @param retryInterval              Time between attempts to replay spooled batches after a failure.
+     * @param spoolDirectory             Local directory for batches that could not be written yet.
+     */
+    @Autowired
+    public DeduplicationLogWriter(DeduplicationLogRepository deduplicationLogRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.deduplication.audit.enabled:true}") boolean enabled,
+                                  @Value("${app.deduplication.audit.queue-capacity:100000}") int queueCapacity,
+                                  @Value("${app.deduplication.audit.flush-size:1000}") int flushSize,
+                                  @Value("${app.deduplication.audit.flush-interval:1s}") Duration flushInterval,
+                                  @Value("${app.deduplication.audit.retry-interval:30s}") Duration retryInterval,
+                                  @Value("${app.deduplication.audit.spool-directory:data/dedupe-audit-spool}") String spoolDirectory) {
+        this((DeduplicationLogBatchRepository) deduplicationLogRepository, meterRegistry, enabled, queueCapacity,
+                flushSize, flushInterval, retryInterval, Paths.get(spoolDirectory));
+    }
+
+    DeduplicationLogWriter(DeduplicationLogBatchRepository repository, MeterRegistry meterRegistry, boolean enabled,
+                           int queueCapacity, int flushSize, Duration flushInterval, Duration retryInterval,
+                           Path spoolDirectory) {
+        if (queueCapacity < 1 || flushSize < 1) {
+            throw new IllegalArgumentException("Audit queue capacity and flush size must be positive");
+        }
+        this.repository = repository;
+        this.spool = new DeduplicationLogSpool(spoolDirectory);
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryIntervalNanos = retryInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = meterRegistry.counter("cdp.dedupe.audit.written");
+        this.spilled = meterRegistry.counter("cdp.dedupe.audit.spilled");
+        this.lost = meterRegistry.counter("cdp.dedupe.audit.lost");
+        Gauge.builder("cdp.dedupe.audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("cdp.dedupe.audit.spool.files", spoolFiles, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Queues the audit records of deduplication decisions. Inside a transaction, the records are
+     * queued only once it commits.
+     */
+    public void recordAll(Collection<DeduplicationLog> logs) {
+        if (!enabled || logs.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<DeduplicationLog> pending = new ArrayList<>(logs);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(pending);
+                }
+            });
+        } else {
+            enqueue(logs);
+        }
+    }
+
+    private void enqueue(Collection<DeduplicationLog> logs) {
+        List<DeduplicationLog> overflow = null;
+        for (DeduplicationLog log : logs) {
+            if (!running || !queue.offer(log)) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(log);
+            }
+        }
+        if (overflow != null) {
+            // Back-pressure: the caller pays for the disk write instead of the heap growing.
+            spill(overflow);
+        }
+        if (!running) {
+            // stop() may have drained the queue between the check of running above and the offer;
+            // nothing would write what is still queued, so the caller spills it.
+            spillQueued();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || !enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "dedupe-audit-writer");
+        worker.start();
+        logger.info("Deduplication audit writer started (flush size {}, flush interval {} ms).",
+                flushSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything the worker could not write in time goes to the spool.
+        spillQueued();
+        logger.info("Deduplication audit writer stopped.");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<DeduplicationLog> batch = new ArrayList<>(flushSize);
+        nextReplayNanos = System.nanoTime();
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+            if (replayPending && System.nanoTime() - nextReplayNanos >= 0) {
+                replaySpool();
+            }
+        }
+        if (!batch.isEmpty()) {
+            spill(batch);
+        }
+    }
+
+    /**
+     * Collects records until the batch is full or the flush interval since its first record has passed.
+     * Returns early, possibly with an empty batch, if no record arrives within the flush interval, and
+     * without waiting once the writer is stopping.
+     */
+    private void fillBatch(List<DeduplicationLog> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        boolean firstArrived = false;
+        while (running) {
+            queue.drainTo(batch, flushSize - batch.size());
+            if (batch.size() >= flushSize) {
+                return;
+            }
+            if (!firstArrived && !batch.isEmpty()) {
+                firstArrived = true;
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            // Wait in slices so that a stop request is noticed without waiting out the interval.
+            DeduplicationLog next = queue.poll(Math.min(remaining, MAX_WAIT_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+        queue.drainTo(batch, flushSize - batch.size());
+    }
+
+    private void write(List<DeduplicationLog> batch) {
+        for (DeduplicationLog log : batch) {
+            if (log.getEventId() == null) {
+                log.setEventId(UUID.randomUUID());
+            }
+        }
+        try {
+            repository.insertBatch(batch);
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            logger.warn("Could not write {} deduplication audit records, spilling them to disk: {}", batch.size(), e.getMessage());
+            spill(batch);
+            nextReplayNanos = System.nanoTime() + retryIntervalNanos;
+        }
+    }
+
+    private void spillQueued() {
+        List<DeduplicationLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    private void spill(List<DeduplicationLog> logs) {
+        for (DeduplicationLog log : logs) {
+            if (log.getEventId() == null) {
+                log.setEventId(UUID.randomUUID());
+            }
+        }
+        try {
+            spool.spill(logs);
+            spilled.increment(logs.size());
+            spoolFiles.incrementAndGet();
+            replayPending = true;
+        } catch (IOException e) {
+            lost.increment(logs.size());
+            logger.error("Could not spill {} deduplication audit records to disk; they are lost.", logs.size(), e);
+        }
+    }
+
+    /**
+     * Writes the spooled batches, oldest first, and deletes each once written. Stops at the first
+     * failure and retries after the retry interval.
+     */
+    private void replaySpool() {
+        replayPending = false;
+        try {
+            List<Path> files = spool.files();
+            spoolFiles.set(files.size());
+            for (Path file : files) {
+                List<DeduplicationLog> logs = spool.read(file);
+                for (int from = 0; from < logs.size(); from += flushSize) {
+                    List<DeduplicationLog> chunk = logs.subList(from, Math.min(logs.size(), from + flushSize));
+                    repository.insertBatch(chunk);
+                    written.increment(chunk.size());
+                }
+                spool.delete(file);
+                spoolFiles.decrementAndGet();
+                logger.info("Replayed {} spooled deduplication audit records from {}.", logs.size(), file.getFileName());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not replay spooled deduplication audit records, retrying later: {}", e.getMessage());
+            replayPending = true;
+            nextReplayNanos = System.nanoTime() + retryIntervalNanos;
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package com.ltfs.cdp.customer.service;
 
+import com.ltfs.cdp.common.dedupe.OfferWindowIndex;
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
 import com.ltfs.cdp.customer.model.Customer;
 import com.ltfs.cdp.customer.model.Offer;
 import com.ltfs.cdp.customer.repository.CustomerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class responsible for implementing complex deduplication logic
@@ -36,15 +47,73 @@ public class DeduplicationService {
     private static final Logger logger = LoggerFactory.getLogger(DeduplicationService.class);
 
     private final CustomerRepository customerRepository;
+    private final LiveBookBloomFilters liveBookBloomFilters;
+    private final DeduplicationLogWriter deduplicationLogWriter;
+
+    /**
+     * When enabled, live book matches for a batch are resolved with chunked set-based queries
+     * ({@link LiveBookBulkMatcher}) instead of up to four queries per incoming customer.
+     */
+    @Value("${app.deduplication.live-book.bulk-enabled:true}")
+    private boolean bulkLiveBookMatchingEnabled = true;
+
+    /**
+     * Maximum number of keys bound into a single {@code IN (...)} query in bulk mode.
+     */
+    @Value("${app.deduplication.live-book.bulk-chunk-size:1000}")
+    private int bulkLiveBookChunkSize = 1000;
+
+    /**
+     * How the in-batch uniqueness pass of {@link #deduplicateCustomers(List)} is executed.
+     */
+    @Value("${app.deduplication.execution.mode:SEQUENTIAL}")
+    private ExecutionMode executionMode = ExecutionMode.SEQUENTIAL;
+
+    /**
+     * Number of partitions in parallel mode; 0 means four per common fork-join pool thread.
+     */
+    @Value("${app.deduplication.execution.partitions:0}")
+    private int executionPartitions = 0;
+
+    /**
+     * Batches smaller than this are always processed sequentially.
+     */
+    @Value("${app.deduplication.execution.min-parallel-batch-size:2000}")
+    private int minParallelBatchSize = 2000;
+
+    /**
+     * Execution modes for {@link #deduplicateCustomers(List)}.
+     */
+    public enum ExecutionMode {
+        /** One pass over the batch in order. */
+        SEQUENTIAL,
+        /** Partitioned by the strongest identity key, on the common fork-join pool. */
+        PARALLEL,
+        /** Both; differences are logged as errors and the sequential result is returned. */
+        COMPARE
+    }
 
     /**
      * Constructs a new DeduplicationService with the given CustomerRepository.
      *
      * @param customerRepository The repository for accessing Customer 360 data.
+     * @param liveBookBloomFilters Per-key Bloom filters used to skip lookups for keys that are definitely
+     *                             not in the live book.
+     * @param deduplicationLogWriter The asynchronous writer every deduplication decision is audited through.
      */
     @Autowired
-    public DeduplicationService(CustomerRepository customerRepository) {
+    public DeduplicationService(CustomerRepository customerRepository, LiveBookBloomFilters liveBookBloomFilters,
+                                DeduplicationLogWriter deduplicationLogWriter) {
         this.customerRepository = customerRepository;
+        this.liveBookBloomFilters = liveBookBloomFilters;
+        this.deduplicationLogWriter = deduplicationLogWriter;
+    }
+
+    /**
+     * Constructs a DeduplicationService that does not audit its decisions.
+     */
+    public DeduplicationService(CustomerRepository customerRepository, LiveBookBloomFilters liveBookBloomFilters) {
+        this(customerRepository, liveBookBloomFilters, null);
     }
 
     /**
@@ -55,6 +124,10 @@ public class DeduplicationService {
      * against other incoming customers already processed in the current batch to ensure
      * only unique profiles are retained.
      *
+     * <p>Live book lookups always run on the calling thread, inside the transaction. The in-batch
+     * uniqueness pass runs sequentially, partitioned on the fork-join pool, or both for comparison,
+     * depending on {@code app.deduplication.execution.mode}; the result is the same list either way.</p>
+     *
      * @param incomingCustomers A list of customer profiles to be deduped.
      * @return A list of unique and deduped customer profiles. These profiles
      *         are either existing Customer 360 records or newly identified unique customers
@@ -69,64 +142,213 @@ public class DeduplicationService {
 
         logger.info("Starting deduplication for {} incoming customer profiles.", incomingCustomers.size());
 
-        // A Set to efficiently track unique customers based on their deduplication key (defined by Customer.equals/hashCode).
-        Set<Customer> uniqueCustomersSet = new HashSet<>();
-        // A List to maintain the order or simply collect the deduped results.
-        List<Customer> dedupedOutput = new ArrayList<>();
+        // In bulk mode, resolve the live book matches for the whole batch up front.
+        LiveBookBulkMatcher.Matches bulkMatches = null;
+        if (bulkLiveBookMatchingEnabled) {
+            bulkMatches = new LiveBookBulkMatcher(customerRepository, bulkLiveBookChunkSize, liveBookBloomFilters)
+                    .match(incomingCustomers);
+            logger.info("Bulk live book matching resolved {} of {} incoming customers with {} repository queries.",
+                    bulkMatches.getMatchedCount(), incomingCustomers.size(), bulkMatches.getQueryCount());
+        }
 
-        for (Customer incomingCustomer : incomingCustomers) {
+        // Resolve the canonical profile of every incoming customer: its live book match, or itself.
+        // Repository access stays on this thread, inside the transaction.
+        Customer[] canonical = new Customer[incomingCustomers.size()];
+        boolean[] matchedLiveBook = new boolean[incomingCustomers.size()];
+        for (int position = 0; position < incomingCustomers.size(); position++) {
+            Customer incomingCustomer = incomingCustomers.get(position);
             if (incomingCustomer == null) {
                 logger.warn("Skipping null customer in incoming list during customer deduplication.");
                 continue;
             }
 
             // 1. Attempt to find a match in the 'live book' (Customer 360)
-            Optional<Customer> existingCustomerOpt = findMatchingCustomerInLiveBook(incomingCustomer);
+            Optional<Customer> existingCustomerOpt = bulkMatches != null
+                    ? bulkMatches.matchFor(position)
+                    : findMatchingCustomerInLiveBook(incomingCustomer);
 
             if (existingCustomerOpt.isPresent()) {
-                Customer existingCustomer = existingCustomerOpt.get();
-                logger.debug("Incoming customer (ID: {}) matched with existing Customer 360 (ID: {}).",
-                        incomingCustomer.getId(), existingCustomer.getId());
-
                 // If a match is found, the existing customer is the canonical one.
-                // Add it to our unique set. If it was already added (e.g., from another incoming record
-                // that matched the same existing customer), the Set's add method handles it.
-                if (uniqueCustomersSet.add(existingCustomer)) {
-                    dedupedOutput.add(existingCustomer);
-                }
-                // This incomingCustomer is a duplicate of an existing one, so we don't add it to the output.
+                logger.debug("Incoming customer (ID: {}) matched with existing Customer 360 (ID: {}).",
+                        incomingCustomer.getId(), existingCustomerOpt.get().getId());
+                canonical[position] = existingCustomerOpt.get();
+                matchedLiveBook[position] = true;
             } else {
-                // 2. No match in live book. Now, check if this incoming customer is a duplicate
-                //    of another incoming customer already processed in this batch.
-                //    This is handled by the `uniqueCustomersSet.add()` method, which returns false if the element
-                //    (based on its equals/hashCode) is already present.
-                if (uniqueCustomersSet.add(incomingCustomer)) {
-                    logger.debug("Incoming customer (ID: {}) is unique so far. Adding to deduped list.", incomingCustomer.getId());
-                    dedupedOutput.add(incomingCustomer);
-                } else {
-                    logger.debug("Incoming customer (ID: {}) is a duplicate of another incoming customer already processed in this batch.", incomingCustomer.getId());
-                }
+                canonical[position] = incomingCustomer;
             }
         }
 
+        // 2. Keep the first occurrence of every canonical profile.
+        boolean[] kept;
+        ExecutionMode mode = incomingCustomers.size() < minParallelBatchSize ? ExecutionMode.SEQUENTIAL : executionMode;
+        if (mode == ExecutionMode.PARALLEL) {
+            kept = keepFirstOccurrencesInPartitions(canonical);
+        } else {
+            kept = keepFirstOccurrences(canonical, matchedLiveBook);
+            if (mode == ExecutionMode.COMPARE) {
+                compareWithPartitioned(canonical, kept);
+            }
+        }
+
+        List<Customer> dedupedOutput = new ArrayList<>();
+        for (int position = 0; position < canonical.length; position++) {
+            if (kept[position]) {
+                dedupedOutput.add(canonical[position]);
+            }
+        }
+        auditCustomerDecisions(incomingCustomers, canonical, matchedLiveBook, kept);
+
         logger.info("Customer deduplication completed. Original: {} customers, Deduped: {} customers.",
                 incomingCustomers.size(), dedupedOutput.size());
 
         return dedupedOutput;
     }
 
+    /**
+     * Hands the decision made for every incoming customer to the audit writer. The records are
+     * written asynchronously after the transaction commits, off the deduplication path.
+     */
+    private void auditCustomerDecisions(List<Customer> incomingCustomers, Customer[] canonical,
+                                        boolean[] matchedLiveBook, boolean[] kept) {
+        if (deduplicationLogWriter == null) {
+            return;
+        }
+        List<DeduplicationLog> decisions = new ArrayList<>(canonical.length);
+        for (int position = 0; position < canonical.length; position++) {
+            Customer incomingCustomer = incomingCustomers.get(position);
+            if (incomingCustomer == null) {
+                continue;
+            }
+            if (matchedLiveBook[position]) {
+                decisions.add(DeduplicationLog.of(DeduplicationLog.RecordType.CUSTOMER, incomingCustomer.getId(),
+                        canonical[position].getId(), DeduplicationLog.Outcome.LIVE_BOOK_MATCH));
+            } else {
+                decisions.add(DeduplicationLog.of(DeduplicationLog.RecordType.CUSTOMER, incomingCustomer.getId(), null,
+                        kept[position] ? DeduplicationLog.Outcome.UNIQUE : DeduplicationLog.Outcome.BATCH_DUPLICATE));
+            }
+        }
+        deduplicationLogWriter.recordAll(decisions);
+    }
+
+    /**
+     * Marks, in batch order, every canonical profile that is not a duplicate of an earlier one.
+     *
+     * @param canonical       Per position, the live book match or the incoming customer; {@code null} entries are skipped.
+     * @param matchedLiveBook Per position, whether the canonical profile came from the live book (for logging only).
+     * @return Per position, whether the profile belongs in the deduped output.
+     */
+    private boolean[] keepFirstOccurrences(Customer[] canonical, boolean[] matchedLiveBook) {
+        // A Set to efficiently track unique customers based on their deduplication key (defined by Customer.equals/hashCode).
+        Set<Customer> uniqueCustomersSet = new HashSet<>();
+        boolean[] kept = new boolean[canonical.length];
+        for (int position = 0; position < canonical.length; position++) {
+            Customer customer = canonical[position];
+            if (customer == null) {
+                continue;
+            }
+            // If the same existing customer (or an equal incoming one) was already added, the Set's add
+            // method returns false, so every profile is output once.
+            kept[position] = uniqueCustomersSet.add(customer);
+            if (matchedLiveBook != null && !matchedLiveBook[position]) {
+                if (kept[position]) {
+                    logger.debug("Incoming customer (ID: {}) is unique so far. Adding to deduped list.", customer.getId());
+                } else {
+                    logger.debug("Incoming customer (ID: {}) is a duplicate of another incoming customer already processed in this batch.", customer.getId());
+                }
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Computes the same result as {@link #keepFirstOccurrences} on the common fork-join pool.
+     * A {@link HashSet} only ever compares elements with equal hash codes, so partitioning the batch by
+     * {@link Customer#hashCode()} (the strongest available identifier) yields independent partitions;
+     * each is processed in batch order.
+     */
+    private boolean[] keepFirstOccurrencesInPartitions(Customer[] canonical) {
+        int partitionCount = executionPartitions > 0 ? executionPartitions : 4 * ForkJoinPool.getCommonPoolParallelism();
+        List<List<Integer>> partitions = new ArrayList<>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int position = 0; position < canonical.length; position++) {
+            if (canonical[position] != null) {
+                int hash = canonical[position].hashCode();
+                partitions.get(Math.floorMod(hash ^ (hash >>> 16), partitionCount)).add(position);
+            }
+        }
+
+        boolean[] kept = new boolean[canonical.length];
+        List<Callable<Void>> tasks = new ArrayList<>(partitionCount);
+        for (List<Integer> members : partitions) {
+            if (!members.isEmpty()) {
+                tasks.add(() -> {
+                    Set<Customer> uniqueCustomersSet = new HashSet<>();
+                    for (int position : members) {
+                        kept[position] = uniqueCustomersSet.add(canonical[position]);
+                    }
+                    return null;
+                });
+            }
+        }
+        // Future.get() makes every partition's writes to kept visible to this thread.
+        for (Future<Void> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during partitioned deduplication", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Partitioned deduplication failed", e.getCause());
+            }
+        }
+        return kept;
+    }
+
+    private void compareWithPartitioned(Customer[] canonical, boolean[] sequentialKept) {
+        boolean[] partitionedKept = keepFirstOccurrencesInPartitions(canonical);
+        List<Integer> differences = new ArrayList<>();
+        for (int position = 0; position < canonical.length && differences.size() < 10; position++) {
+            if (sequentialKept[position] != partitionedKept[position]) {
+                differences.add(position);
+            }
+        }
+        if (differences.isEmpty()) {
+            logger.info("Sequential and partitioned deduplication agree on {} customer profiles.", canonical.length);
+        } else {
+            logger.error("Sequential and partitioned deduplication disagree; returning the sequential result. First differing positions: {}",
+                    differences);
+        }
+    }
+
+    /**
+     * Finds the live book (Customer 360) profile of a single incoming customer, e.g. for the streaming
+     * deduplication mode, which decides records one at a time.
+     *
+     * @param incomingCustomer The customer profile to find a match for.
+     * @return An Optional containing the matching Customer if found, otherwise empty.
+     */
+    public Optional<Customer> findLiveBookMatch(Customer incomingCustomer) {
+        return findMatchingCustomerInLiveBook(incomingCustomer);
+    }
+
     /**
      * Finds a matching customer in the Customer 360 'live book' based on
      * a hierarchy of primary deduplication criteria. The order of matching
      * is typically: PAN -> Mobile Number -> Aadhaar Number -> (Fallback) Name + Date of Birth.
+     * PAN, Mobile Number and Aadhaar Number lookups are skipped when the {@link LiveBookBloomFilters}
+     * rule the key out.
      *
      * @param incomingCustomer The customer profile to find a match for.
      * @return An Optional containing the matching Customer if found, otherwise empty.
      */
     private Optional<Customer> findMatchingCustomerInLiveBook(Customer incomingCustomer) {
         // Prioritize PAN for matching as it's often a strong unique identifier.
-        if (incomingCustomer.getPanNumber() != null && !incomingCustomer.getPanNumber().trim().isEmpty()) {
+        if (incomingCustomer.getPanNumber() != null && !incomingCustomer.getPanNumber().trim().isEmpty()
+                && liveBookBloomFilters.mightContain(LiveBookBloomFilters.KeyType.PAN, incomingCustomer.getPanNumber())) {
             Optional<Customer> byPan = customerRepository.findByPanNumber(incomingCustomer.getPanNumber());
+            liveBookBloomFilters.recordDatabaseOutcome(LiveBookBloomFilters.KeyType.PAN, byPan.isPresent());
             if (byPan.isPresent()) {
                 logger.debug("Match found in live book by PAN: {}", incomingCustomer.getPanNumber());
                 return byPan;
@@ -134,8 +356,10 @@ public class DeduplicationService {
         }
 
         // If no match by PAN, try Mobile Number.
-        if (incomingCustomer.getMobileNumber() != null && !incomingCustomer.getMobileNumber().trim().isEmpty()) {
+        if (incomingCustomer.getMobileNumber() != null && !incomingCustomer.getMobileNumber().trim().isEmpty()
+                && liveBookBloomFilters.mightContain(LiveBookBloomFilters.KeyType.MOBILE, incomingCustomer.getMobileNumber())) {
             Optional<Customer> byMobile = customerRepository.findByMobileNumber(incomingCustomer.getMobileNumber());
+            liveBookBloomFilters.recordDatabaseOutcome(LiveBookBloomFilters.KeyType.MOBILE, byMobile.isPresent());
             if (byMobile.isPresent()) {
                 logger.debug("Match found in live book by Mobile Number: {}", incomingCustomer.getMobileNumber());
                 return byMobile;
@@ -143,8 +367,10 @@ public class DeduplicationService {
         }
 
         // If no match by Mobile, try Aadhaar Number.
-        if (incomingCustomer.getAadhaarNumber() != null && !incomingCustomer.getAadhaarNumber().trim().isEmpty()) {
+        if (incomingCustomer.getAadhaarNumber() != null && !incomingCustomer.getAadhaarNumber().trim().isEmpty()
+                && liveBookBloomFilters.mightContain(LiveBookBloomFilters.KeyType.AADHAAR, incomingCustomer.getAadhaarNumber())) {
             Optional<Customer> byAadhaar = customerRepository.findByAadhaarNumber(incomingCustomer.getAadhaarNumber());
+            liveBookBloomFilters.recordDatabaseOutcome(LiveBookBloomFilters.KeyType.AADHAAR, byAadhaar.isPresent());
             if (byAadhaar.isPresent()) {
                 logger.debug("Match found in live book by Aadhaar Number: {}", incomingCustomer.getAadhaarNumber());
                 return byAadhaar;
@@ -178,8 +404,14 @@ public class DeduplicationService {
      * This method processes a list of offers and retains only unique 'Top-up' offers.
      * The deduplication logic for Top-up offers is applied *only* within the provided
      * list of incoming offers and does not involve checking against a 'live book' of offers.
-     * Matches found (as defined by {@link Offer#equals(Object)}) are removed, meaning
-     * only one instance of a duplicate Top-up offer is kept.
+     *
+     * <p>Two Top-up offers are duplicates if they are for the same customer and the same Top-up
+     * product, and their validity windows overlap. The first offer (in list order) is kept and later
+     * overlapping offers are removed. Offers without a window are open-ended, so a customer keeps a
+     * single windowless Top-up offer per product, as before windows were considered.</p>
+     *
+     * <p>Accepted offers are tracked in an {@link OfferWindowIndex}, so each offer is checked in
+     * O(log n) of its customer's accepted offers instead of against every other offer.</p>
      *
      * @param incomingTopUpOffers A list of Top-up offers to be deduped.
      * @return A list of unique Top-up offers.
@@ -192,12 +424,9 @@ public class DeduplicationService {
 
         logger.info("Starting deduplication for {} incoming Top-up offers.", incomingTopUpOffers.size());
 
-        // Use a Set to automatically handle uniqueness based on Offer's equals/hashCode.
-        // The equals/hashCode for Offer should be defined based on what constitutes a duplicate Top-up offer.
-        // For example, two Top-up offers for the same customer (customerId) and same product type
-        // might be considered duplicates.
-        Set<Offer> uniqueTopUpOffers = new HashSet<>();
+        OfferWindowIndex<String, Offer> acceptedOffers = new OfferWindowIndex<>();
         List<Offer> dedupedOutput = new ArrayList<>();
+        List<DeduplicationLog> decisions = deduplicationLogWriter != null ? new ArrayList<>(incomingTopUpOffers.size()) : null;
 
         for (Offer offer : incomingTopUpOffers) {
             if (offer == null) {
@@ -210,15 +439,28 @@ public class DeduplicationService {
                 logger.warn("Offer with ID {} is not a TOP_UP offer. Skipping from Top-up deduplication.", offer.getId());
                 continue;
             }
+            if (offer.getValidFrom() != null && offer.getValidTo() != null && offer.getValidFrom().isAfter(offer.getValidTo())) {
+                logger.warn("Offer with ID {} has a validity window ending before it starts. Skipping from Top-up deduplication.", offer.getId());
+                continue;
+            }
 
-            // Add to the set. If it's a duplicate (based on Offer's equals/hashCode), it won't be added.
-            if (uniqueTopUpOffers.add(offer)) {
+            Optional<Offer> overlapping = acceptedOffers.claim(topUpKey(offer), offer.getValidFrom(), offer.getValidTo(), offer);
+            if (overlapping.isEmpty()) {
                 dedupedOutput.add(offer);
                 logger.debug("Added unique Top-up offer: {}", offer.getId());
             } else {
-                logger.debug("Skipping duplicate Top-up offer: {}", offer.getId());
+                logger.debug("Skipping duplicate Top-up offer: {}, its validity window overlaps offer {}",
+                        offer.getId(), overlapping.get().getId());
+            }
+            if (decisions != null) {
+                decisions.add(DeduplicationLog.of(DeduplicationLog.RecordType.TOP_UP_OFFER, offer.getId(),
+                        overlapping.map(Offer::getId).orElse(null),
+                        overlapping.isEmpty() ? DeduplicationLog.Outcome.UNIQUE : DeduplicationLog.Outcome.BATCH_DUPLICATE));
             }
         }
+        if (decisions != null) {
+            deduplicationLogWriter.recordAll(decisions);
+        }
 
         logger.info("Top-up offer deduplication completed. Original: {} offers, Deduped: {} offers.",
                 incomingTopUpOffers.size(), dedupedOutput.size());
@@ -226,6 +468,13 @@ public class DeduplicationService {
         return dedupedOutput;
     }
 
+    /**
+     * Deduplication key of a Top-up offer: its customer and Top-up product.
+     */
+    private static String topUpKey(Offer offer) {
+        return offer.getCustomerId() + "|" + (offer.getProductCode() == null ? "" : offer.getProductCode());
+    }
+
     // --- Placeholder classes/interfaces for demonstration purposes ---
     // In a real project, these would be proper JPA entities and Spring Data JPA repositories
     // defined in their respective packages (e.g., com.ltfs.cdp.customer.model, com.ltfs.cdp.customer.repository).
@@ -251,6 +500,7 @@ public class DeduplicationService {
         private String firstName;
         private String lastName;
         private String dateOfBirth; // Using String for simplicity; java.time.LocalDate is recommended.
+        private LocalDateTime updatedAt; // Set on every insert and update (JPA auditing).
         // Other customer attributes like address, gender, etc.
 
         public Customer() {}
@@ -283,6 +533,8 @@ public class DeduplicationService {
         public void setLastName(String lastName) { this.lastName = lastName; }
         public String getDateOfBirth() { return dateOfBirth; }
         public void setDateOfBirth(String dateOfBirth) { this.dateOfBirth = dateOfBirth; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
         /**
          * Defines equality for Customer objects based on deduplication criteria.
@@ -405,9 +657,9 @@ public class DeduplicationService {
      * In a real application, this would be a JPA entity.
      *
      * <p>
-     * For Top-up offer deduplication, {@code equals()} and {@code hashCode()} should define
-     * what makes two Top-up offers duplicates. The current implementation assumes that
-     * a customer can only have one unique 'TOP_UP' offer at a time, identified by their customer ID.
+     * Top-up offer deduplication compares customer, product code and validity window (see
+     * {@link DeduplicationService#deduplicateTopUpOffers(List)}). {@code equals()} and {@code hashCode()}
+     * keep the coarser rule that a customer has one 'TOP_UP' offer, for callers that use offers in sets.
      * </p>
      */
     public static class Offer {
@@ -415,7 +667,9 @@ public class DeduplicationService {
         private String customerId;
         private String offerType; // e.g., "TOP_UP", "LOYALTY", "PREAPPROVED", "E_AGGREGATOR"
         private Double offerAmount;
-        // Other offer attributes like validity, product details, etc.
+        private String productCode; // Specific product within the offer type, e.g. the Top-up scheme; null if not distinguished
+        private LocalDate validFrom; // First day of validity (inclusive); null if open-ended
+        private LocalDate validTo; // Last day of validity (inclusive); null if open-ended
 
         public Offer() {}
 
@@ -426,6 +680,14 @@ public class DeduplicationService {
             this.offerAmount = offerAmount;
         }
 
+        public Offer(String id, String customerId, String offerType, Double offerAmount,
+                     String productCode, LocalDate validFrom, LocalDate validTo) {
+            this(id, customerId, offerType, offerAmount);
+            this.productCode = productCode;
+            this.validFrom = validFrom;
+            this.validTo = validTo;
+        }
+
         // Getters and Setters
         public String getId() { return id; }
         public void setId(String id) { this.id = id; }
@@ -435,6 +697,12 @@ public class DeduplicationService {
         public void setOfferType(String offerType) { this.offerType = offerType; }
         public Double getOfferAmount() { return offerAmount; }
         public void setOfferAmount(Double offerAmount) { this.offerAmount = offerAmount; }
+        public String getProductCode() { return productCode; }
+        public void setProductCode(String productCode) { this.productCode = productCode; }
+        public LocalDate getValidFrom() { return validFrom; }
+        public void setValidFrom(LocalDate validFrom) { this.validFrom = validFrom; }
+        public LocalDate getValidTo() { return validTo; }
+        public void setValidTo(LocalDate validTo) { this.validTo = validTo; }
 
         /**
          * Defines equality for Offer objects, specifically for Top-up offers.
@@ -498,6 +766,9 @@ public class DeduplicationService {
                    ", customerId='" + customerId + '\'' +
                    ", offerType='" + offerType + '\'' +
                    ", offerAmount=" + offerAmount +
+                   ", productCode='" + productCode + '\'' +
+                   ", validFrom=" + validFrom +
+                   ", validTo=" + validTo +
                    '}';
         }
     }
@@ -540,6 +811,52 @@ public class DeduplicationService {
          */
         List<Customer> findByFirstNameAndLastNameAndDateOfBirth(String firstName, String lastName, String dateOfBirth);
 
+        /**
+         * Finds all customers whose PAN is in the given set. Used by bulk live book matching.
+         * @param panNumbers The PANs to search for.
+         * @return The matching Customers, in no particular order.
+         */
+        List<Customer> findByPanNumberIn(Collection<String> panNumbers);
+
+        /**
+         * Finds all customers whose mobile number is in the given set. Used by bulk live book matching.
+         * @param mobileNumbers The mobile numbers to search for.
+         * @return The matching Customers, in no particular order.
+         */
+        List<Customer> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+        /**
+         * Finds all customers whose Aadhaar number is in the given set. Used by bulk live book matching.
+         * @param aadhaarNumbers The Aadhaar numbers to search for.
+         * @return The matching Customers, in no particular order.
+         */
+        List<Customer> findByAadhaarNumberIn(Collection<String> aadhaarNumbers);
+
+        /**
+         * Finds all customers whose last name and date of birth are both in the given sets.
+         * This is a superset of the exact (first name, last name, date of birth) matches for a chunk;
+         * the caller filters the result in memory.
+         * @param lastNames The last names to search for.
+         * @param datesOfBirth The dates of birth to search for.
+         * @return The candidate Customers, in no particular order.
+         */
+        List<Customer> findByLastNameInAndDateOfBirthIn(Collection<String> lastNames, Collection<String> datesOfBirth);
+
+        /**
+         * Streams every customer in the live book. Used to rebuild the {@link LiveBookBloomFilters};
+         * must be consumed inside a read-only transaction and closed afterwards.
+         * @return A stream over all Customers.
+         */
+        Stream<Customer> streamAll();
+
+        /**
+         * Streams the customers created or updated after the given time. Used to catch the
+         * {@link LiveBookBloomFilters} up; must be consumed inside a read-only transaction and closed afterwards.
+         * @param updatedAt Exclusive lower bound on {@code updated_at}.
+         * @return A stream over the recently updated Customers.
+         */
+        Stream<Customer> streamByUpdatedAtAfter(LocalDateTime updatedAt);
+
         // In a full implementation, you would also have methods like:
         // Customer save(Customer customer); // To persist new or updated customer profiles
         // Optional<Customer> findById(String id);
@@ -0,0 +1,123 @@
+package com.ltfs.cdp.customer.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over identity strings (PAN, mobile, Aadhaar).
+ *
+ * <p>A negative answer from {@link #mightContain(String)} is definite: the value was never
+ * {@link #put(String) put}. A positive answer may be a false positive with roughly the configured
+ * probability, as long as no more than the expected number of values have been inserted.</p>
+ *
+ * <p>Bits are kept in an {@link AtomicLongArray} so that values recorded by request threads are
+ * immediately visible to concurrent deduplication lookups. Probe positions are derived from two
+ * 64-bit hashes with the Kirsch-Mitzenmacher scheme ({@code h1 + i * h2}).</p>
+ */
+public class IdentityBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctionCount;
+
+    /**
+     * Creates a filter sized for the given number of values and target false positive rate.
+     *
+     * @param expectedInsertions         The number of values the filter is expected to hold.
+     * @param falsePositiveProbability   The target false positive rate, in {@code (0, 1)}.
+     */
+    public IdentityBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive, got " + expectedInsertions);
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be in (0, 1), got " + falsePositiveProbability);
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.words = new AtomicLongArray(Math.max(1, wordCount));
+        this.bitCount = (long) words.length() * 64;
+        this.hashFunctionCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+    }
+
+    /**
+     * Records a value. {@code null} is ignored.
+     */
+    public void put(String value) {
+        if (value == null) {
+            return;
+        }
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashFunctionCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int wordIndex = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(wordIndex);
+            while ((word & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)) {
+                word = words.get(wordIndex);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the value was definitely never recorded; {@code true} if it may have been.
+     */
+    public boolean mightContain(String value) {
+        if (value == null) {
+            return false;
+        }
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashFunctionCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the current false positive probability from the fraction of bits set,
+     * {@code (setBits / bitCount) ^ k}. This grows as values are recorded past the sizing estimate.
+     */
+    public double estimatedFalsePositiveProbability() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) setBits / bitCount, hashFunctionCount);
+    }
+
+    /**
+     * @return The size of the bit array.
+     */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * @return The number of probes per value.
+     */
+    public int hashFunctionCount() {
+        return hashFunctionCount;
+    }
+
+    /**
+     * Seeded 64-bit string hash: FNV-style accumulation followed by the MurmurHash3 finalizer.
+     */
+    private static long hash(String value, long seed) {
+        long h = seed ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,400 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import com.ltfs.cdp.customer.service.DeduplicationService.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Per-key Bloom filters (PAN, Mobile Number, Aadhaar Number) over the 'live book' (Customer 360).
+ *
+ * <p>Most incoming Offermart/MAS records are new customers. A "not present" answer from the filter
+ * lets {@link DeduplicationService} skip the full live book lookup for that key; a "maybe present"
+ * answer falls through to the database as before.</p>
+ *
+ * <p>Lookups are answered from the filters alone and never query the database. The filters are
+ * local to each replica, so customers written by another replica, the batch and streaming paths, or
+ * any other writer reach them through periodic passes over {@code updated_at}, which JPA auditing sets
+ * on every insert and update:</p>
+ * <ul>
+ *     <li>every {@code catch-up-interval}, customers updated since the <em>watermark</em> are added to
+ *         the filters and the watermark moves forward;</li>
+ *     <li>every {@code rebuild-interval}, the filters are rebuilt from the whole live book, dropping
+ *         stale keys and picking up writes that bypassed {@code updated_at}.</li>
+ * </ul>
+ * <p>A customer written by another writer is therefore ruled out for at most one catch-up interval
+ * plus the duration of a pass, the window in which concurrent deduplication on two replicas could
+ * create the same profile twice. If the last successful pass started more than {@code max-staleness}
+ * ago, e.g. because catch-ups keep failing, every lookup answers "maybe present" until one succeeds.</p>
+ * <p>The watermark trails the start of the last pass by {@code watermark-lag}, which must exceed the
+ * longest customer write transaction plus the clock skew between replicas: {@code updated_at} is
+ * stamped before the write commits. Both passes run on a background thread, so startup and readiness
+ * do not wait for the full table scan; until the first rebuild completes every lookup answers "maybe
+ * present". {@link #recordCustomer(String, String, String)} adds this instance's own writes at once.</p>
+ *
+ * <p>Metrics (per {@code key} tag):</p>
+ * <ul>
+ *     <li>{@code cdp.dedupe.bloom.lookups} - keys checked against the filter.</li>
+ *     <li>{@code cdp.dedupe.bloom.skipped} - keys the filter ruled out, i.e. database lookups saved.</li>
+ *     <li>{@code cdp.dedupe.bloom.false.positives} - keys the filter let through that the database did not have.</li>
+ *     <li>{@code cdp.dedupe.bloom.skip.ratio} - skipped / lookups.</li>
+ *     <li>{@code cdp.dedupe.bloom.false.positive.rate} - observed false positives / keys absent from the live book.</li>
+ *     <li>{@code cdp.dedupe.bloom.expected.false.positive.rate} - estimate from the filter's bit saturation.</li>
+ * </ul>
+ */
+@Component
+public class LiveBookBloomFilters {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveBookBloomFilters.class);
+
+    /**
+     * Identity keys covered by a filter.
+     */
+    public enum KeyType {
+        PAN, MOBILE, AADHAAR
+    }
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedCustomers;
+    private final double falsePositiveProbability;
+    private final Duration rebuildInterval;
+    private final Duration catchUpInterval;
+    private final Duration watermarkLag;
+    private final Duration maxStaleness;
+    private final Clock clock;
+
+    private final Map<KeyType, KeyStats> stats = new EnumMap<>(KeyType.class);
+
+    private volatile Generation current;
+    private volatile Map<KeyType, IdentityBloomFilter> filtersUnderConstruction;
+    private ScheduledExecutorService maintenance;
+
+    /**
+     * Constructs the filters. They answer "maybe present" until the first {@link #rebuild()} has run.
+     *
+     * @param customerRepository        The repository for accessing Customer 360 data.
+     * @param transactionManager        Transaction manager for the read-only passes over the live book.
+     * @param meterRegistry             The registry the filter metrics are published to.
+     * @param enabled                   Whether the filters are consulted at all.
+     * @param expectedCustomers         Sizing estimate for the live book.
+     * @param falsePositiveProbability  Target false positive rate per filter at {@code expectedCustomers}.
+     * @param rebuildInterval           Time between full rebuilds from the live book.
+     * @param catchUpInterval           Time between passes adding recently updated customers.
+     * @param watermarkLag              How far the watermark trails the start of a pass.
+     * @param maxStaleness              How long after the start of the last successful pass the filters are consulted.
+     */
+    @Autowired
+    public LiveBookBloomFilters(CustomerRepository customerRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.deduplication.bloom-filter.enabled:true}") boolean enabled,
+                                @Value("${app.deduplication.bloom-filter.expected-customers:25000000}") long expectedCustomers,
+                                @Value("${app.deduplication.bloom-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                                @Value("${app.deduplication.bloom-filter.rebuild-interval:6h}") Duration rebuildInterval,
+                                @Value("${app.deduplication.bloom-filter.catch-up-interval:10s}") Duration catchUpInterval,
+                                @Value("${app.deduplication.bloom-filter.watermark-lag:5m}") Duration watermarkLag,
+                                @Value("${app.deduplication.bloom-filter.max-staleness:1m}") Duration maxStaleness) {
+        this(customerRepository, transactionManager, meterRegistry, enabled, expectedCustomers, falsePositiveProbability,
+                rebuildInterval, catchUpInterval, watermarkLag, maxStaleness, Clock.systemDefaultZone());
+    }
+
+    LiveBookBloomFilters(CustomerRepository customerRepository, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry, boolean enabled, long expectedCustomers,
+                         double falsePositiveProbability, Duration rebuildInterval, Duration catchUpInterval,
+                         Duration watermarkLag, Duration maxStaleness, Clock clock) {
+        this.customerRepository = customerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedCustomers = expectedCustomers;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.rebuildInterval = rebuildInterval;
+        this.catchUpInterval = catchUpInterval;
+        this.watermarkLag = watermarkLag;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+
+        for (KeyType keyType : KeyType.values()) {
+            KeyStats keyStats = new KeyStats(meterRegistry, keyType);
+            stats.put(keyType, keyStats);
+            String tag = keyType.name().toLowerCase();
+            Gauge.builder("cdp.dedupe.bloom.skip.ratio", keyStats, KeyStats::skipRatio)
+                    .tag("key", tag).register(meterRegistry);
+            Gauge.builder("cdp.dedupe.bloom.false.positive.rate", keyStats, KeyStats::observedFalsePositiveRate)
+                    .tag("key", tag).register(meterRegistry);
+            Gauge.builder("cdp.dedupe.bloom.expected.false.positive.rate", this, bloomFilters -> bloomFilters.expectedFalsePositiveRate(keyType))
+                    .tag("key", tag).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Schedules the first rebuild and the periodic maintenance on a background thread, so that the
+     * full pass over the live book does not hold up startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Live book Bloom filters are disabled; every identity lookup will query the database.");
+            return;
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-book-bloom-filters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A single thread, so rebuilds and catch-ups never overlap.
+        maintenance.scheduleWithFixedDelay(this::rebuild, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(this::catchUp, catchUpInterval.toMillis(), catchUpInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds all filters from a single pass over the live book and swaps them in atomically.
+     * Customers recorded while the rebuild is running are added to both the old and the new filters;
+     * customers written by others while it runs are after the new watermark.
+     */
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        LocalDateTime watermark = startedAt.minus(watermarkLag);
+        long startTime = System.currentTimeMillis();
+        Map<KeyType, IdentityBloomFilter> fresh = new EnumMap<>(KeyType.class);
+        for (KeyType keyType : KeyType.values()) {
+            fresh.put(keyType, new IdentityBloomFilter(expectedCustomers, falsePositiveProbability));
+        }
+        filtersUnderConstruction = fresh;
+
+        long indexed;
+        try {
+            indexed = readOnlyTransaction.execute(status -> putAll(fresh, customerRepository.streamAll()));
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild live book Bloom filters; lookups keep using the previous state.", e);
+            return;
+        } finally {
+            filtersUnderConstruction = null;
+        }
+
+        current = new Generation(fresh, watermark, startedAt);
+        logger.info("Rebuilt live book Bloom filters over {} customers in {} ms ({} bits, {} hashes per key type), watermark {}.",
+                indexed, System.currentTimeMillis() - startTime,
+                fresh.get(KeyType.PAN).bitCount(), fresh.get(KeyType.PAN).hashFunctionCount(), watermark);
+    }
+
+    /**
+     * Adds the customers updated since the watermark to the filters, then moves the watermark up.
+     */
+    void catchUp() {
+        Generation generation = current;
+        if (generation == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        LocalDateTime watermark = startedAt.minus(watermarkLag);
+        try {
+            long added = readOnlyTransaction.execute(status ->
+                    putAll(generation.filters, customerRepository.streamByUpdatedAtAfter(generation.watermark)));
+            // Only move forward once everything up to the new watermark is in the filters.
+            generation.watermark = watermark;
+            generation.coveredAt = startedAt;
+            logger.debug("Added {} recently updated customers to the live book Bloom filters, watermark {}.", added, watermark);
+        } catch (RuntimeException e) {
+            logger.error("Failed to catch up the live book Bloom filters; they cover the live book as of {}.",
+                    generation.coveredAt, e);
+        }
+    }
+
+    /**
+     * Records the identifiers of a customer that now exists in the live book, so that this instance
+     * sees its own writes before the next catch-up.
+     */
+    public void recordCustomer(String panNumber, String mobileNumber, String aadhaarNumber) {
+        Generation generation = current;
+        if (generation != null) {
+            put(generation.filters, panNumber, mobileNumber, aadhaarNumber);
+        }
+        Map<KeyType, IdentityBloomFilter> pending = filtersUnderConstruction;
+        if (pending != null) {
+            put(pending, panNumber, mobileNumber, aadhaarNumber);
+        }
+    }
+
+    /**
+     * Checks whether a key may exist in the live book and counts the outcome.
+     *
+     * @return {@code false} only if the live book definitely has no customer with this key.
+     */
+    public boolean mightContain(KeyType keyType, String value) {
+        return !possiblyPresent(keyType, Collections.singletonList(value)).isEmpty();
+    }
+
+    /**
+     * Returns the keys that may exist in the live book, in their original order. Answered from the
+     * filters alone; no database query is issued.
+     *
+     * @return A subset of {@code values}; every key missing from it is definitely not in the live book.
+     */
+    public Set<String> possiblyPresent(KeyType keyType, Collection<String> values) {
+        Generation generation = usableGeneration();
+        if (generation == null) {
+            return new LinkedHashSet<>(values);
+        }
+        Set<String> possiblyPresent = new LinkedHashSet<>();
+        IdentityBloomFilter filter = generation.filters.get(keyType);
+        KeyStats keyStats = stats.get(keyType);
+        for (String value : values) {
+            boolean mightContain = filter.mightContain(value);
+            keyStats.recordLookup(!mightContain);
+            if (mightContain) {
+                possiblyPresent.add(value);
+            }
+        }
+        return possiblyPresent;
+    }
+
+    /**
+     * Records whether the database found a key the filter let through. Feeds the observed
+     * false positive rate.
+     */
+    public void recordDatabaseOutcome(KeyType keyType, boolean found) {
+        if (!found && usableGeneration() != null) {
+            stats.get(keyType).recordFalsePositive();
+        }
+    }
+
+    /**
+     * The time up to which the filters cover the live book, or null before the first rebuild.
+     */
+    LocalDateTime watermark() {
+        Generation generation = current;
+        return generation != null ? generation.watermark : null;
+    }
+
+    /**
+     * The filters to answer lookups from, or null if they are disabled, not built yet, or older than
+     * {@code max-staleness}.
+     */
+    private Generation usableGeneration() {
+        Generation generation = current;
+        if (!enabled || generation == null) {
+            return null;
+        }
+        return generation.coveredAt.plus(maxStaleness).isBefore(LocalDateTime.now(clock)) ? null : generation;
+    }
+
+    private double expectedFalsePositiveRate(KeyType keyType) {
+        Generation generation = current;
+        return generation != null ? generation.filters.get(keyType).estimatedFalsePositiveProbability() : 0.0;
+    }
+
+    private static long putAll(Map<KeyType, IdentityBloomFilter> target, Stream<Customer> customers) {
+        long count = 0;
+        try (Stream<Customer> stream = customers) {
+            for (Customer customer : (Iterable<Customer>) stream::iterator) {
+                put(target, customer.getPanNumber(), customer.getMobileNumber(), customer.getAadhaarNumber());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void put(Map<KeyType, IdentityBloomFilter> target, String panNumber, String mobileNumber, String aadhaarNumber) {
+        putIfPresent(target.get(KeyType.PAN), panNumber);
+        putIfPresent(target.get(KeyType.MOBILE), mobileNumber);
+        putIfPresent(target.get(KeyType.AADHAAR), aadhaarNumber);
+    }
+
+    private static void putIfPresent(IdentityBloomFilter filter, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            filter.put(value);
+        }
+    }
+
+    /**
+     * A set of filters, the time from which the next catch-up reads, and the start of the last
+     * successful pass, up to which every committed customer is in the filters.
+     */
+    private static final class Generation {
+        final Map<KeyType, IdentityBloomFilter> filters;
+        volatile LocalDateTime watermark;
+        volatile LocalDateTime coveredAt;
+
+        Generation(Map<KeyType, IdentityBloomFilter> filters, LocalDateTime watermark, LocalDateTime coveredAt) {
+            this.filters = filters;
+            this.watermark = watermark;
+            this.coveredAt = coveredAt;
+        }
+    }
+
+    /**
+     * Counters for one key type.
+     */
+    private static final class KeyStats {
+        private final Counter lookups;
+        private final Counter skipped;
+        private final Counter falsePositives;
+
+        KeyStats(MeterRegistry meterRegistry, KeyType keyType) {
+            String tag = keyType.name().toLowerCase();
+            this.lookups = Counter.builder("cdp.dedupe.bloom.lookups").tag("key", tag).register(meterRegistry);
+            this.skipped = Counter.builder("cdp.dedupe.bloom.skipped").tag("key", tag).register(meterRegistry);
+            this.falsePositives = Counter.builder("cdp.dedupe.bloom.false.positives").tag("key", tag).register(meterRegistry);
+        }
+
+        void recordLookup(boolean ruledOut) {
+            lookups.increment();
+            if (ruledOut) {
+                skipped.increment();
+            }
+        }
+
+        void recordFalsePositive() {
+            falsePositives.increment();
+        }
+
+        double skipRatio() {
+            double total = lookups.count();
+            return total == 0 ? 0.0 : skipped.count() / total;
+        }
+
+        /**
+         * False positives over all keys that turned out to be absent from the live book
+         * (those the filter ruled out plus those it wrongly let through).
+         */
+        double observedFalsePositiveRate() {
+            double absent = skipped.count() + falsePositives.count();
+            return absent == 0 ? 0.0 : falsePositives.count() / absent;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import com.ltfs.cdp.customer.service.DeduplicationService.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves 'live book' (Customer 360) matches for a whole batch of incoming customers with a
+ * handful of set-based queries instead of up to four single-row queries per customer.
+ *
+ * <p>Matching runs in the same priority order as
+ * {@link DeduplicationService#deduplicateCustomers(List)} uses per record:
+ * PAN -> Mobile Number -> Aadhaar Number -> (Fallback) Name + Date of Birth.
+ * Each stage collects the distinct keys of the customers that are still unmatched, fetches the
+ * corresponding live book rows in chunks of {@code chunkSize} keys ({@code IN (...)} queries),
+ * and then matches in memory. Customers resolved by a stronger key are not looked up again by a
+ * weaker one, so later stages only query what is left. When {@link LiveBookBloomFilters} are
+ * supplied, PAN, mobile and Aadhaar keys they rule out are left out of the queries.</p>
+ *
+ * <p>Instances are cheap and intended to be created per batch; they are not thread-safe.</p>
+ */
+public class LiveBookBulkMatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveBookBulkMatcher.class);
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final CustomerRepository customerRepository;
+    private final int chunkSize;
+    private final LiveBookBloomFilters liveBookBloomFilters;
+
+    /**
+     * Creates a matcher for one batch that queries every key.
+     *
+     * @param customerRepository The repository for accessing Customer 360 data.
+     * @param chunkSize          The maximum number of keys bound into a single {@code IN (...)} query.
+     */
+    public LiveBookBulkMatcher(CustomerRepository customerRepository, int chunkSize) {
+        this(customerRepository, chunkSize, null);
+    }
+
+    /**
+     * Creates a matcher for one batch that leaves out of its queries any PAN, mobile or Aadhaar key
+     * the Bloom filters rule out.
+     *
+     * @param customerRepository   The repository for accessing Customer 360 data.
+     * @param chunkSize            The maximum number of keys bound into a single {@code IN (...)} query.
+     * @param liveBookBloomFilters The live book Bloom filters, or {@code null} to query every key.
+     */
+    public LiveBookBulkMatcher(CustomerRepository customerRepository, int chunkSize, LiveBookBloomFilters liveBookBloomFilters) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize);
+        }
+        this.customerRepository = customerRepository;
+        this.chunkSize = chunkSize;
+        this.liveBookBloomFilters = liveBookBloomFilters;
+    }
+
+    /**
+     * Resolves live book matches for every customer in the batch.
+     *
+     * @param incomingCustomers The batch. {@code null} entries are allowed and never match.
+     * @return The matches, aligned by position with {@code incomingCustomers}.
+     */
+    public Matches match(List<Customer> incomingCustomers) {
+        Customer[] matches = new Customer[incomingCustomers.size()];
+        int queryCount = 0;
+
+        queryCount += resolveStage("PAN", LiveBookBloomFilters.KeyType.PAN, incomingCustomers, matches,
+                customer -> nonBlank(customer.getPanNumber()),
+                panNumbers -> customerRepository.findByPanNumberIn(panNumbers));
+        queryCount += resolveStage("Mobile Number", LiveBookBloomFilters.KeyType.MOBILE, incomingCustomers, matches,
+                customer -> nonBlank(customer.getMobileNumber()),
+                mobileNumbers -> customerRepository.findByMobileNumberIn(mobileNumbers));
+        queryCount += resolveStage("Aadhaar Number", LiveBookBloomFilters.KeyType.AADHAAR, incomingCustomers, matches,
+                customer -> nonBlank(customer.getAadhaarNumber()),
+                aadhaarNumbers -> customerRepository.findByAadhaarNumberIn(aadhaarNumbers));
+        queryCount += resolveNameAndDateOfBirthStage(incomingCustomers, matches);
+
+        return new Matches(matches, queryCount);
+    }
+
+    /**
+     * Resolves one single-key stage. Live book rows are keyed with the same extractor as the
+     * incoming customers, so the in-memory match is exactly the repository's equality.
+     *
+     * @return The number of repository queries issued.
+     */
+    private int resolveStage(String stageName,
+                             LiveBookBloomFilters.KeyType keyType,
+                             List<Customer> incomingCustomers,
+                             Customer[] matches,
+                             Function<Customer, String> keyExtractor,
+                             Function<List<String>, List<Customer>> bulkFinder) {
+        Set<String> pendingKeys = new LinkedHashSet<>();
+        for (int i = 0; i < matches.length; i++) {
+            Customer incoming = incomingCustomers.get(i);
+            if (incoming != null && matches[i] == null) {
+                String key = keyExtractor.apply(incoming);
+                if (key != null) {
+                    pendingKeys.add(key);
+                }
+            }
+        }
+        if (liveBookBloomFilters != null) {
+            pendingKeys.retainAll(liveBookBloomFilters.possiblyPresent(keyType, pendingKeys));
+        }
+        if (pendingKeys.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Customer> liveBookByKey = new HashMap<>();
+        int queryCount = 0;
+        for (List<String> chunk : chunk(new ArrayList<>(pendingKeys))) {
+            for (Customer existing : bulkFinder.apply(chunk)) {
+                String key = keyExtractor.apply(existing);
+                if (key != null) {
+                    // Keep the first row returned per key, as the single-row lookup would.
+                    liveBookByKey.putIfAbsent(key, existing);
+                }
+            }
+            queryCount++;
+        }
+
+        if (liveBookBloomFilters != null) {
+            for (String key : pendingKeys) {
+                liveBookBloomFilters.recordDatabaseOutcome(keyType, liveBookByKey.containsKey(key));
+            }
+        }
+
+        int resolved = assignMatches(incomingCustomers, matches, keyExtractor, liveBookByKey);
+        logger.debug("Bulk live book stage '{}': {} distinct keys, {} queries, {} customers matched.",
+                stageName, pendingKeys.size(), queryCount, resolved);
+        return queryCount;
+    }
+
+    /**
+     * Resolves the Name + Date of Birth fallback. The repository cannot bind composite keys in a
+     * single {@code IN}, so each chunk fetches by its distinct last names and dates of birth and the
+     * exact (first name, last name, date of birth) tuple is then checked in memory.
+     *
+     * @return The number of repository queries issued.
+     */
+    private int resolveNameAndDateOfBirthStage(List<Customer> incomingCustomers, Customer[] matches) {
+        Map<String, Customer> pendingByKey = new LinkedHashMap<>();
+        for (int i = 0; i < matches.length; i++) {
+            Customer incoming = incomingCustomers.get(i);
+            if (incoming != null && matches[i] == null) {
+                String key = nameAndDateOfBirthKey(incoming);
+                if (key != null) {
+                    pendingByKey.putIfAbsent(key, incoming);
+                }
+            }
+        }
+        if (pendingByKey.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Customer> liveBookByKey = new HashMap<>();
+        int queryCount = 0;
+        for (List<Customer> chunk : chunk(new ArrayList<>(pendingByKey.values()))) {
+            Set<String> lastNames = new LinkedHashSet<>();
+            Set<String> datesOfBirth = new LinkedHashSet<>();
+            for (Customer representative : chunk) {
+                lastNames.add(representative.getLastName());
+                datesOfBirth.add(representative.getDateOfBirth());
+            }
+            for (Customer existing : customerRepository.findByLastNameInAndDateOfBirthIn(lastNames, datesOfBirth)) {
+                String key = nameAndDateOfBirthKey(existing);
+                if (key != null && pendingByKey.containsKey(key)) {
+                    liveBookByKey.putIfAbsent(key, existing);
+                }
+            }
+            queryCount++;
+        }
+
+        int resolved = assignMatches(incomingCustomers, matches, LiveBookBulkMatcher::nameAndDateOfBirthKey, liveBookByKey);
+        logger.debug("Bulk live book stage 'Name+DOB': {} distinct keys, {} queries, {} customers matched.",
+                pendingByKey.size(), queryCount, resolved);
+        return queryCount;
+    }
+
+    private static int assignMatches(List<Customer> incomingCustomers,
+                                     Customer[] matches,
+                                     Function<Customer, String> keyExtractor,
+                                     Map<String, Customer> liveBookByKey) {
+        int resolved = 0;
+        for (int i = 0; i < matches.length; i++) {
+            Customer incoming = incomingCustomers.get(i);
+            if (incoming == null || matches[i] != null) {
+                continue;
+            }
+            String key = keyExtractor.apply(incoming);
+            Customer existing = key != null ? liveBookByKey.get(key) : null;
+            if (existing != null) {
+                matches[i] = existing;
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    private <T> List<List<T>> chunk(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>((values.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            chunks.add(values.subList(from, Math.min(from + chunkSize, values.size())));
+        }
+        return chunks;
+    }
+
+    private static String nonBlank(String value) {
+        return value != null && !value.trim().isEmpty() ? value : null;
+    }
+
+    /**
+     * Exact (first name, last name, date of birth) key, as bound by
+     * {@code findByFirstNameAndLastNameAndDateOfBirth}. {@code null} if any part is blank.
+     */
+    private static String nameAndDateOfBirthKey(Customer customer) {
+        String firstName = nonBlank(customer.getFirstName());
+        String lastName = nonBlank(customer.getLastName());
+        String dateOfBirth = nonBlank(customer.getDateOfBirth());
+        if (firstName == null || lastName == null || dateOfBirth == null) {
+            return null;
+        }
+        return firstName + KEY_SEPARATOR + lastName + KEY_SEPARATOR + dateOfBirth;
+    }
+
+    /**
+     * Outcome of {@link #match(List)}: the live book match per incoming position plus the number of
+     * repository queries the batch cost.
+     */
+    public static final class Matches {
+
+        private final Customer[] matches;
+        private final int queryCount;
+
+        Matches(Customer[] matches, int queryCount) {
+            this.matches = matches;
+            this.queryCount = queryCount;
+        }
+
+        /**
+         * @param position The position of the incoming customer in the batch.
+         * @return The matching live book customer, if any.
+         */
+        public Optional<Customer> matchFor(int position) {
+            return Optional.ofNullable(matches[position]);
+        }
+
+        /**
+         * @return The number of repository queries issued for the batch.
+         */
+        public int getQueryCount() {
+            return queryCount;
+        }
+
+        /**
+         * @return The number of incoming customers that matched a live book customer.
+         */
+        public int getMatchedCount() {
+            int matched = 0;
+            for (Customer match : matches) {
+                if (match != null) {
+                    matched++;
+                }
+            }
+            return matched;
+        }
+    }
+}
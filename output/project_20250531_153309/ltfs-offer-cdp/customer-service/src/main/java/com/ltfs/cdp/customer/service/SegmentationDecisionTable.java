@@ -0,0 +1,170 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.CustomerSegmentationService.CustomerSegment;
+import com.ltfs.cdp.customer.service.CustomerSegmentationService.SegmentationRule;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * An ordered list of {@link SegmentationRule}s compiled into a decision table over income bands and
+ * age bands.
+ *
+ * <p>The lower and upper bounds of all rules cut the income axis and the age axis into bands. Within
+ * a band, every rule either matches all values or none. Each cell (income band, age band) holds the
+ * segment of the first rule matching it. A customer is then segmented with two binary searches
+ * and an array lookup, O(log rules), instead of evaluating the rules one by one.</p>
+ *
+ * <p>Bounds are inclusive: a rule matches {@code minIncome <= income <= maxIncome} and
+ * {@code minAge <= age <= maxAge}, and a null bound is open. Tables are immutable and safe to
+ * share between threads.</p>
+ */
+public final class SegmentationDecisionTable {
+
+    private final long version;
+    private final List<SegmentationRule> rules;
+    private final CustomerSegment defaultSegment;
+
+    /** Lower bounds of income bands 1..n; band 0 is everything below incomeCuts[0]. */
+    private final double[] incomeCuts;
+    /** Lower bounds of age bands 1..n; band 0 is everything below ageCuts[0]. */
+    private final int[] ageCuts;
+    /** Index of the first matching rule by [incomeBand * ageBands + ageBand], or -1 for the default. */
+    private final int[] cells;
+    private final int ageBands;
+
+    private SegmentationDecisionTable(long version, List<SegmentationRule> rules, CustomerSegment defaultSegment,
+                                      double[] incomeCuts, int[] ageCuts, int[] cells) {
+        this.version = version;
+        this.rules = rules;
+        this.defaultSegment = defaultSegment;
+        this.incomeCuts = incomeCuts;
+        this.ageCuts = ageCuts;
+        this.cells = cells;
+        this.ageBands = ageCuts.length + 1;
+    }
+
+    /**
+     * Compiles an ordered rule list.
+     *
+     * @param version The version of the rule set, for logging and change detection.
+     * @param rules The rules, highest priority first.
+     * @param defaultSegment The segment of customers no rule matches.
+     * @return The compiled table.
+     */
+    public static SegmentationDecisionTable compile(long version, List<SegmentationRule> rules,
+                                                    CustomerSegment defaultSegment) {
+        List<SegmentationRule> ruleList = List.copyOf(rules);
+        TreeSet<Double> incomeCutSet = new TreeSet<>();
+        TreeSet<Integer> ageCutSet = new TreeSet<>();
+        for (SegmentationRule rule : ruleList) {
+            if (rule.getMinIncome() != null) {
+                incomeCutSet.add(normalize(rule.getMinIncome()));
+            }
+            if (rule.getMaxIncome() != null) {
+                // The first value above an inclusive maximum starts a new band.
+                incomeCutSet.add(Math.nextUp(normalize(rule.getMaxIncome())));
+            }
+            if (rule.getMinAge() != null) {
+                ageCutSet.add(rule.getMinAge());
+            }
+            if (rule.getMaxAge() != null && rule.getMaxAge() < Integer.MAX_VALUE) {
+                ageCutSet.add(rule.getMaxAge() + 1);
+            }
+        }
+        double[] incomeCuts = incomeCutSet.stream().mapToDouble(Double::doubleValue).toArray();
+        int[] ageCuts = ageCutSet.stream().mapToInt(Integer::intValue).toArray();
+
+        // Every value of a band is decided like its lower bound, so one representative per band suffices.
+        int incomeBands = incomeCuts.length + 1;
+        int ageBands = ageCuts.length + 1;
+        int[] cells = new int[incomeBands * ageBands];
+        for (int incomeBand = 0; incomeBand < incomeBands; incomeBand++) {
+            double income = incomeBand == 0 ? Double.NEGATIVE_INFINITY : incomeCuts[incomeBand - 1];
+            for (int ageBand = 0; ageBand < ageBands; ageBand++) {
+                int age = ageBand == 0 ? Integer.MIN_VALUE : ageCuts[ageBand - 1];
+                cells[incomeBand * ageBands + ageBand] = firstMatch(ruleList, age, income);
+            }
+        }
+        return new SegmentationDecisionTable(version, ruleList, defaultSegment, incomeCuts, ageCuts, cells);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<SegmentationRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the rule deciding the segment of a customer.
+     *
+     * @return The first matching rule, or null if the customer gets the default segment.
+     */
+    public SegmentationRule match(int age, double income) {
+        int ruleIndex;
+        if (Double.isNaN(income)) {
+            // NaN fails no comparison, so it matches every income bound; it has no band.
+            ruleIndex = firstMatch(rules, age, income);
+        } else {
+            ruleIndex = cells[band(incomeCuts, normalize(income)) * ageBands + band(ageCuts, age)];
+        }
+        return ruleIndex < 0 ? null : rules.get(ruleIndex);
+    }
+
+    /**
+     * Returns the segment of a customer.
+     */
+    public CustomerSegment segment(int age, double income) {
+        SegmentationRule rule = match(age, income);
+        return rule != null ? rule.getTargetSegment() : defaultSegment;
+    }
+
+    /**
+     * The number of cells of the table, for sizing and logging.
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    private static int band(double[] cuts, double value) {
+        int position = Arrays.binarySearch(cuts, value);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    private static int band(int[] cuts, int value) {
+        int position = Arrays.binarySearch(cuts, value);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    private static int firstMatch(List<SegmentationRule> rules, int age, double income) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (matches(rules.get(i), age, income)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(SegmentationRule rule, int age, double income) {
+        return (rule.getMinAge() == null || age >= rule.getMinAge())
+                && (rule.getMaxAge() == null || age <= rule.getMaxAge())
+                && (rule.getMinIncome() == null || !(income < rule.getMinIncome()))
+                && (rule.getMaxIncome() == null || !(income > rule.getMaxIncome()));
+    }
+
+    /**
+     * Maps -0.0 to 0.0: the rules compare them as equal, binary search does not.
+     */
+    private static double normalize(double value) {
+        return value + 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentationDecisionTable{version=" + version + ", rules=" + rules.size()
+                + ", incomeBands=" + (incomeCuts.length + 1) + ", ageBands=" + ageBands + '}';
+    }
+}
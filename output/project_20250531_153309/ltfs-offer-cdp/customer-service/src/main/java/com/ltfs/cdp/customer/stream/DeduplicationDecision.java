@@ -0,0 +1,64 @@
+package com.ltfs.cdp.customer.stream;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+
+import java.time.Instant;
+
+/**
+ * Deduplication decision for one validated customer record, emitted by the streaming deduplication
+ * topology to the decisions topic, keyed by the record's identity key.
+ */
+public class DeduplicationDecision {
+
+    private String customerId;
+    private String identityKey;
+    private DeduplicationLog.Outcome outcome;
+    private String matchedCustomerId;
+    private Instant decidedAt;
+
+    public DeduplicationDecision() {}
+
+    public DeduplicationDecision(String customerId, String identityKey, DeduplicationLog.Outcome outcome,
+                                 String matchedCustomerId, Instant decidedAt) {
+        this.customerId = customerId;
+        this.identityKey = identityKey;
+        this.outcome = outcome;
+        this.matchedCustomerId = matchedCustomerId;
+        this.decidedAt = decidedAt;
+    }
+
+    /**
+     * Identifier of the incoming customer record.
+     */
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+    /**
+     * Strongest identity key of the record (see {@link StreamingDeduplicationTopology#identityKey}),
+     * or {@code null} if it has none.
+     */
+    public String getIdentityKey() { return identityKey; }
+    public void setIdentityKey(String identityKey) { this.identityKey = identityKey; }
+
+    public DeduplicationLog.Outcome getOutcome() { return outcome; }
+    public void setOutcome(DeduplicationLog.Outcome outcome) { this.outcome = outcome; }
+
+    /**
+     * The live book profile or earlier record this one was matched with; {@code null} if unique.
+     */
+    public String getMatchedCustomerId() { return matchedCustomerId; }
+    public void setMatchedCustomerId(String matchedCustomerId) { this.matchedCustomerId = matchedCustomerId; }
+
+    public Instant getDecidedAt() { return decidedAt; }
+    public void setDecidedAt(Instant decidedAt) { this.decidedAt = decidedAt; }
+
+    @Override
+    public String toString() {
+        return "DeduplicationDecision{" +
+               "customerId='" + customerId + '\'' +
+               ", outcome=" + outcome +
+               ", matchedCustomerId='" + matchedCustomerId + '\'' +
+               ", decidedAt=" + decidedAt +
+               '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.ltfs.cdp.customer.stream;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.TimestampedKeyValueStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decides, record by record, whether a validated customer is new, a live book customer or a
+ * duplicate of a record seen earlier, using a local state store of identity keys.
+ *
+ * <p>Records arrive keyed by their identity key, so all records of one identity reach the same
+ * stream task, in order. The store maps each identity key to the customer it was first resolved
+ * to (the live book profile or the first record) and when; later records with that key are
+ * duplicates of it. This is the in-batch rule of {@code DeduplicationService.deduplicateCustomers},
+ * which also compares customers by their strongest identity key, applied across all records instead
+ * of within one batch.</p>
+ *
+ * <p>Entries older than the retention are swept in small slices, so the store only holds identities
+ * seen recently; by then earlier records have reached the live book and are matched there.</p>
+ *
+ * <p>Audit records are identified by the position of the decided record in the repartition topic, so
+ * that reprocessing after an aborted transaction does not audit a decision twice.</p>
+ */
+class IdentityDeduplicationProcessor implements Processor<String, Customer, String, DeduplicationDecision> {
+
+    private static final Duration SWEEP_INTERVAL = Duration.ofSeconds(10);
+    // Entries examined per sweep, to keep the stream thread's pause short.
+    private static final int SWEEP_SLICE = 10_000;
+
+    private final Function<Customer, Optional<Customer>> liveBookMatcher;
+    private final Consumer<DeduplicationLog> auditor;
+    private final Duration retention;
+
+    private ProcessorContext<String, DeduplicationDecision> context;
+    private TimestampedKeyValueStore<String, String> store;
+    private String sweepFrom;
+
+    IdentityDeduplicationProcessor(Function<Customer, Optional<Customer>> liveBookMatcher,
+                                   Consumer<DeduplicationLog> auditor, Duration retention) {
+        this.liveBookMatcher = liveBookMatcher;
+        this.auditor = auditor;
+        this.retention = retention;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, DeduplicationDecision> context) {
+        this.context = context;
+        this.store = context.getStateStore(StreamingDeduplicationTopology.IDENTITY_STORE);
+        if (!retention.isZero() && !retention.isNegative()) {
+            context.schedule(SWEEP_INTERVAL, PunctuationType.WALL_CLOCK_TIME, this::sweep);
+        }
+    }
+
+    @Override
+    public void process(Record<String, Customer> record) {
+        Customer customer = record.value();
+        String identityKey = record.key();
+        DeduplicationLog.Outcome outcome;
+        String matchedCustomerId;
+
+        ValueAndTimestamp<String> firstSeen = store.get(identityKey);
+        if (firstSeen != null) {
+            outcome = DeduplicationLog.Outcome.BATCH_DUPLICATE;
+            matchedCustomerId = firstSeen.value();
+        } else {
+            Optional<Customer> liveBookMatch = liveBookMatcher.apply(customer);
+            outcome = liveBookMatch.isPresent() ? DeduplicationLog.Outcome.LIVE_BOOK_MATCH : DeduplicationLog.Outcome.UNIQUE;
+            matchedCustomerId = liveBookMatch.map(Customer::getId).orElse(null);
+            store.put(identityKey, ValueAndTimestamp.make(liveBookMatch.orElse(customer).getId(), record.timestamp()));
+        }
+
+        context.forward(record.withValue(
+                new DeduplicationDecision(customer.getId(), identityKey, outcome, matchedCustomerId, Instant.now())));
+        if (auditor != null) {
+            auditor.accept(StreamingDeduplicationTopology.auditRecord(context.recordMetadata(), customer.getId(), matchedCustomerId, outcome));
+        }
+    }
+
+    /**
+     * Deletes expired entries from the next slice of the store, resuming where the previous sweep stopped.
+     */
+    private void sweep(long now) {
+        long cutoff = now - retention.toMillis();
+        List<String> expired = new ArrayList<>();
+        try (KeyValueIterator<String, ValueAndTimestamp<String>> entries =
+                     sweepFrom == null ? store.all() : store.range(sweepFrom, null)) {
+            for (int scanned = 0; scanned < SWEEP_SLICE && entries.hasNext(); scanned++) {
+                KeyValue<String, ValueAndTimestamp<String>> entry = entries.next();
+                if (entry.value.timestamp() < cutoff) {
+                    expired.add(entry.key);
+                }
+            }
+            sweepFrom = entries.hasNext() ? entries.peekNextKey() : null;
+        }
+        expired.forEach(store::delete);
+    }
+}
@@ -0,0 +1,168 @@
+package com.ltfs.cdp.customer.stream;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.processor.api.RecordMetadata;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Kafka Streams topology for continuous customer deduplication: validated customer records in,
+ * one {@link DeduplicationDecision} per record out.
+ *
+ * <ol>
+ *     <li>Records are re-keyed by their {@link #identityKey(Customer) identity key} and repartitioned,
+ *         so every record of an identity is handled by the same task, in order.</li>
+ *     <li>{@link IdentityDeduplicationProcessor} decides each record against the task's local store of
+ *         identity keys ({@value #IDENTITY_STORE}). The store is backed by a compacted changelog topic,
+ *         from which Kafka Streams restores it when a task moves to another instance or a standby
+ *         replica takes over.</li>
+ *     <li>Records without any identity key cannot match anything and are decided {@code UNIQUE}
+ *         without state.</li>
+ * </ol>
+ *
+ * <p>Under {@code exactly_once_v2} a task that fails mid-transaction reprocesses its records, and the
+ * audit records handed to the auditor are not part of that transaction. Each audit record therefore gets
+ * an {@link #auditEventId(RecordMetadata) event id derived from the position of its input record}, so a
+ * repeated decision is audited under the same id, and the audit insert skips it. The live book lookup is
+ * read-only, so repeating it is harmless.</p>
+ */
+public final class StreamingDeduplicationTopology {
+
+    public static final String IDENTITY_STORE = "dedupe-identity-store";
+
+    private StreamingDeduplicationTopology() {
+    }
+
+    /**
+     * Adds the topology to {@code builder}.
+     *
+     * @param inputTopic       Topic of validated customer records (JSON).
+     * @param decisionsTopic   Topic the decisions are written to (JSON), keyed by identity key.
+     * @param liveBookMatcher  Finds the live book (Customer 360) profile of a customer, if any.
+     * @param auditor          Receives the audit record of every decision; may be {@code null}.
+     * @param retention        How long an identity key is remembered; zero or negative to keep them all.
+     * @return The stream of decisions.
+     */
+    public static KStream<String, DeduplicationDecision> build(StreamsBuilder builder, String inputTopic, String decisionsTopic,
+                                                               Function<Customer, Optional<Customer>> liveBookMatcher,
+                                                               Consumer<DeduplicationLog> auditor, Duration retention) {
+        Serde<Customer> customerSerde = new JsonSerde<>(Customer.class).ignoreTypeHeaders().noTypeInfo();
+        Serde<DeduplicationDecision> decisionSerde = new JsonSerde<>(DeduplicationDecision.class).ignoreTypeHeaders().noTypeInfo();
+
+        builder.addStateStore(Stores.timestampedKeyValueStoreBuilder(
+                Stores.persistentTimestampedKeyValueStore(IDENTITY_STORE), Serdes.String(), Serdes.String()));
+
+        KStream<String, Customer> byIdentity = builder.stream(inputTopic, Consumed.with(Serdes.String(), customerSerde))
+                .filter((key, customer) -> customer != null, Named.as("dedupe-non-null"))
+                .selectKey((key, customer) -> identityKey(customer), Named.as("dedupe-identity-key"));
+
+        KStream<String, DeduplicationDecision> keyed = byIdentity
+                .filter((identityKey, customer) -> identityKey != null, Named.as("dedupe-with-identity"))
+                .repartition(Repartitioned.with(Serdes.String(), customerSerde).withName("dedupe-by-identity"))
+                .process(() -> new IdentityDeduplicationProcessor(liveBookMatcher, auditor, retention),
+                        Named.as("dedupe-identity-processor"), IDENTITY_STORE);
+
+        KStream<String, DeduplicationDecision> unkeyed = byIdentity
+                .filter((identityKey, customer) -> identityKey == null, Named.as("dedupe-without-identity"))
+                .processValues(() -> new UniqueWithoutIdentityProcessor(auditor), Named.as("dedupe-unique-without-identity"));
+
+        KStream<String, DeduplicationDecision> decisions = keyed.merge(unkeyed, Named.as("dedupe-decisions"));
+        decisions.to(decisionsTopic, Produced.with(Serdes.String(), decisionSerde));
+        return decisions;
+    }
+
+    /**
+     * The strongest identity key of a customer, in the order used by
+     * {@code DeduplicationService.Customer#hashCode()}: PAN (case-insensitive), mobile number, Aadhaar
+     * number, else first name, last name and date of birth (names case-insensitive) when all are present.
+     *
+     * @return The key, prefixed with its type, or {@code null} if the customer has none.
+     */
+    public static String identityKey(Customer customer) {
+        if (hasText(customer.getPanNumber())) {
+            return "PAN:" + customer.getPanNumber().toLowerCase();
+        }
+        if (hasText(customer.getMobileNumber())) {
+            return "MOBILE:" + customer.getMobileNumber();
+        }
+        if (hasText(customer.getAadhaarNumber())) {
+            return "AADHAAR:" + customer.getAadhaarNumber();
+        }
+        if (hasText(customer.getFirstName()) && hasText(customer.getLastName()) && hasText(customer.getDateOfBirth())) {
+            return "NAME:" + customer.getFirstName().toLowerCase() + "|" + customer.getLastName().toLowerCase()
+                    + "|" + customer.getDateOfBirth();
+        }
+        return null;
+    }
+
+    /**
+     * Audit record of a decision, identified by the position of the decided record.
+     */
+    static DeduplicationLog auditRecord(Optional<RecordMetadata> recordMetadata, String customerId,
+                                        String matchedCustomerId, DeduplicationLog.Outcome outcome) {
+        DeduplicationLog log = DeduplicationLog.of(DeduplicationLog.RecordType.CUSTOMER, customerId, matchedCustomerId, outcome);
+        // Records created by a punctuation have no position; the writer gives them a random id.
+        recordMetadata.ifPresent(metadata -> log.setEventId(auditEventId(metadata)));
+        return log;
+    }
+
+    /**
+     * Name-based UUID of a record's topic, partition and offset: the same for every attempt at the record.
+     */
+    static UUID auditEventId(RecordMetadata metadata) {
+        String position = metadata.topic() + "-" + metadata.partition() + "@" + metadata.offset();
+        return UUID.nameUUIDFromBytes(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    /**
+     * Decides records without any identity key {@code UNIQUE}.
+     */
+    private static final class UniqueWithoutIdentityProcessor implements FixedKeyProcessor<String, Customer, DeduplicationDecision> {
+
+        private final Consumer<DeduplicationLog> auditor;
+        private FixedKeyProcessorContext<String, DeduplicationDecision> context;
+
+        UniqueWithoutIdentityProcessor(Consumer<DeduplicationLog> auditor) {
+            this.auditor = auditor;
+        }
+
+        @Override
+        public void init(FixedKeyProcessorContext<String, DeduplicationDecision> context) {
+            this.context = context;
+        }
+
+        @Override
+        public void process(FixedKeyRecord<String, Customer> record) {
+            Customer customer = record.value();
+            context.forward(record.withValue(
+                    new DeduplicationDecision(customer.getId(), null, DeduplicationLog.Outcome.UNIQUE, null, Instant.now())));
+            if (auditor != null) {
+                auditor.accept(auditRecord(context.recordMetadata(), customer.getId(), null, DeduplicationLog.Outcome.UNIQUE));
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ltfs.cdp.customer.listener;
+
+import com.ltfs.cdp.customer.dto.CustomerBulkIngestionResult;
+import com.ltfs.cdp.customer.dto.CustomerDTO;
+import com.ltfs.cdp.customer.repository.ValidatedCustomerRetryHoldRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ValidatedCustomerBatchListener}: grouping by key, routing of failed and
+ * rejected records, and keeping the records of a key in order across the retry path. The retry holds
+ * are kept in memory.
+ */
+class ValidatedCustomerBatchListenerTest {
+
+    private static final String TOPIC = "customer.validated";
+
+    private final List<List<String>> ingestedGroups = new ArrayList<>();
+    private final List<ConsumerRecord<?, ?>> retried = new ArrayList<>();
+    private final List<ConsumerRecord<?, ?>> deadLettered = new ArrayList<>();
+    private final InMemoryRetryHolds retryHolds = new InMemoryRetryHolds();
+
+    @Test
+    @DisplayName("Should ingest each key's records together and in offset order, keys in order of first occurrence")
+    void shouldIngestOneGroupPerKey() {
+        listener(List.of()).onValidatedCustomers(List.of(
+                record(0, "K1", "PAN1"), record(1, "K2", "PAN2"), record(2, "K1", "PAN3"),
+                record(3, null, "PAN4"), record(4, null, "PAN5"), record(5, "K2", "PAN6")));
+
+        assertEquals(List.of(List.of("PAN1", "PAN3"), List.of("PAN2", "PAN6"), List.of("PAN4"), List.of("PAN5")),
+                ingestedGroups);
+        assertTrue(retried.isEmpty());
+        assertTrue(deadLettered.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should forward the records of a failing group for retry and go on with the other groups")
+    void shouldForwardFailingGroupForRetry() {
+        listener(List.of("PAN3")).onValidatedCustomers(List.of(
+                record(0, "K1", "PAN1"), record(1, "K2", "PAN2"), record(2, "K1", "PAN3"), record(3, "K3", "PAN4")));
+
+        assertEquals(List.of(List.of("PAN2"), List.of("PAN4")), ingestedGroups);
+        assertEquals(List.of(0L, 2L), offsets(retried));
+        assertTrue(deadLettered.isEmpty());
+        assertEquals(Set.of("K1/0", "K1/2"), retryHolds.holds);
+    }
+
+    @Test
+    @DisplayName("Should forward later records of a key with records on the retry path behind them")
+    void shouldForwardLaterRecordsOfHeldKey() {
+        ValidatedCustomerBatchListener listener = listener(List.of("PAN1"));
+        listener.onValidatedCustomers(List.of(record(0, "K1", "PAN1"), record(1, "K2", "PAN2")));
+        listener.onValidatedCustomers(List.of(record(2, "K1", "PAN3"), record(3, "K2", "PAN4")));
+
+        assertEquals(List.of(List.of("PAN2"), List.of("PAN4")), ingestedGroups);
+        assertEquals(List.of(0L, 2L), offsets(retried));
+        assertEquals(Set.of("K1/0", "K1/2"), retryHolds.holds);
+    }
+
+    @Test
+    @DisplayName("Should not apply a retried record before an earlier record of its key is resolved")
+    void shouldRetryRecordsOfKeyInOrder() {
+        ValidatedCustomerBatchListener listener = listener(List.of("PAN1"));
+        listener.onValidatedCustomers(List.of(record(0, "K1", "PAN1")));
+        listener.onValidatedCustomers(List.of(record(1, "K1", "PAN2")));
+
+        // The later record reaches the retry listener while the first one is still failing.
+        assertThrows(IllegalStateException.class, () -> listener.onRetriedCustomer(retriedRecord(1, "K1", "PAN2")));
+        assertThrows(IllegalStateException.class, () -> listener.onRetriedCustomer(retriedRecord(0, "K1", "PAN1")));
+        assertTrue(ingestedGroups.isEmpty());
+
+        // The first record is dead-lettered after its last attempt, which releases the key.
+        listener.onDeadLetter(retriedRecord(0, "K1", "PAN1"));
+        listener.onRetriedCustomer(retriedRecord(1, "K1", "PAN2"));
+
+        assertEquals(List.of(List.of("PAN2")), ingestedGroups);
+        assertTrue(retryHolds.holds.isEmpty());
+        listener.onValidatedCustomers(List.of(record(2, "K1", "PAN3")));
+        assertEquals(List.of(List.of("PAN2"), List.of("PAN3")), ingestedGroups);
+    }
+
+    @Test
+    @DisplayName("Should carry the source partition and offset along the retry path, added only once")
+    void shouldAddSourceHeadersOnce() {
+        ConsumerRecord<String, CustomerDTO> fromMainTopic = record(7, "K1", "PAN1");
+        assertEquals("7", headerValue(ValidatedCustomerBatchListener.sourceHeaders(fromMainTopic)
+                .lastHeader(ValidatedCustomerBatchListener.SOURCE_OFFSET_HEADER)));
+        assertNull(ValidatedCustomerBatchListener.sourceHeaders(retriedRecord(7, "K1", "PAN1"))
+                .lastHeader(ValidatedCustomerBatchListener.SOURCE_OFFSET_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should dead-letter undeserializable and rejected records without retrying them")
+    void shouldDeadLetterInvalidRecords() {
+        listener(List.of()).onValidatedCustomers(List.of(
+                record(0, "K1", "PAN1"), record(1, "K1", null), record(2, "K1", "INVALID"), record(3, "K2", "PAN2")));
+
+        assertEquals(List.of(List.of("PAN1", "INVALID"), List.of("PAN2")), ingestedGroups);
+        assertEquals(List.of(1L, 2L), offsets(deadLettered));
+        assertTrue(retried.isEmpty());
+    }
+
+    /**
+     * A listener whose ingestion fails for groups containing one of {@code failingPans} and rejects
+     * records with the PAN {@code INVALID}.
+     */
+    private ValidatedCustomerBatchListener listener(List<String> failingPans) {
+        return new ValidatedCustomerBatchListener(customers -> {
+            List<String> pans = customers.stream().map(CustomerDTO::getPanNumber).collect(Collectors.toList());
+            if (pans.stream().anyMatch(failingPans::contains)) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            ingestedGroups.add(pans);
+            CustomerBulkIngestionResult result = new CustomerBulkIngestionResult();
+            for (int i = 0; i < pans.size(); i++) {
+                if (pans.get(i).equals("INVALID")) {
+                    result.getRejected().add(new CustomerBulkIngestionResult.RejectedRecord(i, "Invalid PAN"));
+                }
+            }
+            return result;
+        }, (record, exception) -> retried.add(record), (record, exception) -> deadLettered.add(record), retryHolds);
+    }
+
+    private static ConsumerRecord<String, CustomerDTO> record(long offset, String key, String pan) {
+        CustomerDTO customer = null;
+        if (pan != null) {
+            customer = new CustomerDTO();
+            customer.setPanNumber(pan);
+        }
+        return new ConsumerRecord<>(TOPIC, 0, offset, key, customer);
+    }
+
+    /**
+     * A record as forwarded from offset {@code sourceOffset} of partition 0 of the main topic.
+     */
+    private static ConsumerRecord<String, CustomerDTO> retriedRecord(long sourceOffset, String key, String pan) {
+        ConsumerRecord<String, CustomerDTO> fromMainTopic = record(sourceOffset, key, pan);
+        ConsumerRecord<String, CustomerDTO> record =
+                new ConsumerRecord<>(TOPIC + ".retry", 0, sourceOffset + 100, key, fromMainTopic.value());
+        ValidatedCustomerBatchListener.sourceHeaders(fromMainTopic).forEach(record.headers()::add);
+        return record;
+    }
+
+    private static String headerValue(Header header) {
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> offsets(List<ConsumerRecord<?, ?>> records) {
+        return records.stream().map(ConsumerRecord::offset).collect(Collectors.toList());
+    }
+
+    /**
+     * Holds as "key/offset" strings; all records are on partition 0.
+     */
+    private static final class InMemoryRetryHolds implements ValidatedCustomerRetryHoldRepository {
+
+        private final Set<String> holds = new TreeSet<>();
+
+        @Override
+        public Set<String> findHeldKeys(Collection<String> recordKeys) {
+            return holds.stream().map(hold -> hold.substring(0, hold.indexOf('/')))
+                    .filter(recordKeys::contains).collect(Collectors.toSet());
+        }
+
+        @Override
+        public void hold(String recordKey, int partition, long offset) {
+            holds.add(recordKey + "/" + offset);
+        }
+
+        @Override
+        public boolean isHeldBehindEarlierRecord(String recordKey, int partition, long offset) {
+            return holds.stream().anyMatch(hold -> hold.startsWith(recordKey + "/")
+                    && Long.parseLong(hold.substring(hold.indexOf('/') + 1)) < offset);
+        }
+
+        @Override
+        public void release(String recordKey, int partition, long offset) {
+            holds.remove(recordKey + "/" + offset);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ltfs.cdp.customer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AttributeAccessors}: generated getters and setters, the field fallback for
+ * attributes without accessor methods, and the conversion of values to attribute types.
+ */
+class AttributeAccessorsTest {
+
+    enum Status { ACTIVE, DORMANT }
+
+    public static class Profile {
+        private String name;
+        private LocalDate dateOfBirth;
+        private Long score;
+        private int visits;
+        private boolean verified;
+        private BigDecimal limit;
+        private Status status;
+        private UUID cdpId;
+        private String internalNote; // No accessor methods
+        private static String ignored;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public LocalDate getDateOfBirth() { return dateOfBirth; }
+        public void setDateOfBirth(LocalDate dateOfBirth) { this.dateOfBirth = dateOfBirth; }
+        public Long getScore() { return score; }
+        public void setScore(Long score) { this.score = score; }
+        public int getVisits() { return visits; }
+        public void setVisits(int visits) { this.visits = visits; }
+        public boolean isVerified() { return verified; }
+        public void setVerified(boolean verified) { this.verified = verified; }
+        public BigDecimal getLimit() { return limit; }
+        public void setLimit(BigDecimal limit) { this.limit = limit; }
+        public Status getStatus() { return status; }
+        public void setStatus(Status status) { this.status = status; }
+        public UUID getCdpId() { return cdpId; }
+        public void setCdpId(UUID cdpId) { this.cdpId = cdpId; }
+    }
+
+    private final AttributeAccessors<Profile> accessors = AttributeAccessors.of(Profile.class);
+
+    @Test
+    @DisplayName("Should get and set attributes through accessor methods and, without them, the field")
+    void shouldGetAndSetAttributes() {
+        Profile profile = new Profile();
+
+        set(profile, "name", "Asha");
+        set(profile, "visits", 3);
+        set(profile, "verified", true);
+        set(profile, "internalNote", "VIP");
+
+        assertEquals("Asha", profile.getName());
+        assertEquals(3, profile.getVisits());
+        assertTrue(profile.isVerified());
+        assertEquals("VIP", profile.internalNote);
+        assertEquals("VIP", accessors.attribute("internalNote").get(profile));
+        assertEquals(3, accessors.attribute("visits").get(profile));
+    }
+
+    @Test
+    @DisplayName("Should expose instance fields only and return null for unknown attributes")
+    void shouldExposeInstanceFieldsOnly() {
+        assertNull(accessors.attribute("ignored"));
+        assertNull(accessors.attribute("unknown"));
+        assertEquals(9, accessors.names().size());
+    }
+
+    @Test
+    @DisplayName("Should convert strings and numbers to the attribute type")
+    void shouldConvertValues() {
+        Profile profile = new Profile();
+
+        set(profile, "dateOfBirth", "1980-01-31");
+        set(profile, "score", 42);
+        set(profile, "visits", "7");
+        set(profile, "verified", "TRUE");
+        set(profile, "limit", 1500.5);
+        set(profile, "status", "dormant");
+        set(profile, "cdpId", "123e4567-e89b-12d3-a456-426614174000");
+        set(profile, "name", 12);
+
+        assertEquals(LocalDate.of(1980, 1, 31), profile.getDateOfBirth());
+        assertEquals(Long.valueOf(42), profile.getScore());
+        assertEquals(7, profile.getVisits());
+        assertTrue(profile.isVerified());
+        assertEquals(new BigDecimal("1500.5"), profile.getLimit());
+        assertEquals(Status.DORMANT, profile.getStatus());
+        assertEquals(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"), profile.getCdpId());
+        assertEquals("12", profile.getName());
+    }
+
+    @Test
+    @DisplayName("Should reject values that cannot be converted without loss")
+    void shouldRejectInvalidValues() {
+        AttributeAccessors.Attribute visits = accessors.attribute("visits");
+
+        assertThrows(IllegalArgumentException.class, () -> visits.convert(null));
+        assertThrows(IllegalArgumentException.class, () -> visits.convert(2.5));
+        assertThrows(IllegalArgumentException.class, () -> visits.convert(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> visits.convert("many"));
+        assertThrows(IllegalArgumentException.class, () -> accessors.attribute("verified").convert("yes"));
+        assertThrows(IllegalArgumentException.class, () -> accessors.attribute("status").convert("CLOSED"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> accessors.attribute("dateOfBirth").convert("31/01/1980"));
+        assertTrue(e.getMessage().contains("dateOfBirth"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should clear reference attributes with null")
+    void shouldClearWithNull() {
+        Profile profile = new Profile();
+        set(profile, "name", "Asha");
+
+        set(profile, "name", null);
+
+        assertNull(profile.getName());
+    }
+
+    private void set(Profile profile, String name, Object value) {
+        AttributeAccessors.Attribute attribute = accessors.attribute(name);
+        attribute.set(profile, attribute.convert(value));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.model.Customer;
+import com.ltfs.cdp.customer.model.CustomerAttribute;
+import com.ltfs.cdp.customer.model.CustomerAttributeDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CustomerAttributeDocuments}: folding attribute rows into documents and typing values.
+ */
+class CustomerAttributeDocumentsTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 5, 31, 10, 0);
+
+    @Test
+    @DisplayName("Should fold the attribute rows of each customer into one typed document")
+    void shouldFoldRowsIntoDocuments() {
+        Map<Long, CustomerAttributeDocument> documents = CustomerAttributeDocuments.fromRows(List.of(
+                row(1L, "Occupation", "Salaried", "STRING", T0),
+                row(1L, "IncomeRange", "5", "INTEGER", T0),
+                row(2L, "IsNri", "TRUE", "BOOLEAN", T0),
+                row(2L, "CibilScore", "742.50", "DECIMAL", T0)));
+
+        assertEquals(List.of(1L, 2L), List.copyOf(documents.keySet()));
+        assertEquals(Map.of("Occupation", "Salaried", "IncomeRange", 5L), documents.get(1L).getAttributes());
+        assertEquals(Map.of("IsNri", true, "CibilScore", new BigDecimal("742.50")), documents.get(2L).getAttributes());
+        CustomerAttributeDocument.AttributeMetadata metadata = documents.get(1L).getMetadata().get("IncomeRange");
+        assertEquals("INTEGER", metadata.getDataType());
+        assertEquals("Offermart", metadata.getSourceSystem());
+        assertEquals(T0, metadata.getLastUpdatedDate());
+    }
+
+    @Test
+    @DisplayName("Should keep the most recently updated row of an attribute")
+    void shouldKeepLatestRow() {
+        Map<Long, CustomerAttributeDocument> documents = CustomerAttributeDocuments.fromRows(List.of(
+                row(1L, "Occupation", "Student", "STRING", T0.plusDays(1)),
+                row(1L, "Occupation", "Salaried", "STRING", T0),
+                row(1L, "Occupation", "Unknown", "STRING", null)));
+
+        assertEquals("Student", documents.get(1L).getAttributes().get("Occupation"));
+    }
+
+    @Test
+    @DisplayName("Should keep values that do not parse as their data type as strings")
+    void shouldKeepUnparsableValuesAsStrings() {
+        assertEquals("five", CustomerAttributeDocuments.toTypedValue("five", "INTEGER"));
+        assertEquals("yes", CustomerAttributeDocuments.toTypedValue("yes", "BOOLEAN"));
+        assertEquals("2025-05-31", CustomerAttributeDocuments.toTypedValue("2025-05-31", "DATE"));
+        assertNull(CustomerAttributeDocuments.toTypedValue(null, "INTEGER"));
+    }
+
+    @Test
+    @DisplayName("Should record the data type of loaded values")
+    void shouldTypeLoadedValues() {
+        CustomerAttributeDocument document = CustomerAttributeDocuments.fromValues(7L,
+                Map.of("IncomeRange", 5, "CibilScore", 742.5, "IsNri", false, "Occupation", "Salaried"), "Offermart", T0);
+
+        assertEquals(Long.valueOf(7), document.getCustomerId());
+        assertEquals("INTEGER", document.getMetadata().get("IncomeRange").getDataType());
+        assertEquals("DECIMAL", document.getMetadata().get("CibilScore").getDataType());
+        assertEquals("BOOLEAN", document.getMetadata().get("IsNri").getDataType());
+        assertEquals("STRING", document.getMetadata().get("Occupation").getDataType());
+    }
+
+    private static CustomerAttribute row(Long customerId, String name, String value, String dataType, LocalDateTime updatedAt) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        CustomerAttribute attribute = new CustomerAttribute();
+        attribute.setCustomer(customer);
+        attribute.setAttributeName(name);
+        attribute.setAttributeValue(value);
+        attribute.setDataType(dataType);
+        attribute.setLastUpdatedDate(updatedAt);
+        attribute.setSourceSystem("Offermart");
+        return attribute;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ltfs.cdp.customer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the index DDL of {@link CustomerAttributeIndexManager}.
+ */
+class CustomerAttributeIndexManagerTest {
+
+    @Test
+    @DisplayName("Should index the attribute expression the filters use")
+    void shouldIndexFilterExpression() {
+        assertEquals("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cad_attr_income_range ON customer_attribute_document "
+                        + "USING gin ((attributes -> 'Income-Range') jsonb_path_ops)",
+                CustomerAttributeIndexManager.indexDefinition("Income-Range"));
+    }
+
+    @Test
+    @DisplayName("Should keep index names within the PostgreSQL identifier length")
+    void shouldShortenLongIndexNames() {
+        String definition = CustomerAttributeIndexManager.indexDefinition("A".repeat(80));
+        String indexName = definition.split(" ")[6];
+
+        assertTrue(indexName.length() <= 63, indexName);
+    }
+
+    @Test
+    @DisplayName("Should reject attribute names that cannot be embedded in SQL")
+    void shouldRejectUnsafeNames() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CustomerAttributeIndexManager.indexDefinition("x') jsonb_ops); DROP TABLE customers; --"));
+        assertThrows(IllegalArgumentException.class, () -> CustomerAttributeIndexManager.indexDefinition("Occupation Type"));
+    }
+}
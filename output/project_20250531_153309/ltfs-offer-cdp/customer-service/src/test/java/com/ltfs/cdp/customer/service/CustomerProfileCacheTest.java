@@ -0,0 +1,121 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.event.CustomerDeletedEvent;
+import com.ltfs.cdp.customer.event.CustomerProfilesUpsertedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CustomerProfileCache}: caching, invalidation by events, expiry and metrics.
+ */
+class CustomerProfileCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<String> published = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final CustomerProfileCache cache = new CustomerProfileCache(meterRegistry, published::add, true,
+            100, Duration.ofMinutes(10), nanos::get);
+
+    @Test
+    @DisplayName("Should load a profile once and serve repeated reads from the cache")
+    void shouldServeRepeatedReadsFromCache() {
+        assertEquals("profile-C1-1", cache.get("C1", this::load));
+        assertEquals("profile-C1-1", cache.get("C1", this::load));
+        assertEquals("profile-C1-1", cache.get("C1", this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop updated and deleted profiles and announce them to the other replicas")
+    void shouldInvalidateOnEvents() {
+        cache.get("C1", this::load);
+        cache.get("C2", this::load);
+        cache.get("C3", this::load);
+
+        cache.onProfilesUpserted(new CustomerProfilesUpsertedEvent(this, "Offermart", List.of("C9"), List.of("C1")));
+        cache.onProfileDeleted(new CustomerDeletedEvent(this, "C2", "Internal"));
+
+        assertEquals("profile-C1-4", cache.get("C1", this::load));
+        assertEquals("profile-C2-5", cache.get("C2", this::load));
+        assertEquals("profile-C3-3", cache.get("C3", this::load));
+        assertEquals(List.of("C1", "C2"), published);
+        assertEquals(2.0, meterRegistry.get("cdp.customer.profile.cache.invalidations").tag("origin", "local").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop profiles invalidated by another replica without announcing them again")
+    void shouldInvalidateFromRemote() {
+        cache.get("C1", this::load);
+
+        cache.onRemoteInvalidation("C1");
+
+        assertEquals("profile-C1-2", cache.get("C1", this::load));
+        assertTrue(published.isEmpty());
+        assertEquals(1.0, meterRegistry.get("cdp.customer.profile.cache.invalidations").tag("origin", "remote").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should expire profiles after the time to live")
+    void shouldExpireProfiles() {
+        cache.get("C1", this::load);
+
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+        assertEquals("profile-C1-1", cache.get("C1", this::load));
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertEquals("profile-C1-2", cache.get("C1", this::load));
+    }
+
+    @Test
+    @DisplayName("Should not cache failed loads")
+    void shouldNotCacheFailures() {
+        assertThrows(IllegalStateException.class, () -> cache.get("C1", id -> {
+            throw new IllegalStateException("Customer with ID " + id + " not found.");
+        }));
+
+        assertEquals("profile-C1-1", cache.get("C1", this::load));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should keep invalidating locally when the announcement fails")
+    void shouldSurvivePublishFailures() {
+        CustomerProfileCache failing = new CustomerProfileCache(meterRegistry, id -> {
+            throw new IllegalStateException("Kafka unavailable");
+        }, true, 100, Duration.ofMinutes(10), nanos::get);
+        failing.get("C1", this::load);
+
+        failing.onProfileDeleted(new CustomerDeletedEvent(this, "C1", "Internal"));
+
+        assertEquals("profile-C1-2", failing.get("C1", this::load));
+    }
+
+    @Test
+    @DisplayName("Should always load when disabled")
+    void shouldBypassWhenDisabled() {
+        CustomerProfileCache disabled = new CustomerProfileCache(new SimpleMeterRegistry(), published::add, false,
+                100, Duration.ofMinutes(10), nanos::get);
+
+        disabled.get("C1", this::load);
+        disabled.get("C1", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private String load(String customerId) {
+        return "profile-" + customerId + "-" + loads.incrementAndGet();
+    }
+}
@@ -0,0 +1,126 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.CustomerSegmentationService.Customer;
+import com.ltfs.cdp.customer.service.CustomerSegmentationService.CustomerRepository;
+import com.ltfs.cdp.customer.service.CustomerSegmentationService.CustomerSegment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the batch segmentation of {@link CustomerSegmentationService}.
+ */
+class CustomerSegmentationServiceTest {
+
+    private final List<Integer> savedBatchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private int failOnBatch = -1;
+
+    private final CustomerRepository repository = new CustomerRepository() {
+        @Override
+        public Optional<Customer> findByCustomerId(String customerId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Customer save(Customer customer) {
+            return customer;
+        }
+
+        @Override
+        public List<Customer> saveAll(List<Customer> customers) {
+            if (savedBatchSizes.size() == failOnBatch) {
+                throw new IllegalStateException("Connection reset");
+            }
+            savedBatchSizes.add(customers.size());
+            return customers;
+        }
+    };
+
+    @Test
+    @DisplayName("Should segment customers in chunks and save only changed customers, one transaction per chunk")
+    void shouldSegmentInChunks() {
+        CustomerSegmentationService service = new CustomerSegmentationService(repository, transactionManager, 100);
+        List<Customer> customers = customers(1050);
+
+        int saved = service.applySegmentationInBatches(customers.stream());
+
+        assertEquals(525, saved);
+        assertEquals(11, savedBatchSizes.size());
+        assertEquals(525, savedBatchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(CustomerSegment.HIGH_NET_WORTH, customers.get(0).getSegment());
+        assertEquals(CustomerSegment.MASS_MARKET, customers.get(1).getSegment());
+        assertEquals(11, transactionManager.newTransactions.get());
+        assertEquals(11, transactionManager.commits.get());
+        assertEquals(0, transactionManager.rollbacks.get());
+    }
+
+    @Test
+    @DisplayName("Should roll back only the chunk that failed to save, keeping earlier chunks committed")
+    void shouldRollBackOnlyFailedChunk() {
+        CustomerSegmentationService service = new CustomerSegmentationService(repository, transactionManager, 100);
+        failOnBatch = 3;
+
+        assertThrows(IllegalStateException.class, () -> service.applySegmentationInBatches(customers(1050).stream()));
+
+        assertEquals(3, savedBatchSizes.size());
+        assertEquals(3, transactionManager.commits.get());
+        assertEquals(1, transactionManager.rollbacks.get());
+    }
+
+    @Test
+    @DisplayName("Should compile a new decision table version on reload")
+    void shouldReloadRules() {
+        CustomerSegmentationService service = new CustomerSegmentationService(repository, transactionManager, 100);
+
+        assertEquals(2, service.reloadSegmentationRules().getVersion());
+        assertEquals(3, service.reloadSegmentationRules().getVersion());
+    }
+
+    private static List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Every other customer is already in the segment the rules assign.
+            customers.add(new Customer("C" + i, "Customer " + i, 35, i % 2 == 0 ? 2000000.0 : 100000.0));
+        }
+        return customers;
+    }
+
+    /**
+     * Counts the transactions the service starts; every one must be a new transaction of its own.
+     */
+    private static final class RecordingTransactionManager implements PlatformTransactionManager {
+
+        private final AtomicInteger newTransactions = new AtomicInteger();
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getPropagationBehavior());
+            newTransactions.incrementAndGet();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
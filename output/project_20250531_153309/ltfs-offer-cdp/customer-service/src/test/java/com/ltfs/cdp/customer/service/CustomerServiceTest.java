@@ -0,0 +1,312 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.dto.CustomerBulkIngestionResult;
+import com.ltfs.cdp.customer.dto.CustomerDTO;
+import com.ltfs.cdp.customer.entity.Customer;
+import com.ltfs.cdp.customer.event.CustomerProfilesUpsertedEvent;
+import com.ltfs.cdp.customer.exception.ValidationException;
+import com.ltfs.cdp.customer.mapper.CustomerMapper;
+import com.ltfs.cdp.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the bulk path of {@link CustomerService}: chunking, the live book lookup per chunk,
+ * matching in the priority order PAN -> Mobile -> Aadhaar, merging within a chunk and the reporting of
+ * rejected records. The live book is a list behind a mocked repository, and the mapper copies the
+ * identifiers of a record onto its profile. Also covers the attribute search through the
+ * {@link CustomerAttributeStore}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomerServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private CustomerMapper customerMapper;
+    @Mock
+    private DeduplicationService deduplicationService;
+    @Mock
+    private ValidationService validationService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private LiveBookBloomFilters liveBookBloomFilters;
+    @Mock
+    private CustomerProfileCache customerProfileCache;
+    @Mock
+    private CustomerAttributeStore attributeStore;
+    @Mock
+    private EntityManager entityManager;
+
+    private final List<Customer> liveBook = new ArrayList<>();
+    private CustomerService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CustomerService(customerRepository, customerMapper, deduplicationService, validationService,
+                eventPublisher, liveBookBloomFilters, customerProfileCache, attributeStore);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+
+        // The Bloom filters rule nothing out unless a test says otherwise.
+        lenient().when(liveBookBloomFilters.possiblyPresent(any(), any()))
+                .thenAnswer(invocation -> new LinkedHashSet<>(invocation.<Collection<String>>getArgument(1)));
+        lenient().when(customerRepository.findByPanNumberIn(any()))
+                .thenAnswer(invocation -> liveBookWith(Customer::getPanNumber, invocation.getArgument(0)));
+        lenient().when(customerRepository.findByMobileNumberIn(any()))
+                .thenAnswer(invocation -> liveBookWith(Customer::getMobileNumber, invocation.getArgument(0)));
+        lenient().when(customerRepository.findByAadhaarNumberIn(any()))
+                .thenAnswer(invocation -> liveBookWith(Customer::getAadhaarNumber, invocation.getArgument(0)));
+        lenient().when(customerMapper.toEntity(any())).thenAnswer(invocation -> {
+            Customer customer = new Customer();
+            copyIdentifiers(invocation.getArgument(0), customer);
+            return customer;
+        });
+        lenient().doAnswer(invocation -> {
+            copyIdentifiers(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(customerMapper).updateEntityFromDto(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should write, flush and announce every chunk of the batch size separately")
+    void shouldProcessInChunks() {
+        ReflectionTestUtils.setField(service, "bulkBatchSize", 2);
+
+        CustomerBulkIngestionResult result = service.processCustomerDataInBulk(Arrays.asList(
+                record("PANAA0001A", null, null),
+                record("PANAA0002A", null, null),
+                record("PANAA0003A", null, null),
+                record("PANAA0004A", null, null),
+                record("PANAA0005A", null, null)));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(5, result.getCreated());
+        assertEquals(0, result.getUpdated());
+        assertTrue(result.getRejected().isEmpty());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Customer>> saved = ArgumentCaptor.forClass(List.class);
+        verify(customerRepository, times(3)).saveAll(saved.capture());
+        assertEquals(Arrays.asList(2, 2, 1), saved.getAllValues().stream().map(List::size).collect(Collectors.toList()));
+        verify(customerRepository, times(3)).findByPanNumberIn(any());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+
+        List<CustomerProfilesUpsertedEvent> events = publishedEvents(3);
+        assertEquals(Arrays.asList(2, 2, 1),
+                events.stream().map(event -> event.getCreatedCustomerIds().size()).collect(Collectors.toList()));
+        assertTrue(events.stream().allMatch(event -> event.getUpdatedCustomerIds().isEmpty()));
+        verify(liveBookBloomFilters, times(5)).recordCustomer(any(), eq(null), eq(null));
+    }
+
+    @Test
+    @DisplayName("Should match live book profiles by PAN, then mobile, then Aadhaar")
+    void shouldMatchInPriorityOrder() {
+        Customer byPan = liveBookCustomer("CDP-L1", "ABCDE1234F", null, null);
+        Customer byMobile = liveBookCustomer("CDP-L2", null, "9000000002", null);
+        Customer byAadhaar = liveBookCustomer("CDP-L3", null, null, "333333333333");
+
+        // PAN points at L1 while mobile and Aadhaar point at L2 and L3: PAN must win.
+        CustomerDTO panWins = record("ABCDE1234F", "9000000002", "333333333333");
+        // An unknown PAN falls through to the mobile number, which wins over Aadhaar.
+        CustomerDTO mobileWins = record("ZZZZZ0000Z", "9000000002", "333333333333");
+        CustomerDTO aadhaarOnly = record(null, "9999999999", "333333333333");
+
+        CustomerBulkIngestionResult result = service.processCustomerDataInBulk(Arrays.asList(panWins, mobileWins, aadhaarOnly));
+
+        verify(customerMapper).updateEntityFromDto(same(panWins), same(byPan));
+        verify(customerMapper).updateEntityFromDto(same(mobileWins), same(byMobile));
+        verify(customerMapper).updateEntityFromDto(same(aadhaarOnly), same(byAadhaar));
+        verify(customerMapper, never()).toEntity(any());
+        assertEquals(0, result.getCreated());
+        assertEquals(3, result.getUpdated());
+
+        CustomerProfilesUpsertedEvent event = publishedEvents(1).get(0);
+        assertTrue(event.getCreatedCustomerIds().isEmpty());
+        assertEquals(Arrays.asList("CDP-L1", "CDP-L2", "CDP-L3"), event.getUpdatedCustomerIds());
+    }
+
+    @Test
+    @DisplayName("Should merge records of the same chunk into the profile created or updated for an earlier one")
+    void shouldMergeWithinChunk() {
+        Customer existing = liveBookCustomer("CDP-L1", "ABCDE1234F", null, null);
+
+        CustomerBulkIngestionResult result = service.processCustomerDataInBulk(Arrays.asList(
+                // A new customer, then a record sharing its PAN and adding an Aadhaar number...
+                record("NEWPN0001N", "9100000001", null),
+                record("NEWPN0001N", null, "444444444444"),
+                // ...and one matching only on the Aadhaar number the previous record added.
+                record(null, null, "444444444444"),
+                // A live book customer, then a record matching the mobile number the first one added to it.
+                record("ABCDE1234F", "9200000002", null),
+                record(null, "9200000002", null)));
+
+        // The two records matching the live book profile update it; the other two merge into the created profile.
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getUpdated());
+        assertEquals(2, result.getMerged());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Customer>> saved = ArgumentCaptor.forClass(List.class);
+        verify(customerRepository).saveAll(saved.capture());
+        List<Customer> written = saved.getValue();
+        assertEquals(2, written.size(), "Each profile must be written once, however many records merged into it");
+        Customer created = written.get(0);
+        assertEquals("NEWPN0001N", created.getPanNumber());
+        assertEquals("9100000001", created.getMobileNumber());
+        assertEquals("444444444444", created.getAadhaarNumber());
+        assertTrue(created.getCustomerId().startsWith("CDP-"));
+        assertSame(existing, written.get(1));
+        assertEquals("9200000002", existing.getMobileNumber());
+        verify(customerMapper, times(1)).toEntity(any());
+
+        CustomerProfilesUpsertedEvent event = publishedEvents(1).get(0);
+        assertEquals(Arrays.asList(created.getCustomerId()), event.getCreatedCustomerIds());
+        assertEquals(Arrays.asList("CDP-L1"), event.getUpdatedCustomerIds());
+    }
+
+    @Test
+    @DisplayName("Should report rejected records by their position in the submitted list, across chunks")
+    void shouldReportRejectedIndexes() {
+        ReflectionTestUtils.setField(service, "bulkBatchSize", 2);
+        CustomerDTO invalidPan = record("not-a-pan", null, null);
+        CustomerDTO invalidMobile = record(null, "123", null);
+        CustomerDTO invalidAadhaar = record(null, null, "1");
+        Map<CustomerDTO, String> failures = new IdentityHashMap<>();
+        failures.put(invalidPan, "Invalid PAN");
+        failures.put(invalidMobile, "Invalid mobile number");
+        failures.put(invalidAadhaar, "Invalid Aadhaar number");
+        doAnswer(invocation -> {
+            String failure = failures.get(invocation.<CustomerDTO>getArgument(0));
+            if (failure != null) {
+                throw new ValidationException(failure);
+            }
+            return null;
+        }).when(validationService).validate(any());
+
+        CustomerBulkIngestionResult result = service.processCustomerDataInBulk(Arrays.asList(
+                record("PANAA0001A", null, null),
+                invalidPan,
+                // The second chunk is rejected as a whole.
+                invalidMobile,
+                invalidAadhaar,
+                record("PANAA0002A", null, null)));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getUpdated());
+        assertEquals(Arrays.asList(1, 2, 3),
+                result.getRejected().stream().map(CustomerBulkIngestionResult.RejectedRecord::getIndex).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("Invalid PAN", "Invalid mobile number", "Invalid Aadhaar number"),
+                result.getRejected().stream().map(CustomerBulkIngestionResult.RejectedRecord::getReason).collect(Collectors.toList()));
+
+        // Nothing is looked up, written or announced for a chunk without valid records.
+        verify(customerRepository, times(2)).saveAll(any());
+        verify(customerRepository, times(2)).findByPanNumberIn(any());
+        publishedEvents(2);
+    }
+
+    @Test
+    @DisplayName("Should not query the live book for keys the Bloom filters rule out")
+    void shouldSkipKeysRuledOutByBloomFilters() {
+        liveBookCustomer("CDP-L1", null, "9000000002", null);
+        doReturn(new LinkedHashSet<>()).when(liveBookBloomFilters).possiblyPresent(eq(LiveBookBloomFilters.KeyType.PAN), any());
+        doReturn(new LinkedHashSet<>()).when(liveBookBloomFilters).possiblyPresent(eq(LiveBookBloomFilters.KeyType.AADHAAR), any());
+
+        CustomerBulkIngestionResult result = service.processCustomerDataInBulk(Arrays.asList(
+                record("ABCDE1234F", "9000000002", "333333333333")));
+
+        verify(customerRepository, never()).findByPanNumberIn(any());
+        verify(customerRepository, never()).findByAadhaarNumberIn(any());
+        verify(customerRepository).findByMobileNumberIn(any());
+        assertEquals(1, result.getUpdated());
+        verify(liveBookBloomFilters).recordCustomer("ABCDE1234F", "9000000002", "333333333333");
+    }
+
+    @Test
+    @DisplayName("Should return the profiles the attribute store finds, in its order, skipping deleted ones")
+    void shouldFindCustomersByAttributeThroughStore() {
+        Customer first = liveBookCustomer("CDP-L1", "ABCDE1234F", null, null);
+        first.setId(7L);
+        Customer second = liveBookCustomer("CDP-L2", "ABCDE5678G", null, null);
+        second.setId(3L);
+        when(attributeStore.findCustomerIdsByAttribute("Occupation", "Salaried", 10)).thenReturn(Arrays.asList(3L, 5L, 7L));
+        when(customerRepository.findAllById(Arrays.asList(3L, 5L, 7L))).thenReturn(Arrays.asList(first, second));
+        when(customerMapper.toDto(any())).thenAnswer(invocation -> {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setPanNumber(invocation.<Customer>getArgument(0).getPanNumber());
+            return customerDTO;
+        });
+
+        List<CustomerDTO> profiles = service.findCustomersByAttribute("Occupation", "Salaried", 10);
+
+        assertEquals(Arrays.asList("ABCDE5678G", "ABCDE1234F"),
+                profiles.stream().map(CustomerDTO::getPanNumber).collect(Collectors.toList()));
+    }
+
+    private Customer liveBookCustomer(String customerId, String pan, String mobile, String aadhaar) {
+        Customer customer = new Customer();
+        customer.setCustomerId(customerId);
+        customer.setPanNumber(pan);
+        customer.setMobileNumber(mobile);
+        customer.setAadhaarNumber(aadhaar);
+        liveBook.add(customer);
+        return customer;
+    }
+
+    private List<Customer> liveBookWith(Function<Customer, String> key, Collection<String> values) {
+        return liveBook.stream().filter(customer -> values.contains(key.apply(customer))).collect(Collectors.toList());
+    }
+
+    private List<CustomerProfilesUpsertedEvent> publishedEvents(int expected) {
+        ArgumentCaptor<CustomerProfilesUpsertedEvent> events = ArgumentCaptor.forClass(CustomerProfilesUpsertedEvent.class);
+        verify(eventPublisher, times(expected)).publishEvent(events.capture());
+        return events.getAllValues();
+    }
+
+    private static CustomerDTO record(String pan, String mobile, String aadhaar) {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setPanNumber(pan);
+        customerDTO.setMobileNumber(mobile);
+        customerDTO.setAadhaarNumber(aadhaar);
+        return customerDTO;
+    }
+
+    // What the mapper does for the identifiers: a record's non-null values overwrite the profile's.
+    private static void copyIdentifiers(CustomerDTO customerDTO, Customer customer) {
+        if (customerDTO.getPanNumber() != null) {
+            customer.setPanNumber(customerDTO.getPanNumber());
+        }
+        if (customerDTO.getMobileNumber() != null) {
+            customer.setMobileNumber(customerDTO.getMobileNumber());
+        }
+        if (customerDTO.getAadhaarNumber() != null) {
+            customer.setAadhaarNumber(customerDTO.getAadhaarNumber());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+import com.ltfs.cdp.customer.entity.DeduplicationLog.Outcome;
+import com.ltfs.cdp.customer.entity.DeduplicationLog.RecordType;
+import com.ltfs.cdp.customer.repository.DeduplicationLogBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DeduplicationLogWriter} and its local spool.
+ */
+class DeduplicationLogWriterTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    @DisplayName("Should write full batches as soon as they fill up and the rest on shutdown")
+    void shouldWriteFullBatchesAndDrainOnStop() throws Exception {
+        RecordingRepository repository = new RecordingRepository(0);
+        DeduplicationLogWriter writer = writer(repository, 100, 3, Duration.ofSeconds(30));
+        writer.start();
+
+        writer.recordAll(decisions(7));
+        await(() -> repository.batches.size() == 2);
+        assertEquals(3, repository.batches.get(0).size());
+        assertEquals(3, repository.batches.get(1).size());
+
+        writer.stop();
+        assertEquals(3, repository.batches.size());
+        assertEquals(1, repository.batches.get(2).size());
+        assertEquals(7, repository.writtenEventIds().size());
+    }
+
+    @Test
+    @DisplayName("Should write a partial batch once the flush interval has passed")
+    void shouldFlushPartialBatchAfterInterval() throws Exception {
+        RecordingRepository repository = new RecordingRepository(0);
+        DeduplicationLogWriter writer = writer(repository, 100, 1000, Duration.ofMillis(50));
+        writer.start();
+        try {
+            writer.recordAll(decisions(2));
+            await(() -> repository.batches.size() == 1);
+            assertEquals(2, repository.batches.get(0).size());
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should spill batches the database rejects and replay them until they are written")
+    void shouldSpillAndReplayFailedBatches() throws Exception {
+        RecordingRepository repository = new RecordingRepository(2);
+        DeduplicationLogWriter writer = writer(repository, 100, 5, Duration.ofMillis(20));
+        writer.start();
+        try {
+            writer.recordAll(decisions(5));
+            await(() -> repository.writtenEventIds().size() == 5);
+            await(() -> spoolFiles() == 0);
+            assertTrue(repository.failures.get() >= 2);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should spill records made before start and write them once started")
+    void shouldReplaySpoolOnStart() throws Exception {
+        RecordingRepository repository = new RecordingRepository(0);
+        DeduplicationLogWriter writer = writer(repository, 100, 10, Duration.ofMillis(20));
+
+        writer.recordAll(decisions(4));
+        assertEquals(1, spoolFiles());
+        assertTrue(repository.batches.isEmpty());
+
+        writer.start();
+        try {
+            await(() -> repository.writtenEventIds().size() == 4);
+            await(() -> spoolFiles() == 0);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep every record queued while the writer stops exactly once")
+    void shouldNotLoseRecordsQueuedDuringStop() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            RecordingRepository repository = new RecordingRepository(0);
+            DeduplicationLogWriter writer = writer(repository, 100_000, 50, Duration.ofMillis(5));
+            writer.start();
+            List<DeduplicationLog> recorded = new CopyOnWriteArrayList<>();
+            List<Thread> callers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread caller = new Thread(() -> {
+                    for (int batch = 0; batch < 200; batch++) {
+                        List<DeduplicationLog> logs = decisions(5);
+                        writer.recordAll(logs);
+                        recorded.addAll(logs);
+                    }
+                });
+                callers.add(caller);
+                caller.start();
+            }
+            Thread.sleep(1);
+            writer.stop();
+            for (Thread caller : callers) {
+                caller.join();
+            }
+
+            List<UUID> kept = new ArrayList<>();
+            repository.batches.forEach(batch -> batch.forEach(log -> kept.add(log.getEventId())));
+            kept.addAll(spooledEventIds());
+            assertEquals(recorded.size(), kept.size());
+            assertEquals(recorded.size(), new HashSet<>(kept).size());
+            deleteSpool();
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip spool lines with separators, line breaks and nulls")
+    void shouldRoundTripSpoolLines() {
+        DeduplicationLog log = DeduplicationLog.of(RecordType.CUSTOMER, "id\twith\ttabs\nand\\lines", null, Outcome.LIVE_BOOK_MATCH);
+        log.setEventId(UUID.randomUUID());
+        log.setDecidedAt(LocalDateTime.of(2025, 6, 1, 10, 15, 30, 123_000_000));
+
+        String line = DeduplicationLogSpool.format(log);
+        DeduplicationLog parsed = DeduplicationLogSpool.parse(line);
+
+        assertFalse(line.contains("\n"));
+        assertEquals(log.getEventId(), parsed.getEventId());
+        assertEquals(log.getRecordType(), parsed.getRecordType());
+        assertEquals(log.getInputRecordId(), parsed.getInputRecordId());
+        assertNull(parsed.getMatchedRecordId());
+        assertEquals(log.getOutcome(), parsed.getOutcome());
+        assertEquals(log.getDecidedAt(), parsed.getDecidedAt());
+    }
+
+    private DeduplicationLogWriter writer(DeduplicationLogBatchRepository repository, int queueCapacity, int flushSize,
+                                          Duration flushInterval) {
+        return new DeduplicationLogWriter(repository, new SimpleMeterRegistry(), true, queueCapacity, flushSize,
+                flushInterval, Duration.ofMillis(20), spoolDirectory);
+    }
+
+    private long spoolFiles() {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".spool")).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<UUID> spooledEventIds() throws IOException {
+        DeduplicationLogSpool spool = new DeduplicationLogSpool(spoolDirectory);
+        List<UUID> ids = new ArrayList<>();
+        for (Path file : spool.files()) {
+            spool.read(file).forEach(log -> ids.add(log.getEventId()));
+        }
+        return ids;
+    }
+
+    private void deleteSpool() throws IOException {
+        DeduplicationLogSpool spool = new DeduplicationLogSpool(spoolDirectory);
+        for (Path file : spool.files()) {
+            spool.delete(file);
+        }
+    }
+
+    private static List<DeduplicationLog> decisions(int count) {
+        List<DeduplicationLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            logs.add(DeduplicationLog.of(RecordType.CUSTOMER, "C" + i, null, Outcome.UNIQUE));
+        }
+        return logs;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 10 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Records the batches it is given; fails the first {@code failFirst} calls.
+     */
+    private static final class RecordingRepository implements DeduplicationLogBatchRepository {
+        final List<List<DeduplicationLog>> batches = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+        private final int failFirst;
+
+        RecordingRepository(int failFirst) {
+            this.failFirst = failFirst;
+        }
+
+        @Override
+        public void insertBatch(List<DeduplicationLog> logs) {
+            if (failures.get() < failFirst) {
+                failures.incrementAndGet();
+                throw new IllegalStateException("database unavailable");
+            }
+            logs.forEach(log -> assertNotNull(log.getEventId()));
+            batches.add(new ArrayList<>(logs));
+        }
+
+        Set<UUID> writtenEventIds() {
+            Set<UUID> ids = new HashSet<>();
+            batches.forEach(batch -> batch.forEach(log -> ids.add(log.getEventId())));
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import com.ltfs.cdp.customer.service.DeduplicationService.ExecutionMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the execution modes of {@link DeduplicationService#deduplicateCustomers(List)}.
+ * The partitioned execution must return exactly the sequential output, in the same order.
+ */
+class DeduplicationServiceExecutionModeTest {
+
+    @Test
+    @DisplayName("Should return the same deduped profiles in the same order as sequential execution")
+    void shouldMatchSequentialOutput() {
+        LiveBookBulkMatcherTest.InMemoryLiveBook liveBook = new LiveBookBulkMatcherTest.InMemoryLiveBook(Arrays.asList(
+                new Customer("L1", "9000000001", "ABCDE1000F", "111111111111", null, "Asha", "Rao", "1980-01-01"),
+                new Customer("L2", "9000000002", "ABCDE1001F", "222222222222", null, "Ravi", "Iyer", "1985-05-05")));
+        DeduplicationService sequential = service(liveBook, ExecutionMode.SEQUENTIAL);
+        DeduplicationService parallel = service(liveBook, ExecutionMode.PARALLEL);
+        Random random = new Random(11);
+
+        for (int round = 0; round < 20; round++) {
+            List<Customer> batch = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                batch.add(i % 50 == 49 ? null : randomCustomer(random, round + "-" + i));
+            }
+
+            List<Customer> expected = sequential.deduplicateCustomers(batch);
+            List<Customer> actual = parallel.deduplicateCustomers(batch);
+
+            assertEquals(expected.size(), actual.size(), "round " + round);
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), actual.get(i), "round " + round + ", position " + i);
+            }
+        }
+    }
+
+    private static DeduplicationService service(LiveBookBulkMatcherTest.InMemoryLiveBook liveBook, ExecutionMode mode) {
+        DeduplicationService service = new DeduplicationService(liveBook, null);
+        ReflectionTestUtils.setField(service, "executionMode", mode);
+        ReflectionTestUtils.setField(service, "executionPartitions", 5);
+        ReflectionTestUtils.setField(service, "minParallelBatchSize", 0);
+        return service;
+    }
+
+    private static Customer randomCustomer(Random random, String id) {
+        String[] firstNames = {"Asha", "Ravi", "Meena"};
+        return new Customer(id,
+                random.nextInt(3) == 0 ? null : "90000000" + (10 + random.nextInt(40)),
+                random.nextInt(3) == 0 ? null : "ABCDE" + (1000 + random.nextInt(40)) + "F",
+                random.nextInt(2) == 0 ? null : "1111111111" + (10 + random.nextInt(40)),
+                null, firstNames[random.nextInt(firstNames.length)], "Rao", "1980-01-0" + (1 + random.nextInt(3)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.ltfs.cdp.customer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link IdentityBloomFilter}.
+ */
+class IdentityBloomFilterTest {
+
+    private static final int INSERTED = 100_000;
+
+    @Test
+    @DisplayName("Should never report a recorded value as absent")
+    void shouldHaveNoFalseNegatives() {
+        IdentityBloomFilter filter = new IdentityBloomFilter(INSERTED, 0.01);
+        for (int i = 0; i < INSERTED; i++) {
+            filter.put(mobile(i));
+        }
+        for (int i = 0; i < INSERTED; i++) {
+            assertTrue(filter.mightContain(mobile(i)), "False negative for " + mobile(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the false positive rate close to the target at the expected size")
+    void shouldMeetTargetFalsePositiveRate() {
+        IdentityBloomFilter filter = new IdentityBloomFilter(INSERTED, 0.01);
+        for (int i = 0; i < INSERTED; i++) {
+            filter.put(mobile(i));
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = INSERTED; i < INSERTED + probes; i++) {
+            if (filter.mightContain(mobile(i))) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 0.02, "Observed false positive rate too high: " + observed);
+        assertEquals(0.01, filter.estimatedFalsePositiveProbability(), 0.005);
+    }
+
+    @Test
+    @DisplayName("Should treat null as absent and reject invalid sizing")
+    void shouldHandleEdgeCases() {
+        IdentityBloomFilter filter = new IdentityBloomFilter(10, 0.01);
+        filter.put(null);
+        assertFalse(filter.mightContain(null));
+        assertFalse(filter.mightContain("ABCDE1234F"));
+        assertEquals(0.0, filter.estimatedFalsePositiveProbability());
+
+        assertThrows(IllegalArgumentException.class, () -> new IdentityBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new IdentityBloomFilter(10, 1.0));
+    }
+
+    private static String mobile(int i) {
+        return String.format("9%09d", i);
+    }
+}
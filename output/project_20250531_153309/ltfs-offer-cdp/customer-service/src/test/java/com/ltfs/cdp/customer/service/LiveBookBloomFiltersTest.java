@@ -0,0 +1,182 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LiveBookBloomFilters}: lookups are answered without querying the database, keys
+ * written by other writers are picked up by the next catch-up, and stale filters are not consulted.
+ */
+class LiveBookBloomFiltersTest {
+
+    private static final LocalDateTime REBUILT_AT = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private static final Duration LAG = Duration.ofMinutes(5);
+    private static final Duration MAX_STALENESS = Duration.ofMinutes(1);
+
+    private final MutableClock clock = new MutableClock(REBUILT_AT);
+    private final List<Customer> customers = new ArrayList<>();
+    private final LiveBookBulkMatcherTest.InMemoryLiveBook liveBook = new LiveBookBulkMatcherTest.InMemoryLiveBook(customers);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LiveBookBloomFilters filters = new LiveBookBloomFilters(liveBook, new NoOpTransactionManager(),
+            meterRegistry, true, 1000, 0.01, Duration.ofHours(6), Duration.ofSeconds(10), LAG, MAX_STALENESS, clock);
+
+    @Test
+    @DisplayName("Should answer maybe present for every key until the first rebuild")
+    void shouldAnswerMaybeBeforeFirstRebuild() {
+        assertTrue(filters.mightContain(LiveBookBloomFilters.KeyType.PAN, "ABCDE1234F"));
+        assertNull(filters.watermark());
+    }
+
+    @Test
+    @DisplayName("Should rule out unknown keys and keep keys of customers in the live book")
+    void shouldRuleOutUnknownKeys() {
+        customers.add(customer("L1", "ABCDE1234F", REBUILT_AT.minusDays(1)));
+        filters.rebuild();
+
+        Set<String> present = filters.possiblyPresent(LiveBookBloomFilters.KeyType.PAN, List.of("ABCDE1234F", "ZZZZZ9999Z"));
+
+        assertEquals(Set.of("ABCDE1234F"), present);
+        assertEquals(REBUILT_AT.minus(LAG), filters.watermark());
+    }
+
+    @Test
+    @DisplayName("Should answer lookups without querying the database and count only ruled out keys as skipped")
+    void shouldAnswerWithoutQueryingDatabase() {
+        customers.add(customer("L1", "ABCDE1234F", REBUILT_AT.minusDays(1)));
+        filters.rebuild();
+        int queriesBefore = liveBook.queries();
+
+        Set<String> present = filters.possiblyPresent(LiveBookBloomFilters.KeyType.PAN,
+                List.of("ABCDE1234F", "ZZZZZ9999Z", "YYYYY8888Y"));
+
+        assertEquals(Set.of("ABCDE1234F"), present);
+        assertEquals(queriesBefore, liveBook.queries(), "a lookup must not query the database");
+        assertEquals(3.0, meterRegistry.get("cdp.dedupe.bloom.lookups").tag("key", "pan").counter().count());
+        assertEquals(2.0, meterRegistry.get("cdp.dedupe.bloom.skipped").tag("key", "pan").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should leave ruled out keys out of the bulk matcher's chunked queries")
+    void shouldLeaveRuledOutKeysOutOfBulkQueries() {
+        customers.add(customer("L1", "ABCDE1234F", REBUILT_AT.minusDays(1)));
+        filters.rebuild();
+        List<Customer> batch = new ArrayList<>();
+        batch.add(new Customer("I0", null, "ABCDE1234F", null, null, null, null, null));
+        for (int i = 1; i < 50; i++) {
+            batch.add(new Customer("I" + i, null, "NEWXX" + (1000 + i) + "X", null, null, null, null, null));
+        }
+        int queriesBefore = liveBook.queries();
+
+        LiveBookBulkMatcher.Matches matches = new LiveBookBulkMatcher(liveBook, 10, filters).match(batch);
+
+        assertEquals(1, matches.getMatchedCount());
+        assertEquals(1, liveBook.queries() - queriesBefore, "only the one possibly present PAN is queried");
+    }
+
+    @Test
+    @DisplayName("Should pick up keys written by another writer on the next catch-up")
+    void shouldPickUpOtherWritersOnCatchUp() {
+        filters.rebuild();
+        // Written by another replica after the rebuild; this instance never saw it.
+        customers.add(customer("R1", "FGHIJ5678K", REBUILT_AT.plusSeconds(5)));
+        clock.set(REBUILT_AT.plusSeconds(10));
+        assertFalse(filters.mightContain(LiveBookBloomFilters.KeyType.PAN, "FGHIJ5678K"));
+
+        filters.catchUp();
+
+        assertTrue(filters.mightContain(LiveBookBloomFilters.KeyType.PAN, "FGHIJ5678K"));
+        assertFalse(filters.mightContain(LiveBookBloomFilters.KeyType.PAN, "KLMNO9012L"));
+    }
+
+    @Test
+    @DisplayName("Should answer maybe present while the last successful pass is older than max-staleness")
+    void shouldNotConsultStaleFilters() {
+        filters.rebuild();
+        clock.set(REBUILT_AT.plus(MAX_STALENESS).plusSeconds(1));
+
+        assertTrue(filters.mightContain(LiveBookBloomFilters.KeyType.PAN, "KLMNO9012L"));
+        assertEquals(0.0, meterRegistry.get("cdp.dedupe.bloom.skipped").tag("key", "pan").counter().count());
+
+        filters.catchUp();
+
+        assertFalse(filters.mightContain(LiveBookBloomFilters.KeyType.PAN, "KLMNO9012L"));
+    }
+
+    @Test
+    @DisplayName("Should add recently updated customers to the filters and move the watermark on catch-up")
+    void shouldCatchUpAndAdvanceWatermark() {
+        filters.rebuild();
+        customers.add(customer("R1", "FGHIJ5678K", REBUILT_AT.plusSeconds(30)));
+        clock.set(REBUILT_AT.plusHours(1));
+
+        filters.catchUp();
+
+        assertEquals(REBUILT_AT.plusHours(1).minus(LAG), filters.watermark());
+        assertTrue(filters.mightContain(LiveBookBloomFilters.KeyType.PAN, "FGHIJ5678K"));
+    }
+
+    private static Customer customer(String id, String pan, LocalDateTime updatedAt) {
+        Customer customer = new Customer(id, null, pan, null, null, "First", "Last", "1980-01-01");
+        customer.setUpdatedAt(updatedAt);
+        return customer;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime time) {
+            set(time);
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import com.ltfs.cdp.customer.service.DeduplicationService.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LiveBookBulkMatcher}.
+ * Uses a small in-memory live book that counts repository calls, so the tests can assert both the
+ * match priority (PAN -> Mobile -> Aadhaar -> Name + DOB) and the number of queries per batch.
+ */
+class LiveBookBulkMatcherTest {
+
+    private InMemoryLiveBook liveBook;
+    private Customer existingByPan;
+    private Customer existingByMobile;
+    private Customer existingByName;
+
+    @BeforeEach
+    void setUp() {
+        existingByPan = new Customer("L1", "9000000001", "ABCDE1234F", "111111111111", null, "Asha", "Rao", "1980-01-01");
+        existingByMobile = new Customer("L2", "9000000002", "FGHIJ5678K", "222222222222", null, "Ravi", "Iyer", "1985-05-05");
+        existingByName = new Customer("L3", "9000000003", "KLMNO9012L", "333333333333", null, "Meena", "Das", "1990-10-10");
+        liveBook = new InMemoryLiveBook(Arrays.asList(existingByPan, existingByMobile, existingByName));
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive chunk size")
+    void shouldRejectNonPositiveChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LiveBookBulkMatcher(liveBook, 0));
+    }
+
+    @Test
+    @DisplayName("Should resolve each customer by the strongest available key, in priority order")
+    void shouldResolveInPriorityOrder() {
+        // PAN points at L1 while mobile points at L2: PAN must win.
+        Customer panWins = new Customer("I1", "9000000002", "ABCDE1234F", null, null, "X", "Y", "2000-01-01");
+        Customer byMobile = new Customer("I2", "9000000002", "ZZZZZ0000Z", null, null, "X", "Y", "2000-01-01");
+        Customer byAadhaar = new Customer("I3", null, null, "333333333333", null, "X", "Y", "2000-01-01");
+        Customer byName = new Customer("I4", null, null, null, null, "Meena", "Das", "1990-10-10");
+        Customer noMatch = new Customer("I5", "9999999999", "QQQQQ1111Q", "999999999999", null, "No", "One", "2001-01-01");
+
+        LiveBookBulkMatcher.Matches matches = new LiveBookBulkMatcher(liveBook, 100)
+                .match(Arrays.asList(panWins, byMobile, null, byAadhaar, byName, noMatch));
+
+        assertSame(existingByPan, matches.matchFor(0).orElse(null));
+        assertSame(existingByMobile, matches.matchFor(1).orElse(null));
+        assertFalse(matches.matchFor(2).isPresent());
+        assertSame(existingByName, matches.matchFor(3).orElse(null));
+        assertSame(existingByName, matches.matchFor(4).orElse(null));
+        assertFalse(matches.matchFor(5).isPresent());
+        assertEquals(4, matches.getMatchedCount());
+        assertEquals(4, matches.getQueryCount(), "One query per key type for a batch that fits a single chunk.");
+    }
+
+    @Test
+    @DisplayName("Should split keys into chunks and skip stages with nothing left to resolve")
+    void shouldChunkKeysAndSkipEmptyStages() {
+        List<Customer> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(new Customer("I" + i, null, "PANXX000" + i + "X", null, null, null, null, null));
+        }
+
+        LiveBookBulkMatcher.Matches matches = new LiveBookBulkMatcher(liveBook, 2).match(batch);
+
+        assertEquals(0, matches.getMatchedCount());
+        assertEquals(3, matches.getQueryCount(), "Five PANs in chunks of two, and no mobile/Aadhaar/name keys.");
+        assertEquals(3, liveBook.queries);
+    }
+
+    @Test
+    @DisplayName("Should require an exact first name, last name and DOB match for the fallback")
+    void shouldRequireExactNameAndDobTuple() {
+        // Same last name and DOB as L3 but a different first name.
+        Customer sameSurname = new Customer("I1", null, null, null, null, "Anil", "Das", "1990-10-10");
+
+        LiveBookBulkMatcher.Matches matches = new LiveBookBulkMatcher(liveBook, 100).match(Arrays.asList(sameSurname));
+
+        assertFalse(matches.matchFor(0).isPresent());
+        assertEquals(1, matches.getQueryCount());
+    }
+
+    /**
+     * Minimal in-memory implementation of the repository that counts bulk queries.
+     */
+    static final class InMemoryLiveBook implements CustomerRepository {
+        private final List<Customer> customers;
+        private int queries;
+
+        InMemoryLiveBook(List<Customer> customers) {
+            this.customers = customers;
+        }
+
+        private List<Customer> where(Predicate<Customer> predicate) {
+            queries++;
+            return customers.stream().filter(predicate).collect(Collectors.toList());
+        }
+
+        @Override
+        public Optional<Customer> findByPanNumber(String panNumber) {
+            return where(c -> panNumber.equals(c.getPanNumber())).stream().findFirst();
+        }
+
+        @Override
+        public Optional<Customer> findByMobileNumber(String mobileNumber) {
+            return where(c -> mobileNumber.equals(c.getMobileNumber())).stream().findFirst();
+        }
+
+        @Override
+        public Optional<Customer> findByAadhaarNumber(String aadhaarNumber) {
+            return where(c -> aadhaarNumber.equals(c.getAadhaarNumber())).stream().findFirst();
+        }
+
+        @Override
+        public List<Customer> findByFirstNameAndLastNameAndDateOfBirth(String firstName, String lastName, String dateOfBirth) {
+            return where(c -> firstName.equals(c.getFirstName()) && lastName.equals(c.getLastName())
+                    && dateOfBirth.equals(c.getDateOfBirth()));
+        }
+
+        @Override
+        public List<Customer> findByPanNumberIn(Collection<String> panNumbers) {
+            return where(c -> panNumbers.contains(c.getPanNumber()));
+        }
+
+        @Override
+        public List<Customer> findByMobileNumberIn(Collection<String> mobileNumbers) {
+            return where(c -> mobileNumbers.contains(c.getMobileNumber()));
+        }
+
+        @Override
+        public List<Customer> findByAadhaarNumberIn(Collection<String> aadhaarNumbers) {
+            return where(c -> aadhaarNumbers.contains(c.getAadhaarNumber()));
+        }
+
+        @Override
+        public List<Customer> findByLastNameInAndDateOfBirthIn(Collection<String> lastNames, Collection<String> datesOfBirth) {
+            return where(c -> lastNames.contains(c.getLastName()) && datesOfBirth.contains(c.getDateOfBirth()));
+        }
+
+        @Override
+        public Stream<Customer> streamAll() {
+            return customers.stream();
+        }
+
+        @Override
+        public Stream<Customer> streamByUpdatedAtAfter(LocalDateTime updatedAt) {
+            return where(c -> updatedAfter(c, updatedAt)).stream();
+        }
+
+
+
+
+        int queries() {
+            return queries;
+        }
+
+        private static boolean updatedAfter(Customer customer, LocalDateTime updatedAt) {
+            return customer.getUpdatedAt() != null && customer.getUpdatedAt().isAfter(updatedAt);
+        }
+    }
+}
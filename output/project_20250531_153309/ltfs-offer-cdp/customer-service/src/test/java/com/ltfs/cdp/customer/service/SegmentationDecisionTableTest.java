@@ -0,0 +1,87 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.CustomerSegmentationService.CustomerSegment;
+import com.ltfs.cdp.customer.service.CustomerSegmentationService.SegmentationRule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SegmentationDecisionTable}: band boundaries, rule priority and equivalence
+ * with evaluating the rules in order.
+ */
+class SegmentationDecisionTableTest {
+
+    private static final List<SegmentationRule> RULES = List.of(
+            new SegmentationRule("High Net Worth", CustomerSegment.HIGH_NET_WORTH, 1000000.0, null, 30, null),
+            new SegmentationRule("Young Professional", CustomerSegment.YOUNG_PROFESSIONAL, 500000.0, 999999.99, null, 30),
+            new SegmentationRule("Affluent", CustomerSegment.AFFLUENT, 750000.0, null, null, null));
+
+    private final SegmentationDecisionTable table = SegmentationDecisionTable.compile(1, RULES, CustomerSegment.MASS_MARKET);
+
+    @Test
+    @DisplayName("Should apply inclusive bounds and the first matching rule")
+    void shouldApplyBoundsAndPriority() {
+        assertEquals(CustomerSegment.HIGH_NET_WORTH, table.segment(30, 1000000.0));
+        assertEquals(CustomerSegment.AFFLUENT, table.segment(29, 1000000.0));
+        assertEquals(CustomerSegment.YOUNG_PROFESSIONAL, table.segment(30, 999999.99));
+        assertEquals(CustomerSegment.AFFLUENT, table.segment(31, 999999.99));
+        assertEquals(CustomerSegment.YOUNG_PROFESSIONAL, table.segment(25, 500000.0));
+        assertEquals(CustomerSegment.MASS_MARKET, table.segment(25, 499999.99));
+        assertEquals(CustomerSegment.MASS_MARKET, table.segment(45, 0.0));
+    }
+
+    @Test
+    @DisplayName("Should treat negative zero and NaN incomes like the rule comparisons do")
+    void shouldHandleSpecialIncomes() {
+        SegmentationDecisionTable zeroBound = SegmentationDecisionTable.compile(1, List.of(
+                new SegmentationRule("Zero", CustomerSegment.AFFLUENT, 0.0, 0.0, null, null)), CustomerSegment.MASS_MARKET);
+
+        assertEquals(CustomerSegment.AFFLUENT, zeroBound.segment(40, -0.0));
+        assertEquals(CustomerSegment.MASS_MARKET, zeroBound.segment(40, Double.MIN_VALUE));
+        assertEquals(CustomerSegment.AFFLUENT, zeroBound.segment(40, Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Should decide like evaluating random rules in order")
+    void shouldMatchLinearEvaluation() {
+        Random random = new Random(42);
+        CustomerSegment[] segments = CustomerSegment.values();
+        for (int round = 0; round < 20; round++) {
+            List<SegmentationRule> rules = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(15); i++) {
+                Double minIncome = random.nextBoolean() ? (double) random.nextInt(20) * 100000 : null;
+                Double maxIncome = random.nextBoolean() ? (double) random.nextInt(20) * 100000 : null;
+                Integer minAge = random.nextBoolean() ? 18 + random.nextInt(50) : null;
+                Integer maxAge = random.nextBoolean() ? 18 + random.nextInt(50) : null;
+                rules.add(new SegmentationRule("R" + i, segments[random.nextInt(segments.length)],
+                        minIncome, maxIncome, minAge, maxAge));
+            }
+            SegmentationDecisionTable compiled = SegmentationDecisionTable.compile(round, rules, CustomerSegment.MASS_MARKET);
+            for (int i = 0; i < 2000; i++) {
+                int age = 10 + random.nextInt(70);
+                // Hit the bounds exactly half of the time.
+                double income = random.nextBoolean() ? random.nextInt(21) * 100000.0 : random.nextDouble() * 2100000;
+                assertEquals(linear(rules, age, income), compiled.segment(age, income),
+                        "age " + age + ", income " + income + ", rules " + compiled);
+            }
+        }
+    }
+
+    private static CustomerSegment linear(List<SegmentationRule> rules, int age, double income) {
+        for (SegmentationRule rule : rules) {
+            if ((rule.getMinAge() == null || age >= rule.getMinAge())
+                    && (rule.getMaxAge() == null || age <= rule.getMaxAge())
+                    && (rule.getMinIncome() == null || income >= rule.getMinIncome())
+                    && (rule.getMaxIncome() == null || income <= rule.getMaxIncome())) {
+                return rule.getTargetSegment();
+            }
+        }
+        return CustomerSegment.MASS_MARKET;
+    }
+}
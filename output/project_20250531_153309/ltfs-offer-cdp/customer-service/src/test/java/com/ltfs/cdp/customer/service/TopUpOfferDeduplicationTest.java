@@ -0,0 +1,115 @@
+package com.ltfs.cdp.customer.service;
+
+import com.ltfs.cdp.customer.service.DeduplicationService.Offer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the validity-window rule of {@link DeduplicationService#deduplicateTopUpOffers(List)}:
+ * a Top-up offer is a duplicate only if an accepted Top-up offer of the same customer and product
+ * has an overlapping validity window.
+ */
+class TopUpOfferDeduplicationTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2025, 6, 1);
+
+    private final DeduplicationService service = new DeduplicationService(null, null);
+
+    @Test
+    @DisplayName("Should drop Top-up offers whose window overlaps an accepted one, including on a shared boundary day")
+    void shouldDropOverlappingWindows() {
+        Offer first = topUp("O1", "C1", "TU", JUNE_1, JUNE_1.plusDays(29));
+        Offer overlapping = topUp("O2", "C1", "TU", JUNE_1.plusDays(10), JUNE_1.plusDays(40));
+        Offer sharesLastDay = topUp("O3", "C1", "TU", JUNE_1.plusDays(29), JUNE_1.plusDays(59));
+        Offer adjacent = topUp("O4", "C1", "TU", JUNE_1.plusDays(30), JUNE_1.plusDays(59));
+
+        List<Offer> result = service.deduplicateTopUpOffers(Arrays.asList(first, overlapping, sharesLastDay, adjacent));
+
+        assertEquals(Arrays.asList(first, adjacent), result);
+    }
+
+    @Test
+    @DisplayName("Should keep overlapping Top-up offers of different customers or products")
+    void shouldKeepOverlapsAcrossCustomersAndProducts() {
+        Offer first = topUp("O1", "C1", "TU-A", JUNE_1, JUNE_1.plusDays(29));
+        Offer otherProduct = topUp("O2", "C1", "TU-B", JUNE_1, JUNE_1.plusDays(29));
+        Offer otherCustomer = topUp("O3", "C2", "TU-A", JUNE_1, JUNE_1.plusDays(29));
+
+        List<Offer> result = service.deduplicateTopUpOffers(Arrays.asList(first, otherProduct, otherCustomer));
+
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    @DisplayName("Should treat offers without a window as open-ended, keeping one per customer as before")
+    void shouldTreatMissingWindowAsOpenEnded() {
+        Offer windowless = new Offer("O1", "C1", "TOP_UP", 1000.0);
+        Offer secondWindowless = new Offer("O2", "C1", "TOP_UP", 2000.0);
+        Offer openStart = topUp("O3", "C2", null, null, JUNE_1);
+        Offer afterOpenStart = topUp("O4", "C2", null, JUNE_1.plusDays(1), null);
+        Offer insideOpenStart = topUp("O5", "C2", null, JUNE_1.minusYears(5), JUNE_1.minusYears(4));
+
+        List<Offer> result = service.deduplicateTopUpOffers(
+                Arrays.asList(windowless, secondWindowless, openStart, afterOpenStart, insideOpenStart));
+
+        assertEquals(Arrays.asList(windowless, openStart, afterOpenStart), result);
+    }
+
+    @Test
+    @DisplayName("Should skip non Top-up offers and offers whose window ends before it starts")
+    void shouldSkipInvalidOffers() {
+        Offer loyalty = new Offer("O1", "C1", "LOYALTY", 1000.0, "TU", JUNE_1, JUNE_1.plusDays(29));
+        Offer inverted = topUp("O2", "C1", "TU", JUNE_1.plusDays(29), JUNE_1);
+        Offer valid = topUp("O3", "C1", "TU", JUNE_1, JUNE_1.plusDays(29));
+
+        List<Offer> result = service.deduplicateTopUpOffers(Arrays.asList(loyalty, null, inverted, valid));
+
+        assertEquals(List.of(valid), result);
+    }
+
+    @Test
+    @DisplayName("Should accept exactly the offers a pairwise overlap scan accepts")
+    void shouldMatchPairwiseScan() {
+        Random random = new Random(13);
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LocalDate start = random.nextInt(20) == 0 ? null : JUNE_1.plusDays(random.nextInt(365));
+            LocalDate end = random.nextInt(20) == 0 ? null
+                    : (start == null ? JUNE_1 : start).plusDays(random.nextInt(60));
+            offers.add(topUp("O" + i, "C" + random.nextInt(40), "TU-" + random.nextInt(2), start, end));
+        }
+
+        List<Offer> expected = new ArrayList<>();
+        for (Offer offer : offers) {
+            if (expected.stream().noneMatch(accepted -> sameKey(accepted, offer) && overlaps(accepted, offer))) {
+                expected.add(offer);
+            }
+        }
+
+        assertEquals(expected, service.deduplicateTopUpOffers(offers));
+    }
+
+    private static Offer topUp(String id, String customerId, String productCode, LocalDate validFrom, LocalDate validTo) {
+        return new Offer(id, customerId, "TOP_UP", 1000.0, productCode, validFrom, validTo);
+    }
+
+    private static boolean sameKey(Offer a, Offer b) {
+        return a.getCustomerId().equals(b.getCustomerId()) && a.getProductCode().equals(b.getProductCode());
+    }
+
+    private static boolean overlaps(Offer a, Offer b) {
+        LocalDate aFrom = a.getValidFrom() == null ? LocalDate.MIN : a.getValidFrom();
+        LocalDate aTo = a.getValidTo() == null ? LocalDate.MAX : a.getValidTo();
+        LocalDate bFrom = b.getValidFrom() == null ? LocalDate.MIN : b.getValidFrom();
+        LocalDate bTo = b.getValidTo() == null ? LocalDate.MAX : b.getValidTo();
+        return !aFrom.isAfter(bTo) && !bFrom.isAfter(aTo);
+    }
+}
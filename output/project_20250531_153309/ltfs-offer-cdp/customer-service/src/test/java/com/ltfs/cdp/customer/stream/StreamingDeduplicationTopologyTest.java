@@ -0,0 +1,176 @@
+package com.ltfs.cdp.customer.stream;
+
+import com.ltfs.cdp.customer.entity.DeduplicationLog;
+import com.ltfs.cdp.customer.entity.DeduplicationLog.Outcome;
+import com.ltfs.cdp.customer.service.DeduplicationService.Customer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming deduplication topology, run with {@link TopologyTestDriver}.
+ */
+class StreamingDeduplicationTopologyTest {
+
+    private static final String INPUT = "customer.validated";
+    private static final String DECISIONS = "customer.deduplication.decisions";
+
+    private final Map<String, Customer> liveBookByPan = Map.of(
+            "abcde9999f", new Customer("L1", "9000000009", "ABCDE9999F", null, null, "Ravi", "Iyer", "1985-05-05"));
+    private final List<DeduplicationLog> audited = new ArrayList<>();
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Customer> input;
+    private TestOutputTopic<String, DeduplicationDecision> decisions;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        StreamingDeduplicationTopology.build(builder, INPUT, DECISIONS,
+                customer -> Optional.ofNullable(customer.getPanNumber())
+                        .map(pan -> liveBookByPan.get(pan.toLowerCase())),
+                audited::add, Duration.ofDays(30));
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "dedupe-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), props, Instant.parse("2025-06-01T00:00:00Z"));
+
+        input = driver.createInputTopic(INPUT, new StringSerializer(), new JsonSerializer<Customer>().noTypeInfo());
+        decisions = driver.createOutputTopic(DECISIONS, new StringDeserializer(),
+                new JsonDeserializer<>(DeduplicationDecision.class).ignoreTypeHeaders());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    @DisplayName("Should decide each record against the identity keys seen before it")
+    void shouldDecideRecordsAgainstSeenIdentities() {
+        input.pipeInput("1", customer("C1", "ABCDE1234F", "9000000001", null));
+        input.pipeInput("2", customer("C2", "abcde1234f", "9000000002", null)); // Same PAN, other case
+        input.pipeInput("3", customer("C3", null, "9000000003", "111122223333"));
+        input.pipeInput("4", customer("C4", null, "9000000003", null)); // Same mobile as C3
+        input.pipeInput("5", customer("C5", "ABCDE9999F", null, null)); // In the live book
+        input.pipeInput("6", customer("C6", "ABCDE9999F", "9000000006", null)); // Same PAN as C5
+
+        Map<String, DeduplicationDecision> byCustomer = decisionsByCustomer();
+
+        assertDecision(byCustomer.get("C1"), Outcome.UNIQUE, null);
+        assertDecision(byCustomer.get("C2"), Outcome.BATCH_DUPLICATE, "C1");
+        assertDecision(byCustomer.get("C3"), Outcome.UNIQUE, null);
+        assertDecision(byCustomer.get("C4"), Outcome.BATCH_DUPLICATE, "C3");
+        assertDecision(byCustomer.get("C5"), Outcome.LIVE_BOOK_MATCH, "L1");
+        assertDecision(byCustomer.get("C6"), Outcome.BATCH_DUPLICATE, "L1");
+        assertEquals("PAN:abcde1234f", byCustomer.get("C2").getIdentityKey());
+        assertEquals(6, audited.size());
+    }
+
+    @Test
+    @DisplayName("Should decide records without any identity key as unique without remembering them")
+    void shouldPassThroughRecordsWithoutIdentity() {
+        Customer anonymous = new Customer("C1", null, null, null, null, "Asha", null, null);
+        input.pipeInput("1", anonymous);
+        input.pipeInput("2", new Customer("C2", null, null, null, null, "Asha", null, null));
+
+        Map<String, DeduplicationDecision> byCustomer = decisionsByCustomer();
+
+        assertDecision(byCustomer.get("C1"), Outcome.UNIQUE, null);
+        assertDecision(byCustomer.get("C2"), Outcome.UNIQUE, null);
+        assertNull(byCustomer.get("C1").getIdentityKey());
+    }
+
+    @Test
+    @DisplayName("Should forget identity keys once they are older than the retention")
+    void shouldForgetExpiredIdentities() {
+        input.pipeInput("1", customer("C1", "ABCDE1234F", null, null), Instant.parse("2025-06-01T00:00:00Z"));
+        driver.advanceWallClockTime(Duration.ofDays(31));
+        input.pipeInput("2", customer("C2", "ABCDE1234F", null, null), Instant.parse("2025-07-02T00:00:00Z"));
+
+        Map<String, DeduplicationDecision> byCustomer = decisionsByCustomer();
+
+        assertDecision(byCustomer.get("C1"), Outcome.UNIQUE, null);
+        assertDecision(byCustomer.get("C2"), Outcome.UNIQUE, null);
+    }
+
+    @Test
+    @DisplayName("Should audit each decision under an id derived from the position of its record")
+    void shouldAuditUnderRecordPositionIds() {
+        pipeAuditSample();
+        List<UUID> firstAttempt = auditedEventIds();
+
+        // A fresh topology over the same records, as when a task reprocesses them after an aborted transaction.
+        tearDown();
+        audited.clear();
+        setUp();
+        pipeAuditSample();
+
+        assertEquals(3, firstAttempt.size());
+        assertFalse(firstAttempt.contains(null));
+        assertEquals(3, new HashSet<>(firstAttempt).size());
+        assertEquals(firstAttempt, auditedEventIds());
+    }
+
+    @Test
+    @DisplayName("Should derive identity keys in the order PAN, mobile, Aadhaar, name and date of birth")
+    void shouldDeriveIdentityKeys() {
+        assertEquals("PAN:abcde1234f", StreamingDeduplicationTopology.identityKey(customer("C", "ABCDE1234F", "9000000001", "111122223333")));
+        assertEquals("MOBILE:9000000001", StreamingDeduplicationTopology.identityKey(customer("C", " ", "9000000001", "111122223333")));
+        assertEquals("AADHAAR:111122223333", StreamingDeduplicationTopology.identityKey(customer("C", null, null, "111122223333")));
+        assertEquals("NAME:asha|rao|1980-01-01",
+                StreamingDeduplicationTopology.identityKey(new Customer("C", null, null, null, null, "Asha", "Rao", "1980-01-01")));
+        assertNull(StreamingDeduplicationTopology.identityKey(new Customer("C", null, null, null, null, "Asha", "Rao", null)));
+    }
+
+    private void pipeAuditSample() {
+        input.pipeInput("1", customer("C1", "ABCDE1234F", null, null));
+        input.pipeInput("2", customer("C2", "ABCDE1234F", null, null));
+        input.pipeInput("3", new Customer("C3", null, null, null, null, "Asha", null, null));
+    }
+
+    private List<UUID> auditedEventIds() {
+        return audited.stream().map(DeduplicationLog::getEventId).collect(Collectors.toList());
+    }
+
+    private Map<String, DeduplicationDecision> decisionsByCustomer() {
+        Map<String, DeduplicationDecision> byCustomer = new HashMap<>();
+        decisions.readValuesToList().forEach(decision -> byCustomer.put(decision.getCustomerId(), decision));
+        return byCustomer;
+    }
+
+    private static void assertDecision(DeduplicationDecision decision, Outcome outcome, String matchedCustomerId) {
+        assertNotNull(decision);
+        assertEquals(outcome, decision.getOutcome(), decision.toString());
+        assertEquals(matchedCustomerId, decision.getMatchedCustomerId(), decision.toString());
+    }
+
+    private static Customer customer(String id, String pan, String mobile, String aadhaar) {
+        return new Customer(id, mobile, pan, aadhaar, null, "Asha", "Rao", "1980-01-01");
+    }
+}
@@ -0,0 +1,77 @@
+package com.ltfs.cdp.datagen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes one CSV file with a header row per table ({@code customers.csv}, {@code offers.csv},
+ * {@code campaigns.csv}) into a directory. Files of tables that receive no rows are not created.
+ */
+public final class CsvDatasetSink implements DatasetSink {
+
+    private static final int BUFFER_CHARS = 1 << 20;
+
+    private final Path directory;
+    private final Map<DatasetTable, Writer> writers = new EnumMap<>(DatasetTable.class);
+    private final StringBuilder line = new StringBuilder(512);
+
+    public CsvDatasetSink(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public void write(SyntheticRow row) throws IOException {
+        Object[] values = row.values();
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            RowFormat.appendCsv(line, values[i]);
+        }
+        line.append('\n');
+        writer(row.table()).append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (Writer writer : writers.values()) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Writer writer : writers.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        writers.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Writer writer(DatasetTable table) throws IOException {
+        Writer writer = writers.get(table);
+        if (writer == null) {
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(directory.resolve(table.tableName() + ".csv")), StandardCharsets.UTF_8), BUFFER_CHARS);
+            writer.write(String.join(",", table.columns()));
+            writer.write('\n');
+            writers.put(table, writer);
+        }
+        return writer;
+    }
+}
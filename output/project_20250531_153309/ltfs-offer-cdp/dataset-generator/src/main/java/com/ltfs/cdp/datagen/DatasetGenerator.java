@@ -0,0 +1,288 @@
+package com.ltfs.cdp.datagen;
+
+import com.ltfs.cdp.datagen.SyntheticCustomer.DuplicateKind;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic dataset of campaigns, customer records and offers from a {@link DatasetSpec}.
+ *
+ * <p>Every customer record is a pure function of the spec and its index: record {@code i} draws from
+ * random streams seeded with {@code (seed, i)} only. Generation therefore needs constant memory however
+ * large the dataset is, any record can be regenerated on its own (for example to look up the original
+ * of a duplicate), and the same spec always yields the same dataset.</p>
+ *
+ * <p>A duplicate record points at a uniformly chosen earlier record and takes the identity of that
+ * record's original person, so {@link SyntheticCustomer#getDuplicateOf()} always names an original
+ * ({@link DuplicateKind#NONE}) record.</p>
+ */
+public final class DatasetGenerator {
+
+    private static final long ROW_STREAM = 0x5DEECE66DL;
+    private static final long PERSON_STREAM = 0x2545F4914F6CDD1DL;
+    private static final long OFFER_STREAM = 0x61C8864680B583EBL;
+    private static final long CAMPAIGN_STREAM = 0x7F4A7C159E3779B9L;
+
+    private static final String[] SOURCE_SYSTEMS = {"OFFERMART", "CUSTOMER_360", "E_AGGREGATOR"};
+    private static final double[] SOURCE_SYSTEM_WEIGHTS = {0.60, 0.25, 0.15};
+    private static final String[] CAMPAIGN_TYPES = {"LOYALTY", "PREAPPROVED", "E_AGGREGATOR", "TOP_UP"};
+    private static final double[] CAMPAIGN_TYPE_WEIGHTS = {0.30, 0.35, 0.15, 0.20};
+    private static final String[] CAMPAIGN_TYPE_NAMES = {"Loyalty Personal Loan", "Preapproved Consumer Loan",
+            "E-Aggregator Consumer Loan", "Top-up Loan"};
+    private static final String[] EMAIL_DOMAINS = {"gmail.com", "yahoo.co.in", "rediffmail.com", "outlook.com"};
+    private static final String[][] CITIES = {
+            {"Mumbai", "Maharashtra", "400"}, {"Pune", "Maharashtra", "411"}, {"New Delhi", "Delhi", "110"},
+            {"Bengaluru", "Karnataka", "560"}, {"Chennai", "Tamil Nadu", "600"}, {"Hyderabad", "Telangana", "500"},
+            {"Kolkata", "West Bengal", "700"}, {"Ahmedabad", "Gujarat", "380"}, {"Jaipur", "Rajasthan", "302"},
+            {"Lucknow", "Uttar Pradesh", "226"}, {"Kochi", "Kerala", "682"}, {"Indore", "Madhya Pradesh", "452"},
+            {"Patna", "Bihar", "800"}, {"Bhubaneswar", "Odisha", "751"}, {"Chandigarh", "Chandigarh", "160"}};
+    private static final int[] TENURES_MONTHS = {12, 18, 24, 36, 48, 60};
+    private static final int MIN_AGE_YEARS = 21;
+    private static final int AGE_RANGE_DAYS = 44 * 365;
+    private static final int NEAR_DUPLICATE_MUTATIONS = 6;
+    private static final DateTimeFormatter CAMPAIGN_MONTH = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
+    private final DatasetSpec spec;
+    private final List<SyntheticCampaign> campaigns;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.campaigns = Collections.unmodifiableList(generateCampaigns());
+    }
+
+    public DatasetSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * All campaigns of the dataset; offers reference them by code.
+     */
+    public List<SyntheticCampaign> campaigns() {
+        return campaigns;
+    }
+
+    /**
+     * Generates customer record {@code index}, between 0 and {@link DatasetSpec#getCustomers()} - 1.
+     */
+    public SyntheticCustomer customer(long index) {
+        if (index < 0 || index >= spec.getCustomers()) {
+            throw new IndexOutOfBoundsException("Customer index " + index + " outside [0, " + spec.getCustomers() + ")");
+        }
+        SplittableRandom random = random(ROW_STREAM, index);
+        DuplicateKind kind = duplicateKind(index, random);
+        long original = kind == DuplicateKind.NONE ? index : originalOf(random.nextLong(index));
+        SplittableRandom person = random(PERSON_STREAM, original);
+
+        String gender = person.nextInt(100) < 52 ? "M" : "F";
+        String firstName = pick("M".equals(gender) ? IndianNames.MALE_FIRST_NAMES : IndianNames.FEMALE_FIRST_NAMES, person);
+        String middleName = person.nextInt(10) < 3 ? pick(IndianNames.MIDDLE_NAMES, person) : null;
+        String lastName = pick(IndianNames.LAST_NAMES, person);
+        LocalDate dateOfBirth = spec.getReferenceDate().minusYears(MIN_AGE_YEARS).minusDays(person.nextInt(AGE_RANGE_DAYS));
+        String[] city = CITIES[person.nextInt(CITIES.length)];
+        String pincode = city[2] + (char) ('0' + person.nextInt(10)) + (char) ('0' + person.nextInt(10)) + (char) ('0' + person.nextInt(10));
+        String emailId = firstName.toLowerCase(Locale.ROOT) + '.' + lastName.toLowerCase(Locale.ROOT) + '.' + original
+                + '@' + pick(EMAIL_DOMAINS, person);
+        String originalSource = pickWeighted(SOURCE_SYSTEMS, SOURCE_SYSTEM_WEIGHTS, person);
+        String pan = IndianIdentities.pan(original, lastName.charAt(0));
+        String aadhaar = IndianIdentities.aadhaar(original);
+        String mobileNumber = IndianIdentities.mobile(original);
+
+        String sourceSystem = originalSource;
+        if (kind != DuplicateKind.NONE) {
+            // A duplicate arrives from a different source system than its original.
+            sourceSystem = SOURCE_SYSTEMS[(indexOf(SOURCE_SYSTEMS, originalSource) + 1 + random.nextInt(SOURCE_SYSTEMS.length - 1))
+                    % SOURCE_SYSTEMS.length];
+        }
+        if (kind == DuplicateKind.NEAR) {
+            emailId = null;
+            if (random.nextBoolean()) {
+                middleName = null;
+            }
+            switch (random.nextInt(NEAR_DUPLICATE_MUTATIONS)) {
+                case 0:
+                    if (random.nextInt(10) < 7) {
+                        firstName = IndianNames.spellingVariant(firstName, random);
+                    } else {
+                        lastName = IndianNames.spellingVariant(lastName, random);
+                    }
+                    break;
+                case 1:
+                    firstName = firstName.substring(0, 1);
+                    break;
+                case 2:
+                    String swapped = firstName;
+                    firstName = lastName;
+                    lastName = swapped;
+                    break;
+                case 3:
+                    pan = null;
+                    break;
+                case 4:
+                    // Changed phone number; taken past the originals' numbers, so it matches no one else.
+                    mobileNumber = IndianIdentities.mobile(spec.getCustomers() + index);
+                    break;
+                default:
+                    firstName = "  " + firstName.toUpperCase(Locale.ROOT);
+                    lastName = lastName.toUpperCase(Locale.ROOT) + ' ';
+                    break;
+            }
+        }
+        return new SyntheticCustomer(recordId(index), firstName, middleName, lastName, dateOfBirth, gender,
+                pan, aadhaar, mobileNumber, emailId, city[0], city[1], pincode, sourceSystem,
+                kind, kind == DuplicateKind.NONE ? null : recordId(original));
+    }
+
+    /**
+     * Generates the offers of customer record {@code index}: on average
+     * {@link DatasetSpec#getOffersPerCustomer()} of them, each in a random campaign and starting inside
+     * the campaign window.
+     */
+    public List<SyntheticOffer> offers(long index, SyntheticCustomer customer) {
+        SplittableRandom random = random(OFFER_STREAM, index);
+        double mean = spec.getOffersPerCustomer();
+        int count = (int) mean + (random.nextDouble() < mean - (int) mean ? 1 : 0);
+        List<SyntheticOffer> offers = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            SyntheticCampaign campaign = campaigns.get(random.nextInt(campaigns.size()));
+            boolean topUp = "TOP_UP".equals(campaign.getCampaignType());
+            long amountSteps = topUp ? 10 + random.nextInt(191) : 5 + random.nextInt(296); // 50k-10L / 25k-15L, in 5k steps
+            BigDecimal loanAmount = BigDecimal.valueOf(amountSteps * 5_000L, 0).setScale(2);
+            BigDecimal interestRate = BigDecimal.valueOf(1049 + random.nextInt(1351), 2);
+            int windowDays = (int) Math.max(1, campaign.getEndDate().toEpochDay() - campaign.getStartDate().toEpochDay());
+            LocalDate startDate = campaign.getStartDate().plusDays(random.nextInt(windowDays));
+            LocalDate endDate = startDate.plusDays(30L * (1 + random.nextInt(3)));
+            String status = endDate.isBefore(spec.getReferenceDate()) ? "EXPIRED"
+                    : random.nextInt(10) == 0 ? "PENDING" : "ACTIVE";
+            offers.add(new SyntheticOffer(recordId("OFR", index) + '-' + (k + 1), customer.getRecordId(),
+                    campaign.getCampaignCode(), topUp ? "TOP_UP_LOAN" : "CONSUMER_LOAN", loanAmount, interestRate,
+                    TENURES_MONTHS[random.nextInt(TENURES_MONTHS.length)], status, startDate, endDate,
+                    customer.getSourceSystem()));
+        }
+        return offers;
+    }
+
+    /**
+     * Streams the whole dataset into {@code sink}: all campaigns first, then each customer record
+     * followed by its offers. The sink is flushed but not closed.
+     */
+    public DatasetSummary generate(DatasetSink sink) throws IOException {
+        for (SyntheticCampaign campaign : campaigns) {
+            sink.write(campaign);
+        }
+        long exactDuplicates = 0;
+        long nearDuplicates = 0;
+        long offers = 0;
+        for (long i = 0; i < spec.getCustomers(); i++) {
+            SyntheticCustomer customer = customer(i);
+            sink.write(customer);
+            if (customer.getDuplicateKind() == DuplicateKind.EXACT) {
+                exactDuplicates++;
+            } else if (customer.getDuplicateKind() == DuplicateKind.NEAR) {
+                nearDuplicates++;
+            }
+            for (SyntheticOffer offer : offers(i, customer)) {
+                sink.write(offer);
+                offers++;
+            }
+        }
+        sink.flush();
+        return new DatasetSummary(campaigns.size(), spec.getCustomers(), exactDuplicates, nearDuplicates, offers);
+    }
+
+    /**
+     * Record id of customer record {@code index}.
+     */
+    public static String recordId(long index) {
+        return recordId("CUS", index);
+    }
+
+    private DuplicateKind duplicateKind(long index, SplittableRandom random) {
+        double draw = random.nextDouble();
+        if (index == 0 || draw >= spec.getDuplicateRate() + spec.getNearDuplicateRate()) {
+            return DuplicateKind.NONE;
+        }
+        return draw < spec.getDuplicateRate() ? DuplicateKind.EXACT : DuplicateKind.NEAR;
+    }
+
+    /**
+     * Follows duplicate links back to the original record. Replays only the first draws of each record,
+     * which decide its kind and target.
+     */
+    private long originalOf(long index) {
+        long current = index;
+        while (true) {
+            SplittableRandom random = random(ROW_STREAM, current);
+            if (duplicateKind(current, random) == DuplicateKind.NONE) {
+                return current;
+            }
+            current = random.nextLong(current);
+        }
+    }
+
+    private List<SyntheticCampaign> generateCampaigns() {
+        List<SyntheticCampaign> generated = new ArrayList<>(spec.getCampaigns());
+        for (int i = 0; i < spec.getCampaigns(); i++) {
+            SplittableRandom random = random(CAMPAIGN_STREAM, i);
+            int type = pickWeightedIndex(CAMPAIGN_TYPE_WEIGHTS, random);
+            LocalDate startDate = spec.getReferenceDate().minusDays(random.nextInt(365));
+            LocalDate endDate = startDate.plusDays(30 + random.nextInt(91));
+            generated.add(new SyntheticCampaign(recordId("CMP", i + 1),
+                    CAMPAIGN_TYPE_NAMES[type] + " - " + CAMPAIGN_MONTH.format(startDate),
+                    CAMPAIGN_TYPES[type], startDate, endDate,
+                    endDate.isBefore(spec.getReferenceDate()) ? "COMPLETED" : "ACTIVE"));
+        }
+        return generated;
+    }
+
+    private SplittableRandom random(long stream, long index) {
+        // SplittableRandom mixes its seed, so distinct (seed, stream, index) triples give independent streams.
+        return new SplittableRandom((spec.getSeed() * 0x9E3779B97F4A7C15L ^ stream) + index * 0xBF58476D1CE4E5B9L);
+    }
+
+    private static String recordId(String prefix, long index) {
+        char[] id = new char[prefix.length() + 10];
+        prefix.getChars(0, prefix.length(), id, 0);
+        long value = index;
+        for (int i = id.length - 1; i >= prefix.length(); i--) {
+            id[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(id);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String pickWeighted(String[] values, double[] weights, SplittableRandom random) {
+        return values[pickWeightedIndex(weights, random)];
+    }
+
+    private static int pickWeightedIndex(double[] weights, SplittableRandom random) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            draw -= weights[i];
+            if (draw < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ltfs.cdp.datagen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line entry point of the dataset generator.
+ *
+ * <pre>
+ * java -jar dataset-generator-cli.jar --customers 5000000 --duplicate-rate 0.05 --near-duplicate-rate 0.1 \
+ *     --format csv --out /tmp/dataset
+ * java -jar dataset-generator-cli.jar --customers 1000000 --format jsonl --keyed --out /tmp/dataset
+ * java -jar dataset-generator-cli.jar --customers 1000000 --format jdbc --create-tables \
+ *     --jdbc-url jdbc:postgresql://localhost:5432/ltfs_offer_cdp_db --jdbc-user postgres
+ * </pre>
+ *
+ * The JDBC password is read from the {@code DATASET_JDBC_PASSWORD} environment variable, so it does
+ * not show up in process listings.
+ */
+public final class DatasetGeneratorCli {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: dataset-generator [options]",
+            "  --customers N             customer records, duplicates included (default 1000000)",
+            "  --duplicate-rate R        fraction of exact duplicates (default 0.05)",
+            "  --near-duplicate-rate R   fraction of near duplicates (default 0.05)",
+            "  --campaigns N             campaigns (default 50)",
+            "  --offers-per-customer X   mean offers per customer record (default 1.5)",
+            "  --seed S                  random seed; equal options give equal datasets (default 42)",
+            "  --reference-date D        'today' of the dataset, yyyy-MM-dd (default 2025-06-01)",
+            "  --format F                csv | jsonl | jdbc (default csv)",
+            "  --out DIR                 output directory for csv and jsonl (default ./dataset)",
+            "  --keyed                   jsonl: prefix each line with its Kafka key and a tab",
+            "  --jdbc-url URL            jdbc: target database",
+            "  --jdbc-user USER          jdbc: user; the password is read from DATASET_JDBC_PASSWORD",
+            "  --table-prefix P          jdbc: staging table prefix (default staging_)",
+            "  --batch-size N            jdbc: rows per batch and transaction (default 5000)",
+            "  --create-tables           jdbc: create the staging tables if missing");
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private DatasetGeneratorCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the generator and returns the process exit code: 0 on success, 1 if writing failed,
+     * 2 for invalid arguments.
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Map<String, String> options;
+        DatasetSpec spec;
+        try {
+            options = parse(args);
+            if (options.containsKey("help")) {
+                out.println(USAGE);
+                return 0;
+            }
+            spec = DatasetSpec.builder()
+                    .customers(Long.parseLong(options.getOrDefault("customers", "1000000")))
+                    .duplicateRate(Double.parseDouble(options.getOrDefault("duplicate-rate", "0.05")))
+                    .nearDuplicateRate(Double.parseDouble(options.getOrDefault("near-duplicate-rate", "0.05")))
+                    .campaigns(Integer.parseInt(options.getOrDefault("campaigns", "50")))
+                    .offersPerCustomer(Double.parseDouble(options.getOrDefault("offers-per-customer", "1.5")))
+                    .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                    .referenceDate(LocalDate.parse(options.getOrDefault("reference-date", "2025-06-01")))
+                    .build();
+        } catch (RuntimeException e) {
+            err.println("Invalid arguments: " + e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        long started = System.nanoTime();
+        DatasetSummary summary;
+        try (DatasetSink sink = new ProgressSink(openSink(options), spec.getCustomers(), err)) {
+            summary = new DatasetGenerator(spec).generate(sink);
+        } catch (IllegalArgumentException e) {
+            err.println("Invalid arguments: " + e.getMessage());
+            err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            err.println("Dataset generation failed: " + e.getMessage());
+            e.printStackTrace(err);
+            return 1;
+        }
+        double seconds = Math.max(1e-9, (System.nanoTime() - started) / 1e9);
+        out.println(summary);
+        out.printf(Locale.ROOT, "%d rows in %.1f s (%.0f rows/min)%n", summary.getRows(), seconds, summary.getRows() * 60 / seconds);
+        return 0;
+    }
+
+    private static DatasetSink openSink(Map<String, String> options) throws IOException {
+        String format = options.getOrDefault("format", "csv").toLowerCase(Locale.ROOT);
+        Path out = Paths.get(options.getOrDefault("out", "dataset"));
+        switch (format) {
+            case "csv":
+                return new CsvDatasetSink(out);
+            case "jsonl":
+                return new JsonLinesDatasetSink(out, options.containsKey("keyed"));
+            case "jdbc":
+                String url = options.get("jdbc-url");
+                if (url == null) {
+                    throw new IllegalArgumentException("--jdbc-url is required for --format jdbc");
+                }
+                if (url.startsWith("jdbc:postgresql:") && !url.contains("reWriteBatchedInserts")) {
+                    url += (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+                }
+                try {
+                    return new JdbcDatasetSink(
+                            DriverManager.getConnection(url, options.get("jdbc-user"), System.getenv("DATASET_JDBC_PASSWORD")),
+                            options.getOrDefault("table-prefix", "staging_"),
+                            Integer.parseInt(options.getOrDefault("batch-size", "5000")),
+                            options.containsKey("create-tables"));
+                } catch (SQLException e) {
+                    throw new IOException("Cannot connect to " + url, e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown format '" + format + "'");
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument '" + arg + "'");
+            }
+            String name = arg.substring(2);
+            if ("help".equals(name) || "keyed".equals(name) || "create-tables".equals(name)) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Reports progress on long runs by counting customer rows on their way to the real sink.
+     */
+    private static final class ProgressSink implements DatasetSink {
+        private final DatasetSink delegate;
+        private final long totalCustomers;
+        private final PrintStream err;
+        private final long started = System.nanoTime();
+        private long lastReport = started;
+        private long customers;
+
+        ProgressSink(DatasetSink delegate, long totalCustomers, PrintStream err) {
+            this.delegate = delegate;
+            this.totalCustomers = totalCustomers;
+            this.err = err;
+        }
+
+        @Override
+        public void write(SyntheticRow row) throws IOException {
+            delegate.write(row);
+            if (row.table() == DatasetTable.CUSTOMERS && (++customers & 0xFFFF) == 0) {
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport = now;
+                    err.printf(Locale.ROOT, "%d / %d customers (%.0f/s)%n", customers, totalCustomers,
+                            customers / ((now - started) / 1e9));
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ltfs.cdp.datagen;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of generated rows. Sinks are written from a single thread, in generation order.
+ */
+public interface DatasetSink extends Closeable {
+
+    void write(SyntheticRow row) throws IOException;
+
+    /**
+     * Pushes buffered rows to the destination.
+     */
+    void flush() throws IOException;
+}
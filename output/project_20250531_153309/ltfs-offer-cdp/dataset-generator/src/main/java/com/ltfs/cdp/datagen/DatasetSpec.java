@@ -0,0 +1,161 @@
+package com.ltfs.cdp.datagen;
+
+import java.time.LocalDate;
+
+/**
+ * Shape of a synthetic dataset. Two generators with equal specs produce identical datasets.
+ *
+ * <pre>{@code
+ * DatasetSpec spec = DatasetSpec.builder()
+ *         .customers(5_000_000)
+ *         .duplicateRate(0.05)
+ *         .nearDuplicateRate(0.10)
+ *         .build();
+ * }</pre>
+ */
+public final class DatasetSpec {
+
+    private final long customers;
+    private final double duplicateRate;
+    private final double nearDuplicateRate;
+    private final int campaigns;
+    private final double offersPerCustomer;
+    private final long seed;
+    private final LocalDate referenceDate;
+
+    private DatasetSpec(Builder builder) {
+        this.customers = builder.customers;
+        this.duplicateRate = builder.duplicateRate;
+        this.nearDuplicateRate = builder.nearDuplicateRate;
+        this.campaigns = builder.campaigns;
+        this.offersPerCustomer = builder.offersPerCustomer;
+        this.seed = builder.seed;
+        this.referenceDate = builder.referenceDate;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Number of customer records, duplicates included.
+     */
+    public long getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Fraction of customer records that exactly duplicate an earlier record's identity.
+     */
+    public double getDuplicateRate() {
+        return duplicateRate;
+    }
+
+    /**
+     * Fraction of customer records that are near duplicates of an earlier record.
+     */
+    public double getNearDuplicateRate() {
+        return nearDuplicateRate;
+    }
+
+    public int getCampaigns() {
+        return campaigns;
+    }
+
+    /**
+     * Mean number of offers per customer record.
+     */
+    public double getOffersPerCustomer() {
+        return offersPerCustomer;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * "Today" of the dataset: ages and campaign windows are relative to it, so datasets do not change
+     * with the date they are generated on.
+     */
+    public LocalDate getReferenceDate() {
+        return referenceDate;
+    }
+
+    @Override
+    public String toString() {
+        return "DatasetSpec{customers=" + customers + ", duplicateRate=" + duplicateRate
+                + ", nearDuplicateRate=" + nearDuplicateRate + ", campaigns=" + campaigns
+                + ", offersPerCustomer=" + offersPerCustomer + ", seed=" + seed + ", referenceDate=" + referenceDate + '}';
+    }
+
+    public static final class Builder {
+        private long customers = 1_000_000;
+        private double duplicateRate = 0.05;
+        private double nearDuplicateRate = 0.05;
+        private int campaigns = 50;
+        private double offersPerCustomer = 1.5;
+        private long seed = 42;
+        private LocalDate referenceDate = LocalDate.of(2025, 6, 1);
+
+        private Builder() {
+        }
+
+        public Builder customers(long customers) {
+            this.customers = customers;
+            return this;
+        }
+
+        public Builder duplicateRate(double duplicateRate) {
+            this.duplicateRate = duplicateRate;
+            return this;
+        }
+
+        public Builder nearDuplicateRate(double nearDuplicateRate) {
+            this.nearDuplicateRate = nearDuplicateRate;
+            return this;
+        }
+
+        public Builder campaigns(int campaigns) {
+            this.campaigns = campaigns;
+            return this;
+        }
+
+        public Builder offersPerCustomer(double offersPerCustomer) {
+            this.offersPerCustomer = offersPerCustomer;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder referenceDate(LocalDate referenceDate) {
+            this.referenceDate = referenceDate;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if a count or rate is out of range.
+         */
+        public DatasetSpec build() {
+            // Near duplicates with a new mobile number take it from the second half of the mobile space.
+            if (customers < 0 || customers > IndianIdentities.MAX_UNIQUE_IDENTITIES / 2) {
+                throw new IllegalArgumentException("customers must be between 0 and " + IndianIdentities.MAX_UNIQUE_IDENTITIES / 2);
+            }
+            if (duplicateRate < 0 || nearDuplicateRate < 0 || duplicateRate + nearDuplicateRate > 1) {
+                throw new IllegalArgumentException("duplicateRate and nearDuplicateRate must be non-negative and sum to at most 1");
+            }
+            if (campaigns < 1) {
+                throw new IllegalArgumentException("campaigns must be at least 1");
+            }
+            if (offersPerCustomer < 0) {
+                throw new IllegalArgumentException("offersPerCustomer must not be negative");
+            }
+            if (referenceDate == null) {
+                throw new IllegalArgumentException("referenceDate must not be null");
+            }
+            return new DatasetSpec(this);
+        }
+    }
+}
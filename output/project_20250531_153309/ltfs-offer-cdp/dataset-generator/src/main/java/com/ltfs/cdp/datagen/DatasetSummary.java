@@ -0,0 +1,51 @@
+package com.ltfs.cdp.datagen;
+
+/**
+ * Row counts of a generated dataset.
+ */
+public final class DatasetSummary {
+
+    private final long campaigns;
+    private final long customers;
+    private final long exactDuplicates;
+    private final long nearDuplicates;
+    private final long offers;
+
+    DatasetSummary(long campaigns, long customers, long exactDuplicates, long nearDuplicates, long offers) {
+        this.campaigns = campaigns;
+        this.customers = customers;
+        this.exactDuplicates = exactDuplicates;
+        this.nearDuplicates = nearDuplicates;
+        this.offers = offers;
+    }
+
+    public long getCampaigns() {
+        return campaigns;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    public long getExactDuplicates() {
+        return exactDuplicates;
+    }
+
+    public long getNearDuplicates() {
+        return nearDuplicates;
+    }
+
+    public long getOffers() {
+        return offers;
+    }
+
+    public long getRows() {
+        return campaigns + customers + offers;
+    }
+
+    @Override
+    public String toString() {
+        return "DatasetSummary{campaigns=" + campaigns + ", customers=" + customers + ", exactDuplicates=" + exactDuplicates
+                + ", nearDuplicates=" + nearDuplicates + ", offers=" + offers + '}';
+    }
+}
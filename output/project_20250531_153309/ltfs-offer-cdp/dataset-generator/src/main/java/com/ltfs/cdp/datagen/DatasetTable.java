@@ -0,0 +1,41 @@
+package com.ltfs.cdp.datagen;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tables of a synthetic dataset and their columns. Column names follow the snake_case column names
+ * of the service entities, so CSV headers, JSON fields and JDBC staging columns line up with the
+ * ingestion mappings.
+ */
+public enum DatasetTable {
+
+    CAMPAIGNS("campaigns", "campaign_code", "campaign_name", "campaign_type", "start_date", "end_date", "status"),
+
+    CUSTOMERS("customers", "record_id", "first_name", "middle_name", "last_name", "date_of_birth", "gender",
+            "pan", "aadhaar", "mobile_number", "email_id", "city", "state", "pincode", "source_system",
+            "duplicate_kind", "duplicate_of"),
+
+    OFFERS("offers", "offer_reference_number", "customer_record_id", "campaign_code", "product_type", "loan_amount",
+            "interest_rate", "tenure_months", "offer_status", "offer_start_date", "offer_end_date", "source_system");
+
+    private final String tableName;
+    private final List<String> columns;
+
+    DatasetTable(String tableName, String... columns) {
+        this.tableName = tableName;
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    /**
+     * Base name of the table, used for file names and (with a prefix) JDBC table names.
+     */
+    public String tableName() {
+        return tableName;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ltfs.cdp.datagen;
+
+/**
+ * Generates Indian customer identifiers that are valid in format and unique per index.
+ *
+ * <ul>
+ *     <li>PAN: {@code AAAPS9999A}, where the fourth character is {@code P} (individual holder) and the
+ *         fifth is the initial of the surname, as on real cards.</li>
+ *     <li>Aadhaar: 12 digits, not starting with 0 or 1, whose last digit is the Verhoeff check digit.</li>
+ *     <li>Mobile: 10 digits starting with 6, 7, 8 or 9.</li>
+ * </ul>
+ *
+ * <p>Each identifier is a bijective scramble of the index within its value space, so identifiers of
+ * distinct indexes never collide, yet consecutive customers do not get consecutive numbers (which
+ * would make index-range scans and B-tree inserts unrealistically cheap).</p>
+ */
+public final class IndianIdentities {
+
+    /**
+     * Number of distinct values of the smallest identifier space (mobile numbers).
+     */
+    public static final long MAX_UNIQUE_IDENTITIES = 4_000_000_000L;
+
+    private static final long PAN_SPACE = 26L * 26 * 26 * 10_000 * 26;
+    private static final long AADHAAR_SPACE = 80_000_000_000L;
+    private static final long MOBILE_SPACE = MAX_UNIQUE_IDENTITIES;
+    // Coprime with 2, 5 and 13, the only prime factors of the spaces above, and small enough that
+    // index * SCRAMBLE_MULTIPLIER fits in a long for every space.
+    private static final long SCRAMBLE_MULTIPLIER = 43_046_721L; // 3^16
+    // Shifts index 0 away from all-zero identifiers such as 6000000000.
+    private static final long SCRAMBLE_OFFSET = 1_234_567_891L;
+
+    private static final int[][] VERHOEFF_MULTIPLICATION = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8, 9},
+            {1, 2, 3, 4, 0, 6, 7, 8, 9, 5},
+            {2, 3, 4, 0, 1, 7, 8, 9, 5, 6},
+            {3, 4, 0, 1, 2, 8, 9, 5, 6, 7},
+            {4, 0, 1, 2, 3, 9, 5, 6, 7, 8},
+            {5, 9, 8, 7, 6, 0, 4, 3, 2, 1},
+            {6, 5, 9, 8, 7, 1, 0, 4, 3, 2},
+            {7, 6, 5, 9, 8, 2, 1, 0, 4, 3},
+            {8, 7, 6, 5, 9, 3, 2, 1, 0, 4},
+            {9, 8, 7, 6, 5, 4, 3, 2, 1, 0}};
+    private static final int[][] VERHOEFF_PERMUTATION = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8, 9},
+            {1, 5, 7, 6, 2, 8, 3, 0, 9, 4},
+            {5, 8, 0, 3, 7, 9, 6, 1, 4, 2},
+            {8, 9, 1, 6, 0, 4, 3, 5, 2, 7},
+            {9, 4, 5, 3, 1, 2, 7, 8, 6, 0},
+            {4, 2, 8, 6, 5, 7, 3, 9, 0, 1},
+            {2, 7, 9, 3, 8, 0, 6, 4, 1, 5},
+            {7, 0, 4, 6, 9, 1, 3, 2, 5, 8}};
+    private static final int[] VERHOEFF_INVERSE = {0, 4, 3, 2, 1, 5, 6, 7, 8, 9};
+
+    private IndianIdentities() {
+    }
+
+    /**
+     * Returns the PAN of identity {@code index}.
+     *
+     * @param surnameInitial Initial of the holder's surname; anything other than a letter maps to {@code X}.
+     */
+    public static String pan(long index, char surnameInitial) {
+        long value = scramble(index, PAN_SPACE);
+        char[] pan = new char[10];
+        pan[9] = (char) ('A' + value % 26);
+        value /= 26;
+        for (int i = 8; i >= 5; i--) {
+            pan[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        pan[4] = Character.isLetter(surnameInitial) && surnameInitial < 128 ? Character.toUpperCase(surnameInitial) : 'X';
+        pan[3] = 'P';
+        for (int i = 2; i >= 0; i--) {
+            pan[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(pan);
+    }
+
+    /**
+     * Returns the Aadhaar number of identity {@code index}, including its Verhoeff check digit.
+     */
+    public static String aadhaar(long index) {
+        long value = scramble(index, AADHAAR_SPACE);
+        char[] aadhaar = new char[12];
+        aadhaar[0] = (char) ('2' + value / 10_000_000_000L);
+        value %= 10_000_000_000L;
+        for (int i = 10; i >= 1; i--) {
+            aadhaar[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        aadhaar[11] = (char) ('0' + verhoeffCheckDigit(aadhaar, 11));
+        return new String(aadhaar);
+    }
+
+    /**
+     * Returns the mobile number of identity {@code index}.
+     */
+    public static String mobile(long index) {
+        long value = scramble(index, MOBILE_SPACE);
+        char[] mobile = new char[10];
+        mobile[0] = (char) ('6' + value / 1_000_000_000L);
+        value %= 1_000_000_000L;
+        for (int i = 9; i >= 1; i--) {
+            mobile[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(mobile);
+    }
+
+    /**
+     * Checks the format and Verhoeff check digit of an Aadhaar number.
+     */
+    public static boolean isValidAadhaar(String aadhaar) {
+        if (aadhaar == null || aadhaar.length() != 12 || aadhaar.charAt(0) < '2') {
+            return false;
+        }
+        int check = 0;
+        for (int i = 0; i < 12; i++) {
+            char c = aadhaar.charAt(11 - i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            check = VERHOEFF_MULTIPLICATION[check][VERHOEFF_PERMUTATION[i % 8][c - '0']];
+        }
+        return check == 0;
+    }
+
+    private static int verhoeffCheckDigit(char[] digits, int length) {
+        int check = 0;
+        for (int i = 0; i < length; i++) {
+            check = VERHOEFF_MULTIPLICATION[check][VERHOEFF_PERMUTATION[(i + 1) % 8][digits[length - 1 - i] - '0']];
+        }
+        return VERHOEFF_INVERSE[check];
+    }
+
+    private static long scramble(long index, long space) {
+        if (index < 0 || index >= space) {
+            throw new IllegalArgumentException("Identity index " + index + " is outside [0, " + space + ")");
+        }
+        return (index * SCRAMBLE_MULTIPLIER + SCRAMBLE_OFFSET) % space;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ltfs.cdp.datagen;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Name pools and the spelling variations seen when the same person arrives from different source
+ * systems (transliteration differences, abbreviations, data entry slips).
+ */
+final class IndianNames {
+
+    static final String[] MALE_FIRST_NAMES = {
+            "Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh", "Ayaan", "Krishna", "Ishaan",
+            "Rahul", "Amit", "Suresh", "Ramesh", "Mohammed", "Imran", "Rajesh", "Sanjay", "Vijay", "Anil",
+            "Sunil", "Manoj", "Deepak", "Prakash", "Ganesh", "Harish", "Karthik", "Naveen", "Abdul", "Gurpreet"};
+    static final String[] FEMALE_FIRST_NAMES = {
+            "Aadhya", "Ananya", "Diya", "Saanvi", "Pari", "Lakshmi", "Priya", "Kavya", "Meera", "Sunita",
+            "Pooja", "Neha", "Anjali", "Deepika", "Fatima", "Shalini", "Rekha", "Geeta", "Sarita", "Bhavna",
+            "Divya", "Swati", "Nandini", "Harpreet", "Jyoti", "Pallavi", "Radha", "Shabana", "Usha", "Vaishali"};
+    static final String[] MIDDLE_NAMES = {
+            "Kumar", "Prasad", "Chandra", "Lal", "Nath", "Devi", "Rani", "Bai", "Mohan", "Singh"};
+    static final String[] LAST_NAMES = {
+            "Sharma", "Verma", "Gupta", "Singh", "Kumar", "Patel", "Shah", "Mehta", "Iyer", "Nair",
+            "Reddy", "Rao", "Naidu", "Pillai", "Menon", "Das", "Bose", "Banerjee", "Chatterjee", "Mukherjee",
+            "Joshi", "Kulkarni", "Deshpande", "Patil", "Khan", "Qureshi", "Ansari", "Sheikh", "Yadav", "Mishra",
+            "Choudhary", "Agarwal", "Jain", "Malhotra", "Kapoor", "Gill", "Sandhu", "Hegde", "Shetty", "Thomas"};
+
+    private static final Map<String, String[]> SPELLING_VARIANTS = new HashMap<>();
+
+    static {
+        SPELLING_VARIANTS.put("Mohammed", new String[]{"Mohd", "Mohamed", "Muhammad", "Md"});
+        SPELLING_VARIANTS.put("Lakshmi", new String[]{"Laxmi", "Lakshmy"});
+        SPELLING_VARIANTS.put("Priya", new String[]{"Priyaa", "Preeya"});
+        SPELLING_VARIANTS.put("Sunita", new String[]{"Sunitha", "Sooneeta"});
+        SPELLING_VARIANTS.put("Kavya", new String[]{"Kaavya", "Kavyaa"});
+        SPELLING_VARIANTS.put("Aadhya", new String[]{"Adhya", "Aadya"});
+        SPELLING_VARIANTS.put("Vijay", new String[]{"Vijai", "Wijay"});
+        SPELLING_VARIANTS.put("Karthik", new String[]{"Kartik", "Karthick"});
+        SPELLING_VARIANTS.put("Deepika", new String[]{"Dipika", "Deepikaa"});
+        SPELLING_VARIANTS.put("Gurpreet", new String[]{"Gurprit"});
+        SPELLING_VARIANTS.put("Harpreet", new String[]{"Harprit"});
+        SPELLING_VARIANTS.put("Jyoti", new String[]{"Jyothi", "Joti"});
+        SPELLING_VARIANTS.put("Choudhary", new String[]{"Chaudhary", "Chowdhury", "Chaudhari"});
+        SPELLING_VARIANTS.put("Agarwal", new String[]{"Agrawal", "Aggarwal"});
+        SPELLING_VARIANTS.put("Kulkarni", new String[]{"Kulkarnee"});
+        SPELLING_VARIANTS.put("Mukherjee", new String[]{"Mukherji", "Mukerjee"});
+        SPELLING_VARIANTS.put("Chatterjee", new String[]{"Chatterji", "Chaterjee"});
+        SPELLING_VARIANTS.put("Banerjee", new String[]{"Banerji", "Bannerjee"});
+        SPELLING_VARIANTS.put("Qureshi", new String[]{"Kureshi", "Quraishi"});
+    }
+
+    private IndianNames() {
+    }
+
+    /**
+     * Returns a misspelling of {@code name}: a known transliteration variant if there is one, else the
+     * name with a doubled letter collapsed, else the name with its last two letters transposed.
+     */
+    static String spellingVariant(String name, SplittableRandom random) {
+        String[] variants = SPELLING_VARIANTS.get(name);
+        if (variants != null) {
+            return variants[random.nextInt(variants.length)];
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (Character.toLowerCase(name.charAt(i)) == Character.toLowerCase(name.charAt(i - 1))) {
+                return name.substring(0, i) + name.substring(i + 1);
+            }
+        }
+        int n = name.length();
+        return n < 3 ? name : name.substring(0, n - 2) + name.charAt(n - 1) + name.charAt(n - 2);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ltfs.cdp.datagen;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts rows into staging tables ({@code <prefix>customers}, {@code <prefix>offers},
+ * {@code <prefix>campaigns}) with JDBC batches, committing once per batch.
+ *
+ * <p>The generated customers deliberately contain duplicate PANs, Aadhaar and mobile numbers, so they
+ * are loaded into staging tables without unique constraints rather than into the service tables; the
+ * ingestion and deduplication flows are then run from staging. For PostgreSQL, add
+ * {@code reWriteBatchedInserts=true} to the JDBC URL so that each batch is sent as multi-row inserts.</p>
+ */
+public final class JdbcDatasetSink implements DatasetSink {
+
+    private final Connection connection;
+    private final String tablePrefix;
+    private final int batchSize;
+    private final Map<DatasetTable, PreparedStatement> statements = new EnumMap<>(DatasetTable.class);
+    private int pendingRows;
+
+    /**
+     * @param connection   Connection the sink takes over; auto-commit is switched off and the sink closes it.
+     * @param tablePrefix  Prefix of the staging table names, for example {@code staging_}.
+     * @param batchSize    Rows per JDBC batch and transaction.
+     * @param createTables Whether to create the staging tables if they do not exist.
+     */
+    public JdbcDatasetSink(Connection connection, String tablePrefix, int batchSize, boolean createTables) throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.connection = connection;
+        this.tablePrefix = tablePrefix;
+        this.batchSize = batchSize;
+        try {
+            connection.setAutoCommit(false);
+            if (createTables) {
+                try (Statement statement = connection.createStatement()) {
+                    for (DatasetTable table : DatasetTable.values()) {
+                        statement.execute(createTableSql(table));
+                    }
+                }
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to prepare staging tables with prefix '" + tablePrefix + "'", e);
+        }
+    }
+
+    @Override
+    public void write(SyntheticRow row) throws IOException {
+        Object[] values = row.values();
+        try {
+            PreparedStatement statement = statement(row.table());
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    statement.setNull(i + 1, Types.VARCHAR);
+                } else {
+                    statement.setObject(i + 1, values[i]);
+                }
+            }
+            statement.addBatch();
+        } catch (SQLException e) {
+            throw new IOException("Failed to bind " + row.table().tableName() + " row " + row.key(), e);
+        }
+        if (++pendingRows >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (pendingRows == 0) {
+            return;
+        }
+        try {
+            // Campaigns before customers before offers, the order a foreign-keyed schema would need.
+            for (PreparedStatement statement : statements.values()) {
+                statement.executeBatch();
+            }
+            connection.commit();
+            pendingRows = 0;
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw new IOException("Failed to insert a batch of " + pendingRows + " rows", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            try {
+                for (PreparedStatement statement : statements.values()) {
+                    statement.close();
+                }
+                connection.close();
+            } catch (SQLException e) {
+                throw new IOException("Failed to close the JDBC connection", e);
+            }
+        }
+    }
+
+    private PreparedStatement statement(DatasetTable table) throws SQLException {
+        PreparedStatement statement = statements.get(table);
+        if (statement == null) {
+            statement = connection.prepareStatement(insertSql(table));
+            statements.put(table, statement);
+        }
+        return statement;
+    }
+
+    String insertSql(DatasetTable table) {
+        List<String> columns = table.columns();
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tablePrefix).append(table.tableName())
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+
+    String createTableSql(DatasetTable table) {
+        StringBuilder sql = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(tablePrefix).append(table.tableName()).append(" (");
+        List<String> columns = table.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i)).append(' ').append(sqlType(columns.get(i)));
+        }
+        return sql.append(')').toString();
+    }
+
+    private static String sqlType(String column) {
+        switch (column) {
+            case "loan_amount":
+                return "NUMERIC(19, 2)";
+            case "interest_rate":
+                return "NUMERIC(5, 2)";
+            case "tenure_months":
+                return "INTEGER";
+            case "date_of_birth":
+            case "start_date":
+            case "end_date":
+            case "offer_start_date":
+            case "offer_end_date":
+                return "DATE";
+            default:
+                return "VARCHAR(255)";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ltfs.cdp.datagen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one JSON object per line per table ({@code customers.jsonl}, {@code offers.jsonl},
+ * {@code campaigns.jsonl}) into a directory, ready to be replayed into Kafka topics.
+ *
+ * <p>When keyed, each line is {@code <key>TAB<json>}, which the console producer splits into message
+ * key and value, so records land on the partition of their customer:</p>
+ * <pre>
+ * kafka-console-producer --bootstrap-server localhost:9092 --topic customer.offermart.ingestion \
+ *     --property parse.key=true --property key.separator=$'\t' &lt; customers.jsonl
+ * </pre>
+ */
+public final class JsonLinesDatasetSink implements DatasetSink {
+
+    static final char KEY_SEPARATOR = '\t';
+    private static final int BUFFER_CHARS = 1 << 20;
+
+    private final Path directory;
+    private final boolean keyed;
+    private final Map<DatasetTable, Writer> writers = new EnumMap<>(DatasetTable.class);
+    private final Map<DatasetTable, String[]> fieldPrefixes = new EnumMap<>(DatasetTable.class);
+    private final StringBuilder line = new StringBuilder(768);
+
+    public JsonLinesDatasetSink(Path directory, boolean keyed) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.keyed = keyed;
+        for (DatasetTable table : DatasetTable.values()) {
+            // Pre-encode '{"name":' / ',"name":' once per column rather than once per row.
+            List<String> columns = table.columns();
+            String[] prefixes = new String[columns.size()];
+            for (int i = 0; i < prefixes.length; i++) {
+                StringBuilder prefix = new StringBuilder().append(i == 0 ? '{' : ',');
+                RowFormat.appendJsonString(prefix, columns.get(i));
+                prefixes[i] = prefix.append(':').toString();
+            }
+            fieldPrefixes.put(table, prefixes);
+        }
+    }
+
+    @Override
+    public void write(SyntheticRow row) throws IOException {
+        Object[] values = row.values();
+        String[] prefixes = fieldPrefixes.get(row.table());
+        line.setLength(0);
+        if (keyed) {
+            line.append(row.key()).append(KEY_SEPARATOR);
+        }
+        for (int i = 0; i < values.length; i++) {
+            line.append(prefixes[i]);
+            RowFormat.appendJson(line, values[i]);
+        }
+        line.append("}\n");
+        writer(row.table()).append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (Writer writer : writers.values()) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Writer writer : writers.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        writers.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Writer writer(DatasetTable table) throws IOException {
+        Writer writer = writers.get(table);
+        if (writer == null) {
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(directory.resolve(table.tableName() + ".jsonl")), StandardCharsets.UTF_8), BUFFER_CHARS);
+            writers.put(table, writer);
+        }
+        return writer;
+    }
+}
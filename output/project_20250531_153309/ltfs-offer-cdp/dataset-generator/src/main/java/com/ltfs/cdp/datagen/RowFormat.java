@@ -0,0 +1,86 @@
+package com.ltfs.cdp.datagen;
+
+import java.math.BigDecimal;
+
+/**
+ * Text encodings of row values shared by the file sinks.
+ */
+final class RowFormat {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private RowFormat() {
+    }
+
+    /**
+     * Appends a CSV field (RFC 4180): {@code null} is an empty field; text with a separator, quote,
+     * line break or surrounding whitespace is quoted.
+     */
+    static void appendCsv(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = text(value);
+        if (needsCsvQuotes(text)) {
+            out.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    out.append('"');
+                }
+                out.append(c);
+            }
+            out.append('"');
+        } else {
+            out.append(text);
+        }
+    }
+
+    /**
+     * Appends a JSON value: numbers unquoted, dates as ISO-8601 strings.
+     */
+    static void appendJson(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Number) {
+            out.append(text(value));
+        } else {
+            appendJsonString(out, text(value));
+        }
+    }
+
+    static void appendJsonString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static String text(Object value) {
+        return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+    }
+
+    private static boolean needsCsvQuotes(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        if (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1))) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
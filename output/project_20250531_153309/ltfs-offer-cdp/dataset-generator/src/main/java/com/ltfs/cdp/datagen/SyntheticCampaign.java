@@ -0,0 +1,66 @@
+package com.ltfs.cdp.datagen;
+
+import java.time.LocalDate;
+
+/**
+ * A generated campaign. Campaign types are the ones the deduplication rules distinguish
+ * (Loyalty, Preapproved, E-aggregator and Top-up).
+ */
+public final class SyntheticCampaign implements SyntheticRow {
+
+    private final String campaignCode;
+    private final String campaignName;
+    private final String campaignType;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String status;
+
+    SyntheticCampaign(String campaignCode, String campaignName, String campaignType,
+                      LocalDate startDate, LocalDate endDate, String status) {
+        this.campaignCode = campaignCode;
+        this.campaignName = campaignName;
+        this.campaignType = campaignType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    public String getCampaignCode() {
+        return campaignCode;
+    }
+
+    public String getCampaignName() {
+        return campaignName;
+    }
+
+    public String getCampaignType() {
+        return campaignType;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public DatasetTable table() {
+        return DatasetTable.CAMPAIGNS;
+    }
+
+    @Override
+    public Object[] values() {
+        return new Object[]{campaignCode, campaignName, campaignType, startDate, endDate, status};
+    }
+
+    @Override
+    public String key() {
+        return campaignCode;
+    }
+}
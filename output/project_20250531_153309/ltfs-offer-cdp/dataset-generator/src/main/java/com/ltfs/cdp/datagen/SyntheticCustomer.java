@@ -0,0 +1,145 @@
+package com.ltfs.cdp.datagen;
+
+import java.time.LocalDate;
+
+/**
+ * A generated customer record as a source system would send it. Duplicate records carry the id of
+ * the original record they were derived from, which is the ground truth for measuring the precision
+ * and recall of deduplication.
+ */
+public final class SyntheticCustomer implements SyntheticRow {
+
+    /**
+     * How a record relates to the records generated before it.
+     */
+    public enum DuplicateKind {
+        /** A person not seen before. */
+        NONE,
+        /** Same identity as an earlier record, from another source system. */
+        EXACT,
+        /** An earlier record's person with a realistic difference: a misspelt or abbreviated name, a missing PAN, a new mobile number. */
+        NEAR
+    }
+
+    private final String recordId;
+    private final String firstName;
+    private final String middleName;
+    private final String lastName;
+    private final LocalDate dateOfBirth;
+    private final String gender;
+    private final String pan;
+    private final String aadhaar;
+    private final String mobileNumber;
+    private final String emailId;
+    private final String city;
+    private final String state;
+    private final String pincode;
+    private final String sourceSystem;
+    private final DuplicateKind duplicateKind;
+    private final String duplicateOf;
+
+    SyntheticCustomer(String recordId, String firstName, String middleName, String lastName, LocalDate dateOfBirth,
+                      String gender, String pan, String aadhaar, String mobileNumber, String emailId,
+                      String city, String state, String pincode, String sourceSystem,
+                      DuplicateKind duplicateKind, String duplicateOf) {
+        this.recordId = recordId;
+        this.firstName = firstName;
+        this.middleName = middleName;
+        this.lastName = lastName;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+        this.pan = pan;
+        this.aadhaar = aadhaar;
+        this.mobileNumber = mobileNumber;
+        this.emailId = emailId;
+        this.city = city;
+        this.state = state;
+        this.pincode = pincode;
+        this.sourceSystem = sourceSystem;
+        this.duplicateKind = duplicateKind;
+        this.duplicateOf = duplicateOf;
+    }
+
+    public String getRecordId() {
+        return recordId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getMiddleName() {
+        return middleName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public String getPan() {
+        return pan;
+    }
+
+    public String getAadhaar() {
+        return aadhaar;
+    }
+
+    public String getMobileNumber() {
+        return mobileNumber;
+    }
+
+    public String getEmailId() {
+        return emailId;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getPincode() {
+        return pincode;
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public DuplicateKind getDuplicateKind() {
+        return duplicateKind;
+    }
+
+    /**
+     * Record id of the original this record duplicates, or {@code null} for an original.
+     */
+    public String getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    @Override
+    public DatasetTable table() {
+        return DatasetTable.CUSTOMERS;
+    }
+
+    @Override
+    public Object[] values() {
+        return new Object[]{recordId, firstName, middleName, lastName, dateOfBirth, gender, pan, aadhaar,
+                mobileNumber, emailId, city, state, pincode, sourceSystem, duplicateKind.name(), duplicateOf};
+    }
+
+    @Override
+    public String key() {
+        return recordId;
+    }
+}
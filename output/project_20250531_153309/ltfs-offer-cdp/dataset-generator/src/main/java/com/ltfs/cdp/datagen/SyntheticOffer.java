@@ -0,0 +1,101 @@
+package com.ltfs.cdp.datagen;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A generated offer, linked to a customer record and a campaign.
+ */
+public final class SyntheticOffer implements SyntheticRow {
+
+    private final String offerReferenceNumber;
+    private final String customerRecordId;
+    private final String campaignCode;
+    private final String productType;
+    private final BigDecimal loanAmount;
+    private final BigDecimal interestRate;
+    private final int tenureMonths;
+    private final String offerStatus;
+    private final LocalDate offerStartDate;
+    private final LocalDate offerEndDate;
+    private final String sourceSystem;
+
+    SyntheticOffer(String offerReferenceNumber, String customerRecordId, String campaignCode, String productType,
+                   BigDecimal loanAmount, BigDecimal interestRate, int tenureMonths, String offerStatus,
+                   LocalDate offerStartDate, LocalDate offerEndDate, String sourceSystem) {
+        this.offerReferenceNumber = offerReferenceNumber;
+        this.customerRecordId = customerRecordId;
+        this.campaignCode = campaignCode;
+        this.productType = productType;
+        this.loanAmount = loanAmount;
+        this.interestRate = interestRate;
+        this.tenureMonths = tenureMonths;
+        this.offerStatus = offerStatus;
+        this.offerStartDate = offerStartDate;
+        this.offerEndDate = offerEndDate;
+        this.sourceSystem = sourceSystem;
+    }
+
+    public String getOfferReferenceNumber() {
+        return offerReferenceNumber;
+    }
+
+    public String getCustomerRecordId() {
+        return customerRecordId;
+    }
+
+    public String getCampaignCode() {
+        return campaignCode;
+    }
+
+    public String getProductType() {
+        return productType;
+    }
+
+    public BigDecimal getLoanAmount() {
+        return loanAmount;
+    }
+
+    public BigDecimal getInterestRate() {
+        return interestRate;
+    }
+
+    public int getTenureMonths() {
+        return tenureMonths;
+    }
+
+    public String getOfferStatus() {
+        return offerStatus;
+    }
+
+    public LocalDate getOfferStartDate() {
+        return offerStartDate;
+    }
+
+    public LocalDate getOfferEndDate() {
+        return offerEndDate;
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    @Override
+    public DatasetTable table() {
+        return DatasetTable.OFFERS;
+    }
+
+    @Override
+    public Object[] values() {
+        return new Object[]{offerReferenceNumber, customerRecordId, campaignCode, productType, loanAmount,
+                interestRate, tenureMonths, offerStatus, offerStartDate, offerEndDate, sourceSystem};
+    }
+
+    /**
+     * Offers are keyed by their customer record, so a customer's offers stay ordered with it.
+     */
+    @Override
+    public String key() {
+        return customerRecordId;
+    }
+}
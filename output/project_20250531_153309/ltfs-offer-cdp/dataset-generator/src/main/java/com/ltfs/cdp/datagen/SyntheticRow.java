@@ -0,0 +1,20 @@
+package com.ltfs.cdp.datagen;
+
+/**
+ * One generated row, in the column order of its {@link DatasetTable}.
+ */
+public interface SyntheticRow {
+
+    DatasetTable table();
+
+    /**
+     * Column values in the order of {@link DatasetTable#columns()}. Values are {@code String},
+     * {@code Integer}, {@code java.math.BigDecimal}, {@code java.time.LocalDate} or {@code null}.
+     */
+    Object[] values();
+
+    /**
+     * Partitioning key of the row: the record a Kafka message keyed by it should stay ordered with.
+     */
+    String key();
+}
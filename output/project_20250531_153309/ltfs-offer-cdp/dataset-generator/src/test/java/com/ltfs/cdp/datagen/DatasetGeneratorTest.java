@@ -0,0 +1,150 @@
+package com.ltfs.cdp.datagen;
+
+import com.ltfs.cdp.datagen.SyntheticCustomer.DuplicateKind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DatasetGenerator}.
+ */
+class DatasetGeneratorTest {
+
+    private static final int CUSTOMERS = 50_000;
+
+    private final DatasetSpec spec = DatasetSpec.builder()
+            .customers(CUSTOMERS)
+            .duplicateRate(0.10)
+            .nearDuplicateRate(0.20)
+            .campaigns(20)
+            .offersPerCustomer(1.5)
+            .seed(7)
+            .build();
+
+    @Test
+    @DisplayName("The same spec generates the same dataset, and a record can be regenerated on its own")
+    void generationIsDeterministic() throws IOException {
+        CollectingSink first = new CollectingSink();
+        CollectingSink second = new CollectingSink();
+        new DatasetGenerator(spec).generate(first);
+        new DatasetGenerator(spec).generate(second);
+
+        assertEquals(first.rows.size(), second.rows.size());
+        for (int i = 0; i < first.rows.size(); i++) {
+            assertArrayEquals(first.rows.get(i).values(), second.rows.get(i).values());
+        }
+        SyntheticCustomer alone = new DatasetGenerator(spec).customer(CUSTOMERS - 1);
+        assertArrayEquals(first.customers().get(CUSTOMERS - 1).values(), alone.values());
+    }
+
+    @Test
+    @DisplayName("Duplicate and near-duplicate rates match the spec, and duplicates point at originals")
+    void duplicatesFollowTheSpec() throws IOException {
+        CollectingSink sink = new CollectingSink();
+        DatasetSummary summary = new DatasetGenerator(spec).generate(sink);
+        List<SyntheticCustomer> customers = sink.customers();
+
+        assertEquals(CUSTOMERS, summary.getCustomers());
+        assertEquals(0.10, summary.getExactDuplicates() / (double) CUSTOMERS, 0.01);
+        assertEquals(0.20, summary.getNearDuplicates() / (double) CUSTOMERS, 0.01);
+
+        for (SyntheticCustomer customer : customers) {
+            if (customer.getDuplicateKind() == DuplicateKind.NONE) {
+                assertNull(customer.getDuplicateOf());
+                continue;
+            }
+            SyntheticCustomer original = customers.get(Integer.parseInt(customer.getDuplicateOf().substring(3)));
+            assertEquals(DuplicateKind.NONE, original.getDuplicateKind(), "duplicate_of names an original record");
+            assertNotEquals(original.getSourceSystem(), customer.getSourceSystem());
+            assertEquals(original.getAadhaar(), customer.getAadhaar());
+            assertEquals(original.getDateOfBirth(), customer.getDateOfBirth());
+            if (customer.getDuplicateKind() == DuplicateKind.EXACT) {
+                assertEquals(original.getPan(), customer.getPan());
+                assertEquals(original.getMobileNumber(), customer.getMobileNumber());
+                assertEquals(original.getFirstName(), customer.getFirstName());
+                assertEquals(original.getLastName(), customer.getLastName());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Originals have unique identifiers, and every offer links to a generated customer and campaign")
+    void originalsAreUniqueAndOffersAreLinked() throws IOException {
+        CollectingSink sink = new CollectingSink();
+        DatasetSummary summary = new DatasetGenerator(spec).generate(sink);
+
+        Set<String> pans = new HashSet<>();
+        Set<String> recordIds = new HashSet<>();
+        for (SyntheticCustomer customer : sink.customers()) {
+            assertTrue(recordIds.add(customer.getRecordId()));
+            if (customer.getDuplicateKind() == DuplicateKind.NONE) {
+                assertTrue(pans.add(customer.getPan()), "PAN of an original is unique");
+            }
+        }
+        Set<String> campaignCodes = new HashSet<>();
+        for (SyntheticCampaign campaign : new DatasetGenerator(spec).campaigns()) {
+            campaignCodes.add(campaign.getCampaignCode());
+        }
+
+        List<SyntheticOffer> offers = sink.offers();
+        assertEquals(summary.getOffers(), offers.size());
+        assertEquals(1.5, offers.size() / (double) CUSTOMERS, 0.05);
+        for (SyntheticOffer offer : offers) {
+            assertTrue(recordIds.contains(offer.getCustomerRecordId()));
+            assertTrue(campaignCodes.contains(offer.getCampaignCode()));
+            assertFalse(offer.getOfferEndDate().isBefore(offer.getOfferStartDate()));
+        }
+    }
+
+    @Test
+    @DisplayName("Out-of-range specs are rejected")
+    void invalidSpecsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DatasetSpec.builder().duplicateRate(0.6).nearDuplicateRate(0.5).build());
+        assertThrows(IllegalArgumentException.class, () -> DatasetSpec.builder().customers(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> DatasetSpec.builder().campaigns(0).build());
+    }
+
+    private static final class CollectingSink implements DatasetSink {
+        private final List<SyntheticRow> rows = new ArrayList<>();
+
+        @Override
+        public void write(SyntheticRow row) {
+            rows.add(row);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        List<SyntheticCustomer> customers() {
+            List<SyntheticCustomer> customers = new ArrayList<>();
+            for (SyntheticRow row : rows) {
+                if (row instanceof SyntheticCustomer) {
+                    customers.add((SyntheticCustomer) row);
+                }
+            }
+            return customers;
+        }
+
+        List<SyntheticOffer> offers() {
+            List<SyntheticOffer> offers = new ArrayList<>();
+            for (SyntheticRow row : rows) {
+                if (row instanceof SyntheticOffer) {
+                    offers.add((SyntheticOffer) row);
+                }
+            }
+            return offers;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ltfs.cdp.datagen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CsvDatasetSink} and {@link JsonLinesDatasetSink}.
+ */
+class FileDatasetSinkTest {
+
+    private static final SyntheticCustomer CUSTOMER = new SyntheticCustomer("CUS0000000007", "  RAHUL", null, "Shah, Jr \"RJ\"",
+            LocalDate.of(1985, 5, 5), "M", null, "234123412346", "9876543210", null, "Mumbai", "Maharashtra", "400001",
+            "OFFERMART", SyntheticCustomer.DuplicateKind.NEAR, "CUS0000000003");
+    private static final SyntheticOffer OFFER = new SyntheticOffer("OFR0000000007-1", "CUS0000000007", "CMP0000000001",
+            "TOP_UP_LOAN", new BigDecimal("250000.00"), new BigDecimal("12.49"), 36, "ACTIVE",
+            LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31), "OFFERMART");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("CSV files have a header per table and quote fields that need it")
+    void writesCsv() throws IOException {
+        try (CsvDatasetSink sink = new CsvDatasetSink(directory)) {
+            sink.write(CUSTOMER);
+            sink.write(OFFER);
+        }
+
+        List<String> customers = Files.readAllLines(directory.resolve("customers.csv"), StandardCharsets.UTF_8);
+        assertEquals(String.join(",", DatasetTable.CUSTOMERS.columns()), customers.get(0));
+        assertEquals("CUS0000000007,\"  RAHUL\",,\"Shah, Jr \"\"RJ\"\"\",1985-05-05,M,,234123412346,9876543210,,"
+                + "Mumbai,Maharashtra,400001,OFFERMART,NEAR,CUS0000000003", customers.get(1));
+        List<String> offers = Files.readAllLines(directory.resolve("offers.csv"), StandardCharsets.UTF_8);
+        assertEquals("OFR0000000007-1,CUS0000000007,CMP0000000001,TOP_UP_LOAN,250000.00,12.49,36,ACTIVE,2025-05-01,2025-05-31,OFFERMART",
+                offers.get(1));
+        assertFalse(Files.exists(directory.resolve("campaigns.csv")), "No file for a table without rows");
+    }
+
+    @Test
+    @DisplayName("JSON lines carry typed values and, when keyed, the Kafka key before a tab")
+    void writesKeyedJsonLines() throws IOException {
+        try (JsonLinesDatasetSink sink = new JsonLinesDatasetSink(directory, true)) {
+            sink.write(OFFER);
+            sink.write(CUSTOMER);
+        }
+
+        String offer = Files.readAllLines(directory.resolve("offers.jsonl"), StandardCharsets.UTF_8).get(0);
+        assertEquals("CUS0000000007\t{\"offer_reference_number\":\"OFR0000000007-1\",\"customer_record_id\":\"CUS0000000007\","
+                + "\"campaign_code\":\"CMP0000000001\",\"product_type\":\"TOP_UP_LOAN\",\"loan_amount\":250000.00,"
+                + "\"interest_rate\":12.49,\"tenure_months\":36,\"offer_status\":\"ACTIVE\",\"offer_start_date\":\"2025-05-01\","
+                + "\"offer_end_date\":\"2025-05-31\",\"source_system\":\"OFFERMART\"}", offer);
+        String customer = Files.readAllLines(directory.resolve("customers.jsonl"), StandardCharsets.UTF_8).get(0);
+        assertTrue(customer.contains("\"last_name\":\"Shah, Jr \\\"RJ\\\"\""), customer);
+        assertTrue(customer.contains("\"pan\":null"), customer);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ltfs.cdp.datagen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link IndianIdentities}.
+ * The format patterns are the ones the services validate PAN and mobile numbers with.
+ */
+class IndianIdentitiesTest {
+
+    private static final Pattern PAN = Pattern.compile("^[A-Z]{5}[0-9]{4}[A-Z]$");
+    private static final Pattern MOBILE = Pattern.compile("^[6-9]\\d{9}$");
+    private static final Pattern AADHAAR = Pattern.compile("^[2-9]\\d{11}$");
+
+    @Test
+    @DisplayName("Identifiers are valid in format, including the Aadhaar Verhoeff check digit")
+    void identifiersAreValid() {
+        for (long index = 0; index < 100_000; index += 7) {
+            String pan = IndianIdentities.pan(index, 'S');
+            assertTrue(PAN.matcher(pan).matches(), pan);
+            assertEquals('P', pan.charAt(3), "Fourth PAN character marks an individual");
+            assertEquals('S', pan.charAt(4), "Fifth PAN character is the surname initial");
+            assertTrue(MOBILE.matcher(IndianIdentities.mobile(index)).matches());
+            String aadhaar = IndianIdentities.aadhaar(index);
+            assertTrue(AADHAAR.matcher(aadhaar).matches(), aadhaar);
+            assertTrue(IndianIdentities.isValidAadhaar(aadhaar), aadhaar);
+        }
+    }
+
+    @Test
+    @DisplayName("Verhoeff validation rejects single-digit errors and adjacent transpositions")
+    void verhoeffDetectsTypos() {
+        assertTrue(IndianIdentities.isValidAadhaar("234123412346"), "Published UIDAI test number");
+        String aadhaar = IndianIdentities.aadhaar(12_345);
+        char[] digits = aadhaar.toCharArray();
+        digits[5] = (char) ('0' + (digits[5] - '0' + 1) % 10);
+        assertFalse(IndianIdentities.isValidAadhaar(new String(digits)));
+
+        digits = aadhaar.toCharArray();
+        for (int i = 1; i < 11; i++) {
+            if (digits[i] != digits[i + 1]) {
+                char c = digits[i];
+                digits[i] = digits[i + 1];
+                digits[i + 1] = c;
+                break;
+            }
+        }
+        assertFalse(IndianIdentities.isValidAadhaar(new String(digits)));
+        assertFalse(IndianIdentities.isValidAadhaar("123412341234"), "Aadhaar numbers do not start with 0 or 1");
+    }
+
+    @Test
+    @DisplayName("Distinct indexes get distinct identifiers")
+    void identifiersAreUnique() {
+        Set<String> pans = new HashSet<>();
+        Set<String> aadhaars = new HashSet<>();
+        Set<String> mobiles = new HashSet<>();
+        for (long index = 0; index < 200_000; index++) {
+            assertTrue(pans.add(IndianIdentities.pan(index, 'K')));
+            assertTrue(aadhaars.add(IndianIdentities.aadhaar(index)));
+            assertTrue(mobiles.add(IndianIdentities.mobile(index)));
+        }
+        assertNotEquals(IndianIdentities.mobile(IndianIdentities.MAX_UNIQUE_IDENTITIES - 1), IndianIdentities.mobile(0));
+        assertThrows(IllegalArgumentException.class, () -> IndianIdentities.mobile(IndianIdentities.MAX_UNIQUE_IDENTITIES));
+    }
+}
@@ -0,0 +1,256 @@
+package com.ltfs.cdp.common.dedupe;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keyed index of validity windows for offer deduplication, e.g. "same customer, same Top-up product,
+ * overlapping validity window".
+ *
+ * <p>For each key, the index keeps the union of the indexed windows as disjoint spans in a
+ * {@link TreeMap} ordered by start date. Because spans are disjoint, their end dates are ordered too,
+ * so the only span that can overlap a window {@code [start, end]} is the one with the greatest start on
+ * or before {@code end}: an overlap check is a single {@code floorEntry} lookup, O(log n) in the offers
+ * of that key, instead of a scan of all of them.</p>
+ *
+ * <p>Windows are inclusive on both ends; a {@code null} start or end is open-ended. Offers accepted
+ * through {@link #claim} never overlap, so each span normally holds exactly one offer. Offers loaded
+ * through {@link #put} (existing data that may already overlap) are merged into shared spans.</p>
+ *
+ * <p>The index is thread safe. Each key is updated atomically, so concurrent {@link #claim} calls for
+ * the same customer cannot both succeed with overlapping windows. It is local to one JVM: across
+ * several replicas, route offers by customer or back the index with a database exclusion constraint.</p>
+ *
+ * <p>Shared by customer-service, for batch deduplication, and offer-service, for Top-up offer windows.</p>
+ *
+ * @param <K> Deduplication key, e.g. customer id and product.
+ * @param <V> Indexed offer.
+ */
+public final class OfferWindowIndex<K, V> {
+
+    private static final long OPEN_START = Long.MIN_VALUE;
+    private static final long OPEN_END = Long.MAX_VALUE;
+
+    private final Map<K, NavigableMap<Long, Span<V>>> spansByKey = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Returns an indexed offer of {@code key} whose window overlaps {@code [start, end]}, if any.
+     */
+    public Optional<V> findOverlap(K key, LocalDate start, LocalDate end) {
+        long from = startDay(start);
+        long to = endDay(end);
+        requireOrdered(from, to);
+        NavigableMap<Long, Span<V>> spans = spansByKey.get(key);
+        if (spans == null) {
+            return Optional.empty();
+        }
+        synchronized (spans) {
+            return Optional.ofNullable(overlapping(spans, from, to));
+        }
+    }
+
+    /**
+     * Indexes {@code value} unless its window overlaps an indexed offer of the same key.
+     *
+     * @return Empty if {@code value} was indexed, else the overlapping offer it duplicates.
+     */
+    public Optional<V> claim(K key, LocalDate start, LocalDate end, V value) {
+        long from = startDay(start);
+        long to = endDay(end);
+        requireOrdered(from, to);
+        Object[] duplicateOf = new Object[1];
+        spansByKey.compute(key, (k, spans) -> {
+            NavigableMap<Long, Span<V>> target = spans != null ? spans : new TreeMap<>();
+            synchronized (target) {
+                V overlapping = overlapping(target, from, to);
+                if (overlapping != null) {
+                    duplicateOf[0] = overlapping;
+                } else {
+                    target.put(from, new Span<>(new Member<>(from, to, value)));
+                    size.incrementAndGet();
+                }
+            }
+            return target;
+        });
+        @SuppressWarnings("unchecked")
+        V duplicate = (V) duplicateOf[0];
+        return Optional.ofNullable(duplicate);
+    }
+
+    /**
+     * Indexes {@code value} even if it overlaps indexed offers, e.g. when loading offers that already
+     * exist. Overlapping spans are merged.
+     */
+    public void put(K key, LocalDate start, LocalDate end, V value) {
+        long from = startDay(start);
+        long to = endDay(end);
+        requireOrdered(from, to);
+        spansByKey.compute(key, (k, spans) -> {
+            NavigableMap<Long, Span<V>> target = spans != null ? spans : new TreeMap<>();
+            synchronized (target) {
+                merge(target, new Member<>(from, to, value));
+                size.incrementAndGet();
+            }
+            return target;
+        });
+    }
+
+    /**
+     * Removes {@code value} (compared by identity) indexed under {@code key} with window {@code [start, end]},
+     * e.g. when the transaction that claimed it rolls back.
+     *
+     * @return Whether the offer was indexed.
+     */
+    public boolean remove(K key, LocalDate start, LocalDate end, V value) {
+        long from = startDay(start);
+        long to = endDay(end);
+        boolean[] removed = new boolean[1];
+        spansByKey.computeIfPresent(key, (k, spans) -> {
+            synchronized (spans) {
+                Map.Entry<Long, Span<V>> entry = spans.floorEntry(from);
+                if (entry == null || entry.getValue().end < from) {
+                    return spans;
+                }
+                Span<V> span = entry.getValue();
+                Iterator<Member<V>> members = span.members.iterator();
+                while (members.hasNext()) {
+                    Member<V> member = members.next();
+                    if (member.value == value && member.start == from && member.end == to) {
+                        members.remove();
+                        removed[0] = true;
+                        break;
+                    }
+                }
+                if (removed[0]) {
+                    size.decrementAndGet();
+                    spans.remove(entry.getKey());
+                    // The remaining members of a merged span may no longer overlap each other.
+                    for (Member<V> member : span.members) {
+                        merge(spans, member);
+                    }
+                }
+                return spans.isEmpty() ? null : spans;
+            }
+        });
+        return removed[0];
+    }
+
+    /**
+     * Removes the offers whose windows ended before {@code date}, so that a long-lived index only holds
+     * offers that can still conflict with new ones.
+     *
+     * @return Number of offers removed.
+     */
+    public long evictEndedBefore(LocalDate date) {
+        long day = date.toEpochDay();
+        long[] evicted = new long[1];
+        for (K key : spansByKey.keySet()) {
+            spansByKey.computeIfPresent(key, (k, spans) -> {
+                synchronized (spans) {
+                    // Spans are disjoint, so the ones ending before the date are a prefix of the map.
+                    Iterator<Span<V>> iterator = spans.values().iterator();
+                    while (iterator.hasNext()) {
+                        Span<V> span = iterator.next();
+                        if (span.end >= day) {
+                            break;
+                        }
+                        evicted[0] += span.members.size();
+                        iterator.remove();
+                    }
+                    return spans.isEmpty() ? null : spans;
+                }
+            });
+        }
+        size.addAndGet(-evicted[0]);
+        return evicted[0];
+    }
+
+    /**
+     * Number of indexed offers.
+     */
+    public long size() {
+        return size.get();
+    }
+
+    private static <V> V overlapping(NavigableMap<Long, Span<V>> spans, long from, long to) {
+        Map.Entry<Long, Span<V>> candidate = spans.floorEntry(to);
+        if (candidate == null || candidate.getValue().end < from) {
+            return null;
+        }
+        // Within a merged span, report an offer that overlaps the window itself.
+        for (Member<V> member : candidate.getValue().members) {
+            if (member.start <= to && from <= member.end) {
+                return member.value;
+            }
+        }
+        return null;
+    }
+
+    private static <V> void merge(NavigableMap<Long, Span<V>> spans, Member<V> member) {
+        Span<V> merged = new Span<>(member);
+        // Overlapping spans are contiguous: walk down from the last span starting on or before the end.
+        Map.Entry<Long, Span<V>> entry = spans.floorEntry(member.end);
+        while (entry != null && entry.getValue().end >= member.start) {
+            merged.absorb(entry.getValue());
+            spans.remove(entry.getKey());
+            entry = spans.floorEntry(member.end);
+        }
+        spans.put(merged.start, merged);
+    }
+
+    private static long startDay(LocalDate start) {
+        return start == null ? OPEN_START : start.toEpochDay();
+    }
+
+    private static long endDay(LocalDate end) {
+        return end == null ? OPEN_END : end.toEpochDay();
+    }
+
+    private static void requireOrdered(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Window start " + LocalDate.ofEpochDay(from) + " is after its end " + LocalDate.ofEpochDay(to));
+        }
+    }
+
+    private static final class Member<V> {
+        final long start;
+        final long end;
+        final V value;
+
+        Member(long start, long end, V value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Union of overlapping windows of one key.
+     */
+    private static final class Span<V> {
+        long start;
+        long end;
+        final List<Member<V>> members = new ArrayList<>(1);
+
+        Span(Member<V> member) {
+            this.start = member.start;
+            this.end = member.end;
+            members.add(member);
+        }
+
+        void absorb(Span<V> other) {
+            start = Math.min(start, other.start);
+            end = Math.max(end, other.end);
+            members.addAll(other.members);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.ltfs.cdp.integration.service;
 import com.ltfs.cdp.integration.model.OffermartCustomerDTO;
 import com.ltfs.cdp.integration.model.OffermartOfferDTO;
 import com.ltfs.cdp.integration.entity.CustomerEntity;
+import com.ltfs.cdp.integration.entity.IngestionCheckpointEntity;
 import com.ltfs.cdp.integration.entity.OfferEntity;
 import com.ltfs.cdp.integration.repository.CustomerRepository;
+import com.ltfs.cdp.integration.repository.IngestionCheckpointRepository;
 import com.ltfs.cdp.integration.repository.OfferRepository;
 import com.ltfs.cdp.integration.util.OffermartDataMapper;
 import com.ltfs.cdp.integration.validation.OffermartDataValidator;
@@ -15,18 +17,30 @@ import com.ltfs.cdp.integration.model.IngestionResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class responsible for batch ingestion of customer and offer data from Offermart.
  * This class orchestrates validation, deduplication, and persistence of incoming data
  * into the CDP system.
+ *
+ * Small loads can be passed as complete lists and are ingested in a single transaction. Large
+ * files should be streamed: {@link #ingestOffermartData(String, Stream, Stream)} reads them in
+ * fixed-size chunks, commits each chunk in its own transaction and checkpoints its progress, so
+ * memory stays bounded by one chunk and a failed load resumes after the last committed chunk.
  */
 @Service
 public class OffermartDataIngestor {
@@ -38,6 +52,9 @@ public class OffermartDataIngestor {
     private final OffermartDataMapper mapper;
     private final CustomerRepository customerRepository;
     private final OfferRepository offerRepository;
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
 
     /**
      * Constructs an OffermartDataIngestor with necessary dependencies.
@@ -47,18 +64,34 @@ public class OffermartDataIngestor {
      * @param mapper Utility for mapping Offermart DTOs to CDP entities.
      * @param customerRepository Repository for persisting Customer entities.
      * @param offerRepository Repository for persisting Offer entities.
+     * @param checkpointRepository Repository for the progress of streaming ingestion jobs.
+     * @param transactionManager Transaction manager used to commit each streamed chunk separately.
+     * @param chunkSize Number of records read, validated, deduplicated and committed together
+     *                  during streaming ingestion.
      */
     @Autowired
     public OffermartDataIngestor(OffermartDataValidator validator,
                                  DeduplicationService deduplicationService,
                                  OffermartDataMapper mapper,
                                  CustomerRepository customerRepository,
-                                 OfferRepository offerRepository) {
+                                 OfferRepository offerRepository,
+                                 IngestionCheckpointRepository checkpointRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.batch-jobs.offermart-data-ingestion.batch-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Offermart ingestion batch size must be positive, was " + chunkSize);
+        }
         this.validator = validator;
         this.deduplicationService = deduplicationService;
         this.mapper = mapper;
         this.customerRepository = customerRepository;
         this.offerRepository = offerRepository;
+        this.checkpointRepository = checkpointRepository;
+        // A new transaction per chunk, even when called from within a transaction, so that every
+        // chunk and its checkpoint are committed together before the next chunk is read.
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
     }
 
     /**
@@ -75,51 +108,18 @@ public class OffermartDataIngestor {
         logger.info("Starting Offermart data ingestion. Customers: {}, Offers: {}",
                 customerDataList.size(), offerDataList.size());
 
-        int totalCustomersProcessed = 0;
-        int totalOffersProcessed = 0;
+        int totalCustomersProcessed = customerDataList.size();
+        int totalOffersProcessed = offerDataList.size();
         int customersIngested = 0;
         int offersIngested = 0;
-        int customersSkipped = 0;
-        int offersSkipped = 0;
-
-        List<CustomerEntity> validCustomerEntities = new ArrayList<>();
-        List<OfferEntity> validOfferEntities = new ArrayList<>();
 
         // --- Step 1: Validate and Map Customer Data ---
-        for (OffermartCustomerDTO dto : customerDataList) {
-            totalCustomersProcessed++;
-            try {
-                validator.validateCustomerData(dto); // Perform basic column-level validation
-                CustomerEntity customerEntity = mapper.toCustomerEntity(dto);
-                validCustomerEntities.add(customerEntity);
-            } catch (DataValidationException e) {
-                logger.warn("Skipping invalid customer record (ID: {}): {}", dto.getCustomerId(), e.getMessage());
-                customersSkipped++;
-            } catch (Exception e) {
-                logger.error("Error processing customer record (ID: {}): {}", dto.getCustomerId(), e.getMessage(), e);
-                customersSkipped++;
-            }
-        }
-        logger.info("Validated {} out of {} customer records. {} skipped.",
-                validCustomerEntities.size(), totalCustomersProcessed, customersSkipped);
+        List<CustomerEntity> validCustomerEntities = toValidCustomerEntities(customerDataList);
+        int customersSkipped = totalCustomersProcessed - validCustomerEntities.size();
 
         // --- Step 2: Validate and Map Offer Data ---
-        for (OffermartOfferDTO dto : offerDataList) {
-            totalOffersProcessed++;
-            try {
-                validator.validateOfferData(dto); // Perform basic column-level validation
-                OfferEntity offerEntity = mapper.toOfferEntity(dto);
-                validOfferEntities.add(offerEntity);
-            } catch (DataValidationException e) {
-                logger.warn("Skipping invalid offer record (ID: {}): {}", dto.getOfferId(), e.getMessage());
-                offersSkipped++;
-            } catch (Exception e) {
-                logger.error("Error processing offer record (ID: {}): {}", dto.getOfferId(), e.getMessage(), e);
-                offersSkipped++;
-            }
-        }
-        logger.info("Validated {} out of {} offer records. {} skipped.",
-                validOfferEntities.size(), totalOffersProcessed, offersSkipped);
+        List<OfferEntity> validOfferEntities = toValidOfferEntities(offerDataList);
+        int offersSkipped = totalOffersProcessed - validOfferEntities.size();
 
         // --- Step 3: Apply Deduplication Logic for Customers ---
         // Deduplication against the 'live book' (Customer 360) before offers are finalized.
@@ -161,6 +161,180 @@ public class OffermartDataIngestor {
         return new IngestionResult(customersIngested, offersIngested,
                 totalCustomersProcessed - customersIngested, totalOffersProcessed - offersIngested);
     }
+
+    /**
+     * Ingests Offermart customer and offer data streamed from a large source, one chunk at a time.
+     *
+     * Customers are ingested before offers. Records are pulled from the streams only when the
+     * previous chunk has been committed, so a fast reader is held back by the database and at most
+     * one chunk of records is in memory. Each chunk is validated, deduplicated and saved in its own
+     * transaction, together with the checkpoint of job {@code jobId}: a failure rolls back only the
+     * current chunk and the method throws. Calling it again with the same job ID and the same
+     * source skips the records already committed and carries on from there; a completed job is
+     * not ingested again.
+     *
+     * Customers are deduplicated against the live book, which includes the chunks committed
+     * before. Offers are deduplicated within their chunk only; an offer repeated in a later chunk
+     * overwrites the earlier one.
+     *
+     * The caller remains responsible for closing the streams.
+     *
+     * @param jobId Identifies the load, e.g. the name of the Offermart file; progress is checkpointed under it.
+     * @param customerStream The OffermartCustomerDTOs to be ingested, in a stable order.
+     * @param offerStream The OffermartOfferDTOs to be ingested, in a stable order.
+     * @return An IngestionResult summarizing the whole job, including chunks committed by earlier attempts.
+     */
+    public IngestionResult ingestOffermartData(String jobId,
+                                               Stream<OffermartCustomerDTO> customerStream,
+                                               Stream<OffermartOfferDTO> offerStream) {
+        IngestionCheckpointEntity checkpoint = checkpointRepository.findById(jobId)
+                .orElseGet(() -> new IngestionCheckpointEntity(jobId));
+        if (checkpoint.isCompleted()) {
+            logger.info("Offermart ingestion job {} was already completed at {}. Nothing to ingest.",
+                    jobId, checkpoint.getUpdatedAt());
+            return toIngestionResult(checkpoint);
+        }
+        logger.info("Starting streaming Offermart data ingestion for job {} in chunks of {} records. " +
+                        "Resuming after {} customer and {} offer records.",
+                jobId, chunkSize, checkpoint.getCustomersRead(), checkpoint.getOffersRead());
+
+        // --- Customers, one transaction per chunk ---
+        Iterator<OffermartCustomerDTO> customers = skip(customerStream.iterator(), checkpoint.getCustomersRead());
+        for (List<OffermartCustomerDTO> chunk = nextChunk(customers); !chunk.isEmpty(); chunk = nextChunk(customers)) {
+            List<OffermartCustomerDTO> customerChunk = chunk;
+            long committed = checkpoint.getCustomersRead();
+            try {
+                chunkTransaction.executeWithoutResult(status -> ingestCustomerChunk(customerChunk, checkpoint));
+            } catch (RuntimeException e) {
+                logger.error("Error persisting customer records {} to {} of ingestion job {}: {}",
+                        committed + 1, committed + customerChunk.size(), jobId, e.getMessage(), e);
+                throw new RuntimeException("Failed to persist data during ingestion job " + jobId
+                        + ". It resumes after customer record " + committed + ".", e);
+            }
+        }
+
+        // --- Offers, one transaction per chunk ---
+        Iterator<OffermartOfferDTO> offers = skip(offerStream.iterator(), checkpoint.getOffersRead());
+        for (List<OffermartOfferDTO> chunk = nextChunk(offers); !chunk.isEmpty(); chunk = nextChunk(offers)) {
+            List<OffermartOfferDTO> offerChunk = chunk;
+            long committed = checkpoint.getOffersRead();
+            try {
+                chunkTransaction.executeWithoutResult(status -> ingestOfferChunk(offerChunk, checkpoint));
+            } catch (RuntimeException e) {
+                logger.error("Error persisting offer records {} to {} of ingestion job {}: {}",
+                        committed + 1, committed + offerChunk.size(), jobId, e.getMessage(), e);
+                throw new RuntimeException("Failed to persist data during ingestion job " + jobId
+                        + ". It resumes after offer record " + committed + ".", e);
+            }
+        }
+
+        checkpoint.setCompleted(true);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        chunkTransaction.executeWithoutResult(status -> checkpointRepository.save(checkpoint));
+
+        IngestionResult result = toIngestionResult(checkpoint);
+        logger.info("Streaming Offermart data ingestion for job {} completed. {}", jobId, result);
+        return result;
+    }
+
+    /**
+     * Validates, deduplicates and saves one chunk of customers, and advances the checkpoint in the same transaction.
+     */
+    private void ingestCustomerChunk(List<OffermartCustomerDTO> chunk, IngestionCheckpointEntity checkpoint) {
+        List<CustomerEntity> dedupedCustomers = deduplicationService.deduplicateCustomers(toValidCustomerEntities(chunk));
+        customerRepository.saveAll(dedupedCustomers);
+
+        checkpoint.setCustomersRead(checkpoint.getCustomersRead() + chunk.size());
+        checkpoint.setCustomersIngested(checkpoint.getCustomersIngested() + dedupedCustomers.size());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        logger.debug("Committing {} new customers, checkpoint at customer record {}.",
+                dedupedCustomers.size(), checkpoint.getCustomersRead());
+    }
+
+    /**
+     * Validates, deduplicates and saves one chunk of offers, and advances the checkpoint in the same transaction.
+     */
+    private void ingestOfferChunk(List<OffermartOfferDTO> chunk, IngestionCheckpointEntity checkpoint) {
+        List<OfferEntity> dedupedOffers = deduplicationService.deduplicateOffers(toValidOfferEntities(chunk));
+        offerRepository.saveAll(dedupedOffers);
+
+        checkpoint.setOffersRead(checkpoint.getOffersRead() + chunk.size());
+        checkpoint.setOffersIngested(checkpoint.getOffersIngested() + dedupedOffers.size());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        logger.debug("Committing {} unique offers, checkpoint at offer record {}.",
+                dedupedOffers.size(), checkpoint.getOffersRead());
+    }
+
+    /**
+     * Validates customer records and maps the valid ones to entities; invalid records are logged and skipped.
+     */
+    private List<CustomerEntity> toValidCustomerEntities(List<OffermartCustomerDTO> customerDataList) {
+        List<CustomerEntity> validCustomerEntities = new ArrayList<>(customerDataList.size());
+        for (OffermartCustomerDTO dto : customerDataList) {
+            try {
+                validator.validateCustomerData(dto); // Perform basic column-level validation
+                validCustomerEntities.add(mapper.toCustomerEntity(dto));
+            } catch (DataValidationException e) {
+                logger.warn("Skipping invalid customer record (ID: {}): {}", dto.getCustomerId(), e.getMessage());
+            } catch (Exception e) {
+                logger.error("Error processing customer record (ID: {}): {}", dto.getCustomerId(), e.getMessage(), e);
+            }
+        }
+        logger.info("Validated {} out of {} customer records. {} skipped.", validCustomerEntities.size(),
+                customerDataList.size(), customerDataList.size() - validCustomerEntities.size());
+        return validCustomerEntities;
+    }
+
+    /**
+     * Validates offer records and maps the valid ones to entities; invalid records are logged and skipped.
+     */
+    private List<OfferEntity> toValidOfferEntities(List<OffermartOfferDTO> offerDataList) {
+        List<OfferEntity> validOfferEntities = new ArrayList<>(offerDataList.size());
+        for (OffermartOfferDTO dto : offerDataList) {
+            try {
+                validator.validateOfferData(dto); // Perform basic column-level validation
+                validOfferEntities.add(mapper.toOfferEntity(dto));
+            } catch (DataValidationException e) {
+                logger.warn("Skipping invalid offer record (ID: {}): {}", dto.getOfferId(), e.getMessage());
+            } catch (Exception e) {
+                logger.error("Error processing offer record (ID: {}): {}", dto.getOfferId(), e.getMessage(), e);
+            }
+        }
+        logger.info("Validated {} out of {} offer records. {} skipped.", validOfferEntities.size(),
+                offerDataList.size(), offerDataList.size() - validOfferEntities.size());
+        return validOfferEntities;
+    }
+
+    /**
+     * Reads the next chunk of at most {@code chunkSize} records; an empty chunk means the source is exhausted.
+     */
+    private <T> List<T> nextChunk(Iterator<T> records) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && records.hasNext()) {
+            chunk.add(records.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * Skips the records committed by an earlier attempt of the job without keeping them.
+     */
+    private static <T> Iterator<T> skip(Iterator<T> records, long count) {
+        for (long i = 0; i < count && records.hasNext(); i++) {
+            records.next();
+        }
+        return records;
+    }
+
+    private static IngestionResult toIngestionResult(IngestionCheckpointEntity checkpoint) {
+        return new IngestionResult(
+                Math.toIntExact(checkpoint.getCustomersIngested()),
+                Math.toIntExact(checkpoint.getOffersIngested()),
+                Math.toIntExact(checkpoint.getCustomersRead() - checkpoint.getCustomersIngested()),
+                Math.toIntExact(checkpoint.getOffersRead() - checkpoint.getOffersIngested()));
+    }
 }
 
 // --- Placeholder DTOs, Entities, Repositories, and Services for compilation ---
@@ -284,6 +458,7 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 // Placeholder for CustomerEntity
@@ -371,6 +546,44 @@ class OfferEntity {
     }
 }
 
+// Placeholder for IngestionCheckpointEntity: progress of a streaming ingestion job, saved with each committed chunk
+// The table is created by scripts/sql/migrations/cdp_ingestion_checkpoint.sql, to be run before deploying
+@Entity
+@Table(name = "cdp_ingestion_checkpoint")
+class IngestionCheckpointEntity {
+    @Id
+    private String jobId;
+    private long customersRead; // Customer records committed, valid or not; the stream resumes after them
+    private long customersIngested;
+    private long offersRead; // Offer records committed, valid or not; the stream resumes after them
+    private long offersIngested;
+    private boolean completed;
+    private LocalDateTime updatedAt;
+
+    protected IngestionCheckpointEntity() {
+        // Required by JPA
+    }
+
+    public IngestionCheckpointEntity(String jobId) {
+        this.jobId = jobId;
+    }
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public long getCustomersRead() { return customersRead; }
+    public void setCustomersRead(long customersRead) { this.customersRead = customersRead; }
+    public long getCustomersIngested() { return customersIngested; }
+    public void setCustomersIngested(long customersIngested) { this.customersIngested = customersIngested; }
+    public long getOffersRead() { return offersRead; }
+    public void setOffersRead(long offersRead) { this.offersRead = offersRead; }
+    public long getOffersIngested() { return offersIngested; }
+    public void setOffersIngested(long offersIngested) { this.offersIngested = offersIngested; }
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
+
 package com.ltfs.cdp.integration.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -388,6 +601,11 @@ interface OfferRepository extends JpaRepository<OfferEntity, String> {
     // Custom query methods can be added here if needed
 }
 
+// Placeholder for IngestionCheckpointRepository
+@Repository
+interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpointEntity, String> {
+}
+
 package com.ltfs.cdp.integration.util;
 
 import com.ltfs.cdp.integration.model.OffermartCustomerDTO;
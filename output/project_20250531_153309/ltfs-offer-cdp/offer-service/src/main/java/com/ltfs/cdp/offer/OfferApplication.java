@@ -3,6 +3,7 @@ package com.ltfs.cdp.offer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for the Offer Service.
@@ -24,6 +25,7 @@ import org.springframework.context.annotation.ComponentScan;
  * offer management, deduplication, and customer profile integration for consumer loan products.</p>
  */
 @SpringBootApplication
+@EnableScheduling // Runs the scheduled offer expiry and Top-up window index eviction jobs
 @ComponentScan(basePackages = {"com.ltfs.cdp.offer"}) // Explicitly define base package for component scanning
 public class OfferApplication {
 
@@ -4,8 +4,10 @@ import com.ltfs.cdp.offer.model.Offer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * JPA Repository for the {@link Offer} entity.
@@ -81,4 +83,25 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
      * @return A list of active {@link Offer} entities for the given customer.
      */
     List<Offer> findByCustomerIdAndStatus(String customerId, String status);
-}
\ No newline at end of file
+
+    /**
+     * Finds offers of a product type whose validity window ends on or after a date.
+     * Used to load the Top-up offers that can still conflict with new ones into the
+     * Top-up offer window index at startup.
+     *
+     * @param productType The product type (e.g., "TOP_UP_LOAN").
+     * @param date The earliest end date of the offers to return.
+     * @return A list of {@link Offer} entities of the product type that have not ended before {@code date}.
+     */
+    List<Offer> findByProductTypeAndOfferEndDateGreaterThanEqual(String productType, LocalDate date);
+
+    /**
+     * Finds offers by customer ID and product type.
+     * Used for Top-up deduplication while the Top-up offer window index is disabled or loading.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @param productType The product type (e.g., "TOP_UP_LOAN").
+     * @return A list of {@link Offer} entities matching the given customer ID and product type.
+     */
+    List<Offer> findByCustomerIdAndProductType(UUID customerId, String productType);
+}
@@ -32,18 +32,20 @@ public class OfferService {
 
     private final OfferRepository offerRepository;
     private final OfferMapper offerMapper;
-    // Potentially inject a DeduplicationService here if deduplication is a separate component
-    // private final DeduplicationService deduplicationService;
+    private final TopUpOfferWindowRegistry topUpOfferWindowRegistry;
 
     /**
      * Constructs an OfferService with necessary dependencies.
      *
      * @param offerRepository The repository for Offer entities.
      * @param offerMapper The mapper for converting between Offer entities and DTOs.
+     * @param topUpOfferWindowRegistry The index of live Top-up offer windows used for Top-up deduplication.
      */
-    public OfferService(OfferRepository offerRepository, OfferMapper offerMapper) {
+    public OfferService(OfferRepository offerRepository, OfferMapper offerMapper,
+                        TopUpOfferWindowRegistry topUpOfferWindowRegistry) {
         this.offerRepository = offerRepository;
         this.offerMapper = offerMapper;
+        this.topUpOfferWindowRegistry = topUpOfferWindowRegistry;
     }
 
     /**
@@ -169,6 +171,8 @@ public class OfferService {
         offer.setOfferStatus(newStatus);
         offer.setUpdatedAt(LocalDateTime.now());
         Offer updatedOffer = offerRepository.save(offer);
+        // A rejected, cancelled or expired Top-up offer frees its validity window once this commits.
+        topUpOfferWindowRegistry.rekey(updatedOffer);
         log.info("Offer ID: {} status updated to {}", offerId, newStatus);
         return offerMapper.toResponseDTO(updatedOffer);
     }
@@ -211,6 +215,8 @@ public class OfferService {
         existingOffer.setUpdatedAt(LocalDateTime.now());
 
         Offer updatedOffer = offerRepository.save(existingOffer);
+        // New dates or a new status move or free the offer's Top-up validity window once this commits.
+        topUpOfferWindowRegistry.rekey(updatedOffer);
         log.info("Offer ID: {} updated successfully.", offerId);
         return offerMapper.toResponseDTO(updatedOffer);
     }
@@ -224,16 +230,15 @@ public class OfferService {
     @Transactional
     public void deleteOffer(String offerId) {
         log.info("Attempting to delete offer with ID: {}", offerId);
-        // Check if the offer exists before attempting to delete to provide a specific error.
-        if (!offerRepository.existsByOfferId(offerId)) {
-            log.warn("Offer not found for deletion with ID: {}", offerId);
-            throw new OfferNotFoundException("Offer not found with ID: " + offerId);
-        }
-        // Assuming deleteByOfferId is defined in OfferRepository for direct deletion by ID.
-        // Alternatively, find the entity and then delete:
-        // Offer offerToDelete = offerRepository.findByOfferId(offerId).orElseThrow(...);
-        // offerRepository.delete(offerToDelete);
+        // Load the offer before deleting it, both to provide a specific error and to free its
+        // Top-up validity window.
+        Offer offerToDelete = offerRepository.findByOfferId(offerId)
+                .orElseThrow(() -> {
+                    log.warn("Offer not found for deletion with ID: {}", offerId);
+                    return new OfferNotFoundException("Offer not found with ID: " + offerId);
+                });
         offerRepository.deleteByOfferId(offerId);
+        topUpOfferWindowRegistry.release(offerToDelete);
         log.info("Offer ID: {} deleted successfully.", offerId);
     }
 
@@ -292,28 +297,19 @@ public class OfferService {
         // This section would be highly dependent on the exact deduplication rules and
         // integration with other services (like Customer 360).
 
-        // 1. Check against existing offers for the same customer and product type.
-        //    This would involve querying the offerRepository or a dedicated deduplication service.
-        //    List<Offer> existingOffers = offerRepository.findByCustomerIdAndOfferTypeAndOfferStatusIn(
-        //        offer.getCustomerId(), offer.getOfferType(), List.of(OfferStatus.ACTIVE, OfferStatus.PENDING));
-        //    if (!existingOffers.isEmpty()) {
-        //        // Apply specific dedupe rules (e.g., "Top-up loan offers deduped only within other Top-up offers")
-        //        boolean isActualDuplicate = existingOffers.stream().anyMatch(existing -> {
-        //            // Complex comparison logic based on offer details, amount, validity, etc.
-        //            // For "Top-up loan offers must be deduped only within other Top-up offers":
-        //            // if (offer.getOfferType().equals("TOP_UP_LOAN") && existing.getOfferType().equals("TOP_UP_LOAN")) {
-        //            //     return existing.getOfferAmount().equals(offer.getOfferAmount()) && ...; // More specific rules
-        //            // }
-        //            // For other CL products, broader rules might apply.
-        //            return existing.getOfferAmount().equals(offer.getOfferAmount()); // Simplified example
-        //        });
-        //        if (isActualDuplicate) {
-        //            log.warn("Deduplication detected for offer ID: {}. Marking as REJECTED_DUPLICATE.", offer.getOfferId());
-        //            offer.setOfferStatus(OfferStatus.REJECTED_DUPLICATE);
-        //            // Optionally, throw an exception to prevent persistence if the business rule dictates
-        //            // throw new OfferValidationException("Duplicate offer detected for customer: " + offer.getCustomerId());
-        //        }
-        //    }
+        // 1. Top-up loan offers are deduped only within other Top-up offers: a Top-up offer whose
+        //    validity window overlaps a live Top-up offer of the same customer is a duplicate.
+        //    The registry answers from an in-memory window index instead of scanning the customer's offers.
+        Optional<Offer> overlappingTopUp = topUpOfferWindowRegistry.claim(offer);
+        if (overlappingTopUp.isPresent()) {
+            Offer original = overlappingTopUp.get();
+            log.warn("Top-up offer {} overlaps the validity window of Top-up offer {} for customer {}. Marking as DEDUPED.",
+                    offer.getOfferReferenceNumber(), original.getOfferReferenceNumber(), offer.getCustomerId());
+            offer.setOfferStatus(Offer.OfferStatus.DEDUPED);
+            offer.setDeduplicationStatus(Offer.DeduplicationStatus.DEDUPED_SECONDARY);
+            offer.setOriginalOfferId(original.getId());
+            offer.setDeduplicationReason("Validity window overlaps Top-up offer " + original.getOfferReferenceNumber());
+        }
 
         // 2. Check against 'live book' (Customer 360).
         //    This would involve calling a Customer 360 service to check if the customer
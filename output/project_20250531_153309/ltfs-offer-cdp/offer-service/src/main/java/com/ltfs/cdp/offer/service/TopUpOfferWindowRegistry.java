@@ -0,0 +1,246 @@
+package com.ltfs.cdp.offer.service;
+
+import com.ltfs.cdp.common.dedupe.OfferWindowIndex;
+import com.ltfs.cdp.offer.model.Offer;
+import com.ltfs.cdp.offer.repository.OfferRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resident index of the validity windows of live Top-up offers, used to dedupe a new Top-up offer
+ * against existing ones without querying and scanning all offers of the customer.
+ *
+ * <p>Top-up loan offers must be deduped only within other Top-up offers: a new Top-up offer is a
+ * duplicate if the same customer already has a Top-up offer of the same product whose validity window
+ * overlaps the new one. The index is loaded once at startup with the Top-up offers that have not ended,
+ * kept current by {@link #claim(Offer)} on every creation, by {@link #rekey(Offer)} on every update and
+ * status change, and by {@link #release(Offer)} on every deletion, and trimmed daily of ended offers (which
+ * covers the scheduled expiry jobs, as they only expire offers whose window has ended).</p>
+ *
+ * <p>A claim made inside a transaction is withdrawn if the transaction rolls back, so an offer that was
+ * never saved does not block later ones. Re-keys and releases made inside a transaction are applied only
+ * once it commits.</p>
+ */
+@Component
+public class TopUpOfferWindowRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TopUpOfferWindowRegistry.class);
+
+    static final String TOP_UP_PRODUCT_TYPE = "TOP_UP_LOAN";
+    // Offers in these statuses no longer occupy their window.
+    private static final Set<Offer.OfferStatus> RELEASED_STATUSES =
+            EnumSet.of(Offer.OfferStatus.REJECTED, Offer.OfferStatus.DEDUPED, Offer.OfferStatus.CANCELLED, Offer.OfferStatus.EXPIRED);
+
+    private final OfferRepository offerRepository;
+    private final boolean enabled;
+    private final OfferWindowIndex<String, Offer> index = new OfferWindowIndex<>();
+    // The indexed window of each offer, by offer reference number, so an offer can be found again from
+    // another instance of the same entity.
+    private final Map<String, Claim> claims = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public TopUpOfferWindowRegistry(OfferRepository offerRepository,
+                                   @Value("${app.offer.top-up-window-index.enabled:true}") boolean enabled) {
+        this.offerRepository = offerRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads the Top-up offers that have not ended yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Top-up offer window index is disabled; Top-up offers are checked against the database.");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        List<Offer> liveOffers = offerRepository.findByProductTypeAndOfferEndDateGreaterThanEqual(TOP_UP_PRODUCT_TYPE, LocalDate.now());
+        for (Offer offer : liveOffers) {
+            if (!RELEASED_STATUSES.contains(offer.getOfferStatus())) {
+                // Existing offers may already overlap each other; index them all.
+                Claim claim = new Claim(offer);
+                index.put(claim.key, claim.start, claim.end, offer);
+                claims.put(offer.getOfferReferenceNumber(), claim);
+            }
+        }
+        ready = true;
+        log.info("Top-up offer window index loaded with {} offers in {} ms.", index.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Records the window of a new Top-up offer unless it overlaps a live Top-up offer of the same
+     * customer and product.
+     *
+     * @return Empty if the offer is not a duplicate, else the existing offer it duplicates.
+     */
+    public Optional<Offer> claim(Offer offer) {
+        if (!TOP_UP_PRODUCT_TYPE.equalsIgnoreCase(offer.getProductType())) {
+            return Optional.empty();
+        }
+        if (!ready) {
+            return findInDatabase(offer);
+        }
+        Claim claim = new Claim(offer);
+        Optional<Offer> duplicateOf = index.claim(claim.key, claim.start, claim.end, offer);
+        if (duplicateOf.isEmpty()) {
+            claims.put(offer.getOfferReferenceNumber(), claim);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            withdraw(offer.getOfferReferenceNumber(), claim);
+                        }
+                    }
+                });
+            }
+        }
+        return duplicateOf;
+    }
+
+    /**
+     * Re-indexes an updated offer under its current customer, product, window and status: an offer moved to a
+     * released status (rejected, deduped, cancelled or expired) or to another product frees its window, an offer
+     * with new dates occupies its new window only, and an offer moved back to a live status occupies its window
+     * again. Inside a transaction, this is applied once the transaction commits.
+     */
+    public void rekey(Offer offer) {
+        String reference = offer.getOfferReferenceNumber();
+        Claim claim = isLiveTopUp(offer) ? new Claim(offer) : null;
+        afterCommit(() -> {
+            if (!ready) {
+                return;
+            }
+            claims.compute(reference, (ref, previous) -> {
+                if (previous != null) {
+                    index.remove(previous.key, previous.start, previous.end, previous.offer);
+                }
+                if (claim == null) {
+                    return null;
+                }
+                // The update is committed, so index it even if it now overlaps another offer, as load() would.
+                index.findOverlap(claim.key, claim.start, claim.end).ifPresent(overlapping ->
+                        log.warn("Updated Top-up offer {} overlaps the validity window of Top-up offer {} for customer {}.",
+                                reference, overlapping.getOfferReferenceNumber(), offer.getCustomerId()));
+                index.put(claim.key, claim.start, claim.end, claim.offer);
+                return claim;
+            });
+        });
+    }
+
+    /**
+     * Frees the window of a deleted offer. Inside a transaction, this is applied once the transaction commits.
+     */
+    public void release(Offer offer) {
+        String reference = offer.getOfferReferenceNumber();
+        afterCommit(() -> {
+            if (ready) {
+                withdraw(reference, null);
+            }
+        });
+    }
+
+    /**
+     * Daily trim of offers whose window has ended; they can no longer overlap a new offer.
+     */
+    @Scheduled(cron = "${app.offer.top-up-window-index.eviction-cron:0 30 0 * * ?}")
+    public void evictEndedOffers() {
+        if (ready) {
+            LocalDate today = LocalDate.now();
+            long evicted = index.evictEndedBefore(today);
+            claims.values().removeIf(claim -> claim.end != null && claim.end.isBefore(today));
+            log.info("Evicted {} ended Top-up offers from the window index; {} remain.", evicted, index.size());
+        }
+    }
+
+    /**
+     * Fallback while the index is disabled or still loading.
+     */
+    private Optional<Offer> findInDatabase(Offer offer) {
+        for (Offer existing : offerRepository.findByCustomerIdAndProductType(offer.getCustomerId(), offer.getProductType())) {
+            if (!RELEASED_STATUSES.contains(existing.getOfferStatus()) && overlaps(existing, offer)) {
+                return Optional.of(existing);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes the claim of an offer from the index; if {@code expected} is given, only if it is still that claim.
+     */
+    private void withdraw(String reference, Claim expected) {
+        claims.computeIfPresent(reference, (ref, claim) -> {
+            if (expected != null && claim != expected) {
+                return claim;
+            }
+            index.remove(claim.key, claim.start, claim.end, claim.offer);
+            return null;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean isLiveTopUp(Offer offer) {
+        return TOP_UP_PRODUCT_TYPE.equalsIgnoreCase(offer.getProductType()) && !RELEASED_STATUSES.contains(offer.getOfferStatus());
+    }
+
+    /**
+     * Windows are inclusive on both ends, and a missing start or end date is open-ended, as in the index.
+     */
+    private static boolean overlaps(Offer a, Offer b) {
+        return onOrBefore(a.getOfferStartDate(), b.getOfferEndDate()) && onOrBefore(b.getOfferStartDate(), a.getOfferEndDate());
+    }
+
+    private static boolean onOrBefore(LocalDate start, LocalDate end) {
+        return start == null || end == null || !start.isAfter(end);
+    }
+
+    private static String key(Offer offer) {
+        return offer.getCustomerId() + "|" + offer.getProductType().toUpperCase();
+    }
+
+    /**
+     * The window an offer occupies in the index, captured when it was indexed: the entity itself may be
+     * changed afterwards.
+     */
+    private static final class Claim {
+        final String key;
+        final LocalDate start;
+        final LocalDate end;
+        final Offer offer;
+
+        Claim(Offer offer) {
+            this.key = key(offer);
+            this.start = offer.getOfferStartDate();
+            this.end = offer.getOfferEndDate();
+            this.offer = offer;
+        }
+    }
+}
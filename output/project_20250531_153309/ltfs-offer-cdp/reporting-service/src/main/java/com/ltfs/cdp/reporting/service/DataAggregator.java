@@ -2,7 +2,9 @@ package com.ltfs.cdp.reporting.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +40,7 @@ public class DataAggregator {
     private static final Logger log = LoggerFactory.getLogger(DataAggregator.class);
 
     private final RestTemplate restTemplate;
+    private final Executor taskExecutor;
 
     // Configuration properties for external service URLs, with default localhost values for development/testing.
     @Value("${service.customer.url:http://localhost:8081/api/customers}")
@@ -55,9 +59,13 @@ public class DataAggregator {
      * (e.g., via a @Configuration class that returns a new RestTemplate()).
      *
      * @param restTemplate The RestTemplate instance for making HTTP requests to external services.
+     * @param taskExecutor The application task executor the campaign calls run on: a thread pool by default, or a
+     *                     new virtual thread per call with the 'virtual-threads' profile.
      */
-    public DataAggregator(RestTemplate restTemplate) {
+    public DataAggregator(RestTemplate restTemplate,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
         this.restTemplate = restTemplate;
+        this.taskExecutor = taskExecutor;
     }
 
     /**
@@ -224,6 +232,8 @@ public class DataAggregator {
      * Asynchronously fetches campaign data from the campaign microservice.
      * This method is designed to be used with {@link CompletableFuture} for parallel execution,
      * allowing multiple campaign fetches to happen concurrently without blocking the main thread.
+     * The blocking call runs on the application task executor rather than the common fork-join pool,
+     * whose few threads are meant for CPU-bound work and are shared with parallel streams.
      *
      * @param campaignId The ID of the campaign to fetch.
      * @return A {@link CompletableFuture} that will eventually hold the {@link CampaignDTO}.
@@ -252,7 +262,7 @@ public class DataAggregator {
                 log.error("An unexpected error occurred while fetching campaign data for ID {}: {}", campaignId, e.getMessage(), e);
                 return null;
             }
-        });
+        }, taskExecutor);
     }
 }
 
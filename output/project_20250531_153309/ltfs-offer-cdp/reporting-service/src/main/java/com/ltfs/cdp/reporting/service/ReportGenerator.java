@@ -16,11 +16,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +46,7 @@ public class ReportGenerator {
     private final CustomerServiceClient customerServiceClient;
     private final OfferServiceClient offerServiceClient;
     private final CampaignServiceClient campaignServiceClient;
+    private final Executor taskExecutor;
 
     /**
      * Constructor for ReportGenerator, injecting necessary service clients.
@@ -49,20 +55,25 @@ public class ReportGenerator {
      * @param customerServiceClient Client for interacting with the Customer microservice.
      * @param offerServiceClient    Client for interacting with the Offer microservice.
      * @param campaignServiceClient Client for interacting with the Campaign microservice.
+     * @param taskExecutor          The application task executor independent client calls run on concurrently:
+     *                              a thread pool by default, or a new virtual thread per call with the
+     *                              'virtual-threads' profile.
      */
     @Autowired
     public ReportGenerator(CustomerServiceClient customerServiceClient,
                            OfferServiceClient offerServiceClient,
-                           CampaignServiceClient campaignServiceClient) {
+                           CampaignServiceClient campaignServiceClient,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
         this.customerServiceClient = customerServiceClient;
         this.offerServiceClient = offerServiceClient;
         this.campaignServiceClient = campaignServiceClient;
+        this.taskExecutor = taskExecutor;
     }
 
     /**
      * Generates a daily data tally report for a specified date.
      * This report includes counts of new customers, offers, and campaigns created/processed on that day.
-     * It queries each respective microservice client for the counts.
+     * It queries the three microservice clients for the counts concurrently.
      *
      * @param date The date for which the report is to be generated.
      * @return A {@link DailyDataTallyReportDTO} containing the counts for the specified date.
@@ -73,16 +84,20 @@ public class ReportGenerator {
         log.info("Attempting to generate daily data tally report for date: {}", date);
         try {
             // Fetch counts from respective services. These calls would typically be
-            // synchronous REST calls to other microservices (e.g., using Spring's WebClient or RestTemplate).
-            long newCustomersCount = customerServiceClient.countCustomersCreatedOn(date);
-            long newOffersCount = offerServiceClient.countOffersCreatedOn(date);
-            long newCampaignsCount = campaignServiceClient.countCampaignsCreatedOn(date);
+            // synchronous REST calls to other microservices (e.g., using Spring's WebClient or RestTemplate),
+            // so they run concurrently and the report waits for the slowest rather than for all three in turn.
+            CompletableFuture<Long> newCustomersCount = CompletableFuture.supplyAsync(
+                () -> customerServiceClient.countCustomersCreatedOn(date), taskExecutor);
+            CompletableFuture<Long> newOffersCount = CompletableFuture.supplyAsync(
+                () -> offerServiceClient.countOffersCreatedOn(date), taskExecutor);
+            CompletableFuture<Long> newCampaignsCount = CompletableFuture.supplyAsync(
+                () -> campaignServiceClient.countCampaignsCreatedOn(date), taskExecutor);
 
             DailyDataTallyReportDTO report = new DailyDataTallyReportDTO(
                 date,
-                newCustomersCount,
-                newOffersCount,
-                newCampaignsCount
+                await(newCustomersCount),
+                await(newOffersCount),
+                await(newCampaignsCount)
             );
             log.info("Successfully generated daily data tally report for date {}: {}", date, report);
             return report;
@@ -120,16 +135,22 @@ public class ReportGenerator {
 
             Customer customer = customerOptional.get();
 
+            // 2. and 3. are independent of each other, so the two calls run concurrently.
+            CompletableFuture<List<Offer>> offersFuture = CompletableFuture.supplyAsync(
+                () -> offerServiceClient.getOffersByCustomerId(customerId), taskExecutor);
+            CompletableFuture<List<Campaign>> campaignsFuture = CompletableFuture.supplyAsync(
+                () -> campaignServiceClient.getCampaignsByCustomerId(customerId), taskExecutor);
+
             // 2. Fetch offers associated with the customer from the Offer microservice.
             // If no offers are found, an empty list is returned, which is handled gracefully.
-            List<Offer> offers = offerServiceClient.getOffersByCustomerId(customerId);
+            List<Offer> offers = await(offersFuture);
             List<OfferSummaryDTO> offerSummaries = offers.stream()
                 .map(this::mapToOfferSummaryDTO) // Map Offer entities to simplified DTOs
                 .collect(Collectors.toList());
 
             // 3. Fetch campaigns associated with the customer from the Campaign microservice.
             // This assumes the Campaign service has a direct way to link campaigns to customers.
-            List<Campaign> campaigns = campaignServiceClient.getCampaignsByCustomerId(customerId);
+            List<Campaign> campaigns = await(campaignsFuture);
             List<CampaignSummaryDTO> campaignSummaries = campaigns.stream()
                 .map(this::mapToCampaignSummaryDTO) // Map Campaign entities to simplified DTOs
                 .collect(Collectors.toList());
@@ -154,6 +175,22 @@ public class ReportGenerator {
         }
     }
 
+    /**
+     * Waits for a client call started on the task executor, rethrowing the exception of a failed call
+     * as the client threw it rather than wrapped in a {@link CompletionException}.
+     *
+     * @param future The pending client call.
+     * @param <T>    The type of the call's result.
+     * @return The result of the call.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
     /**
      * Helper method to map an {@link Offer} entity (received from Offer microservice)
      * to an {@link OfferSummaryDTO} for reporting purposes.
@@ -0,0 +1,117 @@
+#!/bin/bash
+
+# loadtest-virtual-threads.sh
+#
+# Compares the offer-service on platform threads (Java 17 build) with the virtual thread build
+# (Java 21, 'java21' Maven profile) under the same load, and prints throughput and latency
+# percentiles per concurrency level as a Markdown table.
+#
+# It assumes:
+# 1. 'hey' (https://github.com/rakyll/hey) is installed.
+# 2. Both builds are running against the same database, e.g. from services/offer-service:
+#      mvn spring-boot:run                                                   (platform, port 8081)
+#      mvn -Pjava21 spring-boot:run -Dspring-boot.run.arguments=--server.port=8082   (virtual, Java 21)
+#    or the two Docker images built as described in services/offer-service/Dockerfile.
+# 3. The customer in CUSTOMER_ID has offers, so every request reads from the database.
+#
+# Run the two builds on identical hardware and limits, and one at a time under load: the builds
+# share the database, whose connection pools (10 connections each) bound throughput for both.
+# The difference to look for is beyond 200 concurrent requests, where the platform build queues
+# requests for Tomcat's 200 worker threads and the virtual thread build does not.
+#
+# The integration and reporting services have the same 'java21' profile; point PLATFORM_URL,
+# VIRTUAL_URL and REQUEST_PATH at one of them to compare its two builds instead.
+#
+# Results depend on the hardware, the database and the downstream services of the environment the
+# script is run in. Record each run's summary table, with that environment, in
+# docs/loadtest-virtual-threads.md.
+#
+# Configuration (environment variables):
+#   PLATFORM_URL   Base URL of the platform thread build  (default http://localhost:8081)
+#   VIRTUAL_URL    Base URL of the virtual thread build   (default http://localhost:8082)
+#   CUSTOMER_ID    Customer whose offers are requested    (default CUST-LOADTEST-1)
+#   REQUEST_PATH   Path requested on both builds          (default /api/v1/offers/customer/$CUSTOMER_ID)
+#   CONCURRENCY    Concurrent clients per run             (default "50 200 800 2000")
+#   DURATION       Duration of each run                   (default 60s)
+#   WARMUP         Warm-up run per build, not reported    (default 20s)
+#   RESULTS_DIR    Where the raw 'hey' reports are kept   (default ./loadtest-results/<timestamp>)
+
+# Exit immediately if a command exits with a non-zero status.
+set -e
+
+# --- Configuration ---
+
+PLATFORM_URL="${PLATFORM_URL:-http://localhost:8081}"
+VIRTUAL_URL="${VIRTUAL_URL:-http://localhost:8082}"
+CUSTOMER_ID="${CUSTOMER_ID:-CUST-LOADTEST-1}"
+CONCURRENCY="${CONCURRENCY:-50 200 800 2000}"
+DURATION="${DURATION:-60s}"
+WARMUP="${WARMUP:-20s}"
+RESULTS_DIR="${RESULTS_DIR:-./loadtest-results/$(date +%Y%m%d-%H%M%S)}"
+
+REQUEST_PATH="${REQUEST_PATH:-/api/v1/offers/customer/${CUSTOMER_ID}}"
+
+# --- Functions ---
+
+check_prerequisites() {
+    if ! command -v hey &> /dev/null; then
+        echo "Error: 'hey' is not installed. Install it with 'go install github.com/rakyll/hey@latest'."
+        exit 1
+    fi
+    for url in "$PLATFORM_URL" "$VIRTUAL_URL"; do
+        if ! curl -sf -o /dev/null "${url}${REQUEST_PATH}"; then
+            echo "Error: ${url}${REQUEST_PATH} is not reachable or does not return 2xx."
+            exit 1
+        fi
+    done
+}
+
+# Runs one load test and keeps the raw report.
+# Arguments: build name, base URL, concurrency.
+run_load() {
+    local build="$1" url="$2" clients="$3"
+    local report="${RESULTS_DIR}/${build}-c${clients}.txt"
+    echo "Running ${build} build with ${clients} concurrent clients for ${DURATION}..." >&2
+    hey -z "$DURATION" -c "$clients" "${url}${REQUEST_PATH}" > "$report"
+    echo "$report"
+}
+
+# Prints one Markdown table row from a 'hey' report.
+# Arguments: build name, concurrency, report file.
+summarize() {
+    local build="$1" clients="$2" report="$3"
+    awk -v build="$build" -v clients="$clients" '
+        /Requests\/sec:/          { rps = $2 }
+        # hey prints its percentiles as "  50%% in 0.0123 secs"; accept one or two percent signs.
+        /^  50%+ in/              { p50 = $3 * 1000 }
+        /^  95%+ in/              { p95 = $3 * 1000 }
+        /^  99%+ in/              { p99 = $3 * 1000 }
+        /^  \[[0-9]+\]/ && !errors_section { code = substr($1, 2, 3); if (code !~ /^2/) failed += $2; total += $2 }
+        /^Error distribution:/    { errors_section = 1 }
+        errors_section && /^  \[[0-9]+\]/ { gsub(/[\[\]]/, "", $1); failed += $1; total += $1 }
+        END {
+            printf "| %-8s | %6d | %10.1f | %8.1f | %8.1f | %8.1f | %6.2f%% |\n",
+                build, clients, rps, p50, p95, p99, (total > 0 ? 100 * failed / total : 0)
+        }' "$report"
+}
+
+# --- Main ---
+
+check_prerequisites
+mkdir -p "$RESULTS_DIR"
+
+echo "Warming up both builds for ${WARMUP}..." >&2
+hey -z "$WARMUP" -c 50 "${PLATFORM_URL}${REQUEST_PATH}" > /dev/null
+hey -z "$WARMUP" -c 50 "${VIRTUAL_URL}${REQUEST_PATH}" > /dev/null
+
+{
+    echo "| Build    | Conc.  | Req/s      | p50 (ms) | p95 (ms) | p99 (ms) | Errors  |"
+    echo "|----------|--------|------------|----------|----------|----------|---------|"
+    for clients in $CONCURRENCY; do
+        summarize platform "$clients" "$(run_load platform "$PLATFORM_URL" "$clients")"
+        summarize virtual "$clients" "$(run_load virtual "$VIRTUAL_URL" "$clients")"
+    done
+} | tee "${RESULTS_DIR}/summary.md"
+
+echo "" >&2
+echo "Raw reports and summary.md are in ${RESULTS_DIR}." >&2
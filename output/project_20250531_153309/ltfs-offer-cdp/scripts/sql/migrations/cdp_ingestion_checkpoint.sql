@@ -0,0 +1,33 @@
+--
+-- cdp_ingestion_checkpoint.sql
+--
+-- Creates the cdp_ingestion_checkpoint table the IngestionCheckpointEntity of integration-service
+-- maps: the progress of each streaming Offermart ingestion job, saved in the transaction of every
+-- committed chunk so that a failed or restarted job resumes after the last committed record.
+-- Column names follow Spring Boot's default physical naming (camelCase to snake_case).
+--
+-- Run once against every existing database BEFORE deploying the integration-service version that
+-- checkpoints ingestion jobs; with spring.jpa.hibernate.ddl-auto=validate, that version does not
+-- start without the table, and the application does not change the schema itself.
+--
+--   psql -h "$DB_HOST" -U "$DB_USER" -d "$DB_NAME" -v ON_ERROR_STOP=1 \
+--        -f scripts/sql/migrations/cdp_ingestion_checkpoint.sql
+--
+-- The script is idempotent: running it again leaves the table as it is.
+--
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS cdp_ingestion_checkpoint (
+    -- Identifies the load, e.g. the name of the Offermart file.
+    job_id             VARCHAR(255) PRIMARY KEY,
+    -- Records committed, valid or not; the streams resume after them.
+    customers_read     BIGINT       NOT NULL DEFAULT 0,
+    customers_ingested BIGINT       NOT NULL DEFAULT 0,
+    offers_read        BIGINT       NOT NULL DEFAULT 0,
+    offers_ingested    BIGINT       NOT NULL DEFAULT 0,
+    completed          BOOLEAN      NOT NULL DEFAULT FALSE,
+    updated_at         TIMESTAMP(6)
+);
+
+COMMIT;
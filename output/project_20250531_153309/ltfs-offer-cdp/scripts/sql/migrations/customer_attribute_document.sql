@@ -0,0 +1,32 @@
+--
+-- customer_attribute_document.sql
+--
+-- Creates the customer_attribute_document table the CustomerAttributeDocument entity maps: one JSONB
+-- document of attribute values, and one of their lineage, per customer. The documents are filled from
+-- customer_attribute by POST /api/v1/customers/attributes/migration (CustomerAttributeMigrator), after
+-- which app.customer.attributes.storage-mode can be switched to JSONB.
+--
+-- Run once against every existing database BEFORE deploying the customer-service version that has
+-- the entity; with spring.jpa.hibernate.ddl-auto=validate, that version does not start without the
+-- table, whatever the storage mode, and the application does not change the schema itself.
+--
+--   psql -h "$DB_HOST" -U "$DB_USER" -d "$DB_NAME" -v ON_ERROR_STOP=1 \
+--        -f scripts/sql/migrations/customer_attribute_document.sql
+--
+-- The GIN indexes of the hot attributes (app.customer.attributes.indexed-keys) are not created here:
+-- CustomerAttributeIndexManager creates them CONCURRENTLY once the application is ready.
+--
+-- The script is idempotent: running it again leaves the table as it is.
+--
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS customer_attribute_document (
+    customer_id       BIGINT       PRIMARY KEY REFERENCES customers (id) ON DELETE CASCADE,
+    attributes        JSONB        NOT NULL DEFAULT '{}',
+    metadata          JSONB        NOT NULL DEFAULT '{}',
+    version           BIGINT       NOT NULL DEFAULT 0,
+    last_updated_date TIMESTAMP(6) NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,54 @@
+--
+-- customers_id_seq_increment_by_50.sql
+--
+-- Moves customers.id from a database-generated IDENTITY/SERIAL column to the pooled
+-- customers_id_seq sequence the Customer entity now allocates ids from, 50 at a time
+-- (@SequenceGenerator(allocationSize = 50) in customer-service).
+--
+-- Run once against every existing database BEFORE deploying the customer-service version
+-- that uses the pooled sequence; with an increment of 1, that version would hand out ids
+-- already taken by other instances. With spring.jpa.hibernate.ddl-auto=validate, the schema
+-- is not changed by the application itself.
+--
+--   psql -h "$DB_HOST" -U "$DB_USER" -d "$DB_NAME" -v ON_ERROR_STOP=1 \
+--        -f scripts/sql/migrations/customers_id_seq_increment_by_50.sql
+--
+-- The script is idempotent: running it again leaves the sequence as it is.
+--
+
+BEGIN;
+
+DO $$
+DECLARE
+    sequence_name text;
+    last_id bigint;
+BEGIN
+    -- An IDENTITY column owns its sequence: raise its increment, and let Hibernate supply the id.
+    IF EXISTS (SELECT 1
+                 FROM information_schema.columns
+                WHERE table_schema = current_schema()
+                  AND table_name = 'customers'
+                  AND column_name = 'id'
+                  AND is_identity = 'YES') THEN
+        ALTER TABLE customers ALTER COLUMN id SET GENERATED BY DEFAULT;
+        ALTER TABLE customers ALTER COLUMN id SET INCREMENT BY 50;
+    ELSE
+        -- A SERIAL/BIGSERIAL column already uses customers_id_seq; a bare column gets it created.
+        CREATE SEQUENCE IF NOT EXISTS customers_id_seq OWNED BY customers.id;
+        ALTER SEQUENCE customers_id_seq INCREMENT BY 50;
+    END IF;
+
+    -- Hibernate's pooled optimizer treats each value of the sequence as the upper end of a block of 50 ids,
+    -- so the sequence must not be behind the ids already in use. It is never moved back either, as running
+    -- instances may still hold a block above the highest id.
+    sequence_name := pg_get_serial_sequence('customers', 'id');
+    IF sequence_name IS NULL OR sequence_name NOT LIKE '%customers_id_seq' THEN
+        RAISE EXCEPTION 'customers.id uses sequence %, but the Customer entity expects customers_id_seq', sequence_name;
+    END IF;
+    SELECT COALESCE(MAX(id), 0) INTO last_id FROM customers;
+    EXECUTE format('SELECT setval(%L, GREATEST(%s, (SELECT last_value FROM %s)), true)',
+                   sequence_name, last_id, sequence_name);
+END
+$$;
+
+COMMIT;
@@ -0,0 +1,57 @@
+--
+-- deduplication_log.sql
+--
+-- Creates the deduplication_log table the DeduplicationLog entity maps, including the
+-- uk_deduplication_log_event_id unique constraint: DeduplicationLogBatchRepositoryImpl inserts with
+-- ON CONFLICT (event_id) DO NOTHING so that batches replayed from the local spool are written once,
+-- and PostgreSQL rejects that statement unless event_id has a unique constraint or index.
+--
+-- Run once against every existing database BEFORE deploying the customer-service version that
+-- writes deduplication audit records; with spring.jpa.hibernate.ddl-auto=validate, that version
+-- does not start without the table, and the application does not change the schema itself.
+--
+--   psql -h "$DB_HOST" -U "$DB_USER" -d "$DB_NAME" -v ON_ERROR_STOP=1 \
+--        -f scripts/sql/migrations/deduplication_log.sql
+--
+-- The script is idempotent. A deduplication_log table created by an earlier version is kept: missing
+-- columns are added, and existing rows get a fresh event_id before the constraint is created.
+--
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS deduplication_log (
+    id                BIGSERIAL    PRIMARY KEY,
+    event_id          UUID         NOT NULL,
+    record_type       VARCHAR(20)  NOT NULL,
+    input_record_id   VARCHAR(100),
+    matched_record_id VARCHAR(100),
+    outcome           VARCHAR(20)  NOT NULL,
+    decided_at        TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_deduplication_log_event_id UNIQUE (event_id)
+);
+
+-- Only has an effect on a table created before this script: its rows predate the columns, so the
+-- columns other than event_id are left nullable rather than filled with made-up values.
+ALTER TABLE deduplication_log ADD COLUMN IF NOT EXISTS event_id UUID;
+ALTER TABLE deduplication_log ADD COLUMN IF NOT EXISTS record_type VARCHAR(20);
+ALTER TABLE deduplication_log ADD COLUMN IF NOT EXISTS input_record_id VARCHAR(100);
+ALTER TABLE deduplication_log ADD COLUMN IF NOT EXISTS matched_record_id VARCHAR(100);
+ALTER TABLE deduplication_log ADD COLUMN IF NOT EXISTS outcome VARCHAR(20);
+ALTER TABLE deduplication_log ADD COLUMN IF NOT EXISTS decided_at TIMESTAMP(6);
+
+DO $$
+BEGIN
+    -- gen_random_uuid() is built in from PostgreSQL 13.
+    UPDATE deduplication_log SET event_id = gen_random_uuid() WHERE event_id IS NULL;
+    ALTER TABLE deduplication_log ALTER COLUMN event_id SET NOT NULL;
+
+    IF NOT EXISTS (SELECT 1
+                     FROM pg_constraint
+                    WHERE conname = 'uk_deduplication_log_event_id'
+                      AND conrelid = 'deduplication_log'::regclass) THEN
+        ALTER TABLE deduplication_log ADD CONSTRAINT uk_deduplication_log_event_id UNIQUE (event_id);
+    END IF;
+END
+$$;
+
+COMMIT;
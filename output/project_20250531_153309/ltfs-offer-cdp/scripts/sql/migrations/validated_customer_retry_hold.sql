@@ -0,0 +1,32 @@
+--
+-- validated_customer_retry_hold.sql
+--
+-- Creates the validated_customer_retry_hold table of customer-service: one row per validated
+-- customer record that ValidatedCustomerBatchListener forwarded to the retry topic and that is not
+-- resolved yet. While a key has a row, later records of that key are sent down the retry path
+-- behind it instead of being applied from the validated customer topic, on every replica.
+--
+-- Run once against every existing database BEFORE enabling app.kafka.validated-customer-batch on a
+-- customer-service version that holds retried keys. The table has no JPA entity, so
+-- spring.jpa.hibernate.ddl-auto=validate does not check it; the listener fails on its first batch
+-- without it.
+--
+--   psql -h "$DB_HOST" -U "$DB_USER" -d "$DB_NAME" -v ON_ERROR_STOP=1 \
+--        -f scripts/sql/migrations/validated_customer_retry_hold.sql
+--
+-- The script is idempotent: running it again leaves the table as it is.
+--
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS validated_customer_retry_hold (
+    record_key       VARCHAR(255) NOT NULL,
+    -- Position of the record on the validated customer topic; the records of a key share a partition.
+    source_partition INTEGER      NOT NULL,
+    source_offset    BIGINT       NOT NULL,
+    held_at          TIMESTAMP(6) NOT NULL DEFAULT now(),
+    -- Also serves the lookups by key, and by key and earlier offset.
+    CONSTRAINT pk_validated_customer_retry_hold PRIMARY KEY (record_key, source_partition, source_offset)
+);
+
+COMMIT;
@@ -0,0 +1,129 @@
+package com.ltfs.cdp.customer.benchmark;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine;
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.ExecutionMode;
+import com.ltfs.cdp.customer.dedupe.ResidentLiveBookIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DeduplicationEngine#deduplicateCustomers(List)} against a resident live book index
+ * over synthetic live books of 10k, 1M and 10M customers.
+ *
+ * <ul>
+ *     <li>{@link #batchThroughput} reports records per second for batches of {@value #BATCH_SIZE},
+ *         sequentially and partitioned.</li>
+ *     <li>{@link #singleRecordLatency} samples the time to deduplicate one record; JMH reports
+ *         p50/p90/p99/p99.9 of the distribution.</li>
+ * </ul>
+ *
+ * <p>Run through {@link BenchmarkMain} so the GC profiler reports allocation per record
+ * ({@code gc.alloc.rate.norm}) and each {@code liveBookSize} is forked with a heap sized for it: 2 GB for
+ * 10k, 3 GB for 1M and 14 GB for 10M customers, whose live book alone retains about 12 GB. Pass
+ * {@code -jvmArgs "-Xms<n>g -Xmx<n>g"} to use one fixed heap for every size instead.</p>
+ */
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseG1GC")
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class DeduplicationEngineBenchmark {
+
+    static final int BATCH_SIZE = 10_000;
+    private static final int BATCH_COUNT = 8;
+    private static final int SINGLE_RECORD_COUNT = 100_000;
+
+    /**
+     * The live book and its resident index, shared by all benchmarks of one parameter combination.
+     */
+    @State(Scope.Benchmark)
+    public static class LiveBook {
+        @Param({"10000", "1000000", "10000000"})
+        int liveBookSize;
+
+        @Param({"0.01", "0.1", "0.3"})
+        double duplicateRate;
+
+        SyntheticLiveBook book;
+        ResidentLiveBookIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            book = new SyntheticLiveBook(liveBookSize, 42);
+            index = new ResidentLiveBookIndex(book, true, "", 0);
+            index.bootstrap();
+        }
+    }
+
+    /**
+     * Pre-generated batches, deduplicated round robin.
+     */
+    @State(Scope.Benchmark)
+    public static class Batches {
+        @Param({"SEQUENTIAL", "PARALLEL"})
+        ExecutionMode executionMode;
+
+        DeduplicationEngine engine;
+        List<List<Customer>> batches;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(LiveBook liveBook) {
+            engine = new DeduplicationEngine(liveBook.book, liveBook.index, executionMode, 0, 0);
+            batches = new ArrayList<>(BATCH_COUNT);
+            for (int i = 0; i < BATCH_COUNT; i++) {
+                batches.add(liveBook.book.batch(BATCH_SIZE, liveBook.duplicateRate,
+                        liveBook.liveBookSize + i * BATCH_SIZE, 1000 + i));
+            }
+        }
+    }
+
+    /**
+     * Pre-generated single records, deduplicated one at a time.
+     */
+    @State(Scope.Thread)
+    public static class SingleRecords {
+        DeduplicationEngine engine;
+        List<Customer> records;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(LiveBook liveBook) {
+            engine = new DeduplicationEngine(liveBook.book, liveBook.index, ExecutionMode.SEQUENTIAL, 0, 0);
+            records = liveBook.book.batch(SINGLE_RECORD_COUNT, liveBook.duplicateRate,
+                    liveBook.liveBookSize + BATCH_COUNT * BATCH_SIZE, 7);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Customer> batchThroughput(Batches state) {
+        List<Customer> batch = state.batches.get(state.next++ % BATCH_COUNT);
+        return state.engine.deduplicateCustomers(batch);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Customer> singleRecordLatency(SingleRecords state) {
+        Customer record = state.records.get(state.next++ % SINGLE_RECORD_COUNT);
+        return state.engine.deduplicateCustomers(Collections.singletonList(record));
+    }
+}
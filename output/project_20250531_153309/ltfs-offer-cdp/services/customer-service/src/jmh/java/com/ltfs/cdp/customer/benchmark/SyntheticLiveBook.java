@@ -0,0 +1,117 @@
+package com.ltfs.cdp.customer.benchmark;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.CustomerRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic live book for the deduplication benchmarks.
+ *
+ * <p>Customer {@code i} gets a PAN, Aadhaar and mobile number derived from {@code i}, so identifiers
+ * are unique across the live book and across fresh batch records (which use indexes past the live
+ * book). Names and dates of birth are drawn from fixed pools, so name + DOB collisions occur at
+ * realistic rates for large books.</p>
+ */
+final class SyntheticLiveBook implements CustomerRepository {
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh", "Ayaan", "Krishna", "Ishaan",
+            "Rahul", "Amit", "Suresh", "Ramesh", "Mohammed", "Imran", "Rajesh", "Sanjay", "Vijay", "Anil",
+            "Aadhya", "Ananya", "Diya", "Saanvi", "Pari", "Lakshmi", "Priya", "Kavya", "Meera", "Sunita",
+            "Pooja", "Neha", "Anjali", "Deepika", "Fatima", "Shalini", "Rekha", "Geeta", "Sarita", "Bhavna"};
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Verma", "Gupta", "Singh", "Kumar", "Patel", "Shah", "Mehta", "Iyer", "Nair",
+            "Reddy", "Rao", "Naidu", "Pillai", "Menon", "Das", "Bose", "Banerjee", "Chatterjee", "Mukherjee",
+            "Joshi", "Kulkarni", "Deshpande", "Patil", "Khan", "Qureshi", "Ansari", "Sheikh", "Yadav", "Mishra"};
+    private static final String[] SPELLING_VARIANTS = {"Laxmi", "Mohd", "Mohamed", "Priyaa", "Sunitha", "Kavya"};
+    private static final LocalDate EARLIEST_DOB = LocalDate.of(1955, 1, 1);
+    private static final int DOB_RANGE_DAYS = 45 * 365;
+    private static final String TOP_UP_LOAN = "TOP_UP_LOAN";
+    private static final String CONSUMER_LOAN = "CONSUMER_LOAN";
+
+    private final List<Customer> customers;
+
+    /**
+     * Generates a live book of {@code size} customers.
+     */
+    SyntheticLiveBook(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Customer> generated = new ArrayList<>(size);
+        Instant updatedAt = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < size; i++) {
+            Customer customer = customer(i, random);
+            customer.setCustomer360Id("C360-" + i);
+            customer.setUpdatedAt(updatedAt);
+            generated.add(customer);
+        }
+        this.customers = Collections.unmodifiableList(generated);
+    }
+
+    /**
+     * Generates an incoming batch. A fraction {@code duplicateRate} of its records are duplicates:
+     * half of them re-use the identity of a live book customer, half the identity of an earlier record
+     * of the same batch, some with a spelling variant of the first name. All others are fresh identities.
+     *
+     * @param batchSize     Number of records.
+     * @param duplicateRate Fraction of duplicate records, between 0 and 1.
+     * @param firstFreshIndex Identity index of the first fresh record; must be past the live book.
+     */
+    List<Customer> batch(int batchSize, double duplicateRate, int firstFreshIndex, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Customer> batch = new ArrayList<>(batchSize);
+        int freshIndex = firstFreshIndex;
+        for (int i = 0; i < batchSize; i++) {
+            Customer record;
+            if (random.nextDouble() < duplicateRate && (!customers.isEmpty() || !batch.isEmpty())) {
+                boolean ofLiveBook = batch.isEmpty() || (!customers.isEmpty() && random.nextBoolean());
+                Customer original = ofLiveBook
+                        ? customers.get(random.nextInt(customers.size()))
+                        : batch.get(random.nextInt(batch.size()));
+                record = new Customer(original.getPan(), original.getAadhaar(), original.getMobileNumber(),
+                        random.nextInt(4) == 0 ? SPELLING_VARIANTS[random.nextInt(SPELLING_VARIANTS.length)] : original.getFirstName(),
+                        original.getLastName(), original.getDateOfBirth(), original.getProductType());
+            } else {
+                record = customer(freshIndex++, random);
+            }
+            batch.add(record);
+        }
+        return batch;
+    }
+
+    private static Customer customer(int index, SplittableRandom random) {
+        return new Customer(SyntheticIdentities.pan(index), SyntheticIdentities.aadhaar(index), SyntheticIdentities.mobile(index),
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                EARLIEST_DOB.plusDays(random.nextInt(DOB_RANGE_DAYS)),
+                random.nextInt(10) == 0 ? TOP_UP_LOAN : CONSUMER_LOAN);
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return customers;
+    }
+
+    @Override
+    public Optional<Customer> findById(String id) {
+        UUID uuid = UUID.fromString(id);
+        return customers.stream().filter(c -> c.getId().equals(uuid)).findFirst();
+    }
+
+    @Override
+    public List<Customer> findByUpdatedAtAfter(Instant watermark) {
+        List<Customer> changed = new ArrayList<>();
+        for (Customer customer : customers) {
+            if (customer.getUpdatedAt() == null || customer.getUpdatedAt().isAfter(watermark)) {
+                changed.add(customer);
+            }
+        }
+        return changed;
+    }
+}
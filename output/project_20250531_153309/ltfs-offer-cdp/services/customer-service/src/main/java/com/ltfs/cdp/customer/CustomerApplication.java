@@ -3,6 +3,7 @@ package com.ltfs.cdp.customer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for the Customer Service.
@@ -19,9 +20,13 @@ import org.springframework.context.annotation.ComponentScan;
  *         repositories, and other components.</li>
  * </ul>
  * </p>
+ *
+ * <p>{@code @EnableScheduling} enables periodic maintenance tasks, such as the consistency check of the
+ * resident live book deduplication index.</p>
  */
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.ltfs.cdp.customer"}) // Explicitly define base package for component scanning
+@EnableScheduling
 public class CustomerApplication {
 
     /**
@@ -1,16 +1,21 @@
 package com.ltfs.cdp.customer.controller;
 
+import com.ltfs.cdp.customer.dto.CursorPage;
+import com.ltfs.cdp.customer.dto.PaginationRequest;
 import com.ltfs.cdp.customer.dto.CustomerDTO;
 import com.ltfs.cdp.customer.exception.ResourceNotFoundException;
+import com.ltfs.cdp.customer.segmentation.SegmentMembershipIndex;
+import com.ltfs.cdp.customer.service.CustomerExportService;
 import com.ltfs.cdp.customer.service.CustomerService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.util.List;
 
 /**
  * REST Controller for managing customer profiles and triggering deduplication processes.
@@ -23,15 +28,24 @@ import java.util.List;
 @RequestMapping("/api/v1/customers") // Base path for customer-related API endpoints
 public class CustomerController {
 
+    static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     private final CustomerService customerService;
+    private final CustomerExportService customerExportService;
+    private final SegmentMembershipIndex segmentMembershipIndex;
 
     /**
      * Constructs a new CustomerController with the given CustomerService.
      * Spring's dependency injection automatically provides the CustomerService instance.
      * @param customerService The service layer component responsible for customer business logic.
+     * @param customerExportService The service streaming the full customer export.
+     * @param segmentMembershipIndex The index answering segment queries.
      */
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerExportService customerExportService,
+                              SegmentMembershipIndex segmentMembershipIndex) {
         this.customerService = customerService;
+        this.customerExportService = customerExportService;
+        this.segmentMembershipIndex = segmentMembershipIndex;
     }
 
     /**
@@ -64,18 +78,70 @@ public class CustomerController {
     }
 
     /**
-     * Retrieves a list of all customer profiles.
+     * Retrieves one page of customer profiles, using keyset pagination.
      * <p>
-     * Note: For production systems with large datasets, this endpoint should typically
-     * implement pagination (e.g., using Pageable) to avoid performance issues.
+     * The first page is requested without a cursor; each following page with the {@code nextCursor}
+     * of the previous one, until {@code hasMore} is false. {@code sortBy} is {@code id} (default) or
+     * {@code updatedAt}; pages are always in ascending order and hold at most 1000 customers.
+     * To read every customer, prefer {@link #exportCustomers()}.
      * </p>
-     * @return A {@link ResponseEntity} containing a {@link List} of {@link CustomerDTO}s
+     * @param paginationRequest The page size, sort and cursor, bound from the query parameters.
+     * @return A {@link ResponseEntity} containing a {@link CursorPage} of {@link CustomerDTO}s
      *         and an HTTP status of 200 (OK).
      */
     @GetMapping
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
-        List<CustomerDTO> customers = customerService.getAllCustomers();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<CursorPage<CustomerDTO>> getCustomers(@Valid PaginationRequest paginationRequest) {
+        CursorPage<CustomerDTO> page = customerService.getCustomersPage(paginationRequest);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Exports all customer profiles as newline-delimited JSON, one customer per line in id order.
+     * <p>
+     * The response is streamed while the customers are read from the database, so it starts
+     * immediately and its size is not limited by the memory of the service.
+     * </p>
+     * @return A {@link ResponseEntity} streaming the customers, with an HTTP status of 200 (OK).
+     */
+    @GetMapping(value = "/export", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        StreamingResponseBody body = customerExportService::exportCustomers;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE)).body(body);
+    }
+
+    /**
+     * Finds the customers matching a boolean query over segments, e.g.
+     * {@code Loyal Customer AND Active Loan Holder AND NOT Senior Citizen}.
+     * <p>
+     * The query is answered from the in-memory segment membership index. Pages are walked by
+     * passing {@code nextCursor} back as {@code cursor}.
+     * </p>
+     * @param query The segment query; AND, OR and NOT in upper case, parentheses allowed.
+     * @param cursor The cursor of the page to read, or absent for the first page.
+     * @param size The maximum number of customer IDs to return, at most 1000.
+     * @return A {@link ResponseEntity} containing a {@link CursorPage} of customer IDs
+     *         and an HTTP status of 200 (OK), or 400 (Bad Request) if the query is malformed.
+     */
+    @GetMapping("/segments")
+    public ResponseEntity<CursorPage<String>> findCustomersBySegments(@RequestParam String query,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "100") int size) {
+        if (size > 1000) {
+            throw new IllegalArgumentException("Page size must not exceed 1000.");
+        }
+        return ResponseEntity.ok(segmentMembershipIndex.query(query, cursor, size));
+    }
+
+    /**
+     * Counts the customers matching a boolean query over segments.
+     *
+     * @param query The segment query, as for {@link #findCustomersBySegments(String, String, int)}.
+     * @return A {@link ResponseEntity} containing the number of matching customers
+     *         and an HTTP status of 200 (OK), or 400 (Bad Request) if the query is malformed.
+     */
+    @GetMapping("/segments/count")
+    public ResponseEntity<Long> countCustomersBySegments(@RequestParam String query) {
+        return ResponseEntity.ok(segmentMembershipIndex.count(query));
     }
 
     /**
@@ -140,6 +206,19 @@ public class CustomerController {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Exception handler for {@link IllegalArgumentException}, e.g. a malformed pagination cursor
+     * or an unsupported sort, mapped to an HTTP 400 (Bad Request) status.
+     *
+     * @param ex The caught {@link IllegalArgumentException}.
+     * @return A {@link ResponseEntity} containing the exception message and HTTP status 400.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Exception handler for {@link MethodArgumentNotValidException}.
      * This method catches validation exceptions that occur when request body arguments
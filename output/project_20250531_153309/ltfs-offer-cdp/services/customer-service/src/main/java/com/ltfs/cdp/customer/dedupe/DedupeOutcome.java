@@ -0,0 +1,71 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The deduplication decision for every record of a batch, computed before any status is set so
+ * that the sequential and the partitioned execution of {@link DeduplicationEngine} can be compared.
+ *
+ * <p>For each batch position, either {@link #liveBookMatch(int)} is the matching live book customer
+ * (status {@code DUPLICATE_OF_EXISTING}), or {@link #survivor(int)} is the position of the record's
+ * in-batch cluster survivor: the record itself ({@code NEW}) or an earlier one ({@code DUPLICATE_IN_BATCH}).</p>
+ */
+final class DedupeOutcome {
+
+    static final int NO_SURVIVOR = -1;
+
+    private final Customer[] liveBookMatches;
+    private final int[] survivors;
+
+    /**
+     * @param liveBookMatches Per position, the matching live book customer or {@code null}.
+     * @param survivors       Per position, the survivor's position, or {@link #NO_SURVIVOR} for live book matches.
+     */
+    DedupeOutcome(Customer[] liveBookMatches, int[] survivors) {
+        this.liveBookMatches = liveBookMatches;
+        this.survivors = survivors;
+    }
+
+    int size() {
+        return survivors.length;
+    }
+
+    Customer liveBookMatch(int position) {
+        return liveBookMatches[position];
+    }
+
+    int survivor(int position) {
+        return survivors[position];
+    }
+
+    /**
+     * Lists the positions whose decision differs from {@code other}'s. Live book matches are compared by
+     * customer ID, since both executions may hold different copies of the same live book customer.
+     *
+     * @param other The outcome of another execution over the same batch.
+     * @param limit The maximum number of differences to describe.
+     * @return Human-readable differences, empty if both outcomes agree.
+     */
+    List<String> differencesFrom(DedupeOutcome other, int limit) {
+        List<String> differences = new ArrayList<>();
+        if (size() != other.size()) {
+            differences.add("batch sizes differ: " + size() + " vs " + other.size());
+            return differences;
+        }
+        for (int position = 0; position < size() && differences.size() < limit; position++) {
+            Customer match = liveBookMatches[position];
+            Customer otherMatch = other.liveBookMatches[position];
+            boolean sameMatch = match == null ? otherMatch == null
+                    : otherMatch != null && match.getId().equals(otherMatch.getId());
+            if (!sameMatch || survivors[position] != other.survivors[position]) {
+                differences.add("position " + position + ": live book match "
+                        + (match != null ? match.getId() : null) + " vs " + (otherMatch != null ? otherMatch.getId() : null)
+                        + ", survivor " + survivors[position] + " vs " + other.survivors[position]);
+            }
+        }
+        return differences;
+    }
+}
@@ -0,0 +1,276 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * {@code DedupeRuleChain} executes the registered {@link DedupeRule} beans as a single
+ * short-circuiting pipeline: rules are evaluated in order and the first rule that matches decides.
+ *
+ * <p>The chain is compiled into a plain array, ordered by descending {@link DedupeRule#getPriority()}.
+ * Rules of equal priority are interchangeable as far as the match decision is concerned, so within
+ * such a group the chain is periodically reordered by observed cost per hit (mean evaluation time
+ * divided by hit ratio): cheap rules that match often run first, so the group's expected cost is
+ * minimal. Rules with fewer than {@code minSamples} evaluations keep their registration order at the
+ * front of their group, so that newly added rules are measured before they are ranked.</p>
+ *
+ * <p>Per-rule evaluation counts, hits and nanosecond timings are recorded with {@link LongAdder}s
+ * and exposed through {@link #getStatistics()}. On every recompilation, rules whose mean evaluation
+ * time exceeds {@code slowRuleThresholdNanos} are logged as warnings, so that adding an expensive rule
+ * does not slow deduplication down silently.</p>
+ *
+ * <p>Instances are thread-safe. Note that a rule's hit ratio is conditional on the rules before it
+ * having missed; reordering therefore converges on a good order rather than computing an optimal one.</p>
+ */
+@Component
+public class DedupeRuleChain {
+
+    private static final Logger log = LoggerFactory.getLogger(DedupeRuleChain.class);
+
+    private final List<RuleSlot> slots;
+    private final long reorderInterval;
+    private final long minSamples;
+    private final long slowRuleThresholdNanos;
+    private final AtomicLong chainEvaluations = new AtomicLong();
+
+    private volatile RuleSlot[] chain;
+
+    /**
+     * Constructs the chain from every {@link DedupeRule} bean in the application context.
+     *
+     * @param rules                  The registered rules.
+     * @param reorderInterval        Number of chain evaluations between two recompilations.
+     * @param minSamples             Evaluations a rule needs before it is ranked by selectivity.
+     * @param slowRuleThresholdNanos Mean evaluation time above which a rule is reported as slow.
+     */
+    @Autowired
+    public DedupeRuleChain(ObjectProvider<DedupeRule> rules,
+                           @Value("${application.deduplication.rule-chain.reorder-interval:10000}") long reorderInterval,
+                           @Value("${application.deduplication.rule-chain.min-samples:1000}") long minSamples,
+                           @Value("${application.deduplication.rule-chain.slow-rule-threshold-nanos:50000}") long slowRuleThresholdNanos) {
+        this(rules.orderedStream().collect(Collectors.toList()), reorderInterval, minSamples, slowRuleThresholdNanos);
+    }
+
+    /**
+     * Constructs the chain from an explicit list of rules.
+     *
+     * @param rules                  The rules, in registration order.
+     * @param reorderInterval        Number of chain evaluations between two recompilations; must be positive.
+     * @param minSamples             Evaluations a rule needs before it is ranked by selectivity.
+     * @param slowRuleThresholdNanos Mean evaluation time above which a rule is reported as slow.
+     */
+    public DedupeRuleChain(List<DedupeRule> rules, long reorderInterval, long minSamples, long slowRuleThresholdNanos) {
+        if (reorderInterval <= 0) {
+            throw new IllegalArgumentException("Reorder interval must be positive, got " + reorderInterval);
+        }
+        List<RuleSlot> registered = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            registered.add(new RuleSlot(rules.get(i), i));
+        }
+        this.slots = Collections.unmodifiableList(registered);
+        this.reorderInterval = reorderInterval;
+        this.minSamples = minSamples;
+        this.slowRuleThresholdNanos = slowRuleThresholdNanos;
+        this.chain = compile();
+        log.info("Compiled dedupe rule chain: {}", describe(chain));
+    }
+
+    /**
+     * Evaluates the chain for two customer profiles, stopping at the first rule that matches.
+     *
+     * @param customer1 The first customer profile.
+     * @param customer2 The second customer profile.
+     * @return The rule that matched, or an empty {@link Optional} if no rule matched.
+     */
+    public Optional<DedupeRule> findMatchingRule(Customer customer1, Customer customer2) {
+        if (chainEvaluations.incrementAndGet() % reorderInterval == 0) {
+            recompile();
+        }
+        for (RuleSlot slot : chain) {
+            long startedAt = System.nanoTime();
+            boolean matched = slot.rule.apply(customer1, customer2);
+            slot.record(System.nanoTime() - startedAt, matched);
+            if (matched) {
+                return Optional.of(slot.rule);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return {@code true} if any rule considers the two customer profiles a match.
+     */
+    public boolean matches(Customer customer1, Customer customer2) {
+        return findMatchingRule(customer1, customer2).isPresent();
+    }
+
+    /**
+     * Reorders the chain from the statistics gathered so far and reports slow rules.
+     * Called automatically every {@code reorderInterval} evaluations.
+     */
+    public void recompile() {
+        RuleSlot[] previous = chain;
+        RuleSlot[] compiled = compile();
+        chain = compiled;
+        if (!Arrays.equals(previous, compiled)) {
+            log.info("Reordered dedupe rule chain: {}", describe(compiled));
+        }
+        for (RuleSlot slot : compiled) {
+            long evaluations = slot.evaluations.sum();
+            if (evaluations >= minSamples && slot.meanNanos() > slowRuleThresholdNanos) {
+                log.warn("Dedupe rule {} averages {} ns per evaluation over {} evaluations (threshold {} ns).",
+                        slot.rule.getRuleName(), Math.round(slot.meanNanos()), evaluations, slowRuleThresholdNanos);
+            }
+        }
+    }
+
+    /**
+     * @return A snapshot of the per-rule statistics, in current chain order.
+     */
+    public List<RuleStatistics> getStatistics() {
+        RuleSlot[] current = chain;
+        List<RuleStatistics> statistics = new ArrayList<>(current.length);
+        for (int position = 0; position < current.length; position++) {
+            RuleSlot slot = current[position];
+            statistics.add(new RuleStatistics(slot.rule.getRuleName(), slot.rule.getPriority(), position,
+                    slot.evaluations.sum(), slot.hits.sum(), slot.nanos.sum()));
+        }
+        return statistics;
+    }
+
+    private RuleSlot[] compile() {
+        // Costs are read once so the comparator sees a consistent view of the concurrently updated counters.
+        List<RankedSlot> ranked = new ArrayList<>(slots.size());
+        for (RuleSlot slot : slots) {
+            ranked.add(new RankedSlot(slot, slot.evaluations.sum() >= minSamples ? slot.costPerHit() : -1.0));
+        }
+        ranked.sort(Comparator
+                .comparingInt((RankedSlot r) -> -r.slot.rule.getPriority())
+                .thenComparing(r -> r.costPerHit >= 0)
+                .thenComparingDouble(r -> r.costPerHit >= 0 ? r.costPerHit : 0.0)
+                .thenComparingInt(r -> r.slot.registrationOrder));
+
+        RuleSlot[] compiled = new RuleSlot[ranked.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = ranked.get(i).slot;
+        }
+        return compiled;
+    }
+
+    private static String describe(RuleSlot[] compiled) {
+        return Arrays.stream(compiled)
+                .map(slot -> slot.rule.getRuleName() + "(" + slot.rule.getPriority() + ")")
+                .collect(Collectors.joining(" -> ", "[", "]"));
+    }
+
+    /**
+     * A rule together with its counters.
+     */
+    private static final class RuleSlot {
+        private final DedupeRule rule;
+        private final int registrationOrder;
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        RuleSlot(DedupeRule rule, int registrationOrder) {
+            this.rule = rule;
+            this.registrationOrder = registrationOrder;
+        }
+
+        void record(long elapsedNanos, boolean matched) {
+            evaluations.increment();
+            nanos.add(elapsedNanos);
+            if (matched) {
+                hits.increment();
+            }
+        }
+
+        double meanNanos() {
+            long count = evaluations.sum();
+            return count == 0 ? 0.0 : (double) nanos.sum() / count;
+        }
+
+        /**
+         * Expected time spent in this rule per match it produces; a rule that never matches costs
+         * its mean time once per evaluation, i.e. as if it hit once in all its evaluations.
+         */
+        double costPerHit() {
+            long count = evaluations.sum();
+            return count == 0 ? 0.0 : (double) nanos.sum() / Math.max(1, hits.sum());
+        }
+    }
+
+    private static final class RankedSlot {
+        private final RuleSlot slot;
+        private final double costPerHit;
+
+        RankedSlot(RuleSlot slot, double costPerHit) {
+            this.slot = slot;
+            this.costPerHit = costPerHit;
+        }
+    }
+
+    /**
+     * Immutable snapshot of one rule's position and counters in the chain.
+     */
+    public static final class RuleStatistics {
+        private final String ruleName;
+        private final int priority;
+        private final int position;
+        private final long evaluations;
+        private final long hits;
+        private final long totalNanos;
+
+        RuleStatistics(String ruleName, int priority, int position, long evaluations, long hits, long totalNanos) {
+            this.ruleName = ruleName;
+            this.priority = priority;
+            this.position = position;
+            this.evaluations = evaluations;
+            this.hits = hits;
+            this.totalNanos = totalNanos;
+        }
+
+        public String getRuleName() { return ruleName; }
+        public int getPriority() { return priority; }
+        public int getPosition() { return position; }
+        public long getEvaluations() { return evaluations; }
+        public long getHits() { return hits; }
+        public long getTotalNanos() { return totalNanos; }
+
+        /**
+         * @return Hits over evaluations, or 0 if the rule has not been evaluated.
+         */
+        public double getHitRatio() {
+            return evaluations == 0 ? 0.0 : (double) hits / evaluations;
+        }
+
+        /**
+         * @return Mean evaluation time in nanoseconds, or 0 if the rule has not been evaluated.
+         */
+        public double getMeanNanos() {
+            return evaluations == 0 ? 0.0 : (double) totalNanos / evaluations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[priority=%d, position=%d, evaluations=%d, hitRatio=%.4f, meanNanos=%.0f]",
+                    ruleName, priority, position, evaluations, getHitRatio(), getMeanNanos());
+        }
+    }
+}
@@ -5,8 +5,10 @@ import com.ltfs.cdp.customer.repository.CustomerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -14,6 +16,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * {@code DeduplicationEngine} is a core component responsible for applying deduplication rules
@@ -29,27 +32,77 @@ public class DeduplicationEngine {
     private static final Logger log = LoggerFactory.getLogger(DeduplicationEngine.class);
 
     private final CustomerRepository customerRepository;
+    private final ResidentLiveBookIndex residentLiveBookIndex;
+    private final ExecutionMode executionMode;
+    private final int partitions;
+    private final int minParallelBatchSize;
 
     // Constants for product types to ensure consistency
-    private static final String PRODUCT_TYPE_TOP_UP_LOAN = "TOP_UP_LOAN";
+    static final String PRODUCT_TYPE_TOP_UP_LOAN = "TOP_UP_LOAN";
     private static final String PRODUCT_TYPE_CONSUMER_LOAN = "CONSUMER_LOAN"; // General category for other CL products
 
+    private static final int MAX_REPORTED_DIFFERENCES = 10;
+
+    /**
+     * How {@link #deduplicateCustomers(List)} executes a batch.
+     */
+    public enum ExecutionMode {
+        /** One thread, in batch order. */
+        SEQUENTIAL,
+        /** Partitioned by identity key on the common fork-join pool (see {@link PartitionedDeduplicator}). */
+        PARALLEL,
+        /** Both; differences are logged as errors and the sequential result is applied. */
+        COMPARE
+    }
+
     /**
      * Constructs a new {@code DeduplicationEngine} with the specified customer repository.
+     * The live book is indexed per batch.
      *
      * @param customerRepository The repository used to access existing customer data from the live book.
      */
-    @Autowired
     public DeduplicationEngine(CustomerRepository customerRepository) {
+        this(customerRepository, null);
+    }
+
+    /**
+     * Constructs a new {@code DeduplicationEngine} that matches against the resident live book index
+     * once it is ready, and indexes the live book per batch until then.
+     *
+     * @param customerRepository The repository used to access existing customer data from the live book.
+     * @param residentLiveBookIndex The long-lived live book index, or {@code null} to always index per batch.
+     */
+    public DeduplicationEngine(CustomerRepository customerRepository, ResidentLiveBookIndex residentLiveBookIndex) {
+        this(customerRepository, residentLiveBookIndex, ExecutionMode.SEQUENTIAL, 0, 0);
+    }
+
+    /**
+     * Constructs a new {@code DeduplicationEngine} with an explicit execution mode.
+     *
+     * @param customerRepository The repository used to access existing customer data from the live book.
+     * @param residentLiveBookIndex The long-lived live book index, or {@code null} to always index per batch.
+     * @param executionMode Whether batches run sequentially, partitioned in parallel, or both for comparison.
+     * @param partitions Number of partitions in parallel mode; 0 means four per common pool thread.
+     * @param minParallelBatchSize Batches smaller than this always run sequentially.
+     */
+    @Autowired
+    public DeduplicationEngine(CustomerRepository customerRepository, ResidentLiveBookIndex residentLiveBookIndex,
+                               @Value("${application.deduplication.execution.mode:SEQUENTIAL}") ExecutionMode executionMode,
+                               @Value("${application.deduplication.execution.partitions:0}") int partitions,
+                               @Value("${application.deduplication.execution.min-parallel-batch-size:2000}") int minParallelBatchSize) {
         this.customerRepository = customerRepository;
+        this.residentLiveBookIndex = residentLiveBookIndex;
+        this.executionMode = executionMode;
+        this.partitions = partitions > 0 ? partitions : 4 * ForkJoinPool.getCommonPoolParallelism();
+        this.minParallelBatchSize = minParallelBatchSize;
     }
 
     /**
      * Performs deduplication on a list of incoming customer records.
      *
      * This method processes each incoming customer by first checking for duplicates against the
-     * existing 'live book' (Customer 360) and then against other customers already processed
-     * within the current batch.
+     * existing 'live book' (Customer 360). Customers without a live book match are then clustered
+     * against each other (see {@link InBatchClusterer}); each cluster keeps its earliest record.
      *
      * The status of each incoming customer is updated to reflect the deduplication outcome:
      * - "NEW": The customer is unique and should be considered for creation.
@@ -58,6 +111,9 @@ public class DeduplicationEngine {
      *
      * For 'Top-up loan' offers, deduplication is restricted to only other 'Top-up loan' offers.
      *
+     * Depending on the {@link ExecutionMode}, the decisions are computed in batch order or by the
+     * {@link PartitionedDeduplicator}; both produce the same statuses.
+     *
      * @param incomingCustomers A list of new customer records to be deduped.
      * @return A list of processed customer records, each with an updated status indicating
      *         its deduplication outcome. Records marked as duplicates are typically not
@@ -71,29 +127,123 @@ public class DeduplicationEngine {
 
         log.info("Starting deduplication process for {} incoming customer records.", incomingCustomers.size());
 
-        // Fetch all relevant existing customers from the live book for comparison.
-        // In a high-volume production system, this might be optimized to fetch only
-        // customers whose identifiers (PAN, Aadhaar, Mobile) are present in the incoming batch
-        // to reduce memory footprint and improve performance.
-        List<Customer> existingLiveBookCustomers = customerRepository.findAll();
-        log.debug("Fetched {} existing customers from the live book for comparison.", existingLiveBookCustomers.size());
-
-        List<Customer> processedCustomers = new ArrayList<>();
-        // This list holds customers from the current batch that have been deemed unique so far.
-        // Subsequent incoming customers will be checked against this list.
-        List<Customer> uniqueCustomersInBatch = new ArrayList<>();
+        // Use the resident index when it is loaded. Otherwise fetch the live book once and index it by
+        // blocking key (PAN, Aadhaar, mobile, name + DOB), so each incoming record only compares against
+        // customers sharing at least one key instead of scanning the whole live book.
+        LiveBookCandidates liveBookIndex;
+        if (residentLiveBookIndex != null && residentLiveBookIndex.isReady()) {
+            liveBookIndex = residentLiveBookIndex;
+            log.debug("Using the resident live book index ({} customers) for comparison.", liveBookIndex.size());
+        } else {
+            LiveBookIndex batchIndex = LiveBookIndex.build(customerRepository.findAll());
+            log.debug("Indexed {} existing customers from the live book for comparison (~{} KB of index).",
+                    batchIndex.size(), batchIndex.estimatedIndexBytes() / 1024);
+            liveBookIndex = batchIndex;
+        }
 
+        List<Customer> processedCustomers = new ArrayList<>(incomingCustomers.size());
         for (Customer newCustomer : incomingCustomers) {
             if (newCustomer == null) {
                 log.warn("Skipping null customer record in incoming batch.");
                 continue;
             }
+            processedCustomers.add(newCustomer);
+        }
+
+        DedupeOutcome outcome;
+        ExecutionMode mode = processedCustomers.size() < minParallelBatchSize ? ExecutionMode.SEQUENTIAL : executionMode;
+        switch (mode) {
+            case PARALLEL:
+                outcome = deduplicateInPartitions(processedCustomers, liveBookIndex);
+                break;
+            case COMPARE:
+                outcome = compareExecutions(processedCustomers, liveBookIndex);
+                break;
+            default:
+                outcome = deduplicateSequentially(processedCustomers, liveBookIndex);
+                break;
+        }
+        int uniqueInBatch = applyOutcome(processedCustomers, outcome);
+
+        log.info("Deduplication process completed. Total incoming customers: {}, Total processed: {}, Unique identified in batch: {}",
+                incomingCustomers.size(), processedCustomers.size(), uniqueInBatch);
+
+        return processedCustomers;
+    }
+
+    /**
+     * Decides every record in batch order: live book match first, then in-batch clustering of the rest.
+     */
+    private DedupeOutcome deduplicateSequentially(List<Customer> customers, LiveBookCandidates liveBookIndex) {
+        Customer[] liveBookMatches = new Customer[customers.size()];
+        int[] survivors = new int[customers.size()];
+        // Customers with no live book match; these are clustered against each other afterwards.
+        List<Customer> liveBookUnmatched = new ArrayList<>();
+        List<Integer> unmatchedPositions = new ArrayList<>();
+
+        for (int position = 0; position < customers.size(); position++) {
+            Customer newCustomer = customers.get(position);
             log.debug("Processing incoming customer: {}", newCustomer.getId());
 
             // 1. Attempt to find a match in the existing 'live book' (Customer 360).
-            Optional<Customer> liveBookMatch = findMatchInLiveBook(newCustomer, existingLiveBookCustomers);
+            Optional<Customer> liveBookMatch = findMatchInLiveBook(newCustomer, liveBookIndex);
             if (liveBookMatch.isPresent()) {
-                Customer matchedExistingCustomer = liveBookMatch.get();
+                liveBookMatches[position] = liveBookMatch.get();
+                survivors[position] = DedupeOutcome.NO_SURVIVOR;
+                continue; // Move to the next incoming customer as this one is a duplicate of an existing record.
+            }
+            liveBookUnmatched.add(newCustomer);
+            unmatchedPositions.add(position);
+        }
+
+        // 2. Cluster the remaining customers within the batch. This handles duplicates within the same
+        // incoming file/stream, including transitive ones (A~B by PAN, B~C by name + DOB), and honours the
+        // 'Top-up loan' separation. The earliest record of each cluster survives as NEW.
+        int[] clusterSurvivors = InBatchClusterer.clusterSurvivors(liveBookUnmatched);
+        for (int unmatched = 0; unmatched < clusterSurvivors.length; unmatched++) {
+            survivors[unmatchedPositions.get(unmatched)] = unmatchedPositions.get(clusterSurvivors[unmatched]);
+        }
+        return new DedupeOutcome(liveBookMatches, survivors);
+    }
+
+    private DedupeOutcome deduplicateInPartitions(List<Customer> customers, LiveBookCandidates liveBookIndex) {
+        return PartitionedDeduplicator.deduplicate(customers, customer -> findMatchInLiveBook(customer, liveBookIndex),
+                ForkJoinPool.commonPool(), partitions);
+    }
+
+    /**
+     * Runs both executions, logs their timings and any difference, and returns the sequential outcome.
+     */
+    private DedupeOutcome compareExecutions(List<Customer> customers, LiveBookCandidates liveBookIndex) {
+        long startedAt = System.nanoTime();
+        DedupeOutcome sequential = deduplicateSequentially(customers, liveBookIndex);
+        long sequentialNanos = System.nanoTime() - startedAt;
+        startedAt = System.nanoTime();
+        DedupeOutcome parallel = deduplicateInPartitions(customers, liveBookIndex);
+        long parallelNanos = System.nanoTime() - startedAt;
+
+        List<String> differences = sequential.differencesFrom(parallel, MAX_REPORTED_DIFFERENCES);
+        if (differences.isEmpty()) {
+            log.info("Sequential and partitioned deduplication agree on {} customers ({} ms vs {} ms over {} partitions).",
+                    customers.size(), sequentialNanos / 1_000_000, parallelNanos / 1_000_000, partitions);
+        } else {
+            log.error("Sequential and partitioned deduplication disagree on {} customers; applying the sequential result. First differences: {}",
+                    customers.size(), differences);
+        }
+        return sequential;
+    }
+
+    /**
+     * Sets status (and, for live book duplicates, the Customer 360 ID) on every customer.
+     *
+     * @return The number of customers identified as NEW.
+     */
+    private int applyOutcome(List<Customer> customers, DedupeOutcome outcome) {
+        int uniqueInBatch = 0;
+        for (int position = 0; position < customers.size(); position++) {
+            Customer newCustomer = customers.get(position);
+            Customer matchedExistingCustomer = outcome.liveBookMatch(position);
+            if (matchedExistingCustomer != null) {
                 newCustomer.setStatus("DUPLICATE_OF_EXISTING");
                 // Link the incoming customer to the existing 360 profile.
                 // If the existing customer doesn't have a 360 ID yet, use its own ID as a placeholder.
@@ -102,35 +252,20 @@ public class DeduplicationEngine {
                                              matchedExistingCustomer.getId().toString());
                 log.info("Customer {} (PAN: {}) is a duplicate of existing live book customer {} (360 ID: {}). Status: {}",
                         newCustomer.getId(), newCustomer.getPan(), matchedExistingCustomer.getId(), newCustomer.getCustomer360Id(), newCustomer.getStatus());
-                processedCustomers.add(newCustomer);
-                continue; // Move to the next incoming customer as this one is a duplicate of an existing record.
-            }
-
-            // 2. If no match in the live book, check against other customers already processed in this batch.
-            // This handles duplicates within the same incoming file/stream.
-            Optional<Customer> batchMatch = findMatchInBatch(newCustomer, uniqueCustomersInBatch);
-            if (batchMatch.isPresent()) {
-                Customer matchedBatchCustomer = batchMatch.get();
+            } else if (outcome.survivor(position) == position) {
+                newCustomer.setStatus("NEW");
+                uniqueInBatch++;
+                log.debug("Customer {} (PAN: {}) identified as NEW.", newCustomer.getId(), newCustomer.getPan());
+            } else {
+                Customer survivor = customers.get(outcome.survivor(position));
                 newCustomer.setStatus("DUPLICATE_IN_BATCH");
                 // Optionally, link to the master customer within the batch if a merging strategy is applied later.
-                // newCustomer.setCustomer360Id(matchedBatchCustomer.getId().toString());
+                // newCustomer.setCustomer360Id(survivor.getId().toString());
                 log.info("Customer {} (PAN: {}) is a duplicate of another customer {} (PAN: {}) in the current batch. Status: {}",
-                        newCustomer.getId(), newCustomer.getPan(), matchedBatchCustomer.getId(), matchedBatchCustomer.getPan(), newCustomer.getStatus());
-                processedCustomers.add(newCustomer);
-                continue; // Move to the next incoming customer as this one is a duplicate within the batch.
+                        newCustomer.getId(), newCustomer.getPan(), survivor.getId(), survivor.getPan(), newCustomer.getStatus());
             }
-
-            // 3. If no match found in live book or within the batch, this customer is considered unique for now.
-            newCustomer.setStatus("NEW");
-            uniqueCustomersInBatch.add(newCustomer); // Add to the list of unique customers in this batch for future comparisons.
-            processedCustomers.add(newCustomer);
-            log.debug("Customer {} (PAN: {}) identified as NEW. Added to unique batch list.", newCustomer.getId(), newCustomer.getPan());
         }
-
-        log.info("Deduplication process completed. Total incoming customers: {}, Total processed: {}, Unique identified in batch: {}",
-                incomingCustomers.size(), processedCustomers.size(), uniqueCustomersInBatch.size());
-
-        return processedCustomers;
+        return uniqueInBatch;
     }
 
     /**
@@ -140,18 +275,25 @@ public class DeduplicationEngine {
      * 2. Exact Aadhaar match (high confidence).
      * 3. Exact Mobile Number match combined with a Name and Date of Birth match (medium confidence).
      * 4. Exact Name and Date of Birth match (lower confidence, might require manual review in production).
+     * 5. Fuzzy Name and exact Date of Birth match, for transliteration and spelling variants such as
+     *    "Laxmi"/"Lakshmi" (lowest confidence; only tried when no customer matches rules 1-4).
+     *
+     * Only the candidates returned by the {@link LiveBookIndex} are compared. Every rule above requires
+     * at least one shared blocking key, and candidates come back in live book order, so the result of
+     * rules 1-4 is the same customer a full scan of the live book would have returned. Rule 5 scores only
+     * the index's fuzzy name candidates (same DOB, shared phonetic code or LSH band).
      *
      * @param newCustomer The incoming customer record to check.
-     * @param liveBookCustomers The list of existing customers from the Customer 360 live book.
+     * @param liveBookIndex The blocking-key index over the Customer 360 live book (per batch or resident).
      * @return An {@link Optional} containing the matched existing customer if a duplicate is found,
      *         otherwise an empty {@link Optional}.
      */
-    private Optional<Customer> findMatchInLiveBook(Customer newCustomer, List<Customer> liveBookCustomers) {
-        if (newCustomer == null || liveBookCustomers == null || liveBookCustomers.isEmpty()) {
+    private Optional<Customer> findMatchInLiveBook(Customer newCustomer, LiveBookCandidates liveBookIndex) {
+        if (newCustomer == null || liveBookIndex == null || liveBookIndex.size() == 0) {
             return Optional.empty();
         }
 
-        for (Customer existingCustomer : liveBookCustomers) {
+        for (Customer existingCustomer : liveBookIndex.candidatesFor(newCustomer)) {
             // Ensure we are not comparing the same logical customer if IDs somehow overlap (unlikely for new vs existing)
             if (newCustomer.getId().equals(existingCustomer.getId())) {
                 continue;
@@ -188,72 +330,14 @@ public class DeduplicationEngine {
                 return Optional.of(existingCustomer);
             }
         }
-        return Optional.empty();
-    }
-
-    /**
-     * Attempts to find a duplicate for a given new customer within the list of customers
-     * already identified as unique in the current processing batch.
-     *
-     * This method applies similar deduplication rules as {@link #findMatchInLiveBook},
-     * with an additional specific rule for 'Top-up loan' offers:
-     * - 'Top-up loan' offers are only deduped against other 'Top-up loan' offers.
-     *
-     * @param newCustomer The incoming customer record to check.
-     * @param uniqueCustomersInBatch The list of customers already identified as unique within the current batch.
-     * @return An {@link Optional} containing the matched customer from the batch if a duplicate is found,
-     *         otherwise an empty {@link Optional}.
-     */
-    private Optional<Customer> findMatchInBatch(Customer newCustomer, List<Customer> uniqueCustomersInBatch) {
-        if (newCustomer == null || uniqueCustomersInBatch == null || uniqueCustomersInBatch.isEmpty()) {
-            return Optional.empty();
-        }
-
-        for (Customer existingBatchCustomer : uniqueCustomersInBatch) {
-            // Ensure we are not comparing the customer against itself.
-            if (newCustomer.getId().equals(existingBatchCustomer.getId())) {
-                continue;
-            }
-
-            // Special rule: Top-up loan offers must be deduped only within other Top-up offers.
-            boolean isNewCustomerTopUp = PRODUCT_TYPE_TOP_UP_LOAN.equalsIgnoreCase(newCustomer.getProductType());
-            boolean isExistingBatchCustomerTopUp = PRODUCT_TYPE_TOP_UP_LOAN.equalsIgnoreCase(existingBatchCustomer.getProductType());
-
-            // If one is a Top-up loan and the other is not, they cannot be duplicates according to this rule.
-            if (isNewCustomerTopUp != isExistingBatchCustomerTopUp) {
-                log.debug("Skipping batch comparison for customer {} and {} due to differing product types (Top-up vs Non-Top-up).",
-                        newCustomer.getId(), existingBatchCustomer.getId());
-                continue;
-            }
-
-            // Apply general deduplication rules (same as live book matching)
-            // Rule 1: Exact PAN match
-            if (newCustomer.getPan() != null && !newCustomer.getPan().trim().isEmpty() &&
-                newCustomer.getPan().equalsIgnoreCase(existingBatchCustomer.getPan())) {
-                log.debug("Batch match found by PAN: New Customer ID {} vs Batch Customer ID {}", newCustomer.getId(), existingBatchCustomer.getId());
-                return Optional.of(existingBatchCustomer);
-            }
-
-            // Rule 2: Exact Aadhaar match
-            if (newCustomer.getAadhaar() != null && !newCustomer.getAadhaar().trim().isEmpty() &&
-                newCustomer.getAadhaar().equals(existingBatchCustomer.getAadhaar())) {
-                log.debug("Batch match found by Aadhaar: New Customer ID {} vs Batch Customer ID {}", newCustomer.getId(), existingBatchCustomer.getId());
-                return Optional.of(existingBatchCustomer);
-            }
-
-            // Rule 3: Exact Mobile Number match + Name & DOB check
-            if (newCustomer.getMobileNumber() != null && !newCustomer.getMobileNumber().trim().isEmpty() &&
-                newCustomer.getMobileNumber().equals(existingBatchCustomer.getMobileNumber())) {
-                if (isNameAndDobMatch(newCustomer, existingBatchCustomer)) {
-                    log.debug("Batch match found by Mobile + Name/DOB: New Customer ID {} vs Batch Customer ID {}", newCustomer.getId(), existingBatchCustomer.getId());
-                    return Optional.of(existingBatchCustomer);
-                }
-            }
 
-            // Rule 4: Name + DOB match
-            if (isNameAndDobMatch(newCustomer, existingBatchCustomer)) {
-                log.debug("Batch potential match found by Name + DOB: New Customer ID {} vs Batch Customer ID {}", newCustomer.getId(), existingBatchCustomer.getId());
-                return Optional.of(existingBatchCustomer);
+        // Rule 5: Fuzzy Name + DOB match, scored only against the index's fuzzy name candidates.
+        for (Customer existingCustomer : liveBookIndex.fuzzyNameCandidatesFor(newCustomer)) {
+            if (!newCustomer.getId().equals(existingCustomer.getId()) && isFuzzyNameAndDobMatch(newCustomer, existingCustomer)) {
+                log.debug("Live book potential match found by fuzzy Name + DOB: New Customer ID {} ({} {}) vs Existing Customer ID {} ({} {})",
+                        newCustomer.getId(), newCustomer.getFirstName(), newCustomer.getLastName(),
+                        existingCustomer.getId(), existingCustomer.getFirstName(), existingCustomer.getLastName());
+                return Optional.of(existingCustomer);
             }
         }
         return Optional.empty();
@@ -278,6 +362,20 @@ public class DeduplicationEngine {
         return firstNameMatch && lastNameMatch && dobMatch;
     }
 
+    /**
+     * Helper method to check if two customers share a date of birth and have first and last names that
+     * are transliteration or spelling variants of each other (see {@link NameSimilarity}).
+     * Unlike {@link #isNameAndDobMatch}, a missing date of birth never matches.
+     *
+     * @param c1 Customer 1.
+     * @param c2 Customer 2.
+     * @return {@code true} if names fuzzily match and DOB matches, {@code false} otherwise.
+     */
+    private boolean isFuzzyNameAndDobMatch(Customer c1, Customer c2) {
+        return c1.getDateOfBirth() != null && c1.getDateOfBirth().equals(c2.getDateOfBirth())
+                && NameSimilarity.isFuzzyNameMatch(c1.getFirstName(), c1.getLastName(), c2.getFirstName(), c2.getLastName());
+    }
+
     /**
      * Placeholder interface for CustomerRepository.
      * In a real Spring Boot application, this would typically be a JPA repository
@@ -298,6 +396,14 @@ public class DeduplicationEngine {
          * @return An Optional containing the customer if found, otherwise empty.
          */
         Optional<Customer> findById(String id);
+
+        /**
+         * Retrieves the customers modified after the given time, plus those without a modification time.
+         * Used to top up a resident live book index loaded from a snapshot.
+         * @param watermark The exclusive lower bound on {@code updatedAt}.
+         * @return The customers changed since the watermark.
+         */
+        List<Customer> findByUpdatedAtAfter(Instant watermark);
     }
 
     /**
@@ -348,6 +454,17 @@ public class DeduplicationEngine {
                     .filter(c -> c.getId().toString().equals(id) || (c.getCustomer360Id() != null && c.getCustomer360Id().equals(id)))
                     .findFirst();
         }
+
+        @Override
+        public List<Customer> findByUpdatedAtAfter(Instant watermark) {
+            List<Customer> changed = new ArrayList<>();
+            for (Customer customer : customers) {
+                if (customer.getUpdatedAt() == null || customer.getUpdatedAt().isAfter(watermark)) {
+                    changed.add(customer);
+                }
+            }
+            return changed;
+        }
     }
 
     /**
@@ -366,6 +483,7 @@ public class DeduplicationEngine {
         private LocalDate dateOfBirth;
         private String productType; // e.g., "CONSUMER_LOAN", "TOP_UP_LOAN"
         private String status; // e.g., "NEW", "DUPLICATE_OF_EXISTING", "DUPLICATE_IN_BATCH"
+        private Instant updatedAt; // Last modification time in the live book (customer.updated_at)
 
         /**
          * Default constructor. Assigns a new random UUID to the customer.
@@ -408,6 +526,7 @@ public class DeduplicationEngine {
         public LocalDate getDateOfBirth() { return dateOfBirth; }
         public String getProductType() { return productType; }
         public String getStatus() { return status; }
+        public Instant getUpdatedAt() { return updatedAt; }
 
         // --- Setters ---
         public void setId(UUID id) { this.id = id; }
@@ -420,6 +539,7 @@ public class DeduplicationEngine {
         public void setDateOfBirth(LocalDate dateOfBirth) { this.dateOfBirth = dateOfBirth; }
         public void setProductType(String productType) { this.productType = productType; }
         public void setStatus(String status) { this.status = status; }
+        public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 
         /**
          * Overrides the default equals method. For entity objects, equality is typically
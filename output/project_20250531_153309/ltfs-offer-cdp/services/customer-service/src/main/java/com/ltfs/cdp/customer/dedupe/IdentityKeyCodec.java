@@ -0,0 +1,155 @@
+package com.ltfs.cdp.customer.dedupe;
+
+/**
+ * {@code IdentityKeyCodec} packs Indian identity numbers into a single non-negative {@code long},
+ * so dedup indexes can hold them as primitives instead of {@code String}s.
+ *
+ * <ul>
+ *     <li><b>PAN</b> (5 letters, 4 digits, 1 letter): mixed-radix 26^5 * 10^4 * 26, fits in 42 bits.
+ *         Letters are case-folded, so two PANs pack to the same value exactly when they are
+ *         {@code equalsIgnoreCase}.</li>
+ *     <li><b>Aadhaar</b> (12 digits): the decimal value, fits in 40 bits.</li>
+ *     <li><b>Mobile number</b> (10 digits): the decimal value, fits in 34 bits.</li>
+ * </ul>
+ *
+ * <p>Only values in the exact canonical format are packed; every other value (wrong length,
+ * surrounding whitespace, country prefix, non-ASCII characters) yields {@link #NOT_PACKABLE}, which
+ * lets callers fall back to another representation without ever conflating two different strings.
+ * Packing is therefore injective per identifier type.</p>
+ */
+public final class IdentityKeyCodec {
+
+    /**
+     * Returned by the {@code pack*} methods for values that are not in canonical format.
+     */
+    public static final long NOT_PACKABLE = -1L;
+
+    private static final int PAN_LENGTH = 10;
+    private static final int AADHAAR_LENGTH = 12;
+    private static final int MOBILE_LENGTH = 10;
+
+    private IdentityKeyCodec() {
+    }
+
+    /**
+     * Packs a PAN, ignoring letter case.
+     *
+     * @param pan The PAN, e.g. {@code "ABCDE1234F"}.
+     * @return The packed value, or {@link #NOT_PACKABLE} if {@code pan} is not a well-formed PAN.
+     */
+    public static long packPan(String pan) {
+        if (pan == null || pan.length() != PAN_LENGTH) {
+            return NOT_PACKABLE;
+        }
+        long packed = 0;
+        for (int i = 0; i < PAN_LENGTH; i++) {
+            int digit = (i >= 5 && i < 9) ? decimalDigit(pan.charAt(i)) : letter(pan.charAt(i));
+            if (digit < 0) {
+                return NOT_PACKABLE;
+            }
+            packed = packed * ((i >= 5 && i < 9) ? 10 : 26) + digit;
+        }
+        return packed;
+    }
+
+    /**
+     * Reverses {@link #packPan(String)}; letters come back upper case.
+     *
+     * @param packed A value previously returned by {@link #packPan(String)}.
+     * @return The canonical PAN.
+     */
+    public static String unpackPan(long packed) {
+        if (packed < 0) {
+            throw new IllegalArgumentException("Not a packed PAN: " + packed);
+        }
+        char[] pan = new char[PAN_LENGTH];
+        long remaining = packed;
+        for (int i = PAN_LENGTH - 1; i >= 0; i--) {
+            if (i >= 5 && i < 9) {
+                pan[i] = (char) ('0' + remaining % 10);
+                remaining /= 10;
+            } else {
+                pan[i] = (char) ('A' + remaining % 26);
+                remaining /= 26;
+            }
+        }
+        return new String(pan);
+    }
+
+    /**
+     * Packs a 12-digit Aadhaar number.
+     *
+     * @return The packed value, or {@link #NOT_PACKABLE} if {@code aadhaar} is not exactly 12 ASCII digits.
+     */
+    public static long packAadhaar(String aadhaar) {
+        return packDigits(aadhaar, AADHAAR_LENGTH);
+    }
+
+    /**
+     * Reverses {@link #packAadhaar(String)}, restoring leading zeros.
+     */
+    public static String unpackAadhaar(long packed) {
+        return unpackDigits(packed, AADHAAR_LENGTH);
+    }
+
+    /**
+     * Packs a 10-digit mobile number.
+     *
+     * @return The packed value, or {@link #NOT_PACKABLE} if {@code mobileNumber} is not exactly 10 ASCII digits.
+     */
+    public static long packMobile(String mobileNumber) {
+        return packDigits(mobileNumber, MOBILE_LENGTH);
+    }
+
+    /**
+     * Reverses {@link #packMobile(String)}, restoring leading zeros.
+     */
+    public static String unpackMobile(long packed) {
+        return unpackDigits(packed, MOBILE_LENGTH);
+    }
+
+    private static long packDigits(String value, int length) {
+        if (value == null || value.length() != length) {
+            return NOT_PACKABLE;
+        }
+        long packed = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = decimalDigit(value.charAt(i));
+            if (digit < 0) {
+                return NOT_PACKABLE;
+            }
+            packed = packed * 10 + digit;
+        }
+        return packed;
+    }
+
+    private static String unpackDigits(long packed, int length) {
+        if (packed < 0) {
+            throw new IllegalArgumentException("Not a packed identifier: " + packed);
+        }
+        char[] digits = new char[length];
+        long remaining = packed;
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        if (remaining != 0) {
+            throw new IllegalArgumentException("Packed value " + packed + " does not fit " + length + " digits");
+        }
+        return new String(digits);
+    }
+
+    private static int decimalDigit(char c) {
+        return (c >= '0' && c <= '9') ? c - '0' : -1;
+    }
+
+    private static int letter(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code InBatchClusterer} groups the records of one incoming batch into duplicate clusters.
+ *
+ * <p>Every record is hashed into buckets by its identity keys (PAN, Aadhaar, normalized
+ * name + DOB, built exactly as in {@link LiveBookIndex}); records landing in the same bucket are
+ * merged with a {@link UnionFind}. Clustering is therefore transitive: if A matches B by PAN and
+ * B matches C by name + DOB, all three end up in one cluster. The whole pass is near-linear in the
+ * batch size.</p>
+ *
+ * <p>The mobile + name/DOB rule needs no bucket of its own: any pair it matches is already matched
+ * by the name + DOB rule.</p>
+ *
+ * <p>'Top-up loan' records are only clustered with other 'Top-up loan' records; the product
+ * partition is part of every bucket key.</p>
+ */
+final class InBatchClusterer {
+
+    private static final char TOP_UP_PARTITION = 'T';
+    private static final char OTHER_PARTITION = 'O';
+
+    /**
+     * Number of keys returned by {@link #clusterKeys(Customer)}.
+     */
+    static final int CLUSTER_KEY_COUNT = 3;
+
+    private InBatchClusterer() {
+    }
+
+    /**
+     * Clusters the given records.
+     *
+     * @param records The batch records to cluster. Must not contain {@code null} entries.
+     * @return For each record position, the position of its cluster survivor. The survivor is the
+     *         earliest record of the cluster, so {@code survivors[i] == i} exactly for records that
+     *         should be treated as unique.
+     */
+    static int[] clusterSurvivors(List<Customer> records) {
+        int size = records.size();
+        UnionFind clusters = new UnionFind(size);
+        Map<String, Integer> firstByKey = new HashMap<>(Math.max(16, (int) (size * CLUSTER_KEY_COUNT / 0.75f) + 1));
+
+        for (int position = 0; position < size; position++) {
+            for (String key : clusterKeys(records.get(position))) {
+                mergeOnKey(clusters, firstByKey, key, position);
+            }
+        }
+
+        int[] survivors = new int[size];
+        for (int position = 0; position < size; position++) {
+            survivors[position] = clusters.find(position);
+        }
+        return survivors;
+    }
+
+    /**
+     * Returns the bucket keys a record is clustered on, strongest first: PAN, Aadhaar, name + DOB.
+     * Each key is prefixed with the product partition and key type, so two records are merged
+     * exactly when they share a non-null entry at the same index.
+     *
+     * @param record The batch record.
+     * @return An array of {@link #CLUSTER_KEY_COUNT} keys; absent identifiers are {@code null}.
+     */
+    static String[] clusterKeys(Customer record) {
+        char partition = DeduplicationEngine.PRODUCT_TYPE_TOP_UP_LOAN.equalsIgnoreCase(record.getProductType())
+                ? TOP_UP_PARTITION : OTHER_PARTITION;
+        return new String[]{
+                bucketKey(partition, 'P', LiveBookIndex.panKey(record.getPan())),
+                bucketKey(partition, 'A', LiveBookIndex.exactKey(record.getAadhaar())),
+                bucketKey(partition, 'N', LiveBookIndex.nameDobKey(record.getFirstName(), record.getLastName(), record.getDateOfBirth()))
+        };
+    }
+
+    /**
+     * Merges {@code position} with the first record seen under {@code key}, or registers it as that first record.
+     */
+    static void mergeOnKey(UnionFind clusters, Map<String, Integer> firstByKey, String key, int position) {
+        if (key == null) {
+            return;
+        }
+        Integer first = firstByKey.putIfAbsent(key, position);
+        if (first != null) {
+            clusters.union(first, position);
+        }
+    }
+
+    private static String bucketKey(char partition, char keyType, String key) {
+        return key == null ? null : partition + (keyType + key);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+
+import java.util.List;
+
+/**
+ * Candidate generator over the 'live book' (Customer 360) used by {@link DeduplicationEngine}.
+ *
+ * <p>Implementations return every live book customer that could satisfy a deduplication rule for
+ * a probe, in a stable live book order; the engine then applies the rules to the candidates.</p>
+ *
+ * @see LiveBookIndex
+ * @see ResidentLiveBookIndex
+ */
+public interface LiveBookCandidates {
+
+    /**
+     * @param probe The incoming customer record.
+     * @return The live book customers sharing a PAN, Aadhaar, mobile or exact name + DOB key with the probe.
+     */
+    List<Customer> candidatesFor(Customer probe);
+
+    /**
+     * @param probe The incoming customer record.
+     * @return The live book customers with the probe's date of birth and a similar name, to be scored
+     *         with the fuzzy Name + DOB rule.
+     */
+    List<Customer> fuzzyNameCandidatesFor(Customer probe);
+
+    /**
+     * @return The number of customers covered.
+     */
+    int size();
+}
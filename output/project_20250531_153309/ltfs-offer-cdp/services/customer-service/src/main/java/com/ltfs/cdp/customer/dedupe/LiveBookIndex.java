@@ -0,0 +1,426 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code LiveBookIndex} is an immutable blocking-key index over a snapshot of the 'live book'
+ * (Customer 360), used by {@link DeduplicationEngine} to resolve match candidates for an incoming
+ * record without scanning every existing customer.
+ *
+ * <p>Each live book customer is assigned a dense ordinal (its position in the source list) and
+ * registered under the following blocking keys:</p>
+ * <ul>
+ *     <li>PAN, case-folded (the engine compares PAN case-insensitively).</li>
+ *     <li>Aadhaar, exact.</li>
+ *     <li>Mobile number, exact.</li>
+ *     <li>Normalized first name + last name + date of birth (trimmed, case-folded names).</li>
+ * </ul>
+ *
+ * <p>For the fuzzy Name + DOB rule, customers with a date of birth are also registered under
+ * DOB-scoped name keys from {@link NameSimilarity}: the phonetic code of the full name, and one
+ * MinHash band signature per LSH band. These are returned separately by
+ * {@link #fuzzyNameCandidatesFor(Customer)}, so that only a handful of same-DOB customers with a
+ * similar-sounding or similarly spelled name are ever scored.</p>
+ *
+ * <p>Keys are held as primitive {@code long}s: well-formed PAN, Aadhaar and mobile values are
+ * packed losslessly with {@link IdentityKeyCodec}, and everything else (name + DOB, malformed
+ * identifiers) is reduced to a 64-bit fingerprint. Each key type maps a key to the lowest ordinal
+ * carrying it in a {@link LongIntHashMap}, and further ordinals are chained through an
+ * {@code int[]}, so the index costs a few dozen bytes per customer and no per-entry objects.</p>
+ *
+ * <p>The index is only a candidate generator: callers must still apply the deduplication rules
+ * to each candidate, which also discards the (vanishingly rare) extra candidates a fingerprint
+ * collision can produce. Candidates are returned in ascending ordinal order, i.e. in the same order
+ * a full scan of the live book would have visited them, so the first candidate that satisfies the
+ * rules is exactly the customer a linear scan would have returned.</p>
+ */
+public final class LiveBookIndex implements LiveBookCandidates {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * Set on fingerprinted keys. Packed identifiers stay below 2^42, so the two never collide.
+     */
+    private static final long FINGERPRINT_TAG = 1L << 62;
+
+    /**
+     * Number of keys returned by {@link #blockingKeys(Customer)}: PAN, Aadhaar, mobile and exact
+     * name + DOB, followed by the fuzzy phonetic key and one key per LSH band.
+     */
+    static final int KEY_TYPE_COUNT = 5 + NameSimilarity.BANDS;
+
+    /**
+     * Number of leading {@link #blockingKeys(Customer)} used by {@link #candidatesFor(Customer)};
+     * the remaining ones feed {@link #fuzzyNameCandidatesFor(Customer)}.
+     */
+    static final int EXACT_KEY_TYPE_COUNT = 4;
+
+    /**
+     * Version of the key derivation (layout, normalization, hashing). Bump whenever any key for the same
+     * customer would change, so that persisted keys (see {@link LiveBookSnapshot}) are recomputed.
+     */
+    static final int KEY_SCHEME_VERSION = 1;
+
+    private final List<Customer> customers;
+    private final KeyPostings panPostings;
+    private final KeyPostings aadhaarPostings;
+    private final KeyPostings mobilePostings;
+    private final KeyPostings nameDobPostings;
+    private final KeyPostings phoneticDobPostings;
+    private final KeyPostings[] nameBandDobPostings;
+
+    private LiveBookIndex(List<Customer> customers) {
+        this.customers = customers;
+        int size = customers.size();
+        this.panPostings = new KeyPostings(size);
+        this.aadhaarPostings = new KeyPostings(size);
+        this.mobilePostings = new KeyPostings(size);
+        this.nameDobPostings = new KeyPostings(size);
+        this.phoneticDobPostings = new KeyPostings(size);
+        this.nameBandDobPostings = new KeyPostings[NameSimilarity.BANDS];
+        for (int band = 0; band < NameSimilarity.BANDS; band++) {
+            this.nameBandDobPostings[band] = new KeyPostings(size);
+        }
+    }
+
+    /**
+     * Builds an index over the given live book customers in a single pass.
+     *
+     * @param liveBookCustomers The existing customers to index. {@code null} entries are ignored.
+     * @return A new index; never {@code null}.
+     */
+    public static LiveBookIndex build(List<Customer> liveBookCustomers) {
+        if (liveBookCustomers == null || liveBookCustomers.isEmpty()) {
+            return new LiveBookIndex(Collections.emptyList());
+        }
+
+        LiveBookIndex index = new LiveBookIndex(new ArrayList<>(liveBookCustomers));
+        // Walk backwards so that prepending to each chain leaves it in ascending ordinal order.
+        for (int ordinal = index.customers.size() - 1; ordinal >= 0; ordinal--) {
+            Customer customer = index.customers.get(ordinal);
+            if (customer == null) {
+                continue;
+            }
+            index.panPostings.prepend(panLongKey(customer.getPan()), ordinal);
+            index.aadhaarPostings.prepend(aadhaarLongKey(customer.getAadhaar()), ordinal);
+            index.mobilePostings.prepend(mobileLongKey(customer.getMobileNumber()), ordinal);
+            index.nameDobPostings.prepend(nameDobLongKey(customer), ordinal);
+
+            FuzzyNameKeys fuzzyKeys = FuzzyNameKeys.of(customer);
+            if (fuzzyKeys != null) {
+                index.phoneticDobPostings.prepend(fuzzyKeys.phoneticKey, ordinal);
+                for (int band = 0; band < NameSimilarity.BANDS; band++) {
+                    index.nameBandDobPostings[band].prepend(fuzzyKeys.bandKeys[band], ordinal);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the live book customers that share at least one blocking key with the given probe,
+     * in live book order and without repetition.
+     *
+     * @param probe The incoming customer record.
+     * @return The candidate customers; empty if the probe shares no key with the live book.
+     */
+    @Override
+    public List<Customer> candidatesFor(Customer probe) {
+        if (probe == null || customers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        OrdinalBuffer ordinals = new OrdinalBuffer();
+        int chains = 0;
+        chains += panPostings.collect(panLongKey(probe.getPan()), ordinals);
+        chains += aadhaarPostings.collect(aadhaarLongKey(probe.getAadhaar()), ordinals);
+        chains += mobilePostings.collect(mobileLongKey(probe.getMobileNumber()), ordinals);
+        chains += nameDobPostings.collect(nameDobLongKey(probe), ordinals);
+        if (chains > 1) {
+            // Each chain is ascending on its own; only a merge of several needs sorting.
+            ordinals.sortDistinct();
+        }
+
+        return toCustomers(ordinals);
+    }
+
+    /**
+     * Returns the live book customers with the probe's date of birth whose name shares a phonetic
+     * code or an LSH band with the probe's name, in live book order and without repetition.
+     * The candidates still have to be scored with {@link NameSimilarity#isFuzzyNameMatch}.
+     *
+     * @param probe The incoming customer record.
+     * @return The candidate customers; empty if the probe has no date of birth or names.
+     */
+    @Override
+    public List<Customer> fuzzyNameCandidatesFor(Customer probe) {
+        FuzzyNameKeys fuzzyKeys = probe != null && !customers.isEmpty() ? FuzzyNameKeys.of(probe) : null;
+        if (fuzzyKeys == null) {
+            return Collections.emptyList();
+        }
+
+        OrdinalBuffer ordinals = new OrdinalBuffer();
+        int chains = phoneticDobPostings.collect(fuzzyKeys.phoneticKey, ordinals);
+        for (int band = 0; band < NameSimilarity.BANDS; band++) {
+            chains += nameBandDobPostings[band].collect(fuzzyKeys.bandKeys[band], ordinals);
+        }
+        if (chains > 1) {
+            ordinals.sortDistinct();
+        }
+        return toCustomers(ordinals);
+    }
+
+    private List<Customer> toCustomers(OrdinalBuffer ordinals) {
+        List<Customer> candidates = new ArrayList<>(ordinals.size);
+        for (int i = 0; i < ordinals.size; i++) {
+            candidates.add(customers.get(ordinals.values[i]));
+        }
+        return candidates;
+    }
+
+    /**
+     * @return The number of customers covered by this index.
+     */
+    @Override
+    public int size() {
+        return customers.size();
+    }
+
+    /**
+     * @return The approximate heap footprint of the key structures (excluding the customers), in bytes.
+     */
+    public long estimatedIndexBytes() {
+        long bytes = panPostings.estimatedBytes() + aadhaarPostings.estimatedBytes()
+                + mobilePostings.estimatedBytes() + nameDobPostings.estimatedBytes()
+                + phoneticDobPostings.estimatedBytes();
+        for (KeyPostings bandPostings : nameBandDobPostings) {
+            bytes += bandPostings.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Computes every blocking key of a customer, in the layout described by {@link #KEY_TYPE_COUNT}.
+     * Absent keys are {@link IdentityKeyCodec#NOT_PACKABLE}.
+     */
+    static long[] blockingKeys(Customer customer) {
+        long[] keys = new long[KEY_TYPE_COUNT];
+        keys[0] = panLongKey(customer.getPan());
+        keys[1] = aadhaarLongKey(customer.getAadhaar());
+        keys[2] = mobileLongKey(customer.getMobileNumber());
+        keys[3] = nameDobLongKey(customer);
+        FuzzyNameKeys fuzzyKeys = FuzzyNameKeys.of(customer);
+        keys[4] = fuzzyKeys != null ? fuzzyKeys.phoneticKey : IdentityKeyCodec.NOT_PACKABLE;
+        for (int band = 0; band < NameSimilarity.BANDS; band++) {
+            keys[5 + band] = fuzzyKeys != null ? fuzzyKeys.bandKeys[band] : IdentityKeyCodec.NOT_PACKABLE;
+        }
+        return keys;
+    }
+
+    static long panLongKey(String pan) {
+        String key = panKey(pan);
+        if (key == null) {
+            return IdentityKeyCodec.NOT_PACKABLE;
+        }
+        long packed = IdentityKeyCodec.packPan(key);
+        return packed != IdentityKeyCodec.NOT_PACKABLE ? packed : fingerprint(key);
+    }
+
+    static long aadhaarLongKey(String aadhaar) {
+        String key = exactKey(aadhaar);
+        if (key == null) {
+            return IdentityKeyCodec.NOT_PACKABLE;
+        }
+        long packed = IdentityKeyCodec.packAadhaar(key);
+        return packed != IdentityKeyCodec.NOT_PACKABLE ? packed : fingerprint(key);
+    }
+
+    static long mobileLongKey(String mobileNumber) {
+        String key = exactKey(mobileNumber);
+        if (key == null) {
+            return IdentityKeyCodec.NOT_PACKABLE;
+        }
+        long packed = IdentityKeyCodec.packMobile(key);
+        return packed != IdentityKeyCodec.NOT_PACKABLE ? packed : fingerprint(key);
+    }
+
+    static long nameDobLongKey(Customer customer) {
+        String key = nameDobKey(customer.getFirstName(), customer.getLastName(), customer.getDateOfBirth());
+        return key != null ? fingerprint(key) : IdentityKeyCodec.NOT_PACKABLE;
+    }
+
+    /**
+     * Fingerprint of a name signature scoped to one date of birth, tagged like {@link #fingerprint}.
+     */
+    static long dobScopedKey(LocalDate dateOfBirth, long signature) {
+        long hash = (dateOfBirth.toEpochDay() * 0x9E3779B97F4A7C15L) ^ signature;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 32;
+        return (hash & (FINGERPRINT_TAG - 1)) | FINGERPRINT_TAG;
+    }
+
+    /**
+     * 64-bit FNV-1a fingerprint of a key, tagged so it cannot equal a packed identifier.
+     */
+    static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return (hash & (FINGERPRINT_TAG - 1)) | FINGERPRINT_TAG;
+    }
+
+    /**
+     * Builds the PAN blocking key. Blank PANs are not indexed, mirroring the engine's PAN rule.
+     */
+    static String panKey(String pan) {
+        return isBlank(pan) ? null : foldCase(pan);
+    }
+
+    /**
+     * Builds an exact-match blocking key (Aadhaar, mobile). Blank values are not indexed.
+     */
+    static String exactKey(String value) {
+        return isBlank(value) ? null : value;
+    }
+
+    /**
+     * Builds the normalized name + DOB blocking key. Both names are required; a missing DOB is a
+     * legitimate key component because the engine compares dates with {@code Objects.equals}.
+     */
+    static String nameDobKey(String firstName, String lastName, LocalDate dateOfBirth) {
+        if (firstName == null || lastName == null) {
+            return null;
+        }
+        return foldCase(firstName.trim()) + KEY_SEPARATOR + foldCase(lastName.trim()) + KEY_SEPARATOR + dateOfBirth;
+    }
+
+    /**
+     * Folds a string so that two strings are {@link String#equalsIgnoreCase equal ignoring case}
+     * if and only if their folded forms are equal. Folding is done per character (rather than with
+     * {@link String#toUpperCase()}) because {@code equalsIgnoreCase} never changes string length.
+     */
+    static String foldCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * DOB-scoped fuzzy name keys of one customer.
+     */
+    private static final class FuzzyNameKeys {
+        private final long phoneticKey;
+        private final long[] bandKeys;
+
+        private FuzzyNameKeys(long phoneticKey, long[] bandKeys) {
+            this.phoneticKey = phoneticKey;
+            this.bandKeys = bandKeys;
+        }
+
+        /**
+         * @return The keys, or {@code null} if the customer has no date of birth or a name part is blank.
+         */
+        static FuzzyNameKeys of(Customer customer) {
+            LocalDate dateOfBirth = customer.getDateOfBirth();
+            if (dateOfBirth == null) {
+                return null;
+            }
+            String firstName = NameSimilarity.normalize(customer.getFirstName());
+            String lastName = NameSimilarity.normalize(customer.getLastName());
+            if (firstName.isEmpty() || lastName.isEmpty()) {
+                return null;
+            }
+            long[] bands = NameSimilarity.bandSignatures(firstName, lastName);
+            long[] bandKeys = new long[NameSimilarity.BANDS];
+            for (int band = 0; band < NameSimilarity.BANDS; band++) {
+                bandKeys[band] = dobScopedKey(dateOfBirth, bands[band]);
+            }
+            long phonetic = fingerprint(NameSimilarity.phoneticCode(firstName + ' ' + lastName));
+            return new FuzzyNameKeys(dobScopedKey(dateOfBirth, phonetic), bandKeys);
+        }
+    }
+
+    /**
+     * Postings for one key type: the head ordinal per key, plus a chain of further ordinals.
+     */
+    private static final class KeyPostings {
+        private final LongIntHashMap heads;
+        private final int[] next;
+
+        KeyPostings(int size) {
+            this.heads = new LongIntHashMap(size);
+            this.next = new int[size];
+        }
+
+        void prepend(long key, int ordinal) {
+            if (key != IdentityKeyCodec.NOT_PACKABLE) {
+                next[ordinal] = heads.put(key, ordinal);
+            }
+        }
+
+        /**
+         * Appends the chain for {@code key} to {@code buffer}.
+         *
+         * @return 1 if the key had postings, 0 otherwise.
+         */
+        int collect(long key, OrdinalBuffer buffer) {
+            if (key == IdentityKeyCodec.NOT_PACKABLE) {
+                return 0;
+            }
+            int ordinal = heads.get(key);
+            if (ordinal == LongIntHashMap.NO_VALUE) {
+                return 0;
+            }
+            while (ordinal != LongIntHashMap.NO_VALUE) {
+                buffer.add(ordinal);
+                ordinal = next[ordinal];
+            }
+            return 1;
+        }
+
+        long estimatedBytes() {
+            return heads.estimatedBytes() + (long) next.length * Integer.BYTES;
+        }
+    }
+
+    /**
+     * Small growable {@code int} buffer for collecting candidate ordinals.
+     */
+    static final class OrdinalBuffer {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void sortDistinct() {
+            Arrays.sort(values, 0, size);
+            int distinct = 1;
+            for (int i = 1; i < size; i++) {
+                if (values[i] != values[distinct - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+            size = distinct;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary snapshot of a {@link ResidentLiveBookIndex}, read through memory-mapped segments.
+ *
+ * <p>Layout (big-endian):</p>
+ * <pre>
+ * header   int magic, int version, int keySchemeVersion, int customerCount,
+ *          long watermarkMillis, int segmentCount, long segmentTableOffset
+ * segments records, each segment at most {@link #SEGMENT_BYTES} bytes so it can be mapped on its own
+ * table    per segment: long offset, int byteLength, int recordCount
+ * record   long idMsb, long idLsb, long dobEpochDay, long updatedAtMillis,
+ *          long[{@link LiveBookIndex#KEY_TYPE_COUNT}] blocking keys,
+ *          7 strings (customer360Id, pan, aadhaar, mobile, first name, last name, product type),
+ *          each a short byte length (-1 for null) followed by UTF-8 bytes
+ * </pre>
+ *
+ * <p>The precomputed blocking keys let a warm start skip all name normalization and hashing; they
+ * are only trusted if the snapshot's key scheme matches {@link LiveBookIndex#KEY_SCHEME_VERSION}.
+ * The watermark is the latest {@code updatedAt} the index had seen, from which the delta is loaded.</p>
+ */
+final class LiveBookSnapshot {
+
+    static final int MAGIC = 0x4C42494E; // "LBIN"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 36;
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /**
+     * Maximum bytes per mapped segment; records never straddle two segments.
+     */
+    static final int SEGMENT_BYTES = 1 << 30;
+
+    private static final long NO_DATE_OF_BIRTH = Long.MIN_VALUE;
+    private static final int STRING_FIELDS = 7;
+
+    private LiveBookSnapshot() {
+    }
+
+    /**
+     * Contents of a snapshot.
+     */
+    static final class Contents {
+        final List<Customer> customers;
+        /**
+         * Blocking keys aligned with {@link #customers}, or {@code null} if they must be recomputed.
+         */
+        final List<long[]> keys;
+        final long watermarkMillis;
+
+        Contents(List<Customer> customers, List<long[]> keys, long watermarkMillis) {
+            this.customers = customers;
+            this.keys = keys;
+            this.watermarkMillis = watermarkMillis;
+        }
+    }
+
+    /**
+     * Writes a snapshot to a temporary sibling file and atomically moves it into place.
+     *
+     * @param path            The snapshot file.
+     * @param customers       The customers to store.
+     * @param keys            Their blocking keys, aligned with {@code customers}.
+     * @param watermarkMillis The latest modification time covered, or {@link #NO_TIMESTAMP}.
+     */
+    static void write(Path path, List<Customer> customers, List<long[]> keys, long watermarkMillis) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChannelWriter out = new ChannelWriter(channel, HEADER_BYTES);
+            List<long[]> segments = new ArrayList<>();
+            long segmentStart = out.position();
+            int segmentRecords = 0;
+            byte[][] strings = new byte[STRING_FIELDS][];
+            for (int i = 0; i < customers.size(); i++) {
+                Customer customer = customers.get(i);
+                int recordBytes = encodeStrings(customer, strings);
+                if (segmentRecords > 0 && out.position() - segmentStart + recordBytes > SEGMENT_BYTES) {
+                    segments.add(new long[]{segmentStart, out.position() - segmentStart, segmentRecords});
+                    segmentStart = out.position();
+                    segmentRecords = 0;
+                }
+                writeRecord(out, customer, keys.get(i), strings);
+                segmentRecords++;
+            }
+            if (segmentRecords > 0) {
+                segments.add(new long[]{segmentStart, out.position() - segmentStart, segmentRecords});
+            }
+
+            long tableOffset = out.position();
+            for (long[] segment : segments) {
+                out.putLong(segment[0]);
+                out.putInt((int) segment[1]);
+                out.putInt((int) segment[2]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(LiveBookIndex.KEY_SCHEME_VERSION).putInt(customers.size())
+                    .putLong(watermarkMillis).putInt(segments.size()).putLong(tableOffset).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_BYTES - header.remaining());
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot by memory-mapping each segment.
+     *
+     * @throws IOException if the file is missing, truncated or of another format or version.
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Truncated live book index snapshot: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a live book index snapshot: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported live book index snapshot version " + version + ": " + path);
+            }
+            boolean keysUsable = header.getInt() == LiveBookIndex.KEY_SCHEME_VERSION;
+            int customerCount = header.getInt();
+            long watermarkMillis = header.getLong();
+            int segmentCount = header.getInt();
+            long tableOffset = header.getLong();
+            if (tableOffset + (long) segmentCount * 16 > channel.size()) {
+                throw new IOException("Truncated live book index snapshot: " + path);
+            }
+
+            List<Customer> customers = new ArrayList<>(customerCount);
+            List<long[]> keys = keysUsable ? new ArrayList<>(customerCount) : null;
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, tableOffset, (long) segmentCount * 16);
+            for (int segment = 0; segment < segmentCount; segment++) {
+                long offset = table.getLong();
+                int length = table.getInt();
+                int records = table.getInt();
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                for (int record = 0; record < records; record++) {
+                    readRecord(buffer, customers, keys);
+                }
+            }
+            if (customers.size() != customerCount) {
+                throw new IOException("Live book index snapshot " + path + " holds " + customers.size()
+                        + " customers, header says " + customerCount);
+            }
+            return new Contents(customers, keys, watermarkMillis);
+        }
+    }
+
+    private static int encodeStrings(Customer customer, byte[][] strings) {
+        strings[0] = encode(customer.getCustomer360Id());
+        strings[1] = encode(customer.getPan());
+        strings[2] = encode(customer.getAadhaar());
+        strings[3] = encode(customer.getMobileNumber());
+        strings[4] = encode(customer.getFirstName());
+        strings[5] = encode(customer.getLastName());
+        strings[6] = encode(customer.getProductType());
+        int bytes = 4 * Long.BYTES + LiveBookIndex.KEY_TYPE_COUNT * Long.BYTES;
+        for (byte[] string : strings) {
+            bytes += Short.BYTES + (string != null ? string.length : 0);
+        }
+        return bytes;
+    }
+
+    private static void writeRecord(ChannelWriter out, Customer customer, long[] keys, byte[][] strings) throws IOException {
+        out.putLong(customer.getId().getMostSignificantBits());
+        out.putLong(customer.getId().getLeastSignificantBits());
+        out.putLong(customer.getDateOfBirth() != null ? customer.getDateOfBirth().toEpochDay() : NO_DATE_OF_BIRTH);
+        out.putLong(customer.getUpdatedAt() != null ? customer.getUpdatedAt().toEpochMilli() : NO_TIMESTAMP);
+        for (long key : keys) {
+            out.putLong(key);
+        }
+        for (byte[] string : strings) {
+            out.putString(string);
+        }
+    }
+
+    private static void readRecord(ByteBuffer in, List<Customer> customers, List<long[]> keys) {
+        UUID id = new UUID(in.getLong(), in.getLong());
+        long epochDay = in.getLong();
+        long updatedAtMillis = in.getLong();
+        long[] recordKeys = new long[LiveBookIndex.KEY_TYPE_COUNT];
+        for (int i = 0; i < recordKeys.length; i++) {
+            recordKeys[i] = in.getLong();
+        }
+        String customer360Id = getString(in);
+        String pan = getString(in);
+        String aadhaar = getString(in);
+        String mobileNumber = getString(in);
+        String firstName = getString(in);
+        String lastName = getString(in);
+        String productType = getString(in);
+
+        Customer customer = new Customer(pan, aadhaar, mobileNumber, firstName, lastName,
+                epochDay == NO_DATE_OF_BIRTH ? null : LocalDate.ofEpochDay(epochDay), productType);
+        customer.setId(id);
+        customer.setCustomer360Id(customer360Id);
+        customer.setUpdatedAt(updatedAtMillis == NO_TIMESTAMP ? null : Instant.ofEpochMilli(updatedAtMillis));
+        customers.add(customer);
+        if (keys != null) {
+            keys.add(recordKeys);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Field too long for live book index snapshot: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Buffered sequential writer over a {@link FileChannel} that tracks the file position.
+     */
+    private static final class ChannelWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        private long flushed;
+
+        ChannelWriter(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            channel.position(start);
+            this.flushed = start;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putString(byte[] bytes) throws IOException {
+            ensure(Short.BYTES);
+            if (bytes == null) {
+                buffer.putShort((short) -1);
+                return;
+            }
+            buffer.putShort((short) bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to primitive {@code int} values.
+ *
+ * <p>Keys and values live in two parallel arrays probed linearly, so an entry costs 12 bytes per
+ * slot with no per-entry objects, versus roughly 100 bytes for a {@code HashMap<String, Integer>}
+ * entry holding a short identifier. Key {@code 0} is stored out of line because it marks empty
+ * slots. {@link #remove(long)} uses backward-shift deletion, so no tombstones accumulate in
+ * long-lived maps.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+final class LongIntHashMap {
+
+    /**
+     * Returned by {@link #get(long)} and {@link #put(long, int)} when a key has no value.
+     */
+    static final int NO_VALUE = -1;
+
+    private static final long EMPTY_KEY = 0L;
+    private static final float MAX_LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    private boolean hasZeroKey;
+    private int zeroKeyValue = NO_VALUE;
+
+    /**
+     * Creates a map sized to hold {@code expectedSize} entries without resizing.
+     */
+    LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return The value mapped to {@code key}, or {@link #NO_VALUE}.
+     */
+    int get(long key) {
+        if (key == EMPTY_KEY) {
+            return hasZeroKey ? zeroKeyValue : NO_VALUE;
+        }
+        int slot = slotFor(key);
+        while (true) {
+            long slotKey = keys[slot];
+            if (slotKey == key) {
+                return values[slot];
+            }
+            if (slotKey == EMPTY_KEY) {
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Maps {@code key} to {@code value}.
+     *
+     * @return The previous value, or {@link #NO_VALUE} if the key was absent.
+     */
+    int put(long key, int value) {
+        if (key == EMPTY_KEY) {
+            int previous = hasZeroKey ? zeroKeyValue : NO_VALUE;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroKeyValue = value;
+            return previous;
+        }
+        int slot = slotFor(key);
+        while (true) {
+            long slotKey = keys[slot];
+            if (slotKey == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            if (slotKey == EMPTY_KEY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeThreshold) {
+                    rehash(keys.length << 1);
+                }
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the mapping for {@code key}.
+     *
+     * @return The removed value, or {@link #NO_VALUE} if the key was absent.
+     */
+    int remove(long key) {
+        if (key == EMPTY_KEY) {
+            if (!hasZeroKey) {
+                return NO_VALUE;
+            }
+            int previous = zeroKeyValue;
+            hasZeroKey = false;
+            zeroKeyValue = NO_VALUE;
+            size--;
+            return previous;
+        }
+        int slot = slotFor(key);
+        while (true) {
+            long slotKey = keys[slot];
+            if (slotKey == EMPTY_KEY) {
+                return NO_VALUE;
+            }
+            if (slotKey == key) {
+                int previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The approximate heap footprint of the backing arrays, in bytes.
+     */
+    long estimatedBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private int slotFor(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer; spreads sequential identifiers across the table.
+     */
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Empties {@code gap} and moves later entries of the same probe run back into it, so that every
+     * remaining key is still reachable from its home slot without crossing an empty slot.
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == EMPTY_KEY) {
+                break;
+            }
+            int home = slotFor(key);
+            // Move the entry if its home slot is not cyclically within (gap, slot].
+            boolean reachable = gap <= slot ? (gap < home && home <= slot) : (gap < home || home <= slot);
+            if (!reachable) {
+                keys[gap] = key;
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY_KEY;
+        values[gap] = NO_VALUE;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY_KEY) {
+                int slot = slotFor(key);
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NO_VALUE);
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long required = (long) Math.ceil(Math.max(expectedSize, 1) / (double) MAX_LOAD_FACTOR) + 1;
+        long capacity = Long.highestOneBit(Math.max(required, MIN_CAPACITY) - 1) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Too many entries for LongIntHashMap: " + expectedSize);
+        }
+        return (int) capacity;
+    }
+}
@@ -0,0 +1,282 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Fuzzy name comparison and candidate-key generation for the Name + DOB deduplication rule.
+ *
+ * <p>Indian names reach the CDP in many romanizations ("Lakshmi"/"Laxmi", "Mohammed"/"Mohd",
+ * "Vijay"/"Vijai"), which the exact, case-insensitive Name + DOB rule treats as different people.
+ * This class provides three things:</p>
+ * <ul>
+ *     <li>{@link #normalize(String)} - a transliteration-normalized form of a name token
+ *         (aspirates collapsed, {@code ksh/ks/x} unified, common abbreviations expanded).</li>
+ *     <li>{@link #phoneticCode(String)} - a consonant skeleton of the normalized form, used as a
+ *         blocking key by {@link LiveBookIndex}.</li>
+ *     <li>{@link #bandSignatures(String, String)} - MinHash band signatures over the character
+ *         bigrams of the normalized full name (LSH), so that names with a typo that changes the
+ *         phonetic code still share a blocking key.</li>
+ * </ul>
+ * <p>Candidates found through these keys are then scored with {@link #isFuzzyNameMatch}, which
+ * is the only place similarity is actually computed.</p>
+ */
+final class NameSimilarity {
+
+    /**
+     * Minimum Jaro-Winkler similarity of the normalized first and last names for a fuzzy match.
+     */
+    static final double MATCH_THRESHOLD = 0.90;
+
+    /**
+     * Lower similarity accepted when both names also share a phonetic code. The code alone is too
+     * coarse ("Rama" and "Romi" both give {@code "rm"}).
+     */
+    static final double PHONETIC_MATCH_THRESHOLD = 0.80;
+
+    /**
+     * Number of LSH bands; each band is {@link #ROWS_PER_BAND} MinHash values.
+     */
+    static final int BANDS = 3;
+    private static final int ROWS_PER_BAND = 2;
+    private static final long[] MIN_HASH_SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+            0x27D4EB2F165667C5L, 0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L
+    };
+
+    /**
+     * Whole-token abbreviations and spellings mapped to one canonical form, applied after normalization.
+     */
+    private static final String[][] TOKEN_ALIASES = {
+            {"md", "mohamad"}, {"mohd", "mohamad"}, {"mhd", "mohamad"},
+            {"mohamed", "mohamad"}, {"muhamad", "mohamad"}, {"mohamad", "mohamad"},
+    };
+
+    /**
+     * Multi-letter spellings rewritten to a canonical form, longest first.
+     */
+    private static final String[][] REWRITES = {
+            {"ksh", "x"}, {"ks", "x"}, {"sh", "s"}, {"ch", "c"}, {"ph", "f"}, {"bh", "b"}, {"dh", "d"},
+            {"th", "t"}, {"kh", "k"}, {"gh", "g"}, {"jh", "j"}, {"ck", "k"}, {"ee", "i"}, {"oo", "u"},
+            {"q", "k"}, {"w", "v"}, {"z", "j"}, {"y", "i"},
+    };
+
+    private NameSimilarity() {
+    }
+
+    /**
+     * Normalizes a name (one or more tokens) for comparison: lower-cased, reduced to ASCII letters
+     * and single spaces, spelling variants rewritten, doubled letters collapsed and known
+     * abbreviations expanded.
+     *
+     * @return The normalized name; empty if the input has no letters.
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String lower = name.toLowerCase(Locale.ROOT);
+        StringBuilder letters = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            } else if (letters.length() > 0 && letters.charAt(letters.length() - 1) != ' ') {
+                letters.append(' ');
+            }
+        }
+
+        StringBuilder normalized = new StringBuilder(letters.length());
+        for (String token : letters.toString().trim().split(" ")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (normalized.length() > 0) {
+                normalized.append(' ');
+            }
+            normalized.append(alias(collapseRepeats(rewrite(token))));
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Consonant skeleton of a normalized name: the first letter of each token followed by its
+     * consonants, repeats collapsed. {@code "lakshmi"} and {@code "laxmi"} both give {@code "lxm"}.
+     */
+    static String phoneticCode(String normalizedName) {
+        StringBuilder code = new StringBuilder(normalizedName.length());
+        boolean tokenStart = true;
+        for (int i = 0; i < normalizedName.length(); i++) {
+            char c = normalizedName.charAt(i);
+            if (c == ' ') {
+                tokenStart = true;
+                continue;
+            }
+            if ((tokenStart || !isVowel(c)) && (code.length() == 0 || code.charAt(code.length() - 1) != c)) {
+                code.append(c);
+            }
+            tokenStart = false;
+        }
+        return code.toString();
+    }
+
+    /**
+     * MinHash band signatures of the character bigrams of the normalized full name. Two names
+     * with bigram Jaccard similarity {@code s} share at least one band with probability
+     * {@code 1 - (1 - s^2)^3}, i.e. ~0.93 at {@code s = 0.7} and ~0.12 at {@code s = 0.2}.
+     *
+     * @return {@link #BANDS} signatures, or {@code null} if the name has fewer than two letters.
+     */
+    static long[] bandSignatures(String normalizedFirstName, String normalizedLastName) {
+        String full = normalizedFirstName + ' ' + normalizedLastName;
+        long[] minHashes = new long[MIN_HASH_SEEDS.length];
+        Arrays.fill(minHashes, Long.MAX_VALUE);
+        boolean any = false;
+        for (int i = 0; i + 1 < full.length(); i++) {
+            long bigram = ((long) full.charAt(i) << 16) | full.charAt(i + 1);
+            for (int h = 0; h < MIN_HASH_SEEDS.length; h++) {
+                long value = mix(bigram ^ MIN_HASH_SEEDS[h]);
+                if (value < minHashes[h]) {
+                    minHashes[h] = value;
+                }
+            }
+            any = true;
+        }
+        if (!any) {
+            return null;
+        }
+
+        long[] bands = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long signature = band;
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                signature = mix(signature * 31 + minHashes[band * ROWS_PER_BAND + row]);
+            }
+            bands[band] = signature;
+        }
+        return bands;
+    }
+
+    /**
+     * Scores two (first name, last name) pairs. Each part must be equal after normalization, or
+     * reach {@link #MATCH_THRESHOLD} Jaro-Winkler similarity, or share its phonetic code and reach
+     * {@link #PHONETIC_MATCH_THRESHOLD}.
+     *
+     * @return {@code true} if the names are transliteration or spelling variants of each other.
+     */
+    static boolean isFuzzyNameMatch(String firstName1, String lastName1, String firstName2, String lastName2) {
+        return isFuzzyTokenMatch(normalize(firstName1), normalize(firstName2))
+                && isFuzzyTokenMatch(normalize(lastName1), normalize(lastName2));
+    }
+
+    private static boolean isFuzzyTokenMatch(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return false;
+        }
+        if (a.equals(b)) {
+            return true;
+        }
+        double similarity = jaroWinkler(a, b);
+        return similarity >= MATCH_THRESHOLD
+                || (similarity >= PHONETIC_MATCH_THRESHOLD && phoneticCode(a).equals(phoneticCode(b)));
+    }
+
+    /**
+     * Jaro-Winkler similarity in {@code [0, 1]} with the standard prefix scale of 0.1 (max 4 chars).
+     */
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+
+    private static String rewrite(String token) {
+        StringBuilder out = new StringBuilder(token.length());
+        int i = 0;
+        outer:
+        while (i < token.length()) {
+            for (String[] rewrite : REWRITES) {
+                if (token.startsWith(rewrite[0], i)) {
+                    out.append(rewrite[1]);
+                    i += rewrite[0].length();
+                    continue outer;
+                }
+            }
+            out.append(token.charAt(i++));
+        }
+        return out.toString();
+    }
+
+    private static String collapseRepeats(String token) {
+        StringBuilder out = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (out.length() == 0 || out.charAt(out.length() - 1) != c) {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String alias(String token) {
+        for (String[] alias : TOKEN_ALIASES) {
+            if (alias[0].equals(token)) {
+                return alias[1];
+            }
+        }
+        return token;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,176 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * {@code PartitionedDeduplicator} computes the same {@link DedupeOutcome} as the sequential path of
+ * {@link DeduplicationEngine}, spread over a {@link ForkJoinPool}.
+ *
+ * <ol>
+ *     <li>Every record is assigned to a partition by a hash of its strongest cluster key
+ *         (PAN, else Aadhaar, else name + DOB; see {@link InBatchClusterer#clusterKeys(Customer)}).</li>
+ *     <li>Partitions run concurrently: each record is matched against the live book, and the unmatched
+ *         records of the partition are clustered with {@link InBatchClusterer}.</li>
+ *     <li>Reconciliation joins clusters across partitions. Records sharing a key that is the strongest
+ *         key of all of them always land in the same partition, so cross-partition links can only run
+ *         through keys that some record holds as a weaker (secondary) key. Only those keys are merged
+ *         again, over the whole batch, on top of the partition-local clusters.</li>
+ * </ol>
+ *
+ * <p>Clusters are the connected components of the same key graph as in the sequential path, and
+ * {@link UnionFind} keeps the lowest position as representative, so survivors are identical too.
+ * The live book matcher is called concurrently and must be thread-safe.</p>
+ */
+final class PartitionedDeduplicator {
+
+    private PartitionedDeduplicator() {
+    }
+
+    /**
+     * Deduplicates a batch in partitions.
+     *
+     * @param records         The batch records, without {@code null} entries.
+     * @param liveBookMatcher Finds the live book match of one record; called from pool threads.
+     * @param pool            The pool the partitions run on.
+     * @param partitionCount  The number of partitions; at least 1.
+     * @return The outcome per batch position.
+     */
+    static DedupeOutcome deduplicate(List<Customer> records, Function<Customer, Optional<Customer>> liveBookMatcher,
+                                     ForkJoinPool pool, int partitionCount) {
+        int size = records.size();
+        String[][] keys = new String[size][];
+        int[] strongestKey = new int[size];
+        List<List<Integer>> partitions = new ArrayList<>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions.add(new ArrayList<>(size / partitionCount + 1));
+        }
+        for (int position = 0; position < size; position++) {
+            keys[position] = InBatchClusterer.clusterKeys(records.get(position));
+            strongestKey[position] = strongestKeyIndex(keys[position]);
+            int hash = strongestKey[position] >= 0 ? spread(keys[position][strongestKey[position]].hashCode()) : position;
+            partitions.get(Math.floorMod(hash, partitionCount)).add(position);
+        }
+
+        Customer[] liveBookMatches = new Customer[size];
+        int[] survivors = new int[size];
+        List<Callable<Void>> tasks = new ArrayList<>(partitionCount);
+        for (List<Integer> members : partitions) {
+            if (!members.isEmpty()) {
+                tasks.add(() -> {
+                    deduplicatePartition(records, members, liveBookMatcher, liveBookMatches, survivors);
+                    return null;
+                });
+            }
+        }
+        // Future.get() makes every partition's array writes visible to this thread.
+        for (Future<Void> result : pool.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during partitioned deduplication", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Partitioned deduplication failed", e.getCause());
+            }
+        }
+
+        reconcile(keys, strongestKey, survivors);
+        return new DedupeOutcome(liveBookMatches, survivors);
+    }
+
+    /**
+     * Matches the members of one partition against the live book and clusters the unmatched ones.
+     * Members are in ascending batch order, so the local survivor is also the earliest in the batch.
+     */
+    private static void deduplicatePartition(List<Customer> records, List<Integer> members,
+                                             Function<Customer, Optional<Customer>> liveBookMatcher,
+                                             Customer[] liveBookMatches, int[] survivors) {
+        List<Customer> unmatched = new ArrayList<>(members.size());
+        List<Integer> unmatchedPositions = new ArrayList<>(members.size());
+        for (int position : members) {
+            Customer record = records.get(position);
+            Optional<Customer> match = liveBookMatcher.apply(record);
+            if (match.isPresent()) {
+                liveBookMatches[position] = match.get();
+                survivors[position] = DedupeOutcome.NO_SURVIVOR;
+            } else {
+                unmatched.add(record);
+                unmatchedPositions.add(position);
+            }
+        }
+        int[] localSurvivors = InBatchClusterer.clusterSurvivors(unmatched);
+        for (int local = 0; local < localSurvivors.length; local++) {
+            survivors[unmatchedPositions.get(local)] = unmatchedPositions.get(localSurvivors[local]);
+        }
+    }
+
+    /**
+     * Joins partition-local clusters that are linked through a secondary key, and rewrites
+     * {@code survivors} with the batch-wide survivors.
+     */
+    private static void reconcile(String[][] keys, int[] strongestKey, int[] survivors) {
+        int size = survivors.length;
+        Set<String> bridgeKeys = new HashSet<>();
+        for (int position = 0; position < size; position++) {
+            if (survivors[position] == DedupeOutcome.NO_SURVIVOR) {
+                continue;
+            }
+            for (int keyIndex = strongestKey[position] + 1; keyIndex < keys[position].length; keyIndex++) {
+                if (keys[position][keyIndex] != null) {
+                    bridgeKeys.add(keys[position][keyIndex]);
+                }
+            }
+        }
+
+        UnionFind clusters = new UnionFind(size);
+        for (int position = 0; position < size; position++) {
+            if (survivors[position] != DedupeOutcome.NO_SURVIVOR) {
+                clusters.union(survivors[position], position);
+            }
+        }
+        if (!bridgeKeys.isEmpty()) {
+            Map<String, Integer> firstByKey = new HashMap<>(Math.max(16, (int) (bridgeKeys.size() / 0.75f) + 1));
+            for (int position = 0; position < size; position++) {
+                if (survivors[position] == DedupeOutcome.NO_SURVIVOR) {
+                    continue;
+                }
+                for (String key : keys[position]) {
+                    if (key != null && bridgeKeys.contains(key)) {
+                        InBatchClusterer.mergeOnKey(clusters, firstByKey, key, position);
+                    }
+                }
+            }
+        }
+        for (int position = 0; position < size; position++) {
+            if (survivors[position] != DedupeOutcome.NO_SURVIVOR) {
+                survivors[position] = clusters.find(position);
+            }
+        }
+    }
+
+    private static int strongestKeyIndex(String[] keys) {
+        for (int keyIndex = 0; keyIndex < keys.length; keyIndex++) {
+            if (keys[keyIndex] != null) {
+                return keyIndex;
+            }
+        }
+        return -1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,516 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@code ResidentLiveBookIndex} is a long-lived, incrementally maintained blocking-key index over
+ * the whole 'live book' (Customer 360). Unlike {@link LiveBookIndex}, which is built from a full
+ * {@code findAll()} for every batch, it is bootstrapped once and then kept current one customer at
+ * a time through {@link #refresh(String)}, which the customer event listeners call for every
+ * created or updated profile.
+ *
+ * <p>It keeps a compact copy of each customer's identity fields (the fields the deduplication
+ * rules read) plus the same blocking keys as {@link LiveBookIndex}, in mutable postings that
+ * support removal. Candidates are returned in ascending ordinal (insertion) order.</p>
+ *
+ * <p>Lifecycle:</p>
+ * <ul>
+ *     <li>On startup, the index is loaded from the memory-mapped {@link LiveBookSnapshot} if one exists
+ *         and topped up with the customers modified since the snapshot's watermark (minus a safety margin
+ *         for in-flight transactions); otherwise it is rebuilt from the database and a snapshot is written.
+ *         Until then {@link #isReady()} is {@code false} and {@link DeduplicationEngine} falls back to a
+ *         per-batch {@link LiveBookIndex}.</li>
+ *     <li>A periodic consistency check compares a count and an order-independent digest of the
+ *         identity fields against the database, and rebuilds the index if they differ (e.g. after
+ *         changes made while this instance was down, or missed events).</li>
+ *     <li>On shutdown a fresh snapshot is written, so restarts do not need a full table scan.</li>
+ * </ul>
+ *
+ * <p>Reads take a shared lock and writes an exclusive one, so lookups run concurrently with each
+ * other and only wait for the (short) single-customer updates.</p>
+ */
+@Component
+public class ResidentLiveBookIndex implements LiveBookCandidates {
+
+    private static final Logger log = LoggerFactory.getLogger(ResidentLiveBookIndex.class);
+
+    private final CustomerRepository customerRepository;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final long deltaSafetyMarginMillis;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State(0);
+    private volatile boolean ready;
+
+    /**
+     * Constructs the index. It stays empty and not ready until {@link #bootstrap()} has run.
+     *
+     * @param customerRepository The repository used to load the live book and single customers.
+     * @param enabled            Whether the resident index is used at all.
+     * @param snapshotPath       Snapshot file location; blank disables snapshots.
+     * @param deltaSafetyMarginMillis How far before the snapshot watermark the startup delta begins, to cover
+     *                                transactions that committed after later ones.
+     */
+    @Autowired
+    public ResidentLiveBookIndex(CustomerRepository customerRepository,
+                                 @Value("${application.deduplication.resident-index.enabled:true}") boolean enabled,
+                                 @Value("${application.deduplication.resident-index.snapshot-path:}") String snapshotPath,
+                                 @Value("${application.deduplication.resident-index.delta-safety-margin-ms:300000}") long deltaSafetyMarginMillis) {
+        this.customerRepository = customerRepository;
+        this.enabled = enabled;
+        this.snapshotPath = snapshotPath == null || snapshotPath.trim().isEmpty() ? null : Paths.get(snapshotPath.trim());
+        this.deltaSafetyMarginMillis = deltaSafetyMarginMillis;
+    }
+
+    /**
+     * Loads the index from the snapshot file plus the delta since its watermark, or from the database
+     * if there is no usable snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            log.info("Resident live book index is disabled; deduplication will index the live book per batch.");
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        if (snapshotPath != null && Files.isRegularFile(snapshotPath) && loadSnapshotWithDelta()) {
+            ready = true;
+            log.info("Warm-started resident live book index from snapshot {}: {} customers in {} ms.",
+                    snapshotPath, size(), System.currentTimeMillis() - startedAt);
+            return;
+        }
+        rebuildFromDatabase();
+        ready = true;
+        log.info("Built resident live book index from the database: {} customers in {} ms.",
+                size(), System.currentTimeMillis() - startedAt);
+        writeSnapshot();
+    }
+
+    /**
+     * @return {@code false} if the snapshot could not be used and the index must be rebuilt from the database.
+     */
+    private boolean loadSnapshotWithDelta() {
+        LiveBookSnapshot.Contents contents;
+        try {
+            contents = LiveBookSnapshot.read(snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load live book index snapshot {}; rebuilding from the database.", snapshotPath, e);
+            return false;
+        }
+        if (contents.watermarkMillis == LiveBookSnapshot.NO_TIMESTAMP && !contents.customers.isEmpty()) {
+            log.warn("Live book index snapshot {} has no watermark, so its delta cannot be bounded; rebuilding from the database.",
+                    snapshotPath);
+            return false;
+        }
+        install(contents.customers, contents.keys);
+        if (contents.keys == null) {
+            log.info("Live book index snapshot {} uses an older key scheme; keys were recomputed.", snapshotPath);
+        }
+
+        Instant deltaFrom = contents.watermarkMillis == LiveBookSnapshot.NO_TIMESTAMP
+                ? Instant.EPOCH : Instant.ofEpochMilli(contents.watermarkMillis - deltaSafetyMarginMillis);
+        List<Customer> delta = customerRepository.findByUpdatedAtAfter(deltaFrom);
+        for (Customer customer : delta) {
+            upsert(customer);
+        }
+        log.info("Applied {} live book changes since {} on top of {} snapshot customers.",
+                delta.size(), deltaFrom, contents.customers.size());
+        return true;
+    }
+
+    /**
+     * Re-reads one customer from the database and updates, adds or removes its index entry.
+     *
+     * @param customerId The ID of a created, updated or deleted customer.
+     */
+    public void refresh(String customerId) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        Optional<Customer> customer = customerRepository.findById(customerId);
+        if (customer.isPresent()) {
+            upsert(customer.get());
+        } else {
+            try {
+                remove(UUID.fromString(customerId));
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring refresh for unknown non-UUID customer ID '{}'.", customerId);
+            }
+        }
+    }
+
+    /**
+     * Adds a customer, or replaces the indexed copy of an existing one.
+     */
+    public void upsert(Customer customer) {
+        if (customer == null || customer.getId() == null) {
+            return;
+        }
+        Customer copy = identityCopy(customer);
+        long[] keys = LiveBookIndex.blockingKeys(copy);
+        lock.writeLock().lock();
+        try {
+            state.upsert(copy, keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a customer from the index, if present.
+     */
+    public void remove(UUID customerId) {
+        lock.writeLock().lock();
+        try {
+            state.remove(customerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Customer> candidatesFor(Customer probe) {
+        return probe == null ? Collections.emptyList() : collect(LiveBookIndex.blockingKeys(probe), 0, LiveBookIndex.EXACT_KEY_TYPE_COUNT);
+    }
+
+    @Override
+    public List<Customer> fuzzyNameCandidatesFor(Customer probe) {
+        return probe == null ? Collections.emptyList()
+                : collect(LiveBookIndex.blockingKeys(probe), LiveBookIndex.EXACT_KEY_TYPE_COUNT, LiveBookIndex.KEY_TYPE_COUNT);
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} once the index has been loaded and can replace the per-batch index.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Compares the index with the database (customer count and identity digest) and rebuilds it
+     * if they disagree.
+     *
+     * @return {@code true} if the index was consistent.
+     */
+    @Scheduled(initialDelayString = "${application.deduplication.resident-index.consistency-check-interval-ms:3600000}",
+               fixedDelayString = "${application.deduplication.resident-index.consistency-check-interval-ms:3600000}")
+    public boolean verifyAgainstDatabase() {
+        if (!ready) {
+            return true;
+        }
+        long databaseCount = 0;
+        long databaseDigest = 0;
+        for (Customer customer : customerRepository.findAll()) {
+            if (customer != null && customer.getId() != null) {
+                databaseCount++;
+                databaseDigest += identityDigest(customer);
+            }
+        }
+
+        long indexCount;
+        long indexDigest;
+        lock.readLock().lock();
+        try {
+            indexCount = state.liveCount;
+            indexDigest = state.digest;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (databaseCount == indexCount && databaseDigest == indexDigest) {
+            log.debug("Resident live book index is consistent with the database ({} customers).", indexCount);
+            return true;
+        }
+        log.warn("Resident live book index is inconsistent with the database (index: {} customers, database: {}). Rebuilding.",
+                indexCount, databaseCount);
+        rebuildFromDatabase();
+        writeSnapshot();
+        return false;
+    }
+
+    /**
+     * Writes the current index contents, their blocking keys and the watermark to the snapshot file,
+     * atomically replacing any previous one.
+     */
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!ready || snapshotPath == null) {
+            return;
+        }
+        List<Customer> customers;
+        List<long[]> keys;
+        long watermarkMillis;
+        lock.readLock().lock();
+        try {
+            customers = new ArrayList<>(state.liveCount);
+            keys = new ArrayList<>(state.liveCount);
+            for (int ordinal = 0; ordinal < state.ordinalCount; ordinal++) {
+                if (state.customers[ordinal] != null) {
+                    customers.add(state.customers[ordinal]);
+                    keys.add(state.keysOf(ordinal));
+                }
+            }
+            watermarkMillis = state.watermarkMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        try {
+            LiveBookSnapshot.write(snapshotPath, customers, keys, watermarkMillis);
+            log.info("Wrote live book index snapshot {} with {} customers in {} ms.",
+                    snapshotPath, customers.size(), System.currentTimeMillis() - startedAt);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write live book index snapshot {}.", snapshotPath, e);
+        }
+    }
+
+    private void rebuildFromDatabase() {
+        install(customerRepository.findAll(), null);
+    }
+
+    /**
+     * Replaces the index contents.
+     *
+     * @param keys Precomputed blocking keys aligned with {@code customers}, or {@code null} to compute them.
+     */
+    private void install(List<Customer> customers, List<long[]> keys) {
+        State fresh = new State(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            if (customer != null && customer.getId() != null) {
+                Customer copy = identityCopy(customer);
+                fresh.upsert(copy, keys != null ? keys.get(i) : LiveBookIndex.blockingKeys(copy));
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            state = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Customer> collect(long[] keys, int fromKeyType, int toKeyType) {
+        lock.readLock().lock();
+        try {
+            if (state.liveCount == 0) {
+                return Collections.emptyList();
+            }
+            LiveBookIndex.OrdinalBuffer ordinals = new LiveBookIndex.OrdinalBuffer();
+            for (int keyType = fromKeyType; keyType < toKeyType; keyType++) {
+                state.postings[keyType].collect(keys[keyType], ordinals);
+            }
+            if (ordinals.size > 1) {
+                ordinals.sortDistinct();
+            }
+            List<Customer> candidates = new ArrayList<>(ordinals.size);
+            for (int i = 0; i < ordinals.size; i++) {
+                candidates.add(state.customers[ordinals.values[i]]);
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the fields read by the deduplication rules, so later changes to the caller's object
+     * cannot corrupt the index.
+     */
+    static Customer identityCopy(Customer customer) {
+        Customer copy = new Customer(customer.getPan(), customer.getAadhaar(), customer.getMobileNumber(),
+                customer.getFirstName(), customer.getLastName(), customer.getDateOfBirth(), customer.getProductType());
+        copy.setId(customer.getId());
+        copy.setCustomer360Id(customer.getCustomer360Id());
+        copy.setStatus(customer.getStatus());
+        copy.setUpdatedAt(customer.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * Order-independent contribution of one customer to the index digest: a fingerprint of the
+     * identity fields, summed over all customers.
+     */
+    static long identityDigest(Customer customer) {
+        String identity = customer.getId() + "\u0000" + customer.getCustomer360Id() + "\u0000" + customer.getPan()
+                + "\u0000" + customer.getAadhaar() + "\u0000" + customer.getMobileNumber()
+                + "\u0000" + customer.getFirstName() + "\u0000" + customer.getLastName() + "\u0000" + customer.getDateOfBirth();
+        return LiveBookIndex.fingerprint(identity);
+    }
+
+    /**
+     * The mutable index contents. Ordinals of removed customers are left empty and not reused until
+     * the next rebuild; updates keep a customer's ordinal, so its position in live book order is stable.
+     */
+    private static final class State {
+        private Customer[] customers;
+        private final Map<UUID, Integer> ordinalById;
+        private final MutablePostings[] postings = new MutablePostings[LiveBookIndex.KEY_TYPE_COUNT];
+        private int ordinalCount;
+        private int liveCount;
+        private long digest;
+        private long watermarkMillis = LiveBookSnapshot.NO_TIMESTAMP;
+
+        State(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            this.customers = new Customer[capacity];
+            this.ordinalById = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+            for (int keyType = 0; keyType < postings.length; keyType++) {
+                postings[keyType] = new MutablePostings(capacity);
+            }
+        }
+
+        void upsert(Customer customer, long[] keys) {
+            Integer existing = ordinalById.get(customer.getId());
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                digest -= identityDigest(customers[ordinal]);
+                for (MutablePostings keyPostings : postings) {
+                    keyPostings.remove(ordinal);
+                }
+            } else {
+                ordinal = ordinalCount++;
+                if (ordinal == customers.length) {
+                    int capacity = customers.length * 2;
+                    customers = Arrays.copyOf(customers, capacity);
+                    for (MutablePostings keyPostings : postings) {
+                        keyPostings.grow(capacity);
+                    }
+                }
+                ordinalById.put(customer.getId(), ordinal);
+                liveCount++;
+            }
+            customers[ordinal] = customer;
+            digest += identityDigest(customer);
+            if (customer.getUpdatedAt() != null) {
+                watermarkMillis = Math.max(watermarkMillis, customer.getUpdatedAt().toEpochMilli());
+            }
+            for (int keyType = 0; keyType < postings.length; keyType++) {
+                postings[keyType].add(keys[keyType], ordinal);
+            }
+        }
+
+        long[] keysOf(int ordinal) {
+            long[] keys = new long[postings.length];
+            for (int keyType = 0; keyType < postings.length; keyType++) {
+                keys[keyType] = postings[keyType].keyOf[ordinal];
+            }
+            return keys;
+        }
+
+        void remove(UUID customerId) {
+            Integer ordinal = customerId != null ? ordinalById.remove(customerId) : null;
+            if (ordinal == null) {
+                return;
+            }
+            digest -= identityDigest(customers[ordinal]);
+            for (MutablePostings keyPostings : postings) {
+                keyPostings.remove(ordinal);
+            }
+            customers[ordinal] = null;
+            liveCount--;
+        }
+    }
+
+    /**
+     * Postings for one key type that support removal: the head ordinal per key, a chain of further
+     * ordinals, and the key each ordinal is currently registered under.
+     */
+    private static final class MutablePostings {
+        private final LongIntHashMap heads;
+        private int[] next;
+        private long[] keyOf;
+
+        MutablePostings(int capacity) {
+            this.heads = new LongIntHashMap(capacity);
+            this.next = new int[capacity];
+            this.keyOf = new long[capacity];
+            Arrays.fill(keyOf, IdentityKeyCodec.NOT_PACKABLE);
+        }
+
+        void grow(int capacity) {
+            int previous = keyOf.length;
+            next = Arrays.copyOf(next, capacity);
+            keyOf = Arrays.copyOf(keyOf, capacity);
+            Arrays.fill(keyOf, previous, capacity, IdentityKeyCodec.NOT_PACKABLE);
+        }
+
+        void add(long key, int ordinal) {
+            keyOf[ordinal] = key;
+            if (key != IdentityKeyCodec.NOT_PACKABLE) {
+                next[ordinal] = heads.put(key, ordinal);
+            }
+        }
+
+        void remove(int ordinal) {
+            long key = keyOf[ordinal];
+            if (key == IdentityKeyCodec.NOT_PACKABLE) {
+                return;
+            }
+            keyOf[ordinal] = IdentityKeyCodec.NOT_PACKABLE;
+            int head = heads.get(key);
+            if (head == ordinal) {
+                if (next[ordinal] == LongIntHashMap.NO_VALUE) {
+                    heads.remove(key);
+                } else {
+                    heads.put(key, next[ordinal]);
+                }
+                return;
+            }
+            for (int previous = head; previous != LongIntHashMap.NO_VALUE; previous = next[previous]) {
+                if (next[previous] == ordinal) {
+                    next[previous] = next[ordinal];
+                    return;
+                }
+            }
+        }
+
+        void collect(long key, LiveBookIndex.OrdinalBuffer buffer) {
+            if (key == IdentityKeyCodec.NOT_PACKABLE) {
+                return;
+            }
+            for (int ordinal = heads.get(key); ordinal != LongIntHashMap.NO_VALUE; ordinal = next[ordinal]) {
+                buffer.add(ordinal);
+            }
+        }
+    }
+}
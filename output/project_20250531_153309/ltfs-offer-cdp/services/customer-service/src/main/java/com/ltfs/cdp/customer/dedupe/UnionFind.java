@@ -0,0 +1,65 @@
+package com.ltfs.cdp.customer.dedupe;
+
+/**
+ * Array-backed disjoint-set (union-find) structure over the dense range {@code [0, size)}.
+ *
+ * <p>Uses path halving on {@link #find} and always links the larger root under the smaller one,
+ * so the representative of every set is its lowest element. That makes the representative a
+ * natural, order-stable choice for a cluster survivor (the earliest record in a batch).</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+final class UnionFind {
+
+    private final int[] parent;
+
+    /**
+     * Creates {@code size} singleton sets.
+     *
+     * @param size The number of elements.
+     */
+    UnionFind(int size) {
+        parent = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+    }
+
+    /**
+     * Returns the representative (lowest element) of the set containing {@code element}.
+     */
+    int find(int element) {
+        int current = element;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+
+    /**
+     * Merges the sets containing {@code a} and {@code b}.
+     *
+     * @return The representative of the merged set.
+     */
+    int union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return rootA;
+        }
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+            return rootA;
+        }
+        parent[rootA] = rootB;
+        return rootB;
+    }
+
+    /**
+     * @return The number of elements.
+     */
+    int size() {
+        return parent.length;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ltfs.cdp.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing, requested with a {@link PaginationRequest} carrying a cursor.
+ * Clients walk the listing by passing {@code nextCursor} back as the {@code cursor} of the next
+ * request until it is null.
+ *
+ * @param <T> The type of the items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    /**
+     * The items of this page, in the listing's order. At most the requested size.
+     */
+    private List<T> items;
+
+    /**
+     * The cursor of the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Indicates whether more items follow this page. Equivalent to {@code nextCursor != null}.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,86 @@
+package com.ltfs.cdp.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * DTO (Data Transfer Object) for handling common pagination request parameters.
+ * This class encapsulates parameters such as page number, page size, and sorting criteria
+ * that are typically used in paginated API endpoints.
+ *
+ * <p>Two pagination styles are supported. Offset pagination uses {@code page} and {@code size}.
+ * Keyset (seek) pagination uses {@code cursor} and {@code size}: the cursor is taken from the
+ * {@link CursorPage#getNextCursor() next cursor} of the previous page, and {@code page} is ignored.
+ * Keyset pagination costs the same for every page, however deep, and does not skip or repeat
+ * rows when rows are inserted while a client walks the pages.</p>
+ *
+ * <p>It uses Lombok annotations for boilerplate code generation (getters, setters,
+ * constructors, builder pattern) and Jakarta Validation annotations for basic input validation.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginationRequest {
+
+    /**
+     * The current page number to retrieve.
+     * This is typically 0-indexed, meaning the first page is 0.
+     * Must be a non-negative value.
+     * Default value is 0 if not explicitly provided.
+     */
+    @Min(value = 0, message = "Page number must be non-negative.")
+    @Builder.Default
+    private Integer page = 0;
+
+    /**
+     * The maximum number of items to be returned per page.
+     * Must be a positive value.
+     * Default value is 10 if not explicitly provided.
+     */
+    @Positive(message = "Page size must be positive.")
+    @Builder.Default
+    private Integer size = 10;
+
+    /**
+     * Opaque position after which the next page starts, for keyset pagination.
+     * Null for the first page. Clients must pass back the {@code nextCursor} they received unchanged,
+     * together with the same {@code sortBy}; the cursor encodes the sort key it was created for.
+     */
+    private String cursor;
+
+    /**
+     * The field name by which the results should be sorted.
+     * This string should correspond to a valid field in the entity being queried.
+     * Can be null if no specific sorting is required.
+     * Example: "customerName", "offerAmount".
+     */
+    private String sortBy;
+
+    /**
+     * The sorting order (direction) for the {@code sortBy} field.
+     * Uses the {@link SortDirection} enum to restrict values to 'ASC' (ascending) or 'DESC' (descending).
+     * Can be null if no specific sorting is required or if {@code sortBy} is null.
+     */
+    private SortDirection sortOrder;
+
+    /**
+     * Enum representing the possible sorting directions.
+     * Provides a clear and type-safe way to specify sort order.
+     */
+    public enum SortDirection {
+        /**
+         * Ascending order (e.g., A-Z, 0-9).
+         */
+        ASC,
+        /**
+         * Descending order (e.g., Z-A, 9-0).
+         */
+        DESC
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.ltfs.cdp.customer.event;
+
+import com.ltfs.cdp.customer.dedupe.ResidentLiveBookIndex;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * LiveBookIndexEventListener
+ *
+ * <p>Keeps the {@link ResidentLiveBookIndex} current by re-reading every customer that is created
+ * or updated. Both event sources only carry the customer ID; the index reloads the customer from the
+ * database, so it always reflects committed state regardless of what changed.</p>
+ *
+ * <ul>
+ *     <li>In-process {@link CustomerDataIngestedEvent} and {@link CustomerProfileUpdatedEvent} are handled
+ *         after the publishing transaction commits.</li>
+ *     <li>The {@code customer-created} and {@code customer-updated} Kafka topics carry changes made by other
+ *         replicas. Every instance consumes them in its own consumer group (a broadcast), starting from the
+ *         latest offset; the record key is expected to be the customer ID. Anything missed before startup
+ *         is caught by the index's snapshot and consistency check.</li>
+ * </ul>
+ */
+@Component
+public class LiveBookIndexEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveBookIndexEventListener.class);
+
+    private final ResidentLiveBookIndex residentLiveBookIndex;
+
+    /**
+     * Constructs a new LiveBookIndexEventListener.
+     *
+     * @param residentLiveBookIndex The index to keep in sync.
+     */
+    public LiveBookIndexEventListener(ResidentLiveBookIndex residentLiveBookIndex) {
+        this.residentLiveBookIndex = residentLiveBookIndex;
+    }
+
+    /**
+     * Indexes a newly ingested customer once its transaction has committed.
+     *
+     * @param event The {@link CustomerDataIngestedEvent} for the ingested customer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerDataIngested(CustomerDataIngestedEvent event) {
+        refresh(event.customerId(), "CustomerDataIngestedEvent");
+    }
+
+    /**
+     * Re-indexes an updated customer once its transaction has committed.
+     *
+     * @param event The {@link CustomerProfileUpdatedEvent} for the updated customer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerProfileUpdated(CustomerProfileUpdatedEvent event) {
+        refresh(event.customerId(), "CustomerProfileUpdatedEvent");
+    }
+
+    /**
+     * Re-indexes a customer created or updated by any replica.
+     *
+     * @param record The Kafka record; its key is the customer ID.
+     */
+    @KafkaListener(
+            topics = {"${application.kafka.topics.customer-created}", "${application.kafka.topics.customer-updated}"},
+            groupId = "${spring.application.name}-live-book-index-${random.uuid}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onCustomerChanged(ConsumerRecord<String, String> record) {
+        refresh(record.key(), record.topic());
+    }
+
+    private void refresh(String customerId, String source) {
+        if (customerId == null || customerId.isEmpty()) {
+            log.warn("Ignoring {} without a customer ID for the resident live book index.", source);
+            return;
+        }
+        try {
+            residentLiveBookIndex.refresh(customerId);
+            log.debug("Refreshed customer '{}' in the resident live book index from {}.", customerId, source);
+        } catch (RuntimeException e) {
+            // The index is a cache of the live book; a failed refresh is repaired by the next consistency check.
+            log.error("Failed to refresh customer '{}' in the resident live book index from {}.", customerId, source, e);
+        }
+    }
+}
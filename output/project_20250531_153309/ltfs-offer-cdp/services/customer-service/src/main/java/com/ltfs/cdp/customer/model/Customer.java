@@ -34,6 +34,9 @@ import java.util.UUID;
         @UniqueConstraint(columnNames = {"mobile_number"}),
         @UniqueConstraint(columnNames = {"email_id"}),
         @UniqueConstraint(columnNames = {"customer_identifier"}) // Business unique ID
+}, indexes = {
+        // Keyset pagination in (updated_at, id) order seeks in this index.
+        @Index(name = "idx_customer_updated_at_id", columnList = "updated_at, id")
 })
 @Data // Lombok: Generates getters, setters, toString, equals, and hashCode
 @NoArgsConstructor // Lombok: Generates a no-argument constructor
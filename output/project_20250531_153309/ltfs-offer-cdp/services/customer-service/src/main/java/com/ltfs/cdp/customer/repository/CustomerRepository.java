@@ -1,11 +1,19 @@
 package com.ltfs.cdp.customer.repository;
 
 import com.ltfs.cdp.customer.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for the {@link Customer} entity.
@@ -56,6 +64,14 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      */
     Optional<Customer> findByAadhaarNumber(String aadhaarNumber);
 
+    /**
+     * Finds a customer by its primary key. Unlike {@code findById}, typed with the entity's UUID id.
+     *
+     * @param id The primary key of the customer.
+     * @return An {@link Optional} containing the found Customer, or empty if there is no such customer.
+     */
+    Optional<Customer> findOneById(UUID id);
+
     /**
      * Finds a list of customers by matching any of the provided unique identifiers:
      * PAN, mobile number, email ID, or Aadhaar number.
@@ -82,4 +98,71 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @return An {@link Optional} containing the found Customer, or empty if no exact match is found.
      */
     Optional<Customer> findByPanAndMobileNumber(String pan, String mobileNumber);
-}
\ No newline at end of file
+
+    /**
+     * Returns the first page of customers in id order, for keyset pagination.
+     *
+     * @param limit The maximum number of customers to return.
+     * @return The customers with the smallest ids, in ascending id order.
+     */
+    @Query(value = "SELECT * FROM customer ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Customer> findFirstPageOrderById(@Param("limit") int limit);
+
+    /**
+     * Returns the page of customers following {@code afterId} in id order. Seeks directly to the
+     * position in the primary key index, so every page costs the same however deep it is.
+     *
+     * @param afterId The id of the last customer of the previous page.
+     * @param limit The maximum number of customers to return.
+     * @return The customers with ids greater than {@code afterId}, in ascending id order.
+     */
+    @Query(value = "SELECT * FROM customer WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Customer> findPageAfterIdOrderById(@Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    /**
+     * Returns the first page of customers in (updated_at, id) order, for keyset pagination.
+     * Customers without an update time (none, as JPA auditing sets it on creation) are not listed.
+     *
+     * @param limit The maximum number of customers to return.
+     * @return The least recently updated customers, in ascending (updated_at, id) order.
+     */
+    @Query(value = "SELECT * FROM customer WHERE updated_at IS NOT NULL ORDER BY updated_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<Customer> findFirstPageOrderByUpdatedAt(@Param("limit") int limit);
+
+    /**
+     * Returns the page of customers following the given position in (updated_at, id) order. The row
+     * value comparison seeks in the {@code idx_customer_updated_at_id} index.
+     *
+     * @param afterUpdatedAt The update time of the last customer of the previous page.
+     * @param afterId The id of the last customer of the previous page.
+     * @param limit The maximum number of customers to return.
+     * @return The customers sorting after the given position, in ascending (updated_at, id) order.
+     */
+    @Query(value = "SELECT * FROM customer WHERE (updated_at, id) > (:afterUpdatedAt, :afterId) "
+            + "ORDER BY updated_at, id LIMIT :limit", nativeQuery = true)
+    List<Customer> findPageAfterOrderByUpdatedAt(@Param("afterUpdatedAt") Instant afterUpdatedAt,
+                                                 @Param("afterId") UUID afterId,
+                                                 @Param("limit") int limit);
+
+    /**
+     * Streams all customers in id order through a server-side cursor: rows are fetched from
+     * PostgreSQL {@value #EXPORT_FETCH_SIZE} at a time instead of all at once. Entities are loaded
+     * read-only (no dirty checking snapshots); callers must still detach each one after use, consume
+     * the stream inside a transaction, and close it.
+     *
+     * @return A stream of all customers.
+     */
+    @Query("SELECT c FROM Customer c ORDER BY c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Customer> streamAllOrderById();
+
+    /**
+     * Rows per round trip when streaming customers with {@link #streamAllOrderById()}.
+     */
+    int EXPORT_FETCH_SIZE = 1000;
+}
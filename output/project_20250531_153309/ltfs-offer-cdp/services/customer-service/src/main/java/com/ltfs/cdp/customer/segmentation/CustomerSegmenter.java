@@ -5,8 +5,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -25,6 +27,22 @@ public class CustomerSegmenter {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerSegmenter.class);
 
+    // --- Segment Names ---
+    public static final String HIGH_VALUE_CUSTOMER = "High-Value Customer";
+    public static final String LOYAL_CUSTOMER = "Loyal Customer";
+    public static final String NEW_CUSTOMER = "New Customer";
+    public static final String YOUNG_PROFESSIONAL = "Young Professional";
+    public static final String SENIOR_CITIZEN = "Senior Citizen";
+    public static final String ACTIVE_LOAN_HOLDER = "Active Loan Holder";
+    public static final String GENERAL_CUSTOMER = "General Customer";
+
+    /**
+     * All segments {@link #segmentCustomer(Customer)} can assign, in rule order.
+     */
+    public static final Set<String> SEGMENTS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            HIGH_VALUE_CUSTOMER, LOYAL_CUSTOMER, NEW_CUSTOMER, YOUNG_PROFESSIONAL, SENIOR_CITIZEN,
+            ACTIVE_LOAN_HOLDER, GENERAL_CUSTOMER)));
+
     // --- Segmentation Rule Thresholds ---
     // These constants define the criteria for various customer segments.
     // They would ideally be configurable parameters in a real-world application
@@ -67,7 +85,7 @@ public class CustomerSegmenter {
             customer.getAnnualIncome().compareTo(HIGH_VALUE_INCOME_THRESHOLD) >= 0 &&
             customer.getLoanCount() != null &&
             customer.getLoanCount() >= HIGH_VALUE_LOAN_COUNT_THRESHOLD) {
-            segments.add("High-Value Customer");
+            segments.add(HIGH_VALUE_CUSTOMER);
             logger.debug("Customer {} identified as 'High-Value Customer'.", customer.getCustomerId());
         }
 
@@ -78,7 +96,7 @@ public class CustomerSegmenter {
             customer.getLoyaltyScore() >= LOYAL_CUSTOMER_SCORE_THRESHOLD &&
             customer.getLoanCount() != null &&
             customer.getLoanCount() >= LOYAL_CUSTOMER_LOAN_COUNT_THRESHOLD) {
-            segments.add("Loyal Customer");
+            segments.add(LOYAL_CUSTOMER);
             logger.debug("Customer {} identified as 'Loyal Customer'.", customer.getCustomerId());
         }
 
@@ -86,7 +104,7 @@ public class CustomerSegmenter {
         // Criteria: No previous loans recorded.
         // This segment is crucial for onboarding and initial offer strategies.
         if (customer.getLoanCount() != null && customer.getLoanCount() <= NEW_CUSTOMER_LOAN_COUNT_THRESHOLD) {
-            segments.add("New Customer");
+            segments.add(NEW_CUSTOMER);
             logger.debug("Customer {} identified as 'New Customer'.", customer.getCustomerId());
         }
 
@@ -94,7 +112,7 @@ public class CustomerSegmenter {
         // Criteria: Age within a typical young professional range.
         // Useful for targeting specific product types or communication styles.
         if (customer.getAge() != null && customer.getAge() > 0 && customer.getAge() <= YOUNG_AGE_UPPER_THRESHOLD) {
-            segments.add("Young Professional");
+            segments.add(YOUNG_PROFESSIONAL);
             logger.debug("Customer {} identified as 'Young Professional'.", customer.getCustomerId());
         }
 
@@ -102,7 +120,7 @@ public class CustomerSegmenter {
         // Criteria: Age above a certain threshold.
         // May require different product offerings or support.
         if (customer.getAge() != null && customer.getAge() >= SENIOR_AGE_LOWER_THRESHOLD) {
-            segments.add("Senior Citizen");
+            segments.add(SENIOR_CITIZEN);
             logger.debug("Customer {} identified as 'Senior Citizen'.", customer.getCustomerId());
         }
 
@@ -110,17 +128,18 @@ public class CustomerSegmenter {
         // Criteria: Currently has an active loan with LTFS.
         // Important for top-up offers, cross-selling, or retention strategies.
         if (customer.getHasActiveLoan() != null && customer.getHasActiveLoan()) {
-            segments.add("Active Loan Holder");
+            segments.add(ACTIVE_LOAN_HOLDER);
             logger.debug("Customer {} identified as 'Active Loan Holder'.", customer.getCustomerId());
         }
 
         // Default Segment: If no specific rules match, assign to a general category.
         if (segments.isEmpty()) {
-            segments.add("General Customer");
+            segments.add(GENERAL_CUSTOMER);
             logger.debug("Customer {} identified as 'General Customer' (no specific segments matched).", customer.getCustomerId());
         }
 
-        logger.info("Customer {} segmented into: {}", customer.getCustomerId(), segments);
+        // Debug, not info: every customer is segmented when the segment membership index is loaded.
+        logger.debug("Customer {} segmented into: {}", customer.getCustomerId(), segments);
         return segments;
     }
 
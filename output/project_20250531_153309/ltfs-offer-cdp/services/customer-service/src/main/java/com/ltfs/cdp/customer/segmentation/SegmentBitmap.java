@@ -0,0 +1,469 @@
+package com.ltfs.cdp.customer.segmentation;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative customer ordinals, in the layout of Roaring bitmaps.
+ *
+ * <p>Ordinals are grouped by their high 16 bits into containers of up to 65536 values. A container
+ * holds its low 16 bits either as a sorted {@code char} array (up to 4096 values, 2 bytes per
+ * member) or as a 65536-bit bitmap (8 KB), whichever is smaller. Sparse segments thus cost a few
+ * bytes per member and dense ones one bit per customer, and {@link #and}, {@link #or} and
+ * {@link #andNot} work container by container, skipping containers missing on either side.</p>
+ *
+ * <p>Instances are mutable and not thread-safe; the results of the set operations are new bitmaps.</p>
+ */
+public final class SegmentBitmap {
+
+    private static final int MAX_ARRAY_CARDINALITY = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public SegmentBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private SegmentBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    public static SegmentBitmap of(int... ordinals) {
+        SegmentBitmap bitmap = new SegmentBitmap();
+        for (int ordinal : ordinals) {
+            bitmap.add(ordinal);
+        }
+        return bitmap;
+    }
+
+    public void add(int ordinal) {
+        requireOrdinal(ordinal);
+        char key = (char) (ordinal >>> 16);
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) ordinal);
+        } else {
+            insert(-index - 1, key, new ArrayContainer().add((char) ordinal));
+        }
+    }
+
+    public void remove(int ordinal) {
+        requireOrdinal(ordinal);
+        int index = indexOf((char) (ordinal >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) ordinal);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    public boolean contains(int ordinal) {
+        if (ordinal < 0) {
+            return false;
+        }
+        int index = indexOf((char) (ordinal >>> 16));
+        return index >= 0 && containers[index].contains((char) ordinal);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the ordinals present in both bitmaps.
+     */
+    public SegmentBitmap and(SegmentBitmap other) {
+        SegmentBitmap result = new SegmentBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ordinals present in either bitmap.
+     */
+    public SegmentBitmap or(SegmentBitmap other) {
+        SegmentBitmap result = new SegmentBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], fromWords(or(containers[i].words(), other.containers[j].words())));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ordinals of this bitmap that are not in {@code other}.
+     */
+    public SegmentBitmap andNot(SegmentBitmap other) {
+        SegmentBitmap result = new SegmentBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.append(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} ordinals greater than {@code afterOrdinal}, in ascending order.
+     *
+     * @param afterOrdinal The last ordinal of the previous page; -1 for the first page.
+     */
+    public int[] page(int afterOrdinal, int limit) {
+        int[] out = new int[(int) Math.min(Math.max(limit, 0), cardinality())];
+        int count = 0;
+        long from = (long) afterOrdinal + 1;
+        if (from < 0) {
+            from = 0;
+        }
+        for (int i = 0; i < size && count < out.length; i++) {
+            int high = keys[i] << 16;
+            long containerEnd = (long) high + 0x10000;
+            if (containerEnd <= from) {
+                continue;
+            }
+            int lowFrom = from > high ? (int) (from - high) : 0;
+            count = containers[i].collect(lowFrom, high, out, count);
+        }
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    public SegmentBitmap copy() {
+        Container[] copies = new Container[containers.length];
+        for (int i = 0; i < size; i++) {
+            copies[i] = containers[i].copy();
+        }
+        return new SegmentBitmap(keys.clone(), copies, size);
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, char key, Container container) {
+        ensureCapacity();
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * Appends a container with a key greater than all present; empty containers are dropped.
+     */
+    private void append(char key, Container container) {
+        if (container == null || container.cardinality() == 0) {
+            return;
+        }
+        ensureCapacity();
+        keys[size] = key;
+        containers[size++] = container;
+    }
+
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(4, size * 2));
+            containers = Arrays.copyOf(containers, keys.length);
+        }
+    }
+
+    private static void requireOrdinal(int ordinal) {
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Ordinal must not be negative: " + ordinal);
+        }
+    }
+
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, true);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a, true);
+        }
+        long[] words = a.words().clone();
+        long[] otherWords = b.words();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] &= otherWords[i];
+        }
+        return fromWords(words);
+    }
+
+    private static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+        long[] words = a.words().clone();
+        long[] otherWords = b.words();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] &= ~otherWords[i];
+        }
+        return fromWords(words);
+    }
+
+    private static long[] or(long[] a, long[] b) {
+        long[] words = a.clone();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] |= b[i];
+        }
+        return words;
+    }
+
+    /**
+     * Builds the smaller container for a set of low bits; null if the set is empty.
+     */
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        if (cardinality > MAX_ARRAY_CARDINALITY) {
+            return new BitmapContainer(words, cardinality);
+        }
+        char[] values = new char[cardinality];
+        int count = 0;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, cardinality);
+    }
+
+    /**
+     * The low 16 bits of the ordinals sharing their high 16 bits.
+     */
+    private abstract static class Container {
+
+        /** Adds a value; returns the container holding the result, possibly converted. */
+        abstract Container add(char value);
+
+        /** Removes a value; returns the container holding the result, possibly converted. */
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /** The values as 1024 words; callers must not modify the result. */
+        abstract long[] words();
+
+        abstract Container copy();
+
+        /** Writes the values from {@code lowFrom} on, offset by {@code high}, until {@code out} is full. */
+        abstract int collect(int lowFrom, int high, int[] out, int count);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == MAX_ARRAY_CARDINALITY) {
+                return new BitmapContainer(words(), cardinality).add(value);
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY_CARDINALITY, cardinality * 2));
+            }
+            index = -index - 1;
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        int collect(int lowFrom, int high, int[] out, int count) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) lowFrom);
+            for (int i = index >= 0 ? index : -index - 1; i < cardinality && count < out.length; i++) {
+                out[count++] = high | values[i];
+            }
+            return count;
+        }
+
+        /**
+         * Keeps the values that {@code other} contains ({@code keep} true) or does not contain.
+         */
+        Container filter(Container other, boolean keep) {
+            char[] kept = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) {
+                    kept[count++] = values[i];
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(kept, count);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= MAX_ARRAY_CARDINALITY) {
+                    return fromWords(words);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long[] words() {
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int collect(int lowFrom, int high, int[] out, int count) {
+            int wordIndex = lowFrom >>> 6;
+            long word = wordIndex < BITMAP_WORDS ? words[wordIndex] & (-1L << lowFrom) : 0;
+            while (count < out.length) {
+                if (word != 0) {
+                    out[count++] = high | ((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                } else if (++wordIndex < BITMAP_WORDS) {
+                    word = words[wordIndex];
+                } else {
+                    break;
+                }
+            }
+            return count;
+        }
+    }
+}
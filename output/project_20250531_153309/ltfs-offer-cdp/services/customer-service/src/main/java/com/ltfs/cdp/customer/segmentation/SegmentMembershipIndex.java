@@ -0,0 +1,186 @@
+package com.ltfs.cdp.customer.segmentation;
+
+import com.ltfs.cdp.customer.dto.CursorPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of segment membership: one compressed {@link SegmentBitmap} per segment over
+ * dense customer ordinals.
+ *
+ * <p>Each indexed customer is given the next ordinal on first sight; the ordinal is kept if the
+ * customer is removed, so ordinals (and with them query cursors) stay stable for the lifetime of the
+ * instance. Questions like "who is Loyal Customer AND Active Loan Holder AND NOT Senior Citizen"
+ * are answered by {@link SegmentQuery} bitmap algebra, without scanning customers, and their
+ * result is returned as pages of customer IDs in ordinal order.</p>
+ *
+ * <p>The index holds what was passed to {@link #index(CustomerSegmenter.Customer)} or
+ * {@link #update(String, Set)} since startup. {@link SegmentMembershipIndexUpdater} loads it from the
+ * customer table on startup and keeps it current as customers are created, updated and deleted.
+ * Queries run under a read lock and updates under a write lock.</p>
+ */
+@Component
+public class SegmentMembershipIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentMembershipIndex.class);
+
+    private final CustomerSegmenter customerSegmenter;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ordinalsByCustomerId = new HashMap<>();
+    private final List<String> customerIdsByOrdinal = new ArrayList<>();
+    private final SegmentBitmap indexed = new SegmentBitmap();
+    private final Map<String, SegmentBitmap> members = new LinkedHashMap<>();
+
+    public SegmentMembershipIndex(CustomerSegmenter customerSegmenter) {
+        this.customerSegmenter = customerSegmenter;
+        CustomerSegmenter.SEGMENTS.forEach(segment -> members.put(segment, new SegmentBitmap()));
+    }
+
+    /**
+     * Segments a customer and records its segments, replacing those recorded before.
+     *
+     * @param customer The customer to segment.
+     * @return The segments of the customer.
+     */
+    public Set<String> index(CustomerSegmenter.Customer customer) {
+        Set<String> segments = customerSegmenter.segmentCustomer(customer);
+        update(customer.getCustomerId(), segments);
+        return segments;
+    }
+
+    /**
+     * Records the segments of a customer, replacing those recorded before.
+     *
+     * @param customerId The customer ID.
+     * @param segments The segments the customer belongs to.
+     */
+    public void update(String customerId, Set<String> segments) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalsByCustomerId.computeIfAbsent(customerId, id -> {
+                customerIdsByOrdinal.add(id);
+                return customerIdsByOrdinal.size() - 1;
+            });
+            indexed.add(ordinal);
+            for (String segment : segments) {
+                members.computeIfAbsent(segment, name -> new SegmentBitmap());
+            }
+            members.forEach((segment, bitmap) -> {
+                if (segments.contains(segment)) {
+                    bitmap.add(ordinal);
+                } else {
+                    bitmap.remove(ordinal);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a customer from all segments, e.g. after the customer was deleted.
+     */
+    public void remove(String customerId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalsByCustomerId.get(customerId);
+            if (ordinal != null) {
+                indexed.remove(ordinal);
+                members.values().forEach(bitmap -> bitmap.remove(ordinal));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a page of the IDs of the customers matching a segment query.
+     *
+     * @param expression The query, e.g. {@code Loyal Customer AND NOT Senior Citizen}.
+     * @param cursor The {@code nextCursor} of the previous page; null for the first page.
+     * @param size The maximum number of IDs to return.
+     * @return The page of customer IDs, in the order the customers were first indexed.
+     * @throws IllegalArgumentException If the query or the cursor is malformed.
+     */
+    public CursorPage<String> query(String expression, String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        int afterOrdinal = parseCursor(cursor);
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            SegmentBitmap result = SegmentQuery.parse(expression, members.keySet()).evaluate(members::get, indexed);
+            // One extra ordinal tells whether another page follows.
+            int[] ordinals = result.page(afterOrdinal, size + 1);
+            boolean hasMore = ordinals.length > size;
+            int count = Math.min(size, ordinals.length);
+            List<String> customerIds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                customerIds.add(customerIdsByOrdinal.get(ordinals[i]));
+            }
+            logger.debug("Segment query '{}' matched {} customers in {} ms.", expression, result.cardinality(),
+                    (System.nanoTime() - startTime) / 1_000_000);
+            return CursorPage.<String>builder()
+                    .items(customerIds)
+                    .nextCursor(hasMore ? Integer.toString(ordinals[count - 1]) : null)
+                    .hasMore(hasMore)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the customers matching a segment query.
+     *
+     * @throws IllegalArgumentException If the query is malformed.
+     */
+    public long count(String expression) {
+        lock.readLock().lock();
+        try {
+            return SegmentQuery.parse(expression, members.keySet()).evaluate(members::get, indexed).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of members of each segment.
+     */
+    public Map<String, Long> segmentSizes() {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> sizes = new LinkedHashMap<>();
+            members.forEach((segment, bitmap) -> sizes.put(segment, bitmap.cardinality()));
+            return sizes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return -1;
+        }
+        try {
+            int ordinal = Integer.parseInt(cursor);
+            if (ordinal >= 0) {
+                return ordinal;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new IllegalArgumentException("Invalid segment query cursor: " + cursor);
+    }
+}
@@ -0,0 +1,200 @@
+package com.ltfs.cdp.customer.segmentation;
+
+import com.ltfs.cdp.customer.model.Customer;
+import com.ltfs.cdp.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link SegmentMembershipIndex} in line with the customer table.
+ *
+ * <ul>
+ *     <li>Once the application is ready, every customer is streamed from the {@link CustomerRepository},
+ *         segmented by the {@link CustomerSegmenter} and indexed.</li>
+ *     <li>{@link com.ltfs.cdp.customer.service.CustomerService} calls {@link #refreshAfterCommit(String)} for
+ *         every customer it creates, updates or deletes. The customer is re-read and re-segmented once the
+ *         transaction commits, so the index only ever reflects committed state; a rolled back change leaves it
+ *         untouched. Without a transaction, the customer is refreshed at once.</li>
+ * </ul>
+ *
+ * <p>Customers are segmented from their profile: the age is derived from the date of birth, while income,
+ * loan history, loyalty score and active loans are not part of the profile, so the segments depending on them
+ * stay empty until those attributes are stored with the customer. Inactive customers are not indexed.</p>
+ *
+ * <p>A customer changed while the startup load runs is indexed from its committed state, and the load, which
+ * reads an earlier snapshot, leaves it alone.</p>
+ */
+@Component
+public class SegmentMembershipIndexUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentMembershipIndexUpdater.class);
+
+    private final SegmentMembershipIndex segmentMembershipIndex;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+    private final Clock clock;
+
+    /**
+     * The persistence context of the startup load; loaded customers are detached once indexed.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Guarded by this. Customers refreshed while the startup load runs; the load skips them.
+    private final Set<String> refreshedDuringLoad = new HashSet<>();
+    private boolean loading;
+
+    /**
+     * Constructs the updater. The index stays empty until {@link #load()} has run.
+     *
+     * @param segmentMembershipIndex The index to keep current.
+     * @param customerRepository The repository customers are loaded and re-read from.
+     * @param transactionManager The transaction manager the reads run with.
+     * @param enabled Whether the index is loaded and updated at all.
+     */
+    @Autowired
+    public SegmentMembershipIndexUpdater(SegmentMembershipIndex segmentMembershipIndex,
+                                         CustomerRepository customerRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${application.segmentation.membership-index.enabled:true}") boolean enabled) {
+        this(segmentMembershipIndex, customerRepository, transactionManager, enabled, Clock.systemDefaultZone());
+    }
+
+    SegmentMembershipIndexUpdater(SegmentMembershipIndex segmentMembershipIndex, CustomerRepository customerRepository,
+                                  PlatformTransactionManager transactionManager, boolean enabled, Clock clock) {
+        this.segmentMembershipIndex = segmentMembershipIndex;
+        this.customerRepository = customerRepository;
+        // Reads after a commit must not join the committed transaction, whose resources may still be bound.
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.clock = clock;
+    }
+
+    /**
+     * Segments and indexes every customer in the customer table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            logger.info("Segment membership index is disabled; segment queries will match no customers.");
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        synchronized (this) {
+            loading = true;
+        }
+        try {
+            long indexed = readTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Customer> customers = customerRepository.streamAllOrderById()) {
+                    Iterator<Customer> iterator = customers.iterator();
+                    while (iterator.hasNext()) {
+                        Customer customer = iterator.next();
+                        synchronized (this) {
+                            if (!refreshedDuringLoad.contains(String.valueOf(customer.getId())) && apply(customer)) {
+                                count++;
+                            }
+                        }
+                        // Indexed customers are not needed again; keep the persistence context small.
+                        entityManager.detach(customer);
+                    }
+                }
+                return count;
+            });
+            logger.info("Loaded segment membership index: {} customers in {} ms; segment sizes {}.",
+                    indexed, System.currentTimeMillis() - startTime, segmentMembershipIndex.segmentSizes());
+        } finally {
+            synchronized (this) {
+                loading = false;
+                refreshedDuringLoad.clear();
+            }
+        }
+    }
+
+    /**
+     * Re-segments a customer once the current transaction commits, or at once without a transaction.
+     * A customer that no longer exists, or is inactive, is removed from all segments.
+     *
+     * @param customerId The ID of a created, updated or deleted customer.
+     */
+    public void refreshAfterCommit(String customerId) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(customerId);
+                }
+            });
+        } else {
+            refresh(customerId);
+        }
+    }
+
+    private void refresh(String customerId) {
+        try {
+            Optional<Customer> customer = readTransaction.execute(
+                    status -> customerRepository.findOneById(UUID.fromString(customerId)));
+            synchronized (this) {
+                if (loading) {
+                    refreshedDuringLoad.add(customerId);
+                }
+                if (customer == null || customer.isEmpty() || !apply(customer.get())) {
+                    segmentMembershipIndex.remove(customerId);
+                }
+            }
+            logger.debug("Refreshed customer '{}' in the segment membership index.", customerId);
+        } catch (RuntimeException e) {
+            // The index only serves segment queries; the customer is corrected by its next change or restart.
+            logger.error("Failed to refresh customer '{}' in the segment membership index.", customerId, e);
+        }
+    }
+
+    /**
+     * Indexes an active customer.
+     *
+     * @return {@code false} if the customer is inactive and was not indexed.
+     */
+    private boolean apply(Customer customer) {
+        if (Boolean.FALSE.equals(customer.getIsActive())) {
+            return false;
+        }
+        segmentMembershipIndex.index(toSegmenterCustomer(customer, LocalDate.now(clock)));
+        return true;
+    }
+
+    /**
+     * Maps a customer profile to the attributes the {@link CustomerSegmenter} rules read.
+     */
+    static CustomerSegmenter.Customer toSegmenterCustomer(Customer customer, LocalDate today) {
+        Integer age = customer.getDateOfBirth() != null ? Period.between(customer.getDateOfBirth(), today).getYears() : null;
+        return new CustomerSegmenter.Customer(String.valueOf(customer.getId()), age, null, null, null, null);
+    }
+}
@@ -0,0 +1,238 @@
+package com.ltfs.cdp.customer.segmentation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A boolean expression over segment names, e.g.
+ * {@code Loyal Customer AND Active Loan Holder AND NOT Senior Citizen}.
+ *
+ * <p>Grammar: segment names combined with {@code AND}, {@code OR} and {@code NOT} (upper case) and
+ * parentheses; {@code NOT} binds tightest, then {@code AND}, then {@code OR}. Segment names are
+ * written as they are, spaces included.</p>
+ *
+ * <p>Queries are evaluated with bitmap algebra: a conjunction intersects its positive terms,
+ * smallest first, and subtracts its negated terms; {@code NOT} alone subtracts from all indexed
+ * customers.</p>
+ */
+public final class SegmentQuery {
+
+    private final String expression;
+    private final Node root;
+
+    private SegmentQuery(String expression, Node root) {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    /**
+     * Parses a query.
+     *
+     * @param expression The query expression.
+     * @param knownSegments The segment names the query may use.
+     * @throws IllegalArgumentException If the expression is malformed or names an unknown segment.
+     */
+    public static SegmentQuery parse(String expression, Set<String> knownSegments) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Segment query must not be empty.");
+        }
+        Parser parser = new Parser(expression, tokenize(expression), knownSegments);
+        Node root = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw parser.error("Unexpected '" + parser.tokens.get(parser.position) + "'");
+        }
+        return new SegmentQuery(expression, root);
+    }
+
+    /**
+     * Evaluates the query.
+     *
+     * @param members The members of a segment, by segment name.
+     * @param universe All indexed customers, the complement base of {@code NOT}.
+     * @return A new bitmap of the matching customer ordinals.
+     */
+    public SegmentBitmap evaluate(Function<String, SegmentBitmap> members, SegmentBitmap universe) {
+        return root.evaluate(members, universe);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder name = new StringBuilder();
+        for (String word : expression.replace("(", " ( ").replace(")", " ) ").trim().split("\\s+")) {
+            boolean operator = word.equals("AND") || word.equals("OR") || word.equals("NOT")
+                    || word.equals("(") || word.equals(")");
+            if (operator) {
+                if (name.length() > 0) {
+                    tokens.add(name.toString());
+                    name.setLength(0);
+                }
+                tokens.add(word);
+            } else {
+                if (name.length() > 0) {
+                    name.append(' ');
+                }
+                name.append(word);
+            }
+        }
+        if (name.length() > 0) {
+            tokens.add(name.toString());
+        }
+        return tokens;
+    }
+
+    private interface Node {
+        SegmentBitmap evaluate(Function<String, SegmentBitmap> members, SegmentBitmap universe);
+    }
+
+    private static final class Segment implements Node {
+        private final String name;
+
+        Segment(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public SegmentBitmap evaluate(Function<String, SegmentBitmap> members, SegmentBitmap universe) {
+            SegmentBitmap bitmap = members.apply(name);
+            return bitmap != null ? bitmap.copy() : new SegmentBitmap();
+        }
+    }
+
+    private static final class Not implements Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public SegmentBitmap evaluate(Function<String, SegmentBitmap> members, SegmentBitmap universe) {
+            return universe.andNot(operand.evaluate(members, universe));
+        }
+    }
+
+    private static final class And implements Node {
+        private final List<Node> operands;
+
+        And(List<Node> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public SegmentBitmap evaluate(Function<String, SegmentBitmap> members, SegmentBitmap universe) {
+            List<SegmentBitmap> positive = new ArrayList<>();
+            List<Node> negated = new ArrayList<>();
+            for (Node operand : operands) {
+                if (operand instanceof Not) {
+                    negated.add(((Not) operand).operand);
+                } else {
+                    positive.add(operand.evaluate(members, universe));
+                }
+            }
+            // Intersecting the smallest sets first keeps every intermediate result small.
+            positive.sort(Comparator.comparingLong(SegmentBitmap::cardinality));
+            SegmentBitmap result = positive.isEmpty() ? universe.copy() : positive.get(0);
+            for (int i = 1; i < positive.size() && !result.isEmpty(); i++) {
+                result = result.and(positive.get(i));
+            }
+            for (int i = 0; i < negated.size() && !result.isEmpty(); i++) {
+                result = result.andNot(negated.get(i).evaluate(members, universe));
+            }
+            return result;
+        }
+    }
+
+    private static final class Or implements Node {
+        private final List<Node> operands;
+
+        Or(List<Node> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public SegmentBitmap evaluate(Function<String, SegmentBitmap> members, SegmentBitmap universe) {
+            SegmentBitmap result = operands.get(0).evaluate(members, universe);
+            for (int i = 1; i < operands.size(); i++) {
+                result = result.or(operands.get(i).evaluate(members, universe));
+            }
+            return result;
+        }
+    }
+
+    private static final class Parser {
+        private final String expression;
+        private final List<String> tokens;
+        private final Set<String> knownSegments;
+        private int position;
+
+        Parser(String expression, List<String> tokens, Set<String> knownSegments) {
+            this.expression = expression;
+            this.tokens = tokens;
+            this.knownSegments = knownSegments;
+        }
+
+        Node parseOr() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseAnd());
+            while (accept("OR")) {
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        Node parseAnd() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseUnary());
+            while (accept("AND")) {
+                operands.add(parseUnary());
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(operands);
+        }
+
+        Node parseUnary() {
+            if (accept("NOT")) {
+                Node operand = parseUnary();
+                return operand instanceof Not ? ((Not) operand).operand : new Not(operand);
+            }
+            if (accept("(")) {
+                Node inner = parseOr();
+                if (!accept(")")) {
+                    throw error("Missing ')'");
+                }
+                return inner;
+            }
+            if (position == tokens.size()) {
+                throw error("Unexpected end of query");
+            }
+            String name = tokens.get(position);
+            if (name.equals("AND") || name.equals("OR") || name.equals(")")) {
+                throw error("Expected a segment name before '" + name + "'");
+            }
+            if (!knownSegments.contains(name)) {
+                throw error("Unknown segment '" + name + "'; known segments are " + knownSegments);
+            }
+            position++;
+            return new Segment(name);
+        }
+
+        boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " in segment query: " + expression);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ltfs.cdp.customer.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Position in a keyset-paginated customer listing: the sort key values of the last customer of a
+ * page. The next page holds the customers that sort strictly after it.
+ *
+ * <p>Cursors are handed to clients as opaque, URL-safe strings ({@link #encode()}). The encoding
+ * names the sort order it was created for, so a cursor cannot be replayed against another order.</p>
+ */
+public final class CustomerCursor {
+
+    /**
+     * The orders a customer listing can be walked in. Both end with the id, which makes the order
+     * total, so no two customers share a position.
+     */
+    public enum SortKey {
+        /** By id. The cheapest order, for walking the whole book. */
+        ID,
+        /** By last update time, then id. For incremental synchronization of changed profiles. */
+        UPDATED_AT;
+
+        /**
+         * Resolves a {@code sortBy} request parameter; {@code null} or blank means {@link #ID}.
+         *
+         * @throws IllegalArgumentException If the parameter names no supported order.
+         */
+        public static SortKey fromParameter(String sortBy) {
+            if (sortBy == null || sortBy.isBlank() || "id".equalsIgnoreCase(sortBy)) {
+                return ID;
+            }
+            if ("updatedAt".equalsIgnoreCase(sortBy) || "updated_at".equalsIgnoreCase(sortBy)) {
+                return UPDATED_AT;
+            }
+            throw new IllegalArgumentException("Unsupported sort for keyset pagination: " + sortBy + ". Use 'id' or 'updatedAt'.");
+        }
+    }
+
+    private static final String VERSION = "v1";
+    private static final char SEPARATOR = '|';
+
+    private final SortKey sortKey;
+    private final Instant updatedAt;
+    private final UUID id;
+
+    private CustomerCursor(SortKey sortKey, Instant updatedAt, UUID id) {
+        this.sortKey = sortKey;
+        this.updatedAt = updatedAt;
+        this.id = id;
+    }
+
+    public static CustomerCursor afterId(UUID id) {
+        return new CustomerCursor(SortKey.ID, null, Objects.requireNonNull(id, "id"));
+    }
+
+    public static CustomerCursor afterUpdatedAt(Instant updatedAt, UUID id) {
+        return new CustomerCursor(SortKey.UPDATED_AT, Objects.requireNonNull(updatedAt, "updatedAt"),
+                Objects.requireNonNull(id, "id"));
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * The last update time of the last customer of the page; null for {@link SortKey#ID}.
+     */
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe string.
+     */
+    public String encode() {
+        StringBuilder raw = new StringBuilder(VERSION).append(SEPARATOR).append(sortKey.name()).append(SEPARATOR);
+        if (sortKey == SortKey.UPDATED_AT) {
+            // Seconds and nanoseconds, so the position is exact at the database's precision.
+            raw.append(updatedAt.getEpochSecond()).append('.').append(updatedAt.getNano()).append(SEPARATOR);
+        }
+        raw.append(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor created by {@link #encode()} and checks it belongs to the requested order.
+     *
+     * @throws IllegalArgumentException If the cursor is malformed or was created for another order.
+     */
+    public static CustomerCursor decode(String encoded, SortKey expectedSortKey) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw invalid(encoded, e);
+        }
+        if (parts.length < 3 || !VERSION.equals(parts[0])) {
+            throw invalid(encoded, null);
+        }
+        SortKey sortKey;
+        try {
+            sortKey = SortKey.valueOf(parts[1].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw invalid(encoded, e);
+        }
+        if (sortKey != expectedSortKey) {
+            throw new IllegalArgumentException("Cursor was created for sort '" + sortKey + "', not '" + expectedSortKey + "'.");
+        }
+        try {
+            if (sortKey == SortKey.ID && parts.length == 3) {
+                return afterId(UUID.fromString(parts[2]));
+            }
+            if (sortKey == SortKey.UPDATED_AT && parts.length == 4) {
+                String[] time = parts[2].split("\\.", -1);
+                Instant updatedAt = Instant.ofEpochSecond(Long.parseLong(time[0]), time.length > 1 ? Long.parseLong(time[1]) : 0);
+                return afterUpdatedAt(updatedAt, UUID.fromString(parts[3]));
+            }
+        } catch (RuntimeException e) {
+            throw invalid(encoded, e);
+        }
+        throw invalid(encoded, null);
+    }
+
+    private static IllegalArgumentException invalid(String encoded, Throwable cause) {
+        return new IllegalArgumentException("Invalid pagination cursor: " + encoded, cause);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerCursor that = (CustomerCursor) o;
+        return sortKey == that.sortKey && Objects.equals(updatedAt, that.updatedAt) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortKey, updatedAt, id);
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerCursor{" + sortKey + ", updatedAt=" + updatedAt + ", id=" + id + '}';
+    }
+}
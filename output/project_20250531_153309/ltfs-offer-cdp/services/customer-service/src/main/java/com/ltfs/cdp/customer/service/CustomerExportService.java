@@ -0,0 +1,86 @@
+package com.ltfs.cdp.customer.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ltfs.cdp.customer.model.Customer;
+import com.ltfs.cdp.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole customer book as newline-delimited JSON (one customer per line), for
+ * downstream systems that need a full extract.
+ *
+ * <p>The customers are read through a server-side cursor in batches of
+ * {@link CustomerRepository#EXPORT_FETCH_SIZE} rows and written as they arrive, and each entity is
+ * detached once written, so memory use does not grow with the size of the book.</p>
+ */
+@Service
+@Slf4j
+public class CustomerExportService {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CustomerExportService(CustomerRepository customerRepository,
+                                 CustomerService customerService,
+                                 ObjectMapper objectMapper) {
+        this.customerRepository = customerRepository;
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        // Flushing is batched by the export loop instead of after every customer.
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes every customer, in id order, to {@code out} as one JSON object per line. The stream is
+     * flushed every {@link CustomerRepository#EXPORT_FETCH_SIZE} customers but not closed.
+     *
+     * <p>The export runs in one read-only transaction, which holds a database connection until
+     * the last customer is written.</p>
+     *
+     * @param out The stream to write to, typically the HTTP response body.
+     * @return The number of customers written.
+     * @throws IOException if writing to {@code out} fails, e.g. because the client disconnected.
+     */
+    @Transactional(readOnly = true)
+    public long exportCustomers(OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long count = 0;
+        try (Stream<Customer> customers = customerRepository.streamAllOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            // Lines are terminated explicitly, instead of separating root values by a space.
+            generator.setRootValueSeparator(null);
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                Customer customer = iterator.next();
+                lineWriter.writeValue(generator, customerService.toDTO(customer));
+                generator.writeRaw('\n');
+                // Written customers are not needed again; keep the persistence context small.
+                entityManager.detach(customer);
+                if (++count % CustomerRepository.EXPORT_FETCH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        log.info("Exported {} customers in {} ms.", count, System.currentTimeMillis() - startTime);
+        return count;
+    }
+}
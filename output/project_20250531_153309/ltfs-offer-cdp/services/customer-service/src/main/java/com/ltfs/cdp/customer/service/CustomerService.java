@@ -1,9 +1,12 @@
 package com.ltfs.cdp.customer.service;
 
+import com.ltfs.cdp.customer.dto.CursorPage;
+import com.ltfs.cdp.customer.dto.PaginationRequest;
 import com.ltfs.cdp.customer.dto.CustomerDTO;
 import com.ltfs.cdp.customer.entity.Customer;
 import com.ltfs.cdp.customer.exception.CustomerNotFoundException;
 import com.ltfs.cdp.customer.repository.CustomerRepository;
+import com.ltfs.cdp.customer.segmentation.SegmentMembershipIndexUpdater;
 import com.ltfs.cdp.customer.service.dedupe.DeduplicationService;
 import com.ltfs.cdp.customer.service.validation.ValidationService;
 import lombok.extern.slf44j.Slf4j;
@@ -12,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -25,9 +29,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CustomerService {
 
+    static final int DEFAULT_PAGE_SIZE = 10;
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final CustomerRepository customerRepository;
     private final DeduplicationService deduplicationService;
     private final ValidationService validationService;
+    private final SegmentMembershipIndexUpdater segmentMembershipIndexUpdater;
 
     /**
      * Constructs a CustomerService with necessary dependencies.
@@ -35,13 +43,17 @@ public class CustomerService {
      * @param customerRepository The repository for customer data persistence.
      * @param deduplicationService The service responsible for applying deduplication logic.
      * @param validationService The service responsible for column-level data validation.
+     * @param segmentMembershipIndexUpdater Re-segments every created, updated or deleted customer once
+     *                                      the change has committed.
      */
     public CustomerService(CustomerRepository customerRepository,
                            DeduplicationService deduplicationService,
-                           ValidationService validationService) {
+                           ValidationService validationService,
+                           SegmentMembershipIndexUpdater segmentMembershipIndexUpdater) {
         this.customerRepository = customerRepository;
         this.deduplicationService = deduplicationService;
         this.validationService = validationService;
+        this.segmentMembershipIndexUpdater = segmentMembershipIndexUpdater;
     }
 
     /**
@@ -82,7 +94,8 @@ public class CustomerService {
             // Mark the incoming customer as a duplicate and link it to the identified master
             newCustomer.setDeduplicated(true);
             newCustomer.setMasterCustomerId(masterCustomer.getId());
-            customerRepository.save(newCustomer); // Persist the duplicate entry
+            Customer savedDuplicate = customerRepository.save(newCustomer); // Persist the duplicate entry
+            segmentMembershipIndexUpdater.refreshAfterCommit(savedDuplicate.getId());
 
             // Return the master customer's details as the single profile view
             return toDTO(masterCustomer);
@@ -92,6 +105,7 @@ public class CustomerService {
             newCustomer.setDeduplicated(false);
             newCustomer.setMasterCustomerId(null); // A master customer does not have a master
             Customer savedCustomer = customerRepository.save(newCustomer); // Persist the new master
+            segmentMembershipIndexUpdater.refreshAfterCommit(savedCustomer.getId());
             return toDTO(savedCustomer);
         }
     }
@@ -161,6 +175,7 @@ public class CustomerService {
         updateEntityFromDTO(existingCustomer, customerDTO);
 
         Customer updatedCustomer = customerRepository.save(existingCustomer);
+        segmentMembershipIndexUpdater.refreshAfterCommit(id);
         log.info("Customer with ID {} updated successfully.", id);
         return toDTO(updatedCustomer);
     }
@@ -186,9 +201,64 @@ public class CustomerService {
             throw new CustomerNotFoundException("Customer not found with ID: " + id);
         }
         customerRepository.deleteById(id);
+        segmentMembershipIndexUpdater.refreshAfterCommit(id);
         log.info("Customer with ID {} deleted successfully.", id);
     }
 
+    /**
+     * Retrieves one page of customer profiles with keyset (seek) pagination.
+     * Pages are read in id order, or in (updated_at, id) order when {@code sortBy} is
+     * {@code updatedAt}, which lets a client pick up the profiles changed since its last walk.
+     * Each page is a single index seek, so walking millions of customers costs constant time and
+     * memory per page. Like {@link #getAllCustomers()}, master profiles and duplicates are listed.
+     *
+     * @param paginationRequest The page size (capped at {@value #MAX_PAGE_SIZE}), the sort key and
+     *                          the cursor returned with the previous page (null for the first page).
+     * @return The page of customers and the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor is malformed, or the sort or direction is not supported.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerDTO> getCustomersPage(PaginationRequest paginationRequest) {
+        if (paginationRequest.getSortOrder() == PaginationRequest.SortDirection.DESC) {
+            throw new IllegalArgumentException("Keyset pagination only supports ascending order.");
+        }
+        CustomerCursor.SortKey sortKey = CustomerCursor.SortKey.fromParameter(paginationRequest.getSortBy());
+        int size = Math.min(paginationRequest.getSize() != null ? paginationRequest.getSize() : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        CustomerCursor after = paginationRequest.getCursor() != null && !paginationRequest.getCursor().isBlank()
+                ? CustomerCursor.decode(paginationRequest.getCursor(), sortKey)
+                : null;
+        log.debug("Fetching customers page of size {} by {} after {}.", size, sortKey, after);
+
+        // One extra row tells whether another page follows.
+        int limit = size + 1;
+        List<Customer> customers;
+        if (sortKey == CustomerCursor.SortKey.ID) {
+            customers = after == null
+                    ? customerRepository.findFirstPageOrderById(limit)
+                    : customerRepository.findPageAfterIdOrderById(after.getId(), limit);
+        } else {
+            customers = after == null
+                    ? customerRepository.findFirstPageOrderByUpdatedAt(limit)
+                    : customerRepository.findPageAfterOrderByUpdatedAt(after.getUpdatedAt(), after.getId(), limit);
+        }
+
+        boolean hasMore = customers.size() > size;
+        List<Customer> page = hasMore ? customers.subList(0, size) : customers;
+        String nextCursor = null;
+        if (hasMore) {
+            Customer last = page.get(page.size() - 1);
+            UUID lastId = UUID.fromString(String.valueOf(last.getId()));
+            nextCursor = (sortKey == CustomerCursor.SortKey.ID
+                    ? CustomerCursor.afterId(lastId)
+                    : CustomerCursor.afterUpdatedAt(last.getUpdatedAt(), lastId)).encode();
+        }
+        List<CustomerDTO> items = page.stream().map(this::toDTO).collect(Collectors.toList());
+        return CursorPage.<CustomerDTO>builder().items(items).nextCursor(nextCursor).hasMore(hasMore).build();
+    }
+
     /**
      * Retrieves a list of all customer profiles stored in the system.
      * This method returns all records, including both master profiles and duplicate entries.
@@ -196,7 +266,10 @@ public class CustomerService {
      * a separate method or filtering logic would be required.
      *
      * @return A list of all CustomerDTOs representing all customer records.
+     * @deprecated Loads the whole customer table into memory. Use {@link #getCustomersPage(PaginationRequest)},
+     *             or {@link CustomerExportService} to stream every customer.
      */
+    @Deprecated
     @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
         log.debug("Fetching all customers.");
@@ -241,7 +314,7 @@ public class CustomerService {
      * @param entity The Customer entity to convert.
      * @return The corresponding CustomerDTO.
      */
-    private CustomerDTO toDTO(Customer entity) {
+    CustomerDTO toDTO(Customer entity) {
         CustomerDTO dto = new CustomerDTO();
         dto.setId(entity.getId());
         dto.setCustomerId(entity.getCustomerId());
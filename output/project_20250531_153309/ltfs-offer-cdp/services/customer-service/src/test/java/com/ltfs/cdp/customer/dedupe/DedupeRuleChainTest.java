@@ -0,0 +1,127 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.model.Customer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DedupeRuleChain}.
+ * Verifies priority ordering, short-circuiting, statistics and selectivity-based reordering.
+ */
+class DedupeRuleChainTest {
+
+    private final Customer a = new Customer();
+    private final Customer b = new Customer();
+
+    @Test
+    @DisplayName("Should evaluate higher priority rules first and stop at the first match")
+    void shouldShortCircuitInPriorityOrder() {
+        CountingRule weak = new CountingRule("NAME_DOB", 10, (x, y) -> true);
+        CountingRule strong = new CountingRule("PAN", 100, (x, y) -> true);
+        DedupeRuleChain chain = new DedupeRuleChain(Arrays.asList(weak, strong), 1_000, 10, Long.MAX_VALUE);
+
+        assertSame(strong, chain.findMatchingRule(a, b).orElse(null));
+        assertEquals(1, strong.calls);
+        assertEquals(0, weak.calls);
+    }
+
+    @Test
+    @DisplayName("Should report no match and count every evaluation when no rule matches")
+    void shouldRecordStatistics() {
+        CountingRule pan = new CountingRule("PAN", 100, (x, y) -> false);
+        CountingRule aadhaar = new CountingRule("AADHAAR", 90, (x, y) -> false);
+        DedupeRuleChain chain = new DedupeRuleChain(Arrays.asList(pan, aadhaar), 1_000, 10, Long.MAX_VALUE);
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(chain.matches(a, b));
+        }
+        List<DedupeRuleChain.RuleStatistics> statistics = chain.getStatistics();
+        assertEquals("PAN", statistics.get(0).getRuleName());
+        assertEquals(5, statistics.get(0).getEvaluations());
+        assertEquals(0.0, statistics.get(0).getHitRatio());
+        assertEquals(5, statistics.get(1).getEvaluations());
+        assertTrue(statistics.get(1).getTotalNanos() >= 0);
+    }
+
+    @Test
+    @DisplayName("Should move the more selective of two equal-priority rules to the front")
+    void shouldReorderEqualPriorityRulesBySelectivity() {
+        CountingRule rarelyMatches = new CountingRule("RARE", 50, new Every(100));
+        CountingRule oftenMatches = new CountingRule("OFTEN", 50, new Every(2));
+        CountingRule top = new CountingRule("TOP", 99, (x, y) -> false);
+        DedupeRuleChain chain = new DedupeRuleChain(Arrays.asList(top, rarelyMatches, oftenMatches), 1_000, 100, Long.MAX_VALUE);
+        assertEquals(Arrays.asList("TOP", "RARE", "OFTEN"), order(chain));
+
+        for (int i = 0; i < 5_000; i++) {
+            chain.matches(a, b);
+        }
+        assertEquals(Arrays.asList("TOP", "OFTEN", "RARE"), order(chain));
+    }
+
+    @Test
+    @DisplayName("Should accept an empty rule set and reject a non-positive reorder interval")
+    void shouldHandleEdgeCases() {
+        DedupeRuleChain empty = new DedupeRuleChain(Collections.emptyList(), 1, 0, 0);
+        assertFalse(empty.matches(a, b));
+        assertTrue(empty.getStatistics().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new DedupeRuleChain(Collections.emptyList(), 0, 0, 0));
+    }
+
+    private static List<String> order(DedupeRuleChain chain) {
+        return chain.getStatistics().stream().map(DedupeRuleChain.RuleStatistics::getRuleName).collect(Collectors.toList());
+    }
+
+    /**
+     * Matches on every n-th call.
+     */
+    private static final class Every implements BiPredicate<Customer, Customer> {
+        private final int n;
+        private int calls;
+
+        Every(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public boolean test(Customer x, Customer y) {
+            return ++calls % n == 0;
+        }
+    }
+
+    private static final class CountingRule implements DedupeRule {
+        private final String name;
+        private final int priority;
+        private final BiPredicate<Customer, Customer> predicate;
+        private int calls;
+
+        CountingRule(String name, int priority, BiPredicate<Customer, Customer> predicate) {
+            this.name = name;
+            this.priority = priority;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean apply(Customer customer1, Customer customer2) {
+            calls++;
+            return predicate.test(customer1, customer2);
+        }
+
+        @Override
+        public String getRuleName() {
+            return name;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+    }
+}
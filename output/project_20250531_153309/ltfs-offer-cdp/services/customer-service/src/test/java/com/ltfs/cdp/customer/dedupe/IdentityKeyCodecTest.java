@@ -0,0 +1,78 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link IdentityKeyCodec} and the {@link LongIntHashMap} it feeds.
+ */
+class IdentityKeyCodecTest {
+
+    @Test
+    @DisplayName("Should pack PAN case-insensitively and unpack to upper case")
+    void shouldRoundTripPan() {
+        long packed = IdentityKeyCodec.packPan("ABCDE1234F");
+        assertTrue(packed >= 0);
+        assertEquals(packed, IdentityKeyCodec.packPan("abcde1234f"));
+        assertEquals("ABCDE1234F", IdentityKeyCodec.unpackPan(packed));
+        assertEquals("ZZZZZ9999Z", IdentityKeyCodec.unpackPan(IdentityKeyCodec.packPan("ZZZZZ9999Z")));
+        assertNotEquals(packed, IdentityKeyCodec.packPan("ABCDE1234G"));
+    }
+
+    @Test
+    @DisplayName("Should refuse to pack malformed PANs")
+    void shouldRejectMalformedPan() {
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packPan(null));
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packPan("ABCDE1234"));
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packPan("ABCD11234F"));
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packPan(" BCDE1234F"));
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packPan("ABCDE12345"));
+    }
+
+    @Test
+    @DisplayName("Should pack Aadhaar and mobile numbers losslessly, including leading zeros")
+    void shouldRoundTripDigits() {
+        assertEquals("012345678901", IdentityKeyCodec.unpackAadhaar(IdentityKeyCodec.packAadhaar("012345678901")));
+        assertEquals("9876543210", IdentityKeyCodec.unpackMobile(IdentityKeyCodec.packMobile("9876543210")));
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packAadhaar("12345678901"));
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packMobile("+919876543210"));
+        assertEquals(IdentityKeyCodec.NOT_PACKABLE, IdentityKeyCodec.packMobile("98765 3210"));
+    }
+
+    @Test
+    @DisplayName("Should store, overwrite and grow in the primitive long-to-int map")
+    void shouldBehaveLikeAMap() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(42L));
+        assertEquals(LongIntHashMap.NO_VALUE, map.put(0L, 7));
+        assertEquals(7, map.get(0L));
+
+        for (int i = 1; i <= 10_000; i++) {
+            assertEquals(LongIntHashMap.NO_VALUE, map.put(IdentityKeyCodec.packMobile("90000" + String.format("%05d", i)), i));
+        }
+        assertEquals(10_001, map.size());
+        assertEquals(1234, map.get(IdentityKeyCodec.packMobile("9000001234")));
+        assertEquals(1234, map.put(IdentityKeyCodec.packMobile("9000001234"), -5));
+        assertEquals(-5, map.get(IdentityKeyCodec.packMobile("9000001234")));
+        assertEquals(10_001, map.size());
+    }
+
+    @Test
+    @DisplayName("Should keep every other key reachable after removals")
+    void shouldRemoveWithoutBreakingProbeChains() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 1_000; i += 3) {
+            assertEquals(i, map.remove(i));
+        }
+        assertEquals(LongIntHashMap.NO_VALUE, map.remove(3L));
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i % 3 == 0 ? LongIntHashMap.NO_VALUE : i, map.get(i));
+        }
+        assertEquals(666, map.size());
+    }
+}
@@ -0,0 +1,81 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InBatchClusterer}.
+ * Covers direct and transitive clustering, survivor selection and the 'Top-up loan' partition.
+ */
+class InBatchClustererTest {
+
+    private static final LocalDate DOB = LocalDate.of(1990, 1, 15);
+
+    @Test
+    @DisplayName("Should return no survivors for an empty batch")
+    void shouldHandleEmptyBatch() {
+        assertEquals(0, InBatchClusterer.clusterSurvivors(Collections.emptyList()).length);
+    }
+
+    @Test
+    @DisplayName("Should keep unrelated records as their own survivors")
+    void shouldKeepUnrelatedRecordsSeparate() {
+        Customer a = new Customer("ABCDE1234F", "111122223333", "9876543210", "John", "Doe", DOB, "CONSUMER_LOAN");
+        Customer b = new Customer("FGHIJ5678K", "444455556666", "9988776655", "Jane", "Smith", DOB, "CONSUMER_LOAN");
+
+        int[] survivors = InBatchClusterer.clusterSurvivors(Arrays.asList(a, b));
+
+        assertEquals(0, survivors[0]);
+        assertEquals(1, survivors[1]);
+    }
+
+    @Test
+    @DisplayName("Should cluster transitive duplicates under the earliest record")
+    void shouldClusterTransitiveDuplicates() {
+        Customer a = new Customer("ABCDE1234F", "111122223333", "9876543210", "John", "Doe", DOB, "CONSUMER_LOAN");
+        Customer unrelated = new Customer("ZZZZZ9999Z", "999988887777", "9000000000", "Jane", "Smith", DOB, "CONSUMER_LOAN");
+        // Matches a by PAN only.
+        Customer b = new Customer("abcde1234f", "444455556666", "9123456789", "Bob", "Brown", LocalDate.of(1980, 2, 2), "CONSUMER_LOAN");
+        // Matches b by Aadhaar only, never a directly.
+        Customer c = new Customer("KLMNO9012L", "444455556666", "9012345678", "Carl", "Grey", LocalDate.of(1970, 3, 3), "CONSUMER_LOAN");
+
+        int[] survivors = InBatchClusterer.clusterSurvivors(Arrays.asList(a, unrelated, b, c));
+
+        assertEquals(0, survivors[0]);
+        assertEquals(1, survivors[1]);
+        assertEquals(0, survivors[2]);
+        assertEquals(0, survivors[3], "Transitive duplicate should share the first record's cluster.");
+    }
+
+    @Test
+    @DisplayName("Should cluster by normalized name + DOB")
+    void shouldClusterByNameAndDob() {
+        Customer a = new Customer(null, null, null, "John", "Doe", DOB, "CONSUMER_LOAN");
+        Customer b = new Customer(null, null, null, " JOHN", "doe ", DOB, "CONSUMER_LOAN");
+
+        int[] survivors = InBatchClusterer.clusterSurvivors(Arrays.asList(a, b));
+
+        assertEquals(0, survivors[1]);
+    }
+
+    @Test
+    @DisplayName("Should cluster Top-up loan records only with other Top-up loan records")
+    void shouldSeparateTopUpFromOtherProducts() {
+        Customer topUp1 = new Customer("ABCDE1234F", null, null, "A", "B", DOB, "TOP_UP_LOAN");
+        Customer consumer = new Customer("ABCDE1234F", null, null, "A", "B", DOB, "CONSUMER_LOAN");
+        Customer topUp2 = new Customer("ABCDE1234F", null, null, "C", "D", DOB, "top_up_loan");
+
+        int[] survivors = InBatchClusterer.clusterSurvivors(Arrays.asList(topUp1, consumer, topUp2));
+
+        assertEquals(0, survivors[0]);
+        assertEquals(1, survivors[1], "Consumer loan record must not join the Top-up cluster.");
+        assertEquals(0, survivors[2]);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LiveBookIndex}.
+ * Verifies that blocking-key lookups return exactly the live book customers sharing a key with
+ * the probe, in live book order, using the same normalization as the {@link DeduplicationEngine} rules.
+ */
+class LiveBookIndexTest {
+
+    private Customer john;
+    private Customer jane;
+    private Customer johnAgain;
+    private LiveBookIndex index;
+
+    /**
+     * Builds a small live book where {@code john} and {@code johnAgain} share name + DOB.
+     */
+    @BeforeEach
+    void setUp() {
+        john = new Customer("ABCDE1234F", "123456789012", "9876543210", "John", "Doe", LocalDate.of(1980, 1, 1), "CONSUMER_LOAN");
+        jane = new Customer("FGHIJ5678K", "234567890123", "9988776655", "Jane", "Smith", LocalDate.of(1985, 5, 10), "CONSUMER_LOAN");
+        johnAgain = new Customer("PQRST3456M", "456789012345", "9012345678", " JOHN ", "doe", LocalDate.of(1980, 1, 1), "CONSUMER_LOAN");
+        index = LiveBookIndex.build(Arrays.asList(john, jane, johnAgain));
+    }
+
+    @Test
+    @DisplayName("Should return no candidates for an empty live book")
+    void shouldReturnNoCandidates_whenLiveBookEmpty() {
+        LiveBookIndex empty = LiveBookIndex.build(Collections.emptyList());
+        assertEquals(0, empty.size());
+        assertTrue(empty.candidatesFor(john).isEmpty());
+        assertTrue(LiveBookIndex.build(null).candidatesFor(john).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should resolve PAN case-insensitively")
+    void shouldResolvePanCaseInsensitively() {
+        Customer probe = new Customer("abcde1234f", null, null, "X", "Y", LocalDate.of(2000, 1, 1), "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(john), index.candidatesFor(probe));
+    }
+
+    @Test
+    @DisplayName("Should resolve Aadhaar and mobile by exact value")
+    void shouldResolveAadhaarAndMobileExactly() {
+        Customer byAadhaar = new Customer(null, "234567890123", null, "X", "Y", null, "CONSUMER_LOAN");
+        Customer byMobile = new Customer(null, null, "9012345678", "X", "Y", null, "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(jane), index.candidatesFor(byAadhaar));
+        assertEquals(Collections.singletonList(johnAgain), index.candidatesFor(byMobile));
+    }
+
+    @Test
+    @DisplayName("Should resolve trimmed, case-insensitive name + DOB to every sharing customer in live book order")
+    void shouldResolveNameAndDobInLiveBookOrder() {
+        Customer probe = new Customer(null, null, null, "john", "DOE ", LocalDate.of(1980, 1, 1), "CONSUMER_LOAN");
+        assertEquals(Arrays.asList(john, johnAgain), index.candidatesFor(probe));
+    }
+
+    @Test
+    @DisplayName("Should merge candidates from several keys without duplicates")
+    void shouldMergeCandidatesWithoutDuplicates() {
+        // Shares PAN with johnAgain, Aadhaar with jane and name + DOB with john and johnAgain.
+        Customer probe = new Customer("PQRST3456M", "234567890123", null, "John", "Doe", LocalDate.of(1980, 1, 1), "CONSUMER_LOAN");
+        assertEquals(Arrays.asList(john, jane, johnAgain), index.candidatesFor(probe));
+    }
+
+    @Test
+    @DisplayName("Should ignore blank identifiers")
+    void shouldIgnoreBlankIdentifiers() {
+        Customer probe = new Customer("  ", "", " ", null, "Doe", LocalDate.of(1980, 1, 1), "CONSUMER_LOAN");
+        assertTrue(index.candidatesFor(probe).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return same-DOB customers with a similar name as fuzzy candidates")
+    void shouldResolveFuzzyNameCandidates() {
+        Customer lakshmi = new Customer("LMNOP1111Q", null, null, "Lakshmi", "Narayanan", LocalDate.of(1990, 3, 15), "CONSUMER_LOAN");
+        Customer otherDob = new Customer("LMNOP2222Q", null, null, "Lakshmi", "Narayanan", LocalDate.of(1991, 3, 15), "CONSUMER_LOAN");
+        LiveBookIndex fuzzyIndex = LiveBookIndex.build(Arrays.asList(john, lakshmi, otherDob));
+
+        Customer probe = new Customer(null, null, null, "Laxmi", "Narayanan", LocalDate.of(1990, 3, 15), "CONSUMER_LOAN");
+        assertTrue(fuzzyIndex.candidatesFor(probe).isEmpty());
+        assertEquals(Collections.singletonList(lakshmi), fuzzyIndex.fuzzyNameCandidatesFor(probe));
+
+        Customer noDob = new Customer(null, null, null, "Laxmi", "Narayanan", null, "CONSUMER_LOAN");
+        assertTrue(fuzzyIndex.fuzzyNameCandidatesFor(noDob).isEmpty());
+    }
+}
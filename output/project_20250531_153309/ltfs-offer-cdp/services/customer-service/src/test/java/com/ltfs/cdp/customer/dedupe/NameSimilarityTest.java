@@ -0,0 +1,56 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NameSimilarity}.
+ */
+class NameSimilarityTest {
+
+    @Test
+    @DisplayName("Should normalize transliteration variants and abbreviations to the same form")
+    void shouldNormalizeTransliterationVariants() {
+        assertEquals(NameSimilarity.normalize("Lakshmi"), NameSimilarity.normalize("LAXMI"));
+        assertEquals(NameSimilarity.normalize("Mohammed"), NameSimilarity.normalize("Mohd."));
+        assertEquals(NameSimilarity.normalize("Muhammad"), NameSimilarity.normalize("Md"));
+        assertEquals(NameSimilarity.normalize("Vijay"), NameSimilarity.normalize("vijai"));
+        assertEquals("", NameSimilarity.normalize(" .- "));
+        assertEquals("lxm", NameSimilarity.phoneticCode(NameSimilarity.normalize("Lakshmi")));
+    }
+
+    @Test
+    @DisplayName("Should match spelling variants but not different names")
+    void shouldScoreNames() {
+        assertTrue(NameSimilarity.isFuzzyNameMatch("Mohammed", "Shaikh", "Mohd", "Sheikh"));
+        assertTrue(NameSimilarity.isFuzzyNameMatch("Laxmi", "Chowdhary", "Lakshmi", "Choudhary"));
+        assertTrue(NameSimilarity.isFuzzyNameMatch("Srinivasan", "Iyer", "Srinivasn", "Iyer"));
+        assertFalse(NameSimilarity.isFuzzyNameMatch("Rama", "Iyer", "Romi", "Iyer"));
+        assertFalse(NameSimilarity.isFuzzyNameMatch("Rahul", "Sharma", "Rohit", "Sharma"));
+        assertFalse(NameSimilarity.isFuzzyNameMatch("Rahul", null, "Rahul", "Sharma"));
+    }
+
+    @Test
+    @DisplayName("Should give similar names at least one shared LSH band")
+    void shouldShareBandsForSimilarNames() {
+        long[] a = NameSimilarity.bandSignatures(NameSimilarity.normalize("Srinivasan"), NameSimilarity.normalize("Iyer"));
+        long[] b = NameSimilarity.bandSignatures(NameSimilarity.normalize("Srinivasn"), NameSimilarity.normalize("Iyer"));
+        assertEquals(NameSimilarity.BANDS, a.length);
+        boolean shared = false;
+        for (int band = 0; band < NameSimilarity.BANDS; band++) {
+            shared |= a[band] == b[band];
+        }
+        assertTrue(shared);
+        assertArrayEquals(a, NameSimilarity.bandSignatures("srinivasan", "ier"));
+    }
+
+    @Test
+    @DisplayName("Should compute Jaro-Winkler similarity")
+    void shouldComputeJaroWinkler() {
+        assertEquals(1.0, NameSimilarity.jaroWinkler("martha", "martha"));
+        assertEquals(0.961, NameSimilarity.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.0, NameSimilarity.jaroWinkler("abc", "xyz"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.ExecutionMode;
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.InMemoryCustomerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PartitionedDeduplicator}.
+ * Verifies cross-partition reconciliation and that parallel execution yields exactly the sequential statuses.
+ */
+class PartitionedDeduplicatorTest {
+
+    private static final LocalDate DOB = LocalDate.of(1990, 1, 15);
+
+    @Test
+    @DisplayName("Should join clusters linked through a secondary key held in another partition")
+    void shouldReconcileAcrossPartitions() {
+        // a is partitioned by PAN, b by Aadhaar, c by name + DOB; the chain a~b~c only exists through secondary keys.
+        Customer a = new Customer("ABCDE1234F", "111122223333", null, "John", "Doe", DOB, "CONSUMER_LOAN");
+        Customer unrelated = new Customer("ZZZZZ9999Z", null, null, "Jane", "Smith", DOB, "CONSUMER_LOAN");
+        Customer b = new Customer(null, "111122223333", null, "Bob", "Brown", LocalDate.of(1980, 2, 2), "CONSUMER_LOAN");
+        Customer c = new Customer(null, null, null, "Bob", "Brown", LocalDate.of(1980, 2, 2), "CONSUMER_LOAN");
+        List<Customer> batch = Arrays.asList(a, unrelated, b, c);
+
+        for (int partitions = 1; partitions <= 8; partitions++) {
+            DedupeOutcome outcome = PartitionedDeduplicator.deduplicate(batch, customer -> Optional.empty(),
+                    ForkJoinPool.commonPool(), partitions);
+            assertArrayEquals(new int[]{0, 1, 0, 0}, survivors(outcome), "partitions=" + partitions);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep live book matches out of in-batch clusters")
+    void shouldExcludeLiveBookMatches() {
+        Customer existing = new Customer("ABCDE1234F", null, null, "John", "Doe", DOB, "CONSUMER_LOAN");
+        Customer first = new Customer("abcde1234f", "111122223333", null, "John", "Doe", DOB, "CONSUMER_LOAN");
+        Customer second = new Customer(null, "111122223333", null, "Jim", "Doe", DOB, "CONSUMER_LOAN");
+
+        DedupeOutcome outcome = PartitionedDeduplicator.deduplicate(Arrays.asList(first, second),
+                customer -> customer.getPan() != null ? Optional.of(existing) : Optional.empty(),
+                ForkJoinPool.commonPool(), 4);
+
+        assertSame(existing, outcome.liveBookMatch(0));
+        assertEquals(DedupeOutcome.NO_SURVIVOR, outcome.survivor(0));
+        assertEquals(1, outcome.survivor(1), "A record only linked to a live book duplicate is NEW.");
+    }
+
+    @Test
+    @DisplayName("Should assign the same statuses as sequential execution on random batches")
+    void shouldMatchSequentialStatuses() {
+        InMemoryCustomerRepository liveBook = new InMemoryCustomerRepository();
+        DeduplicationEngine sequential = new DeduplicationEngine(liveBook, null, ExecutionMode.SEQUENTIAL, 0, 0);
+        DeduplicationEngine parallel = new DeduplicationEngine(liveBook, null, ExecutionMode.PARALLEL, 7, 0);
+        Random random = new Random(7);
+
+        for (int round = 0; round < 20; round++) {
+            List<Customer> batch = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                batch.add(randomCustomer(random));
+            }
+            List<Customer> copy = new ArrayList<>();
+            for (Customer customer : batch) {
+                copy.add(copyOf(customer));
+            }
+
+            List<Customer> expected = sequential.deduplicateCustomers(batch);
+            List<Customer> actual = parallel.deduplicateCustomers(copy);
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+                assertEquals(expected.get(i).getStatus(), actual.get(i).getStatus(), "round " + round + ", position " + i);
+                assertEquals(expected.get(i).getCustomer360Id(), actual.get(i).getCustomer360Id());
+            }
+        }
+    }
+
+    private static Customer randomCustomer(Random random) {
+        String[] firstNames = {"John", "Jane", "Ravi", "Laxmi", "Lakshmi", "Mohd"};
+        Customer customer = new Customer(
+                random.nextInt(3) == 0 ? null : "ABCDE" + (1000 + random.nextInt(60)) + "F",
+                random.nextInt(3) == 0 ? null : "1234567890" + (10 + random.nextInt(60)),
+                "90000000" + random.nextInt(40),
+                firstNames[random.nextInt(firstNames.length)], random.nextBoolean() ? "Doe" : "Rao",
+                LocalDate.of(1980, 1, 1 + random.nextInt(5)),
+                random.nextInt(4) == 0 ? "TOP_UP_LOAN" : "CONSUMER_LOAN");
+        if (random.nextInt(20) == 0) {
+            customer.setPan("ABCDE1234F"); // Live book customer C360-001.
+        }
+        return customer;
+    }
+
+    private static Customer copyOf(Customer customer) {
+        Customer copy = new Customer(customer.getPan(), customer.getAadhaar(), customer.getMobileNumber(),
+                customer.getFirstName(), customer.getLastName(), customer.getDateOfBirth(), customer.getProductType());
+        copy.setId(UUID.fromString(customer.getId().toString()));
+        return copy;
+    }
+
+    private static int[] survivors(DedupeOutcome outcome) {
+        int[] survivors = new int[outcome.size()];
+        for (int i = 0; i < survivors.length; i++) {
+            survivors[i] = outcome.survivor(i);
+        }
+        return survivors;
+    }
+}
@@ -0,0 +1,247 @@
+package com.ltfs.cdp.customer.dedupe;
+
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.Customer;
+import com.ltfs.cdp.customer.dedupe.DeduplicationEngine.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ResidentLiveBookIndex}.
+ * Verifies bootstrap, incremental updates, the database consistency check, snapshot round trips
+ * and warm starts from a snapshot plus the delta since its watermark.
+ */
+class ResidentLiveBookIndexTest {
+
+    private static final long SAFETY_MARGIN_MILLIS = 60_000;
+    private static final Instant SNAPSHOT_TIME = Instant.parse("2025-05-01T10:00:00Z");
+
+    private MutableLiveBook liveBook;
+    private Customer john;
+    private Customer jane;
+
+    @BeforeEach
+    void setUp() {
+        john = new Customer("ABCDE1234F", "123456789012", "9876543210", "John", "Doe", LocalDate.of(1980, 1, 1), "CONSUMER_LOAN");
+        jane = new Customer("FGHIJ5678K", "234567890123", "9988776655", "Jane", "Smith", LocalDate.of(1985, 5, 10), "CONSUMER_LOAN");
+        john.setUpdatedAt(SNAPSHOT_TIME.minusSeconds(3600));
+        jane.setUpdatedAt(SNAPSHOT_TIME);
+        liveBook = new MutableLiveBook(new ArrayList<>(Arrays.asList(john, jane)));
+    }
+
+    @Test
+    @DisplayName("Should bootstrap from the database and follow creates, updates and deletes")
+    void shouldFollowIncrementalChanges() {
+        ResidentLiveBookIndex index = new ResidentLiveBookIndex(liveBook, true, "", SAFETY_MARGIN_MILLIS);
+        assertFalse(index.isReady());
+        index.bootstrap();
+        assertTrue(index.isReady());
+        assertEquals(2, index.size());
+
+        Customer panProbe = new Customer("abcde1234f", null, null, "X", "Y", null, "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(john.getId()), ids(index.candidatesFor(panProbe)));
+
+        // John changes PAN: the old key must stop matching, the new one must start.
+        john.setPan("ZZZZZ9999Z");
+        index.refresh(john.getId().toString());
+        assertTrue(index.candidatesFor(panProbe).isEmpty());
+        Customer newPanProbe = new Customer("ZZZZZ9999Z", null, null, "X", "Y", null, "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(john.getId()), ids(index.candidatesFor(newPanProbe)));
+
+        Customer created = new Customer("KLMNO9012L", null, "9988776655", "Laxmi", "Rao", LocalDate.of(1990, 1, 1), "CONSUMER_LOAN");
+        liveBook.customers.add(created);
+        index.refresh(created.getId().toString());
+        Customer mobileProbe = new Customer(null, null, "9988776655", "X", "Y", null, "CONSUMER_LOAN");
+        assertEquals(Arrays.asList(jane.getId(), created.getId()), ids(index.candidatesFor(mobileProbe)));
+        Customer fuzzyProbe = new Customer(null, null, null, "Lakshmi", "Rao", LocalDate.of(1990, 1, 1), "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(created.getId()), ids(index.fuzzyNameCandidatesFor(fuzzyProbe)));
+
+        liveBook.customers.remove(jane);
+        index.refresh(jane.getId().toString());
+        assertEquals(Collections.singletonList(created.getId()), ids(index.candidatesFor(mobileProbe)));
+        assertEquals(2, index.size());
+        assertTrue(index.verifyAgainstDatabase());
+    }
+
+    @Test
+    @DisplayName("Should rebuild when the database changed behind the index's back")
+    void shouldRebuildWhenInconsistent() {
+        ResidentLiveBookIndex index = new ResidentLiveBookIndex(liveBook, true, "", SAFETY_MARGIN_MILLIS);
+        index.bootstrap();
+
+        jane.setMobileNumber("9000000000"); // No event for this change.
+        assertFalse(index.verifyAgainstDatabase());
+        Customer probe = new Customer(null, null, "9000000000", "X", "Y", null, "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(jane.getId()), ids(index.candidatesFor(probe)));
+        assertTrue(index.verifyAgainstDatabase());
+    }
+
+    @Test
+    @DisplayName("Should restore the same contents from a snapshot without reading the database")
+    void shouldRoundTripSnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("live-book-index");
+        Path snapshot = directory.resolve("index.snapshot");
+        jane.setCustomer360Id("C360-002");
+        jane.setDateOfBirth(null);
+
+        ResidentLiveBookIndex original = new ResidentLiveBookIndex(liveBook, true, snapshot.toString(), SAFETY_MARGIN_MILLIS);
+        original.bootstrap();
+        assertTrue(Files.isRegularFile(snapshot));
+
+        MutableLiveBook unreachable = new MutableLiveBook(Collections.emptyList()) {
+            @Override
+            public List<Customer> findAll() {
+                throw new AssertionError("The database must not be scanned when a snapshot exists");
+            }
+        };
+        ResidentLiveBookIndex restored = new ResidentLiveBookIndex(unreachable, true, snapshot.toString(), SAFETY_MARGIN_MILLIS);
+        restored.bootstrap();
+        assertEquals(2, restored.size());
+
+        Customer probe = new Customer(null, "234567890123", null, "X", "Y", null, "CONSUMER_LOAN");
+        Customer restoredJane = restored.candidatesFor(probe).get(0);
+        assertEquals(jane.getId(), restoredJane.getId());
+        assertEquals("C360-002", restoredJane.getCustomer360Id());
+        assertNull(restoredJane.getDateOfBirth());
+        assertEquals(ResidentLiveBookIndex.identityDigest(jane), ResidentLiveBookIndex.identityDigest(restoredJane));
+    }
+
+    @Test
+    @DisplayName("Should warm start from a snapshot and pick up only the changes after its watermark")
+    void shouldApplyDeltaSinceSnapshotWatermark() throws IOException {
+        Path snapshot = Files.createTempDirectory("live-book-index").resolve("index.snapshot");
+        new ResidentLiveBookIndex(liveBook, true, snapshot.toString(), SAFETY_MARGIN_MILLIS).bootstrap();
+
+        // Changes made while the instance was down.
+        john.setMobileNumber("9000000001");
+        john.setUpdatedAt(SNAPSHOT_TIME.plusSeconds(600));
+        Customer created = new Customer("KLMNO9012L", null, "9000000002", "Laxmi", "Rao", LocalDate.of(1990, 1, 1), "CONSUMER_LOAN");
+        created.setUpdatedAt(SNAPSHOT_TIME.plusSeconds(60));
+        liveBook.customers.add(created);
+
+        List<Instant> deltaRequests = new ArrayList<>();
+        MutableLiveBook deltaOnly = new MutableLiveBook(liveBook.customers) {
+            @Override
+            public List<Customer> findAll() {
+                throw new AssertionError("The database must not be scanned when a snapshot exists");
+            }
+
+            @Override
+            public List<Customer> findByUpdatedAtAfter(Instant watermark) {
+                deltaRequests.add(watermark);
+                return super.findByUpdatedAtAfter(watermark);
+            }
+        };
+        ResidentLiveBookIndex restored = new ResidentLiveBookIndex(deltaOnly, true, snapshot.toString(), SAFETY_MARGIN_MILLIS);
+        restored.bootstrap();
+
+        assertTrue(restored.isReady());
+        assertEquals(Collections.singletonList(SNAPSHOT_TIME.minusMillis(SAFETY_MARGIN_MILLIS)), deltaRequests);
+        assertEquals(3, restored.size());
+        Customer oldMobileProbe = new Customer(null, null, "9876543210", "X", "Y", null, "CONSUMER_LOAN");
+        assertTrue(restored.candidatesFor(oldMobileProbe).isEmpty());
+        Customer newMobileProbe = new Customer(null, null, "9000000001", "X", "Y", null, "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(john.getId()), ids(restored.candidatesFor(newMobileProbe)));
+        Customer fuzzyProbe = new Customer(null, null, null, "Lakshmi", "Rao", LocalDate.of(1990, 1, 1), "CONSUMER_LOAN");
+        assertEquals(Collections.singletonList(created.getId()), ids(restored.fuzzyNameCandidatesFor(fuzzyProbe)));
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the database when the snapshot is unreadable")
+    void shouldRebuildWhenSnapshotIsCorrupt() throws IOException {
+        Path snapshot = Files.createTempDirectory("live-book-index").resolve("index.snapshot");
+        Files.write(snapshot, new byte[]{1, 2, 3});
+
+        ResidentLiveBookIndex index = new ResidentLiveBookIndex(liveBook, true, snapshot.toString(), SAFETY_MARGIN_MILLIS);
+        index.bootstrap();
+
+        assertTrue(index.isReady());
+        assertEquals(2, index.size());
+        assertEquals(2, LiveBookSnapshot.read(snapshot).customers.size());
+    }
+
+    @Test
+    @DisplayName("Should return the same candidates as a freshly built index after random updates")
+    void shouldMatchFreshIndexAfterRandomUpdates() {
+        Random random = new Random(42);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            customers.add(randomCustomer(random));
+        }
+        liveBook = new MutableLiveBook(customers);
+        ResidentLiveBookIndex index = new ResidentLiveBookIndex(liveBook, true, "", SAFETY_MARGIN_MILLIS);
+        index.bootstrap();
+
+        for (int i = 0; i < 500; i++) {
+            Customer target = customers.get(random.nextInt(customers.size()));
+            target.setMobileNumber("90000000" + random.nextInt(20));
+            target.setPan(random.nextBoolean() ? null : "ABCDE" + (1000 + random.nextInt(20)) + "F");
+            index.upsert(target);
+        }
+
+        LiveBookIndex fresh = LiveBookIndex.build(customers);
+        for (int i = 0; i < 200; i++) {
+            Customer probe = randomCustomer(random);
+            assertEquals(ids(fresh.candidatesFor(probe)), ids(index.candidatesFor(probe)));
+            assertEquals(ids(fresh.fuzzyNameCandidatesFor(probe)), ids(index.fuzzyNameCandidatesFor(probe)));
+        }
+    }
+
+    private static Customer randomCustomer(Random random) {
+        String[] firstNames = {"Laxmi", "Lakshmi", "Ravi", "Mohd", "Mohammed", "Priya"};
+        return new Customer(
+                random.nextInt(3) == 0 ? null : "ABCDE" + (1000 + random.nextInt(20)) + "F",
+                "1234567890" + (10 + random.nextInt(20)),
+                "90000000" + random.nextInt(20),
+                firstNames[random.nextInt(firstNames.length)], "Rao",
+                LocalDate.of(1990, 1, 1 + random.nextInt(3)), "CONSUMER_LOAN");
+    }
+
+    private static List<Object> ids(List<Customer> customers) {
+        List<Object> ids = new ArrayList<>();
+        for (Customer customer : customers) {
+            ids.add(customer.getId());
+        }
+        return ids;
+    }
+
+    private static class MutableLiveBook implements CustomerRepository {
+        final List<Customer> customers;
+
+        MutableLiveBook(List<Customer> customers) {
+            this.customers = customers;
+        }
+
+        @Override
+        public List<Customer> findAll() {
+            return new ArrayList<>(customers);
+        }
+
+        @Override
+        public Optional<Customer> findById(String id) {
+            return customers.stream().filter(c -> c.getId().toString().equals(id)).findFirst();
+        }
+
+        @Override
+        public List<Customer> findByUpdatedAtAfter(Instant watermark) {
+            return customers.stream()
+                    .filter(c -> c.getUpdatedAt() == null || c.getUpdatedAt().isAfter(watermark))
+                    .collect(Collectors.toList());
+        }
+    }
+}
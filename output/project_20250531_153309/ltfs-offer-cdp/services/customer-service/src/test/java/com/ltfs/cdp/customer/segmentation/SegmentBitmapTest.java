@@ -0,0 +1,116 @@
+package com.ltfs.cdp.customer.segmentation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SegmentBitmap}, checked against {@link TreeSet} across array and bitmap containers.
+ */
+class SegmentBitmapTest {
+
+    @Test
+    @DisplayName("Should add, remove and count ordinals across container conversions")
+    void shouldTrackMembership() {
+        SegmentBitmap bitmap = new SegmentBitmap();
+        for (int i = 0; i < 10_000; i += 2) {
+            bitmap.add(i);
+        }
+        bitmap.add(1 << 20);
+        assertEquals(5001, bitmap.cardinality());
+        assertTrue(bitmap.contains(9998));
+        assertFalse(bitmap.contains(9999));
+        assertTrue(bitmap.contains(1 << 20));
+
+        for (int i = 0; i < 10_000; i += 4) {
+            bitmap.remove(i);
+        }
+        bitmap.remove(1 << 20);
+        assertEquals(2500, bitmap.cardinality());
+        assertFalse(bitmap.contains(0));
+        assertTrue(bitmap.contains(2));
+
+        bitmap.add(2);
+        assertEquals(2500, bitmap.cardinality());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+
+    @Test
+    @DisplayName("Should combine bitmaps like sets, for sparse and dense members")
+    void shouldMatchSetAlgebra() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Integer> left = randomSet(random);
+            TreeSet<Integer> right = randomSet(random);
+            SegmentBitmap leftBitmap = toBitmap(left);
+            SegmentBitmap rightBitmap = toBitmap(right);
+
+            TreeSet<Integer> and = new TreeSet<>(left);
+            and.retainAll(right);
+            TreeSet<Integer> or = new TreeSet<>(left);
+            or.addAll(right);
+            TreeSet<Integer> andNot = new TreeSet<>(left);
+            andNot.removeAll(right);
+
+            assertArrayEquals(toArray(and), leftBitmap.and(rightBitmap).page(-1, Integer.MAX_VALUE));
+            assertArrayEquals(toArray(or), leftBitmap.or(rightBitmap).page(-1, Integer.MAX_VALUE));
+            assertArrayEquals(toArray(andNot), leftBitmap.andNot(rightBitmap).page(-1, Integer.MAX_VALUE));
+            assertEquals(and.size(), leftBitmap.and(rightBitmap).cardinality());
+            // The operands are left untouched.
+            assertEquals(left.size(), leftBitmap.cardinality());
+            assertEquals(right.size(), rightBitmap.cardinality());
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through ordinals in ascending order after a cursor")
+    void shouldPage() {
+        Random random = new Random(7);
+        TreeSet<Integer> members = randomSet(random);
+        SegmentBitmap bitmap = toBitmap(members);
+
+        TreeSet<Integer> seen = new TreeSet<>();
+        int after = -1;
+        int[] page;
+        while ((page = bitmap.page(after, 1000)).length > 0) {
+            assertTrue(page.length <= 1000);
+            assertEquals((int) members.higher(after), page[0]);
+            Arrays.stream(page).forEach(seen::add);
+            after = page[page.length - 1];
+        }
+        assertEquals(members, seen);
+    }
+
+    private static TreeSet<Integer> randomSet(Random random) {
+        TreeSet<Integer> set = new TreeSet<>();
+        // A sparse chunk, a dense chunk and a chunk around the 4096 member conversion point.
+        int sparse = random.nextInt(500);
+        int dense = 20_000 + random.nextInt(20_000);
+        int boundary = 4_000 + random.nextInt(200);
+        for (int i = 0; i < sparse; i++) {
+            set.add(random.nextInt(65_536));
+        }
+        for (int i = 0; i < dense; i++) {
+            set.add(65_536 + random.nextInt(65_536));
+        }
+        for (int i = 0; i < boundary; i++) {
+            set.add(3 * 65_536 + random.nextInt(8_192));
+        }
+        return set;
+    }
+
+    private static SegmentBitmap toBitmap(TreeSet<Integer> set) {
+        SegmentBitmap bitmap = new SegmentBitmap();
+        set.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.ltfs.cdp.customer.segmentation;
+
+import com.ltfs.cdp.customer.dto.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.ltfs.cdp.customer.segmentation.CustomerSegmenter.ACTIVE_LOAN_HOLDER;
+import static com.ltfs.cdp.customer.segmentation.CustomerSegmenter.HIGH_VALUE_CUSTOMER;
+import static com.ltfs.cdp.customer.segmentation.CustomerSegmenter.LOYAL_CUSTOMER;
+import static com.ltfs.cdp.customer.segmentation.CustomerSegmenter.SENIOR_CITIZEN;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SegmentMembershipIndex} and the {@link SegmentQuery} expressions it answers.
+ */
+class SegmentMembershipIndexTest {
+
+    private SegmentMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SegmentMembershipIndex(new CustomerSegmenter());
+        // Customer i is loyal if i % 2 == 0, an active loan holder if i % 3 == 0 and senior if i % 5 == 0.
+        for (int i = 0; i < 30_000; i++) {
+            index.update("CUST" + i, segmentsOf(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer AND / NOT queries with the matching customers")
+    void shouldAnswerConjunctionWithNegation() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            if (i % 2 == 0 && i % 3 == 0 && i % 5 != 0) {
+                expected.add("CUST" + i);
+            }
+        }
+
+        String query = "Loyal Customer AND Active Loan Holder AND NOT Senior Citizen";
+        assertEquals(expected.size(), index.count(query));
+        assertEquals(expected, readAll(query, 777));
+        assertEquals(index.count("(Loyal Customer OR Senior Citizen) AND NOT Active Loan Holder"),
+                index.count("NOT Active Loan Holder AND NOT (NOT Loyal Customer AND NOT Senior Citizen)"));
+        assertEquals(0, index.count(HIGH_VALUE_CUSTOMER));
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals in query results")
+    void shouldReflectUpdates() {
+        long loyal = index.count(LOYAL_CUSTOMER);
+        index.update("CUST1", Set.of(LOYAL_CUSTOMER));
+        index.update("CUST2", Set.of(SENIOR_CITIZEN));
+        index.update("NEW", Set.of(LOYAL_CUSTOMER, "Premium Segment"));
+        index.remove("CUST4");
+        index.remove("UNKNOWN");
+
+        // CUST1 and NEW joined, CUST2 left and CUST4 was removed.
+        assertEquals(loyal, index.count(LOYAL_CUSTOMER));
+        assertTrue(index.query(LOYAL_CUSTOMER, null, 30_000).getItems().containsAll(List.of("CUST1", "NEW")));
+        assertEquals(List.of("NEW"), index.query("Premium Segment", null, 10).getItems());
+        assertFalse(index.query("NOT Loyal Customer", null, 30_001).getItems().contains("CUST4"));
+        assertEquals(30_000, index.count("Loyal Customer OR NOT Loyal Customer"));
+        assertEquals(Long.valueOf(loyal), index.segmentSizes().get(LOYAL_CUSTOMER));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed queries, unknown segments and bad cursors")
+    void shouldRejectMalformedQueries() {
+        assertThrows(IllegalArgumentException.class, () -> index.count(""));
+        assertThrows(IllegalArgumentException.class, () -> index.count("Loyal Customer AND"));
+        assertThrows(IllegalArgumentException.class, () -> index.count("(Loyal Customer"));
+        assertThrows(IllegalArgumentException.class, () -> index.count("Loyal Customer Senior Citizen"));
+        assertThrows(IllegalArgumentException.class, () -> index.count("AND " + ACTIVE_LOAN_HOLDER));
+        assertThrows(IllegalArgumentException.class, () -> index.query(LOYAL_CUSTOMER, "abc", 10));
+        assertThrows(IllegalArgumentException.class, () -> index.query(LOYAL_CUSTOMER, null, 0));
+    }
+
+    private List<String> readAll(String query, int pageSize) {
+        List<String> customerIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<String> page = index.query(query, cursor, pageSize);
+            assertTrue(page.getItems().size() <= pageSize);
+            customerIds.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            assertEquals(cursor != null, page.isHasMore());
+        } while (cursor != null);
+        return customerIds;
+    }
+
+    private static Set<String> segmentsOf(int i) {
+        Set<String> segments = new HashSet<>();
+        if (i % 2 == 0) {
+            segments.add(LOYAL_CUSTOMER);
+        }
+        if (i % 3 == 0) {
+            segments.add(ACTIVE_LOAN_HOLDER);
+        }
+        if (i % 5 == 0) {
+            segments.add(SENIOR_CITIZEN);
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ltfs.cdp.customer.segmentation;
+
+import com.ltfs.cdp.customer.model.Customer;
+import com.ltfs.cdp.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.ltfs.cdp.customer.segmentation.CustomerSegmenter.GENERAL_CUSTOMER;
+import static com.ltfs.cdp.customer.segmentation.CustomerSegmenter.SENIOR_CITIZEN;
+import static com.ltfs.cdp.customer.segmentation.CustomerSegmenter.YOUNG_PROFESSIONAL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SegmentMembershipIndexUpdater}: the startup load and the refresh of single customers.
+ */
+@ExtendWith(MockitoExtension.class)
+class SegmentMembershipIndexUpdaterTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SegmentMembershipIndex index;
+    private Customer senior;
+    private Customer young;
+    private Customer inactive;
+
+    @BeforeEach
+    void setUp() {
+        index = new SegmentMembershipIndex(new CustomerSegmenter());
+        senior = customer(LocalDate.of(1950, 6, 1), true);
+        young = customer(LocalDate.of(2000, 6, 1), true);
+        inactive = customer(LocalDate.of(1955, 6, 1), false);
+    }
+
+    @Test
+    @DisplayName("Should load every active customer on startup, segmented by the age derived from the date of birth")
+    void shouldLoadActiveCustomers() {
+        when(customerRepository.streamAllOrderById()).thenReturn(Stream.of(senior, young, inactive));
+
+        updater(true).load();
+
+        assertEquals(1, index.count(SENIOR_CITIZEN));
+        assertEquals(1, index.count(YOUNG_PROFESSIONAL));
+        assertEquals(2, index.count(SENIOR_CITIZEN + " OR " + YOUNG_PROFESSIONAL + " OR " + GENERAL_CUSTOMER));
+        assertEquals(senior.getId().toString(), index.query(SENIOR_CITIZEN, null, 10).getItems().get(0));
+        verify(entityManager, times(3)).detach(any());
+    }
+
+    @Test
+    @DisplayName("Should re-segment created and updated customers, and remove deleted and deactivated ones")
+    void shouldRefreshCustomers() {
+        when(customerRepository.streamAllOrderById()).thenReturn(Stream.of(senior, young));
+        SegmentMembershipIndexUpdater updater = updater(true);
+        updater.load();
+
+        // The young customer was deleted, the senior one deactivated, and the inactive one reactivated.
+        when(customerRepository.findOneById(young.getId())).thenReturn(Optional.empty());
+        senior.setIsActive(false);
+        when(customerRepository.findOneById(senior.getId())).thenReturn(Optional.of(senior));
+        inactive.setIsActive(true);
+        when(customerRepository.findOneById(inactive.getId())).thenReturn(Optional.of(inactive));
+
+        // Without a transaction, each customer is refreshed at once.
+        updater.refreshAfterCommit(young.getId().toString());
+        updater.refreshAfterCommit(senior.getId().toString());
+        updater.refreshAfterCommit(inactive.getId().toString());
+
+        assertEquals(0, index.count(YOUNG_PROFESSIONAL));
+        assertEquals(1, index.count(SENIOR_CITIZEN));
+        assertEquals(inactive.getId().toString(), index.query(SENIOR_CITIZEN, null, 10).getItems().get(0));
+    }
+
+    @Test
+    @DisplayName("Should neither load nor refresh customers when disabled")
+    void shouldDoNothingWhenDisabled() {
+        SegmentMembershipIndexUpdater updater = updater(false);
+
+        updater.load();
+        updater.refreshAfterCommit(senior.getId().toString());
+
+        verify(customerRepository, never()).streamAllOrderById();
+        verify(customerRepository, never()).findOneById(any());
+        assertEquals(0, index.count(SENIOR_CITIZEN + " OR " + GENERAL_CUSTOMER));
+    }
+
+    private SegmentMembershipIndexUpdater updater(boolean enabled) {
+        SegmentMembershipIndexUpdater updater = new SegmentMembershipIndexUpdater(index, customerRepository,
+                new NoOpTransactionManager(), enabled, CLOCK);
+        ReflectionTestUtils.setField(updater, "entityManager", entityManager);
+        return updater;
+    }
+
+    private static Customer customer(LocalDate dateOfBirth, boolean active) {
+        return Customer.builder().id(UUID.randomUUID()).dateOfBirth(dateOfBirth).isActive(active).build();
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
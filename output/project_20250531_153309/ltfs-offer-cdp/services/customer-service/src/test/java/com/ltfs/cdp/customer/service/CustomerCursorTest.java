@@ -0,0 +1,77 @@
+package com.ltfs.cdp.customer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CustomerCursor}: encoding, decoding and rejection of foreign cursors.
+ */
+class CustomerCursorTest {
+
+    private static final UUID ID = UUID.fromString("3f2504e0-4f89-11d3-9a0c-0305e82c3301");
+
+    @Test
+    @DisplayName("Should round-trip an id cursor through its URL-safe encoding")
+    void shouldRoundTripIdCursor() {
+        CustomerCursor cursor = CustomerCursor.afterId(ID);
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+        assertEquals(cursor, CustomerCursor.decode(encoded, CustomerCursor.SortKey.ID));
+    }
+
+    @Test
+    @DisplayName("Should round-trip an update time cursor with nanosecond precision")
+    void shouldRoundTripUpdatedAtCursor() {
+        Instant updatedAt = Instant.parse("2025-05-31T15:33:09.123456789Z");
+        CustomerCursor cursor = CustomerCursor.afterUpdatedAt(updatedAt, ID);
+
+        CustomerCursor decoded = CustomerCursor.decode(cursor.encode(), CustomerCursor.SortKey.UPDATED_AT);
+
+        assertEquals(updatedAt, decoded.getUpdatedAt());
+        assertEquals(ID, decoded.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor created for another sort")
+    void shouldRejectCursorOfAnotherSort() {
+        String encoded = CustomerCursor.afterId(ID).encode();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CustomerCursor.decode(encoded, CustomerCursor.SortKey.UPDATED_AT));
+        assertTrue(e.getMessage().contains("sort"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void shouldRejectMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode("not base64!", CustomerCursor.SortKey.ID));
+        assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode(encode("v1|ID"), CustomerCursor.SortKey.ID));
+        assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode(encode("v2|ID|" + ID), CustomerCursor.SortKey.ID));
+        assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode(encode("v1|ID|42"), CustomerCursor.SortKey.ID));
+        assertThrows(IllegalArgumentException.class,
+                () -> CustomerCursor.decode(encode("v1|UPDATED_AT|yesterday|" + ID), CustomerCursor.SortKey.UPDATED_AT));
+    }
+
+    @Test
+    @DisplayName("Should resolve the supported sort parameters and reject others")
+    void shouldResolveSortParameters() {
+        assertEquals(CustomerCursor.SortKey.ID, CustomerCursor.SortKey.fromParameter(null));
+        assertEquals(CustomerCursor.SortKey.ID, CustomerCursor.SortKey.fromParameter("id"));
+        assertEquals(CustomerCursor.SortKey.UPDATED_AT, CustomerCursor.SortKey.fromParameter("updatedAt"));
+        assertEquals(CustomerCursor.SortKey.UPDATED_AT, CustomerCursor.SortKey.fromParameter("updated_at"));
+        assertThrows(IllegalArgumentException.class, () -> CustomerCursor.SortKey.fromParameter("firstName"));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
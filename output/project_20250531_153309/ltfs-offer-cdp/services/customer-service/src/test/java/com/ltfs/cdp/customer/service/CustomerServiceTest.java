@@ -6,6 +6,7 @@ import com.ltfs.cdp.customer.exception.DuplicateCustomerException;
 import com.ltfs.cdp.customer.mapper.CustomerMapper;
 import com.ltfs.cdp.customer.model.Customer;
 import com.ltfs.cdp.customer.repository.CustomerRepository;
+import com.ltfs.cdp.customer.segmentation.SegmentMembershipIndexUpdater;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +37,9 @@ class CustomerServiceTest {
     @Mock
     private DeduplicationService deduplicationService;
 
+    @Mock
+    private SegmentMembershipIndexUpdater segmentMembershipIndexUpdater;
+
     @InjectMocks
     private CustomerService customerService;
 
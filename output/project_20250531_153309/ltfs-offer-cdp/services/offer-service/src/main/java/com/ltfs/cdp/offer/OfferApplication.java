@@ -3,6 +3,7 @@ package com.ltfs.cdp.offer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 /**
  * Main Spring Boot application class for the Offer Service.
@@ -22,9 +23,14 @@ import org.springframework.context.annotation.ComponentScan;
  * The `@ComponentScan` is explicitly added here to ensure that all necessary components
  * within the `com.ltfs.cdp.offer` package and its sub-packages are discovered and registered
  * as Spring beans.
+ *
+ * `@EnableAsync` runs `@Async` methods such as the `OfferEventListener` handlers on the
+ * application task executor: a thread pool by default, or a new virtual thread per task when the
+ * `virtual-threads` profile is active (see `application-virtual-threads.yml`).
  */
 @SpringBootApplication
 @ComponentScan(basePackages = "com.ltfs.cdp.offer")
+@EnableAsync
 public class OfferApplication {
 
     /**
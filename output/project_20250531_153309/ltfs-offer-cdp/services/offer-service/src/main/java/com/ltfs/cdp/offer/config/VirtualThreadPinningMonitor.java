@@ -0,0 +1,112 @@
+package com.ltfs.cdp.offer.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * VirtualThreadPinningMonitor reports virtual threads that block while pinned to their carrier
+ * thread, i.e. inside a {@code synchronized} block or method, or below a native frame.
+ *
+ * A pinned virtual thread holds its carrier for the whole blocking call, like a platform thread
+ * would; with only as many carriers as CPU cores, a few pinned JDBC calls (e.g. from a driver or
+ * library that guards its socket with {@code synchronized}) stall every other request. Such code
+ * is the first thing to replace with {@link java.util.concurrent.locks.ReentrantLock} when moving
+ * to virtual threads.
+ *
+ * The monitor streams the JDK Flight Recorder event {@code jdk.VirtualThreadPinned} for pins longer
+ * than {@code offer.virtual-threads.pinning-monitor.threshold}. Each pin is recorded in the timer
+ * {@code offer.virtual-threads.pinned}; the first pin at each code location is logged with its stack.
+ *
+ * Active only when the application runs on virtual threads ({@code spring.threads.virtual.enabled}
+ * on Java 21).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+    private RecordingStream recordingStream;
+
+    /**
+     * Constructs the monitor.
+     *
+     * @param meterRegistry The registry the pinning timer is registered with.
+     * @param threshold     The shortest pin reported.
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${offer.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Timer.builder("offer.virtual-threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Monitoring virtual threads pinned for longer than {}.", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        String location = location(stackTrace.getFrames().get(0));
+        if (reportedLocations.add(location)) {
+            log.warn("Virtual thread {} was pinned to its carrier for {} ms at {}; further pins there are only counted.{}",
+                    event.getThread() != null ? event.getThread().getJavaName() : "?",
+                    event.getDuration().toMillis(), location, format(stackTrace));
+        }
+    }
+
+    private static String location(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        StringBuilder frames = new StringBuilder();
+        int count = Math.min(LOGGED_FRAMES, stackTrace.getFrames().size());
+        for (int i = 0; i < count; i++) {
+            frames.append(System.lineSeparator()).append("\tat ").append(location(stackTrace.getFrames().get(i)));
+        }
+        if (stackTrace.isTruncated() || stackTrace.getFrames().size() > count) {
+            frames.append(System.lineSeparator()).append("\t...");
+        }
+        return frames.toString();
+    }
+}